@@ -1,6 +1,8 @@
 package io.github.twwch.markdown2office;
 
 import io.github.twwch.markdown2office.converter.Converter;
+import io.github.twwch.markdown2office.daemon.ConversionDaemon;
+import io.github.twwch.markdown2office.daemon.DaemonClient;
 import io.github.twwch.markdown2office.model.FileType;
 
 import java.io.*;
@@ -93,9 +95,18 @@ public class Markdown2Office {
     }
     
     public static void main(String[] args) {
+        if (args.length >= 1 && "--daemon".equals(args[0])) {
+            runDaemon(args);
+            return;
+        }
+        
+        if (args.length >= 1 && "--client".equals(args[0])) {
+            runClient(args);
+            return;
+        }
+        
         if (args.length < 2) {
-            System.out.println("Usage: java -jar markdown2office.jar <input.md> <output.ext>");
-            System.out.println("Supported output formats: .docx, .xlsx, .pdf, .txt, .md");
+            printUsage();
             System.exit(1);
         }
         
@@ -109,4 +120,73 @@ public class Markdown2Office {
             System.exit(1);
         }
     }
+    
+    private static void printUsage() {
+        System.out.println("Usage: java -jar markdown2office.jar <input.md> <output.ext>");
+        System.out.println("       java -jar markdown2office.jar --daemon [port]");
+        System.out.println("       java -jar markdown2office.jar --client [--port <port>] <input.md> <output.ext> [format]");
+        System.out.println("Supported output formats: .docx, .xlsx, .pdf, .txt, .md");
+        System.out.println("The daemon runs jobs as the user who started it and only accepts clients that present");
+        System.out.println("the token it writes to " + ConversionDaemon.DEFAULT_TOKEN_DIRECTORY.resolve("daemon-<port>.token")
+            + " (readable by that user only)");
+    }
+    
+    /**
+     * Parse a port argument, printing the usage and exiting when it is not a valid port
+     */
+    private static int parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.err.println("Invalid port: " + value);
+        printUsage();
+        System.exit(1);
+        return -1;
+    }
+    
+    private static void runDaemon(String[] args) {
+        int port = args.length >= 2 ? parsePort(args[1]) : ConversionDaemon.DEFAULT_PORT;
+        try (ConversionDaemon daemon = new ConversionDaemon(port)) {
+            daemon.warmUp();
+            daemon.start();
+            System.out.println("Conversion daemon listening on port " + daemon.getPort());
+            System.out.println("Clients authenticate with the token in " + daemon.getTokenFile());
+            daemon.awaitTermination();
+        } catch (Exception e) {
+            System.err.println("Daemon failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    private static void runClient(String[] args) {
+        int port = ConversionDaemon.DEFAULT_PORT;
+        int index = 1;
+        if (args.length > 2 && "--port".equals(args[1])) {
+            port = parsePort(args[2]);
+            index = 3;
+        }
+        
+        if (args.length - index < 2) {
+            printUsage();
+            System.exit(1);
+        }
+        
+        String format = args.length - index >= 3 ? args[index + 2] : null;
+        try (DaemonClient client = new DaemonClient(port)) {
+            String response = client.convert(args[index], args[index + 1], format);
+            if (!response.startsWith("OK")) {
+                System.err.println("Conversion failed: " + response);
+                System.exit(1);
+            }
+            System.out.println("Conversion successful: " + args[index] + " -> " + args[index + 1]);
+        } catch (IOException e) {
+            System.err.println("Cannot reach conversion daemon on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
 }
\ No newline at end of file
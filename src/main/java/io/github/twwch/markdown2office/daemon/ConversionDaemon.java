@@ -0,0 +1,387 @@
+package io.github.twwch.markdown2office.daemon;
+
+import io.github.twwch.markdown2office.Markdown2Office;
+import io.github.twwch.markdown2office.model.FileType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived conversion server that keeps one JVM (and its loaded POI, iText,
+ * PDFBox and font state) warm across many conversions.
+ *
+ * The daemon listens on a loopback port and accepts newline-delimited jobs:
+ * <pre>
+ *   &lt;input&gt; &lt;output&gt; [format]
+ * </pre>
+ * Fields are separated by a tab when the line contains one (so paths may contain
+ * spaces), otherwise by whitespace. {@code format} is an output extension such as
+ * {@code docx} or {@code pdf}; when omitted it is taken from the output path.
+ * Each job is answered with a single line, either {@code OK <output>} or
+ * {@code ERROR <message>}. The line {@code PING} is answered with {@code PONG}.
+ *
+ * Jobs read and write any path the daemon's user can, so every connection must first
+ * send {@code AUTH <token>}, answered with {@code OK}. The token is random per start and
+ * written to {@link #tokenFile(Path, int)}, readable only by the owner where the file
+ * system supports POSIX permissions. A connection that does not authenticate, or does not
+ * send its first line within {@link #AUTH_TIMEOUT_MILLIS}, is closed.
+ *
+ * Each connection is served by its own lightweight thread, so idle clients never delay
+ * others; the conversions themselves run on a fixed pool of worker threads.
+ */
+public class ConversionDaemon implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversionDaemon.class);
+
+    /**
+     * Port used when none is given on the command line
+     */
+    public static final int DEFAULT_PORT = 47821;
+
+    /**
+     * Directory the token file is written to unless another is given
+     */
+    public static final Path DEFAULT_TOKEN_DIRECTORY = Paths.get(System.getProperty("user.home"), ".markdown2office");
+
+    /**
+     * Time a new connection has to send its {@code AUTH} line
+     */
+    public static final int AUTH_TIMEOUT_MILLIS = 10_000;
+
+    private static final String AUTH_PREFIX = "AUTH ";
+
+    private static final String WARM_UP_MARKDOWN = "# Warm-up\n\n" +
+            "Paragraph with **bold**, *italic* and `code`. 中文字体预热。\n\n" +
+            "- item 1\n- item 2\n\n" +
+            "| A | B |\n|---|---|\n| 1 | 2 |\n\n" +
+            "```java\nSystem.out.println(\"warm\");\n```\n";
+
+    private final Markdown2Office converter;
+    private final int requestedPort;
+    private final Path tokenDirectory;
+    private final String token;
+    private final ExecutorService workers;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket serverSocket;
+    private volatile boolean running;
+
+    public ConversionDaemon() {
+        this(DEFAULT_PORT);
+    }
+
+    /**
+     * @param port loopback port to listen on, or 0 to pick a free port
+     */
+    public ConversionDaemon(int port) {
+        this(new Markdown2Office(), port, Runtime.getRuntime().availableProcessors(), DEFAULT_TOKEN_DIRECTORY);
+    }
+
+    /**
+     * @param converter converter shared by all jobs
+     * @param port loopback port to listen on, or 0 to pick a free port
+     * @param workerThreads number of conversions run concurrently
+     * @param tokenDirectory directory the token file is written to
+     */
+    public ConversionDaemon(Markdown2Office converter, int port, int workerThreads, Path tokenDirectory) {
+        if (converter == null) {
+            throw new IllegalArgumentException("Converter cannot be null");
+        }
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("Worker thread count must be positive");
+        }
+        if (tokenDirectory == null) {
+            throw new IllegalArgumentException("Token directory cannot be null");
+        }
+        this.converter = converter;
+        this.requestedPort = port;
+        this.tokenDirectory = tokenDirectory;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "markdown2office-daemon-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the token file of the daemon on a port
+     * @param tokenDirectory directory the daemon writes its token to
+     * @param port the daemon port
+     * @return the token file path
+     */
+    public static Path tokenFile(Path tokenDirectory, int port) {
+        return tokenDirectory.resolve("daemon-" + port + ".token");
+    }
+
+    /**
+     * Bind the loopback socket, write the token file and start accepting jobs in a
+     * background thread.
+     * @throws IOException if the port cannot be bound or the token file cannot be written
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Daemon is already running");
+        }
+        serverSocket = new ServerSocket(requestedPort, 50, InetAddress.getLoopbackAddress());
+        try {
+            writeTokenFile(getTokenFile());
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        running = true;
+
+        Thread acceptor = new Thread(this::acceptLoop, "markdown2office-daemon-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        logger.info("Conversion daemon listening on {}:{}",
+            serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+    }
+
+    /**
+     * Run one throw-away conversion per output format so that class loading,
+     * font initialisation and the first JIT tier happen before real jobs arrive.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        for (FileType fileType : FileType.values()) {
+            try {
+                converter.convert(WARM_UP_MARKDOWN, fileType, OutputStream.nullOutputStream());
+            } catch (Exception e) {
+                logger.warn("Warm-up conversion to {} failed: {}", fileType, e.getMessage());
+            }
+        }
+        logger.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Get the port the daemon is bound to
+     * @return the bound port, or -1 if the daemon has not been started
+     */
+    public int getPort() {
+        ServerSocket socket = serverSocket;
+        return socket != null ? socket.getLocalPort() : -1;
+    }
+
+    /**
+     * Get the token file clients read to authenticate
+     * @return the token file, or null if the daemon has not been started
+     */
+    public Path getTokenFile() {
+        int port = getPort();
+        return port >= 0 ? tokenFile(tokenDirectory, port) : null;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Block the calling thread until the daemon is closed
+     */
+    public void awaitTermination() throws InterruptedException {
+        while (running) {
+            synchronized (this) {
+                wait(1000);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Path tokenFile = getTokenFile();
+        try {
+            serverSocket.close();
+        } finally {
+            for (Socket connection : connections) {
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close connection: {}", e.getMessage());
+                }
+            }
+            workers.shutdownNow();
+            notifyAll();
+            Files.deleteIfExists(tokenFile);
+        }
+    }
+
+    /**
+     * Write the token to a new file that only the owner can read
+     */
+    private void writeTokenFile(Path file) throws IOException {
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            if (!Files.isDirectory(tokenDirectory)) {
+                Files.createDirectories(tokenDirectory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            }
+            Files.deleteIfExists(file);
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createDirectories(tokenDirectory);
+            Files.deleteIfExists(file);
+            Files.createFile(file);
+            File f = file.toFile();
+            f.setReadable(false, false);
+            f.setWritable(false, false);
+            f.setReadable(true, true);
+            f.setWritable(true, true);
+        }
+        Files.write(file, token.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setSoTimeout(AUTH_TIMEOUT_MILLIS);
+                connections.add(socket);
+                Thread connection = new Thread(() -> serve(socket), "markdown2office-daemon-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (SocketException e) {
+                if (running) {
+                    logger.error("Conversion daemon socket failed: {}", e.getMessage());
+                }
+                return;
+            } catch (IOException e) {
+                logger.warn("Failed to accept connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(
+                 new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            boolean authenticated = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (!authenticated) {
+                    authenticated = authenticate(line);
+                    writer.write(authenticated ? "OK\n" : "ERROR authentication required\n");
+                    writer.flush();
+                    if (!authenticated) {
+                        logger.warn("Rejected unauthenticated connection from {}", s.getRemoteSocketAddress());
+                        return;
+                    }
+                    // An authenticated client may keep its connection open between jobs
+                    s.setSoTimeout(0);
+                    continue;
+                }
+                writer.write(handle(line));
+                writer.write("\n");
+                writer.flush();
+            }
+        } catch (IOException e) {
+            logger.debug("Connection closed: {}", e.getMessage());
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Check an {@code AUTH <token>} line in constant time
+     */
+    private boolean authenticate(String line) {
+        if (!line.startsWith(AUTH_PREFIX)) {
+            return false;
+        }
+        byte[] presented = line.substring(AUTH_PREFIX.length()).trim().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(presented, token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Execute a single job line on the worker pool and build its response line
+     */
+    String handle(String line) {
+        if ("PING".equals(line.trim())) {
+            return "PONG";
+        }
+
+        String[] fields = line.indexOf('\t') >= 0 ? line.split("\t") : line.trim().split("\\s+");
+        if (fields.length < 2 || fields.length > 3) {
+            return "ERROR expected '<input> <output> [format]' but got: " + line;
+        }
+
+        String input = fields[0].trim();
+        String output = fields[1].trim();
+        String format = fields.length == 3 ? fields[2].trim() : "";
+        try {
+            Future<?> job = workers.submit(() -> {
+                if (!format.isEmpty()) {
+                    converter.convertFile(input, FileType.fromExtension(format), output);
+                } else {
+                    converter.convertFile(input, output);
+                }
+                return null;
+            });
+            job.get();
+            logger.debug("Converted {} -> {}", input, output);
+            return "OK " + output;
+        } catch (RejectedExecutionException e) {
+            return "ERROR daemon is shutting down";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR interrupted";
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("Job '{}' failed: {}", line, cause.getMessage());
+            String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            return "ERROR " + message.replace('\n', ' ');
+        } catch (Exception e) {
+            logger.warn("Job '{}' failed: {}", line, e.getMessage());
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return "ERROR " + message.replace('\n', ' ');
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.twwch.markdown2office.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Thin client that forwards conversion jobs to a running {@link ConversionDaemon}.
+ * One client keeps its connection open, so scripts can submit many jobs over it.
+ * The connection is authenticated with the daemon's token before any job is sent.
+ */
+public class DaemonClient implements Closeable {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    /**
+     * Connect to a daemon on the loopback interface, reading its token from the default token directory
+     * @param port the daemon port
+     * @throws IOException if the token cannot be read, no daemon is listening on the port or it rejects the token
+     */
+    public DaemonClient(int port) throws IOException {
+        this(port, readToken(ConversionDaemon.tokenFile(ConversionDaemon.DEFAULT_TOKEN_DIRECTORY, port)));
+    }
+
+    /**
+     * Connect to a daemon on the loopback interface
+     * @param port the daemon port
+     * @param token the daemon's token
+     * @throws IOException if no daemon is listening on the port or it rejects the token
+     */
+    public DaemonClient(int port, String token) throws IOException {
+        this.socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            String response = send("AUTH " + token);
+            if (!"OK".equals(response)) {
+                throw new IOException("Daemon rejected the token: " + response);
+            }
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the token a daemon wrote to its token file
+     * @param tokenFile the token file, see {@link ConversionDaemon#tokenFile}
+     * @return the token
+     * @throws IOException if the file cannot be read
+     */
+    public static String readToken(Path tokenFile) throws IOException {
+        try {
+            return new String(Files.readAllBytes(tokenFile), StandardCharsets.US_ASCII).trim();
+        } catch (NoSuchFileException e) {
+            throw new IOException("No daemon token at " + tokenFile + "; is the daemon running?", e);
+        }
+    }
+
+    /**
+     * Submit a job and wait for it to finish. Relative paths are resolved against
+     * the client's working directory, since the daemon's may differ.
+     * @param inputPath markdown input path
+     * @param outputPath output path
+     * @param format output extension, or null to use the output path's extension
+     * @return the daemon's response line ({@code OK ...} or {@code ERROR ...})
+     * @throws IOException if the connection fails
+     */
+    public String convert(String inputPath, String outputPath, String format) throws IOException {
+        StringBuilder job = new StringBuilder();
+        job.append(Paths.get(inputPath).toAbsolutePath()).append('\t')
+           .append(Paths.get(outputPath).toAbsolutePath());
+        if (format != null && !format.isEmpty()) {
+            job.append('\t').append(format);
+        }
+        return send(job.toString());
+    }
+
+    /**
+     * Check whether the daemon is responsive
+     * @return true if the daemon answered PONG
+     */
+    public boolean ping() throws IOException {
+        return "PONG".equals(send("PING"));
+    }
+
+    private String send(String line) throws IOException {
+        writer.write(line);
+        writer.write("\n");
+        writer.flush();
+        String response = reader.readLine();
+        if (response == null) {
+            throw new IOException("Daemon closed the connection");
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,391 @@
+package io.github.twwch.markdown2office.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Compact, column-oriented storage for the rows of a {@link ParsedDocument.ParsedTable}.
+ *
+ * Cells are stored per column instead of one list per row: integer columns as a
+ * {@code long[]}, repetitive text columns as {@code int} codes into a per-column
+ * dictionary, and columns with mostly distinct values as plain string arrays. Rows are
+ * exposed as {@code List<String>} views created on access, so the data can be used wherever
+ * a {@code List<List<String>>} is expected. Rows may differ in length.
+ *
+ * Rows can be appended at the end, replaced with {@link #set(int, List)} and removed. Cells
+ * can be changed through a row view with {@code set}, which moves the column to a more
+ * general storage when the new value needs it, but a row view cannot grow or shrink.
+ * Not thread-safe while rows are changed.
+ */
+public final class ColumnarTableData extends AbstractList<List<String>> implements RandomAccess {
+    
+    /**
+     * How the cells of a column are stored
+     */
+    public enum Storage {
+        /** Every value is an integer without leading zeros, kept in a long array */
+        LONG,
+        /** Values are int codes into a dictionary of distinct strings */
+        DICTIONARY,
+        /** Values are kept as the original strings */
+        RAW
+    }
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    // A dictionary is dropped once it has more entries than this and than half the rows
+    private static final int DICTIONARY_MIN_SIZE = 256;
+    
+    private Column[] columns = new Column[0];
+    private int[] rowLengths = new int[INITIAL_CAPACITY];
+    private int size;
+    
+    public ColumnarTableData() {
+    }
+    
+    /**
+     * Create a table holding a copy of the given rows
+     * @param rows the rows to copy
+     */
+    public ColumnarTableData(Collection<? extends List<String>> rows) {
+        addAll(rows);
+    }
+    
+    @Override
+    public List<String> get(int index) {
+        Objects.checkIndex(index, size);
+        return new RowView(index);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Append a row; the cells are copied into the column storage
+     * @param row the cells of the row, may contain null
+     * @return true
+     */
+    @Override
+    public boolean add(List<String> row) {
+        int length = row.size();
+        ensureCapacity(size + 1);
+        if (length > columns.length) {
+            addColumns(length);
+        }
+        for (int column = 0; column < length; column++) {
+            columns[column].set(size, row.get(column));
+        }
+        rowLengths[size] = length;
+        size++;
+        modCount++;
+        return true;
+    }
+    
+    /**
+     * Replace a row; the cells are copied into the column storage
+     * @param index the row index
+     * @param row the new cells, may differ in length from the old row
+     * @return a copy of the old row
+     */
+    @Override
+    public List<String> set(int index, List<String> row) {
+        Objects.checkIndex(index, size);
+        List<String> previous = Arrays.asList(get(index).toArray(new String[0]));
+        int length = row.size();
+        if (length > columns.length) {
+            addColumns(length);
+        }
+        for (int column = 0; column < length; column++) {
+            columns[column].replace(index, row.get(column));
+        }
+        rowLengths[index] = length;
+        return previous;
+    }
+    
+    /**
+     * Remove a row, moving the rows after it up
+     * @param index the row index
+     * @return a copy of the removed row
+     */
+    @Override
+    public List<String> remove(int index) {
+        Objects.checkIndex(index, size);
+        List<String> removed = Arrays.asList(get(index).toArray(new String[0]));
+        for (Column column : columns) {
+            column.remove(index, size);
+        }
+        System.arraycopy(rowLengths, index + 1, rowLengths, index, size - index - 1);
+        size--;
+        modCount++;
+        return removed;
+    }
+    
+    @Override
+    public void clear() {
+        columns = new Column[0];
+        rowLengths = new int[INITIAL_CAPACITY];
+        size = 0;
+        modCount++;
+    }
+    
+    /**
+     * Append a row given as an array
+     * @param cells the cells of the row
+     * @return true
+     */
+    public boolean addRow(String... cells) {
+        return add(Arrays.asList(cells));
+    }
+    
+    /**
+     * Get one cell without creating a row view
+     * @param row the row index
+     * @param column the column index
+     * @return the cell value
+     */
+    public String getCell(int row, int column) {
+        Objects.checkIndex(row, size);
+        Objects.checkIndex(column, rowLengths[row]);
+        return columns[column].get(row);
+    }
+    
+    /**
+     * @return the number of columns, which is the length of the longest row
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+    
+    /**
+     * @param column the column index
+     * @return how the column is currently stored
+     */
+    public Storage getStorage(int column) {
+        return columns[column].storage;
+    }
+    
+    /**
+     * Release unused capacity once all rows have been added
+     */
+    public void trimToSize() {
+        if (rowLengths.length > size) {
+            resize(size);
+        }
+    }
+    
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > rowLengths.length) {
+            resize(Math.max(minCapacity, rowLengths.length + (rowLengths.length >> 1)));
+        }
+    }
+    
+    private void resize(int capacity) {
+        rowLengths = Arrays.copyOf(rowLengths, capacity);
+        for (Column column : columns) {
+            column.resize(capacity);
+        }
+    }
+    
+    private void addColumns(int count) {
+        int existing = columns.length;
+        columns = Arrays.copyOf(columns, count);
+        for (int i = existing; i < count; i++) {
+            columns[i] = new Column(rowLengths.length);
+        }
+    }
+    
+    /**
+     * View of one row; cells can be replaced but not added or removed
+     */
+    private final class RowView extends AbstractList<String> implements RandomAccess {
+        private final int row;
+        
+        RowView(int row) {
+            this.row = row;
+        }
+        
+        @Override
+        public String get(int index) {
+            return getCell(row, index);
+        }
+        
+        @Override
+        public String set(int index, String value) {
+            String previous = getCell(row, index);
+            columns[index].replace(row, value);
+            return previous;
+        }
+        
+        @Override
+        public int size() {
+            return rowLengths[row];
+        }
+    }
+    
+    /**
+     * Cells of one column. Cells of rows that are shorter than the column index are never
+     * read, so they may hold any value.
+     */
+    private static final class Column {
+        private Storage storage = Storage.LONG;
+        private long[] longs;
+        private int[] codes;
+        private String[] values;
+        private Map<String, Integer> dictionaryIndex;
+        private String[] dictionary;
+        private int dictionarySize;
+        private int filled;
+        
+        Column(int capacity) {
+            longs = new long[capacity];
+        }
+        
+        String get(int row) {
+            switch (storage) {
+                case LONG:
+                    return Long.toString(longs[row]);
+                case DICTIONARY:
+                    int code = codes[row];
+                    return code < 0 ? null : dictionary[code];
+                default:
+                    return values[row];
+            }
+        }
+        
+        void set(int row, String value) {
+            // Rows are appended in order, so every row before this one is filled
+            filled = row + 1;
+            store(row, value);
+        }
+        
+        /**
+         * Change the cell of a row that was already added
+         */
+        void replace(int row, String value) {
+            if (row >= filled) {
+                // The row was shorter than this column, so the cells up to it are unused
+                filled = row + 1;
+            }
+            store(row, value);
+        }
+        
+        /**
+         * Move the cells after a removed row up by one
+         */
+        void remove(int row, int size) {
+            int moved = size - row - 1;
+            if (longs != null) {
+                System.arraycopy(longs, row + 1, longs, row, moved);
+            }
+            if (codes != null) {
+                System.arraycopy(codes, row + 1, codes, row, moved);
+            }
+            if (values != null) {
+                System.arraycopy(values, row + 1, values, row, moved);
+                values[size - 1] = null;
+            }
+            if (filled > row) {
+                filled--;
+            }
+        }
+        
+        private void store(int row, String value) {
+            if (storage == Storage.LONG) {
+                if (value != null && isCanonicalLong(value)) {
+                    longs[row] = Long.parseLong(value);
+                    return;
+                }
+                toDictionary(filled);
+            }
+            if (storage == Storage.DICTIONARY) {
+                codes[row] = code(value);
+                if (dictionarySize > DICTIONARY_MIN_SIZE && dictionarySize * 2 > filled) {
+                    toRaw(filled);
+                }
+                return;
+            }
+            values[row] = value;
+        }
+        
+        void resize(int capacity) {
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, capacity);
+            }
+            if (codes != null) {
+                codes = Arrays.copyOf(codes, capacity);
+            }
+            if (values != null) {
+                values = Arrays.copyOf(values, capacity);
+            }
+        }
+        
+        private int code(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                if (dictionarySize == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+                }
+                code = dictionarySize;
+                dictionary[dictionarySize++] = value;
+                dictionaryIndex.put(value, code);
+            }
+            return code;
+        }
+        
+        private void toDictionary(int rows) {
+            storage = Storage.DICTIONARY;
+            codes = new int[longs.length];
+            dictionary = new String[INITIAL_CAPACITY];
+            dictionaryIndex = new HashMap<>();
+            for (int row = 0; row < rows; row++) {
+                codes[row] = code(Long.toString(longs[row]));
+            }
+            longs = null;
+        }
+        
+        private void toRaw(int rows) {
+            storage = Storage.RAW;
+            values = new String[codes.length];
+            for (int row = 0; row < rows; row++) {
+                int code = codes[row];
+                values[row] = code < 0 ? null : dictionary[code];
+            }
+            codes = null;
+            dictionary = null;
+            dictionaryIndex = null;
+        }
+        
+        /**
+         * True when the value round-trips through {@link Long#toString(long)}
+         */
+        private static boolean isCanonicalLong(String value) {
+            int length = value.length();
+            int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+            // 18 digits always fit in a long
+            if (length == start || length - start > 18) {
+                return false;
+            }
+            if (value.charAt(start) == '0') {
+                return length == 1;
+            }
+            for (int i = start; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package io.github.twwch.markdown2office.parser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Detects the content type of a document from its leading bytes.
+ *
+ * Only the head of the content is read (once), and no parsing library is loaded,
+ * so the result can be used to choose a parser before any parser exists.
+ * Recognised containers:
+ * <ul>
+ *   <li>OLE2 (DOC, XLS, PPT) - identified by the stream names in the directory</li>
+ *   <li>OOXML zip (DOCX, XLSX, PPTX) - identified by {@code [Content_Types].xml} or part names</li>
+ *   <li>ODF / EPUB zip - identified by the {@code mimetype} entry</li>
+ *   <li>{@code %PDF}, {@code {\rtf}, Excel 2003 XML (SpreadsheetML), generic XML, HTML and plain text</li>
+ * </ul>
+ */
+public final class ContentSniffer {
+    
+    /**
+     * Number of leading bytes inspected for stream input
+     */
+    public static final int HEAD_SIZE = 64 * 1024;
+    
+    public static final String PDF = "application/pdf";
+    public static final String DOC = "application/msword";
+    public static final String XLS = "application/vnd.ms-excel";
+    public static final String PPT = "application/vnd.ms-powerpoint";
+    public static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    public static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    public static final String PPTX = "application/vnd.openxmlformats-officedocument.presentationml.presentation";
+    public static final String SPREADSHEET_ML = "application/vnd.ms-spreadsheetml";
+    public static final String RTF = "application/rtf";
+    public static final String OLE2 = "application/x-tika-msoffice";
+    public static final String OOXML = "application/x-tika-ooxml";
+    public static final String ZIP = "application/zip";
+    public static final String XML = "application/xml";
+    public static final String HTML = "text/html";
+    public static final String TEXT = "text/plain";
+    
+    /**
+     * Types that only describe a container or an encoding. They are used when the
+     * file name has no extension, but never override one.
+     */
+    private static final Set<String> GENERIC_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        OLE2, OOXML, ZIP, XML, HTML, TEXT)));
+    
+    private static final byte[] OLE2_SIGNATURE = {
+        (byte) 0xD0, (byte) 0xCF, (byte) 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, (byte) 0x1A, (byte) 0xE1
+    };
+    private static final int ZIP_LOCAL_HEADER = 0x04034b50;
+    private static final int OLE2_END_OF_CHAIN = -2;
+    private static final int OLE2_MAX_DIRECTORY_SECTORS = 64;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final int PDF_SIGNATURE_WINDOW = 1024;
+    
+    private ContentSniffer() {
+    }
+    
+    /**
+     * Check whether a detected type is only a container or encoding
+     * @param mimeType detected type
+     * @return true if the file extension should take precedence
+     */
+    public static boolean isGeneric(String mimeType) {
+        return mimeType == null || GENERIC_TYPES.contains(mimeType);
+    }
+    
+    /**
+     * Detect the content type of a file. Reads the head, and for OLE2 and zip
+     * containers whose type is not visible in the head, the directory of the file.
+     * @param file the file to inspect
+     * @return the detected MIME type, or null if unknown
+     * @throws IOException if the file cannot be read
+     */
+    public static String detect(File file) throws IOException {
+        byte[] head = new byte[(int) Math.min(HEAD_SIZE, Math.max(0, file.length()))];
+        int length;
+        try (InputStream in = new FileInputStream(file)) {
+            length = readFully(in, head);
+        }
+        
+        String type = detect(head, length);
+        if (OLE2.equals(type)) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                String resolved = detectOle2(head, length, (offset, buffer) -> {
+                    if (offset < 0 || offset + buffer.length > raf.length()) {
+                        return false;
+                    }
+                    raf.seek(offset);
+                    raf.readFully(buffer);
+                    return true;
+                });
+                return resolved != null ? resolved : type;
+            }
+        }
+        if (ZIP.equals(type) || OOXML.equals(type)) {
+            String resolved = detectZipFile(file);
+            return resolved != null ? resolved : type;
+        }
+        return type;
+    }
+    
+    /**
+     * Detect the content type of a stream without consuming it.
+     * The stream must support {@link InputStream#mark(int)}; it is reset before returning.
+     * @param in the stream to inspect
+     * @return the detected MIME type, or null if unknown
+     * @throws IOException if the stream cannot be read
+     */
+    public static String detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("InputStream must support mark/reset for content detection");
+        }
+        byte[] head = new byte[HEAD_SIZE];
+        in.mark(HEAD_SIZE);
+        int length;
+        try {
+            length = readFully(in, head);
+        } finally {
+            in.reset();
+        }
+        return detect(head, length);
+    }
+    
+    /**
+     * Detect the content type from leading bytes
+     * @param head buffer holding the first bytes of the content
+     * @param length number of valid bytes in the buffer
+     * @return the detected MIME type, or null if unknown
+     */
+    public static String detect(byte[] head, int length) {
+        if (length <= 0) {
+            return null;
+        }
+        
+        if (startsWith(head, length, OLE2_SIGNATURE)) {
+            String type = detectOle2(head, length, (offset, buffer) -> {
+                if (offset < 0 || offset + buffer.length > length) {
+                    return false;
+                }
+                System.arraycopy(head, (int) offset, buffer, 0, buffer.length);
+                return true;
+            });
+            return type != null ? type : OLE2;
+        }
+        
+        if (length >= 4 && readInt(head, 0) == ZIP_LOCAL_HEADER) {
+            return detectZipHead(head, length);
+        }
+        
+        if (isPdf(head, length)) {
+            return PDF;
+        }
+        
+        if (!looksLikeText(head, length)) {
+            return null;
+        }
+        
+        String text = decodeHead(head, length);
+        String trimmed = text.trim();
+        if (trimmed.startsWith("{\\rtf")) {
+            return RTF;
+        }
+        
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("<?xml")) {
+            if (lower.contains("urn:schemas-microsoft-com:office:spreadsheet") ||
+                lower.contains("progid=\"excel.sheet\"")) {
+                return SPREADSHEET_ML;
+            }
+            if (lower.contains("<html")) {
+                return HTML;
+            }
+            return XML;
+        }
+        if (lower.startsWith("<!doctype html") || lower.startsWith("<html")) {
+            return HTML;
+        }
+        return TEXT;
+    }
+    
+    /**
+     * Reads the sector of an OLE2 container starting at the given absolute offset
+     */
+    private interface SectorReader {
+        boolean read(long offset, byte[] buffer) throws IOException;
+    }
+    
+    /**
+     * Walk the OLE2 directory chain and look for the stream that identifies the application
+     */
+    private static String detectOle2(byte[] header, int length, SectorReader reader) {
+        if (length < 512) {
+            return null;
+        }
+        int sectorShift = readShort(header, 0x1E);
+        if (sectorShift < 7 || sectorShift > 16) {
+            return null;
+        }
+        int sectorSize = 1 << sectorShift;
+        int entriesPerFatSector = sectorSize / 4;
+        byte[] sector = new byte[sectorSize];
+        byte[] fatSector = new byte[sectorSize];
+        
+        int current = readInt(header, 0x30);
+        try {
+            for (int visited = 0; current >= 0 && visited < OLE2_MAX_DIRECTORY_SECTORS; visited++) {
+                if (!reader.read(((long) current + 1) << sectorShift, sector)) {
+                    return null;
+                }
+                for (int entry = 0; entry + 128 <= sectorSize; entry += 128) {
+                    String type = applicationForStream(readDirectoryName(sector, entry));
+                    if (type != null) {
+                        return type;
+                    }
+                }
+                
+                // Next directory sector from the FAT; only the header DIFAT (109 entries) is consulted
+                int fatIndex = current / entriesPerFatSector;
+                if (fatIndex >= 109) {
+                    return null;
+                }
+                int fatSectorNumber = readInt(header, 0x4C + fatIndex * 4);
+                if (fatSectorNumber < 0 || !reader.read(((long) fatSectorNumber + 1) << sectorShift, fatSector)) {
+                    return null;
+                }
+                int next = readInt(fatSector, (current % entriesPerFatSector) * 4);
+                if (next == OLE2_END_OF_CHAIN) {
+                    return null;
+                }
+                current = next;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+    
+    private static String readDirectoryName(byte[] sector, int entry) {
+        int nameBytes = readShort(sector, entry + 0x40);
+        if (nameBytes < 2 || nameBytes > 64) {
+            return "";
+        }
+        return new String(sector, entry, nameBytes - 2, StandardCharsets.UTF_16LE);
+    }
+    
+    private static String applicationForStream(String name) {
+        switch (name) {
+            case "WordDocument":
+                return DOC;
+            case "Workbook":
+            case "WORKBOOK":
+            case "Book":
+                return XLS;
+            case "PowerPoint Document":
+                return PPT;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Inspect the local file headers visible in the head of a zip archive
+     */
+    private static String detectZipHead(byte[] head, int length) {
+        int offset = 0;
+        while (offset + 30 <= length && readInt(head, offset) == ZIP_LOCAL_HEADER) {
+            int flags = readShort(head, offset + 6);
+            int method = readShort(head, offset + 8);
+            long compressedSize = readInt(head, offset + 18) & 0xFFFFFFFFL;
+            int nameLength = readShort(head, offset + 26);
+            int extraLength = readShort(head, offset + 28);
+            int dataStart = offset + 30 + nameLength + extraLength;
+            if (dataStart > length) {
+                break;
+            }
+            String name = new String(head, offset + 30, nameLength, StandardCharsets.UTF_8);
+            
+            String type = typeForPartName(name);
+            if (type != null) {
+                return type;
+            }
+            if ("mimetype".equals(name) && method == 0) {
+                int end = (int) Math.min(length, dataStart + compressedSize);
+                return new String(head, dataStart, end - dataStart, StandardCharsets.US_ASCII).trim();
+            }
+            if ("[Content_Types].xml".equals(name)) {
+                String contentTypes = readEntryText(head, dataStart, length, method, compressedSize);
+                type = typeForContentTypes(contentTypes);
+                if (type != null) {
+                    return type;
+                }
+            }
+            
+            // Sizes are unknown when a data descriptor follows the entry
+            if ((flags & 0x08) != 0) {
+                break;
+            }
+            offset = (int) Math.min(Integer.MAX_VALUE, dataStart + compressedSize);
+        }
+        return ZIP;
+    }
+    
+    private static String readEntryText(byte[] head, int dataStart, int length, int method, long compressedSize) {
+        int available = (int) Math.min(length - dataStart, compressedSize > 0 ? compressedSize : length - dataStart);
+        if (method == 0) {
+            return new String(head, dataStart, available, StandardCharsets.UTF_8);
+        }
+        if (method != 8) {
+            return "";
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(head, dataStart, available);
+            byte[] out = new byte[16 * 1024];
+            int produced = 0;
+            while (produced < out.length && !inflater.finished() && !inflater.needsInput()) {
+                produced += inflater.inflate(out, produced, out.length - produced);
+            }
+            return new String(out, 0, produced, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            return "";
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static String detectZipFile(File file) {
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry mimetype = zip.getEntry("mimetype");
+            if (mimetype != null) {
+                try (InputStream in = zip.getInputStream(mimetype)) {
+                    byte[] buffer = new byte[256];
+                    int read = readFully(in, buffer);
+                    return new String(buffer, 0, read, StandardCharsets.US_ASCII).trim();
+                }
+            }
+            boolean ooxml = false;
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                String type = typeForPartName(name);
+                if (type != null) {
+                    return type;
+                }
+                ooxml |= "[Content_Types].xml".equals(name);
+            }
+            return ooxml ? OOXML : ZIP;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private static String typeForPartName(String name) {
+        if (name.startsWith("word/")) {
+            return DOCX;
+        }
+        if (name.startsWith("xl/")) {
+            return XLSX;
+        }
+        if (name.startsWith("ppt/")) {
+            return PPTX;
+        }
+        return null;
+    }
+    
+    private static String typeForContentTypes(String contentTypes) {
+        if (contentTypes.contains("wordprocessingml.document.main") || contentTypes.contains("wordprocessingml.template.main")) {
+            return DOCX;
+        }
+        if (contentTypes.contains("spreadsheetml.sheet.main") || contentTypes.contains("spreadsheetml.template.main") ||
+            contentTypes.contains("ms-excel.sheet.macroEnabled.main")) {
+            return XLSX;
+        }
+        if (contentTypes.contains("presentationml.presentation.main") || contentTypes.contains("presentationml.template.main") ||
+            contentTypes.contains("ms-powerpoint.presentation.macroEnabled.main")) {
+            return PPTX;
+        }
+        return contentTypes.isEmpty() ? null : OOXML;
+    }
+    
+    /**
+     * The {@code %PDF-} header starts the content, after an optional UTF-8 BOM and whitespace.
+     * Readers also accept a header preceded by junk, so a later header within the window is
+     * honoured only when the bytes before it are not text; a text file that mentions the
+     * header stays text.
+     */
+    private static boolean isPdf(byte[] head, int length) {
+        byte[] signature = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+        int start = startsWith(head, length, UTF8_BOM) ? UTF8_BOM.length : 0;
+        while (start < length && isAsciiWhitespace(head[start])) {
+            start++;
+        }
+        if (startsWith(head, start, length, signature)) {
+            return true;
+        }
+        int offset = indexOf(head, Math.min(length, PDF_SIGNATURE_WINDOW), signature);
+        return offset > 0 && !looksLikeText(head, offset);
+    }
+    
+    private static boolean isAsciiWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f';
+    }
+    
+    /**
+     * Text has no NUL bytes, unless it is UTF-16 with a byte order mark
+     */
+    private static boolean looksLikeText(byte[] head, int length) {
+        if (length >= 2 && ((head[0] == (byte) 0xFF && head[1] == (byte) 0xFE) ||
+                            (head[0] == (byte) 0xFE && head[1] == (byte) 0xFF))) {
+            return true;
+        }
+        int control = 0;
+        for (int i = 0; i < length; i++) {
+            int b = head[i] & 0xFF;
+            if (b == 0) {
+                return false;
+            }
+            if (b < 0x09 || (b > 0x0D && b < 0x20 && b != 0x1B)) {
+                control++;
+            }
+        }
+        return control * 100 < length * 5;
+    }
+    
+    private static String decodeHead(byte[] head, int length) {
+        if (length >= 2 && head[0] == (byte) 0xFF && head[1] == (byte) 0xFE) {
+            return new String(head, 2, length - 2, StandardCharsets.UTF_16LE);
+        }
+        if (length >= 2 && head[0] == (byte) 0xFE && head[1] == (byte) 0xFF) {
+            return new String(head, 2, length - 2, StandardCharsets.UTF_16BE);
+        }
+        // Only the markup prefix matters, so the charset of the remaining bytes is irrelevant
+        String text = new String(head, 0, Math.min(length, 4096), StandardCharsets.ISO_8859_1);
+        return text.startsWith("\u00EF\u00BB\u00BF") ? text.substring(3) : text;
+    }
+    
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = in.read(buffer, total, buffer.length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+    
+    private static boolean startsWith(byte[] data, int length, byte[] prefix) {
+        return startsWith(data, 0, length, prefix);
+    }
+    
+    private static boolean startsWith(byte[] data, int offset, int length, byte[] prefix) {
+        if (length - offset < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int indexOf(byte[] data, int length, byte[] pattern) {
+        outer:
+        for (int i = 0; i + pattern.length <= length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+    
+    private static int readShort(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8;
+    }
+    
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8 |
+               (data[offset + 2] & 0xFF) << 16 | (data[offset + 3] & 0xFF) << 24;
+    }
+}
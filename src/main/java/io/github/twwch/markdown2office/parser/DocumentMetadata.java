@@ -1,5 +1,7 @@
 package io.github.twwch.markdown2office.parser;
 
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
+
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,7 +36,7 @@ public class DocumentMetadata {
     // Page/Structure information
     private Integer totalPages;
     private Integer totalWords;
-    private Integer totalCharacters;
+    private Integer totalCharacters; // excluding whitespace, as Office counts them
     private Integer totalCharactersWithSpaces;
     private Integer totalParagraphs;
     private Integer totalLines;
@@ -236,6 +238,17 @@ public class DocumentMetadata {
         this.totalLines = totalLines;
     }
     
+    /**
+     * Set the word, character, line and paragraph totals from counted text
+     */
+    public void applyTextStatistics(TextStatistics statistics) {
+        this.totalWords = statistics.getWords();
+        this.totalCharacters = statistics.getCharactersWithoutSpaces();
+        this.totalCharactersWithSpaces = statistics.getCharacters();
+        this.totalLines = statistics.getLines();
+        this.totalParagraphs = statistics.getParagraphs();
+    }
+    
     public Integer getTotalTables() {
         return totalTables;
     }
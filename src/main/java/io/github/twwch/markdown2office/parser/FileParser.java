@@ -34,6 +34,76 @@ public interface FileParser {
      */
     ParsedDocument parse(InputStream inputStream, String fileName) throws IOException;
     
+    /**
+     * Parse file from File object with per-call options.
+     * Parsers without configurable behaviour can rely on the default, which ignores the options.
+     * @param file the file to parse
+     * @param options parsing options for this call only
+     * @return ParsedDocument containing the extracted content
+     * @throws IOException if file cannot be read or parsed
+     */
+    default ParsedDocument parse(File file, ParseOptions options) throws IOException {
+        return parse(file);
+    }
+    
+    /**
+     * Parse file from InputStream with per-call options
+     * @param inputStream the input stream to parse
+     * @param fileName the original file name (for type detection)
+     * @param options parsing options for this call only
+     * @return ParsedDocument containing the extracted content
+     * @throws IOException if stream cannot be read or parsed
+     */
+    default ParsedDocument parse(InputStream inputStream, String fileName, ParseOptions options) throws IOException {
+        return parse(inputStream, fileName);
+    }
+    
+    /**
+     * Parse a file page by page, passing each page to the sink as soon as it is extracted
+     * @param file the file to parse
+     * @param sink receives the metadata and pages
+     * @throws IOException if file cannot be read or parsed, or the sink fails
+     * @see #parse(File, ParseOptions, PageSink)
+     */
+    default void parse(File file, PageSink sink) throws IOException {
+        parse(file, null, sink);
+    }
+    
+    /**
+     * Parse a file page by page with per-call options. Parsers that extract pages
+     * incrementally override this so that only one page is held at a time; the default
+     * parses the whole document first and then passes its pages on.
+     * @param file the file to parse
+     * @param options parsing options for this call, or null for the parser's defaults
+     * @param sink receives the metadata and pages
+     * @throws IOException if file cannot be read or parsed, or the sink fails
+     */
+    default void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        ParsedDocument document = options != null ? parse(file, options) : parse(file);
+        DocumentMetadata metadata = document.getDocumentMetadata() != null ?
+            document.getDocumentMetadata() : new DocumentMetadata();
+        sink.begin(metadata);
+        for (PageContent page : document.getPages()) {
+            sink.accept(page);
+        }
+        sink.end(metadata);
+    }
+    
+    /**
+     * Read only the document metadata: title, author, dates, page, sheet or slide counts and
+     * encryption flags. Parsers for formats that store these apart from the content override
+     * this to skip text extraction; the default parses the whole document. Counts then come
+     * from what the format records, and word and character totals may be missing.
+     * @param file the file to read
+     * @return the document metadata
+     * @throws IOException if file cannot be read or parsed
+     */
+    default DocumentMetadata parseMetadata(File file) throws IOException {
+        ParsedDocument document = parse(file);
+        return document.getDocumentMetadata() != null ?
+            document.getDocumentMetadata() : new DocumentMetadata();
+    }
+    
     /**
      * Check if this parser supports the given file type
      * @param fileName the file name to check
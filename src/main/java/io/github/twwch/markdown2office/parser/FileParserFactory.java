@@ -1,33 +1,24 @@
 package io.github.twwch.markdown2office.parser;
 
-import io.github.twwch.markdown2office.parser.impl.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
- * Factory class for creating appropriate file parsers based on file type
+ * Factory class for creating appropriate file parsers based on file type.
+ * Parsers are discovered through {@link FileParserProvider} services and are
+ * only instantiated the first time a file of their type is requested.
  */
 public class FileParserFactory {
     
     private static final Logger logger = LoggerFactory.getLogger(FileParserFactory.class);
     
-    private static final List<FileParser> PARSERS = new ArrayList<>();
-    
-    static {
-        // Initialize parsers in order of preference
-        // More specific parsers first, fallback parsers last
-        PARSERS.add(new PdfFileParser()); // PDF parser with hidden layer filtering disabled by default
-        PARSERS.add(new WordFileParser());
-        PARSERS.add(new ExcelFileParser());
-        PARSERS.add(new PowerPointFileParser());
-        PARSERS.add(new CsvFileParser());
-        PARSERS.add(new MarkdownFileParser());
-        PARSERS.add(new TextFileParser());
-        PARSERS.add(new TikaFileParser()); // Fallback parser - should be last
-    }
+    // Providers in order of preference: more specific parsers first, Tika fallback last
+    private static final ParserRegistry REGISTRY = ParserRegistry.loadDefault();
     
     /**
      * Get the appropriate parser for a given file name
@@ -41,15 +32,10 @@ public class FileParserFactory {
         }
         
         // Find the first parser that supports this file type
-        for (FileParser parser : PARSERS) {
-            try {
-                if (parser.supports(fileName)) {
-                    logger.debug("Selected {} for file: {}", parser.getClass().getSimpleName(), fileName);
-                    return parser;
-                }
-            } catch (Exception e) {
-                logger.warn("Error checking parser support for {}: {}", parser.getClass().getSimpleName(), e.getMessage());
-            }
+        FileParser parser = REGISTRY.getParser(fileName);
+        if (parser != null) {
+            logger.debug("Selected {} for file: {}", parser.getClass().getSimpleName(), fileName);
+            return parser;
         }
         
         logger.warn("No parser found for file: {}", fileName);
@@ -57,11 +43,69 @@ public class FileParserFactory {
     }
     
     /**
-     * Get all available parsers
+     * Get the appropriate parser for a file, looking at its content as well as its name.
+     * The leading bytes are read once; a recognised format (PDF, OLE2, OOXML,
+     * SpreadsheetML, ...) selects its parser even when the extension says otherwise.
+     * @param file the file to parse
+     * @return FileParser that can handle the file, or null if no parser supports it
+     */
+    public static FileParser getParser(File file) {
+        if (file == null) {
+            return null;
+        }
+        
+        String mimeType = null;
+        try {
+            mimeType = ContentSniffer.detect(file);
+        } catch (IOException e) {
+            logger.debug("Could not inspect content of {}: {}", file, e.getMessage());
+        }
+        return getParser(file.getName(), mimeType);
+    }
+    
+    /**
+     * Get the appropriate parser for a stream, looking at its content as well as the name.
+     * The stream must support mark/reset; it is reset before this method returns.
+     * @param inputStream the stream to parse
+     * @param fileName the original file name, may be unreliable or null
+     * @return FileParser that can handle the content, or null if no parser supports it
+     * @throws IOException if the stream cannot be read
+     */
+    public static FileParser getParser(InputStream inputStream, String fileName) throws IOException {
+        return getParser(fileName, ContentSniffer.detect(inputStream));
+    }
+    
+    /**
+     * Get the parser for a file name and a detected content type
+     * @param fileName the file name, may be null
+     * @param mimeType the content type from {@link ContentSniffer}, may be null
+     * @return FileParser that can handle the content, or null if no parser supports it
+     */
+    public static FileParser getParser(String fileName, String mimeType) {
+        FileParser parser = REGISTRY.getParser(fileName, mimeType);
+        if (parser != null) {
+            logger.debug("Selected {} for file: {} ({})", parser.getClass().getSimpleName(), fileName, mimeType);
+        } else {
+            logger.warn("No parser found for file: {} ({})", fileName, mimeType);
+        }
+        return parser;
+    }
+    
+    /**
+     * Get the parser registered for a content type
+     * @param mimeType MIME type, e.g. "application/pdf"
+     * @return FileParser for the type, or null if none is registered
+     */
+    public static FileParser getParserForMimeType(String mimeType) {
+        return REGISTRY.getParserForMimeType(mimeType);
+    }
+    
+    /**
+     * Get all available parsers. This instantiates every registered parser.
      * @return list of all registered parsers
      */
     public static List<FileParser> getAllParsers() {
-        return new ArrayList<>(PARSERS);
+        return REGISTRY.getAllParsers();
     }
     
     /**
@@ -70,18 +114,37 @@ public class FileParserFactory {
      */
     public static void registerParser(FileParser parser) {
         if (parser != null) {
-            PARSERS.add(0, parser); // Add at beginning to give priority
+            REGISTRY.register(parser); // Added at beginning to give priority
             logger.info("Registered custom parser: {}", parser.getClass().getSimpleName());
         }
     }
     
+    /**
+     * Register a parser provider; its parser is created on first use
+     * @param provider the provider to register
+     */
+    public static void registerProvider(FileParserProvider provider) {
+        if (provider != null) {
+            REGISTRY.register(provider);
+            logger.info("Registered parser provider: {}", provider.getClass().getSimpleName());
+        }
+    }
+    
+    /**
+     * Get the registry backing this factory
+     * @return the shared parser registry
+     */
+    public static ParserRegistry getRegistry() {
+        return REGISTRY;
+    }
+    
     /**
      * Remove a parser from the factory
      * @param parserClass the class of the parser to remove
      * @return true if a parser was removed, false otherwise
      */
     public static boolean removeParser(Class<? extends FileParser> parserClass) {
-        boolean removed = PARSERS.removeIf(parser -> parser.getClass().equals(parserClass));
+        boolean removed = REGISTRY.remove(parserClass);
         if (removed) {
             logger.info("Removed parser: {}", parserClass.getSimpleName());
         }
@@ -93,23 +156,7 @@ public class FileParserFactory {
      * @return array of supported file extensions (with dots, e.g., ".pdf", ".docx")
      */
     public static String[] getSupportedExtensions() {
-        // This is a best-effort method - we test common extensions
-        List<String> extensions = new ArrayList<>();
-        String[] testExtensions = {
-            ".pdf", ".doc", ".docx", ".xls", ".xlsx", ".ppt", ".pptx",
-            ".csv", ".txt", ".text", ".md", ".markdown", ".html", ".htm",
-            ".xml", ".rtf", ".log", ".odt", ".ods", ".odp", ".pages",
-            ".numbers", ".key", ".epub", ".mobi", ".azw", ".azw3"
-        };
-        
-        for (String ext : testExtensions) {
-            String testFile = "test" + ext;
-            if (getParser(testFile) != null) {
-                extensions.add(ext);
-            }
-        }
-        
-        return extensions.toArray(new String[0]);
+        return REGISTRY.getSupportedExtensions().toArray(new String[0]);
     }
     
     /**
@@ -118,7 +165,7 @@ public class FileParserFactory {
      * @return true if the file type is supported, false otherwise
      */
     public static boolean isSupported(String fileName) {
-        return getParser(fileName) != null;
+        return fileName != null && !fileName.trim().isEmpty() && REGISTRY.isSupported(fileName);
     }
     
     /**
@@ -129,9 +176,9 @@ public class FileParserFactory {
         StringBuilder info = new StringBuilder();
         info.append("Registered Parsers (in order):\n");
         
-        for (int i = 0; i < PARSERS.size(); i++) {
-            FileParser parser = PARSERS.get(i);
-            info.append(String.format("%d. %s\n", i + 1, parser.getClass().getSimpleName()));
+        List<String> names = REGISTRY.getParserNames();
+        for (int i = 0; i < names.size(); i++) {
+            info.append(String.format("%d. %s\n", i + 1, names.get(i)));
         }
         
         return info.toString();
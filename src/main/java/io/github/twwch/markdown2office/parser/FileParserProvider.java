@@ -0,0 +1,65 @@
+package io.github.twwch.markdown2office.parser;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Describes a {@link FileParser} without instantiating it.
+ *
+ * Providers are discovered with {@link java.util.ServiceLoader} (register them in
+ * {@code META-INF/services/io.github.twwch.markdown2office.parser.FileParserProvider}).
+ * Everything except {@link #createParser()} must be answerable without loading the
+ * parser class or the library it wraps, so that a process which only ever parses
+ * CSV files never initialises PDFBox, POI or Tika.
+ */
+public interface FileParserProvider {
+    
+    /**
+     * Fully qualified class name of the parser this provider creates.
+     * A name rather than a {@code Class} so that the parser class is not loaded early.
+     * @return parser class name
+     */
+    String getParserClassName();
+    
+    /**
+     * File extensions handled by the parser
+     * @return lower-case extensions with leading dot, e.g. ".pdf"
+     */
+    Set<String> getExtensions();
+    
+    /**
+     * MIME types handled by the parser
+     * @return lower-case MIME types, e.g. "application/pdf"
+     */
+    Set<String> getMimeTypes();
+    
+    /**
+     * Position of the parser in the lookup order; lower values are consulted first
+     * @return ordering value
+     */
+    default int getOrder() {
+        return 1000;
+    }
+    
+    /**
+     * Check if the parser handles the given file name, without creating it
+     * @param fileName the file name to check
+     * @return true if the file name carries one of {@link #getExtensions()}
+     */
+    default boolean supports(String fileName) {
+        if (fileName == null) return false;
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        for (String extension : getExtensions()) {
+            if (lower.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Create the parser. Called at most once per registry, on first use.
+     * @return a new parser instance
+     */
+    FileParser createParser();
+}
@@ -1,7 +1,10 @@
 package io.github.twwch.markdown2office.parser;
 
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Represents content from a specific page in the document
@@ -16,8 +19,10 @@ public class PageContent {
     private List<String> headings;
     private List<String> paragraphs;
     private List<String> lists;
+    private Consumer<PageContent> structureExtractor; // Fills the three lists above on first use
     private Integer wordCount;
     private Integer characterCount;
+    private TextStatistics statistics = TextStatistics.EMPTY;
     
     public PageContent(int pageNumber) {
         this.pageNumber = pageNumber;
@@ -45,11 +50,29 @@ public class PageContent {
         this.rawText = rawText;
         // Auto-calculate counts
         if (rawText != null) {
-            this.characterCount = rawText.length();
-            this.wordCount = rawText.split("\\s+").length;
+            this.statistics = TextStatistics.of(rawText);
+            this.characterCount = statistics.getCharacters();
+            this.wordCount = statistics.getWords();
         }
     }
     
+    /**
+     * Counts of the raw text, computed once when it is set
+     */
+    public TextStatistics getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Replace the counts of the raw text, for raw text that is not plain text such as HTML
+     * @param statistics counts of the text without markup
+     */
+    public void setStatistics(TextStatistics statistics) {
+        this.statistics = statistics != null ? statistics : TextStatistics.EMPTY;
+        this.characterCount = this.statistics.getCharacters();
+        this.wordCount = this.statistics.getWords();
+    }
+    
     public String getMarkdownContent() {
         return markdownContent;
     }
@@ -83,41 +106,68 @@ public class PageContent {
     }
     
     public List<String> getHeadings() {
+        extractStructure();
         return headings;
     }
     
     public void setHeadings(List<String> headings) {
+        extractStructure();
         this.headings = headings;
     }
     
     public void addHeading(String heading) {
+        extractStructure();
         this.headings.add(heading);
     }
     
     public List<String> getParagraphs() {
+        extractStructure();
         return paragraphs;
     }
     
     public void setParagraphs(List<String> paragraphs) {
+        extractStructure();
         this.paragraphs = paragraphs;
     }
     
     public void addParagraph(String paragraph) {
+        extractStructure();
         this.paragraphs.add(paragraph);
     }
     
     public List<String> getLists() {
+        extractStructure();
         return lists;
     }
     
     public void setLists(List<String> lists) {
+        extractStructure();
         this.lists = lists;
     }
     
     public void addList(String list) {
+        extractStructure();
         this.lists.add(list);
     }
     
+    /**
+     * Fill the headings, paragraphs and lists from the page text the first time any of them
+     * is used, instead of keeping them from the start, so the lines of long documents are not
+     * copied into the lists unless the structure is asked for.
+     * @param extractor adds the headings, paragraphs and lists of the page it is given
+     */
+    public void setStructureExtractor(Consumer<PageContent> extractor) {
+        this.structureExtractor = extractor;
+    }
+    
+    private synchronized void extractStructure() {
+        if (structureExtractor != null) {
+            Consumer<PageContent> extractor = structureExtractor;
+            structureExtractor = null;
+            extractor.accept(this);
+        }
+    }
+    
     public Integer getWordCount() {
         return wordCount;
     }
@@ -142,6 +192,7 @@ public class PageContent {
             return markdownContent;
         }
         
+        extractStructure();
         StringBuilder sb = new StringBuilder();
         sb.append("---\n");
         sb.append("Page: ").append(pageNumber).append("\n");
@@ -195,8 +246,11 @@ public class PageContent {
      * Check if the page has any content
      */
     public boolean hasContent() {
-        return (rawText != null && !rawText.trim().isEmpty()) ||
-               !headings.isEmpty() ||
+        if (rawText != null && !rawText.trim().isEmpty()) {
+            return true;
+        }
+        extractStructure();
+        return !headings.isEmpty() ||
                !paragraphs.isEmpty() ||
                !lists.isEmpty() ||
                !tables.isEmpty() ||
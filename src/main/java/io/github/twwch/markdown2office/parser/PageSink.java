@@ -0,0 +1,47 @@
+package io.github.twwch.markdown2office.parser;
+
+import java.io.IOException;
+
+/**
+ * Receives the pages of a document one at a time, as
+ * {@link FileParser#parse(java.io.File, ParseOptions, PageSink)} extracts them.
+ *
+ * All calls are made on the parsing thread, in page order. The parser does not extract the next
+ * page until {@link #accept(PageContent)} returns and keeps no reference to pages it has passed
+ * on, so a slow sink holds the parser back instead of extracted pages piling up. An exception
+ * thrown by the sink stops the parse and propagates, possibly wrapped in an IOException.
+ *
+ * This bounds the extracted output, not the input: only Excel sheets and text files are read
+ * incrementally. PDF, Word and PowerPoint documents are still loaded as a whole by PDFBox and
+ * POI, and a Word document is split into its pages before the first one is passed on.
+ *
+ * What a page is depends on the format: a PDF page, a page of a Word document, an Excel
+ * sheet, a PowerPoint slide or a chunk of lines of a text file.
+ */
+@FunctionalInterface
+public interface PageSink {
+    
+    /**
+     * Called once before the first page with the metadata known up front, such as title,
+     * author and, where the format records it, the page count
+     * @param metadata the document metadata; the same instance is passed to {@link #end}
+     * @throws IOException to stop the parse
+     */
+    default void begin(DocumentMetadata metadata) throws IOException {
+    }
+    
+    /**
+     * Called for each page
+     * @param page the next page; the parser does not use it again
+     * @throws IOException to stop the parse
+     */
+    void accept(PageContent page) throws IOException;
+    
+    /**
+     * Called once after the last page, with word, character and table totals filled in
+     * @param metadata the document metadata
+     * @throws IOException to fail the parse
+     */
+    default void end(DocumentMetadata metadata) throws IOException {
+    }
+}
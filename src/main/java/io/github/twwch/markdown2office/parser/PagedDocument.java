@@ -0,0 +1,62 @@
+package io.github.twwch.markdown2office.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An open document whose pages are extracted on demand instead of up front.
+ *
+ * Metadata and the page count are read when the document is opened; the text, markdown
+ * and structure of a page are extracted the first time the page is requested and cached
+ * for later calls. The underlying document stays open until {@link #close()} is called,
+ * so use it in a try-with-resources block.
+ */
+public interface PagedDocument extends Closeable {
+    
+    /**
+     * @return the type of the underlying document
+     */
+    ParsedDocument.FileType getFileType();
+    
+    /**
+     * Metadata read when the document was opened. Word and character totals are not
+     * included, since they need every page to be extracted.
+     * @return the document metadata
+     */
+    DocumentMetadata getDocumentMetadata();
+    
+    /**
+     * @return the number of pages in the document
+     */
+    int getPageCount();
+    
+    /**
+     * Get one page, extracting it on first access. An empty page has empty text rather
+     * than being left out as in a full parse.
+     * @param pageNumber the page number, starting at 1
+     * @return the page content, never null
+     * @throws IllegalArgumentException if the page number is out of range
+     * @throws IllegalStateException if the document has been closed
+     * @throws IOException if the page cannot be extracted
+     */
+    PageContent getPage(int pageNumber) throws IOException;
+    
+    /**
+     * Get a range of pages, extracting those not accessed before.
+     * @param firstPage the first page number, starting at 1
+     * @param lastPage the last page number, inclusive
+     * @return the pages of the range in page order
+     * @throws IllegalArgumentException if the range is out of bounds
+     * @throws IllegalStateException if the document has been closed
+     * @throws IOException if a page cannot be extracted
+     */
+    List<PageContent> getPages(int firstPage, int lastPage) throws IOException;
+    
+    /**
+     * Close the underlying document. Pages already extracted stay valid; further calls to
+     * {@link #getPage(int)} or {@link #getPages(int, int)} fail. Closing twice has no effect.
+     */
+    @Override
+    void close() throws IOException;
+}
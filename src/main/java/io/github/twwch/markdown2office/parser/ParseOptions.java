@@ -0,0 +1,391 @@
+package io.github.twwch.markdown2office.parser;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Immutable per-call parsing options.
+ *
+ * Options are passed to {@link FileParser#parse(java.io.File, ParseOptions)} instead of
+ * being set on the parser, so one parser instance can serve concurrent requests that
+ * use different settings. Parsers ignore options that do not apply to their format.
+ */
+public final class ParseOptions {
+    
+    private static final ParseOptions DEFAULTS = builder().build();
+    
+    /**
+     * Which rows of a table are kept when it has more rows than {@link #getMaxRowsPerTable()}
+     */
+    public enum SamplingStrategy {
+        /** The first rows; reading stops once the limit is exceeded */
+        HEAD,
+        /** The first half and the last half of the limit, in source order */
+        HEAD_TAIL,
+        /** A repeatable uniform random sample, in source order */
+        RESERVOIR
+    }
+    
+    private final boolean includeHiddenLayers;
+    private final int parallelism;
+    private final long parallelThreshold;
+    private final long streamingThreshold;
+    private final long spoolThreshold;
+    private final long memoryBudget;
+    private final File scratchDirectory;
+    private final boolean skipEmptyRows;
+    private final boolean skipEmptyColumns;
+    private final int maxRowsPerTable;
+    private final int maxSheets;
+    private final SamplingStrategy samplingStrategy;
+    
+    private ParseOptions(Builder builder) {
+        this.includeHiddenLayers = builder.includeHiddenLayers;
+        this.parallelism = builder.parallelism;
+        this.parallelThreshold = builder.parallelThreshold;
+        this.streamingThreshold = builder.streamingThreshold;
+        this.spoolThreshold = builder.spoolThreshold;
+        this.memoryBudget = builder.memoryBudget;
+        this.scratchDirectory = builder.scratchDirectory;
+        this.skipEmptyRows = builder.skipEmptyRows;
+        this.skipEmptyColumns = builder.skipEmptyColumns;
+        this.maxRowsPerTable = builder.maxRowsPerTable;
+        this.maxSheets = builder.maxSheets;
+        this.samplingStrategy = builder.samplingStrategy;
+    }
+    
+    /**
+     * Get the default options
+     * @return shared default options
+     */
+    public static ParseOptions defaults() {
+        return DEFAULTS;
+    }
+    
+    /**
+     * Create a builder initialised with the default options
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Create a builder initialised with these options
+     * @return a new builder
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.includeHiddenLayers = includeHiddenLayers;
+        builder.parallelism = parallelism;
+        builder.parallelThreshold = parallelThreshold;
+        builder.streamingThreshold = streamingThreshold;
+        builder.spoolThreshold = spoolThreshold;
+        builder.memoryBudget = memoryBudget;
+        builder.scratchDirectory = scratchDirectory;
+        builder.skipEmptyRows = skipEmptyRows;
+        builder.skipEmptyColumns = skipEmptyColumns;
+        builder.maxRowsPerTable = maxRowsPerTable;
+        builder.maxSheets = maxSheets;
+        builder.samplingStrategy = samplingStrategy;
+        return builder;
+    }
+    
+    /**
+     * Whether hidden PDF content (invisible text, hidden annotations, watermark layers) is extracted
+     * @return true if hidden content is included
+     */
+    public boolean isIncludeHiddenLayers() {
+        return includeHiddenLayers;
+    }
+    
+    /**
+     * Maximum number of threads a parser may use for one file; 1 disables parallel parsing
+     * @return the parallelism, by default the number of available processors
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Minimum file size in bytes before a parser splits the work across threads
+     * @return the threshold in bytes
+     */
+    public long getParallelThreshold() {
+        return parallelThreshold;
+    }
+    
+    /**
+     * Minimum file size in bytes before a spreadsheet is read with a streaming reader
+     * instead of being loaded as a whole workbook
+     * @return the threshold in bytes
+     */
+    public long getStreamingThreshold() {
+        return streamingThreshold;
+    }
+    
+    /**
+     * Maximum size in bytes of an InputStream that is parsed in memory; larger streams are
+     * spooled to a temp file and parsed through the File code path
+     * @return the threshold in bytes, {@link Long#MAX_VALUE} to never spool
+     */
+    public long getSpoolThreshold() {
+        return spoolThreshold;
+    }
+    
+    /**
+     * Maximum main memory in bytes a PDF parse uses to buffer document data; data beyond it
+     * is buffered in a temp file in {@link #getScratchDirectory()}
+     * @return the budget in bytes, 0 to buffer in a temp file only, {@link Long#MAX_VALUE}
+     *         (the default) to buffer in main memory only
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+    
+    /**
+     * Directory for temp files: PDF scratch buffers and spooled streams
+     * @return the directory, or null (the default) for the system temp directory
+     */
+    public File getScratchDirectory() {
+        return scratchDirectory;
+    }
+    
+    /**
+     * Whether spreadsheet rows without any value inside the used range are left out of the text
+     * @return true if empty rows are skipped
+     */
+    public boolean isSkipEmptyRows() {
+        return skipEmptyRows;
+    }
+    
+    /**
+     * Whether spreadsheet columns without any value in the whole sheet are left out
+     * @return true if empty columns are skipped
+     */
+    public boolean isSkipEmptyColumns() {
+        return skipEmptyColumns;
+    }
+    
+    /**
+     * Maximum number of data rows kept per spreadsheet or CSV table, not counting the header
+     * @return the limit, {@link Integer#MAX_VALUE} (the default) for no limit
+     */
+    public int getMaxRowsPerTable() {
+        return maxRowsPerTable;
+    }
+    
+    /**
+     * Maximum number of sheets read from a workbook
+     * @return the limit, {@link Integer#MAX_VALUE} (the default) for no limit
+     */
+    public int getMaxSheets() {
+        return maxSheets;
+    }
+    
+    /**
+     * Which rows are kept when a table has more rows than {@link #getMaxRowsPerTable()}
+     * @return the strategy, {@link SamplingStrategy#HEAD} by default
+     */
+    public SamplingStrategy getSamplingStrategy() {
+        return samplingStrategy;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ParseOptions)) return false;
+        ParseOptions that = (ParseOptions) o;
+        return includeHiddenLayers == that.includeHiddenLayers &&
+               parallelism == that.parallelism &&
+               parallelThreshold == that.parallelThreshold &&
+               streamingThreshold == that.streamingThreshold &&
+               spoolThreshold == that.spoolThreshold &&
+               memoryBudget == that.memoryBudget &&
+               Objects.equals(scratchDirectory, that.scratchDirectory) &&
+               skipEmptyRows == that.skipEmptyRows &&
+               skipEmptyColumns == that.skipEmptyColumns &&
+               maxRowsPerTable == that.maxRowsPerTable &&
+               maxSheets == that.maxSheets &&
+               samplingStrategy == that.samplingStrategy;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(includeHiddenLayers, parallelism, parallelThreshold, streamingThreshold,
+            spoolThreshold, memoryBudget, scratchDirectory, skipEmptyRows, skipEmptyColumns, maxRowsPerTable,
+            maxSheets, samplingStrategy);
+    }
+    
+    @Override
+    public String toString() {
+        return "ParseOptions{includeHiddenLayers=" + includeHiddenLayers +
+               ", parallelism=" + parallelism +
+               ", parallelThreshold=" + parallelThreshold +
+               ", streamingThreshold=" + streamingThreshold +
+               ", spoolThreshold=" + spoolThreshold +
+               ", memoryBudget=" + memoryBudget +
+               ", scratchDirectory=" + scratchDirectory +
+               ", skipEmptyRows=" + skipEmptyRows +
+               ", skipEmptyColumns=" + skipEmptyColumns +
+               ", maxRowsPerTable=" + maxRowsPerTable +
+               ", maxSheets=" + maxSheets +
+               ", samplingStrategy=" + samplingStrategy + "}";
+    }
+    
+    /**
+     * Builder for {@link ParseOptions}
+     */
+    public static final class Builder {
+        
+        private boolean includeHiddenLayers = false;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long parallelThreshold = 64L * 1024 * 1024;
+        private long streamingThreshold = 16L * 1024 * 1024;
+        private long spoolThreshold = 16L * 1024 * 1024;
+        private long memoryBudget = Long.MAX_VALUE;
+        private File scratchDirectory;
+        private boolean skipEmptyRows = false;
+        private boolean skipEmptyColumns = false;
+        private int maxRowsPerTable = Integer.MAX_VALUE;
+        private int maxSheets = Integer.MAX_VALUE;
+        private SamplingStrategy samplingStrategy = SamplingStrategy.HEAD;
+        
+        private Builder() {
+        }
+        
+        /**
+         * @param includeHiddenLayers true to extract hidden PDF content as well
+         * @return this builder
+         */
+        public Builder includeHiddenLayers(boolean includeHiddenLayers) {
+            this.includeHiddenLayers = includeHiddenLayers;
+            return this;
+        }
+        
+        /**
+         * @param parallelism maximum number of threads per file, at least 1
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+        
+        /**
+         * @param parallelThreshold minimum file size in bytes for parallel parsing
+         * @return this builder
+         */
+        public Builder parallelThreshold(long parallelThreshold) {
+            if (parallelThreshold < 0) {
+                throw new IllegalArgumentException("Parallel threshold must not be negative: " + parallelThreshold);
+            }
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+        
+        /**
+         * @param streamingThreshold minimum file size in bytes for streaming spreadsheet reading
+         * @return this builder
+         */
+        public Builder streamingThreshold(long streamingThreshold) {
+            if (streamingThreshold < 0) {
+                throw new IllegalArgumentException("Streaming threshold must not be negative: " + streamingThreshold);
+            }
+            this.streamingThreshold = streamingThreshold;
+            return this;
+        }
+        
+        /**
+         * @param spoolThreshold maximum stream size in bytes parsed in memory, {@link Long#MAX_VALUE} to never spool
+         * @return this builder
+         */
+        public Builder spoolThreshold(long spoolThreshold) {
+            if (spoolThreshold < 0) {
+                throw new IllegalArgumentException("Spool threshold must not be negative: " + spoolThreshold);
+            }
+            this.spoolThreshold = spoolThreshold;
+            return this;
+        }
+        
+        /**
+         * @param memoryBudget main memory in bytes for PDF document data, 0 for a temp file only,
+         *                     {@link Long#MAX_VALUE} for main memory only
+         * @return this builder
+         */
+        public Builder memoryBudget(long memoryBudget) {
+            if (memoryBudget < 0) {
+                throw new IllegalArgumentException("Memory budget must not be negative: " + memoryBudget);
+            }
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+        
+        /**
+         * @param scratchDirectory directory for temp files, or null for the system temp directory
+         * @return this builder
+         */
+        public Builder scratchDirectory(File scratchDirectory) {
+            this.scratchDirectory = scratchDirectory;
+            return this;
+        }
+        
+        /**
+         * @param skipEmptyRows true to leave spreadsheet rows without any value out of the text
+         * @return this builder
+         */
+        public Builder skipEmptyRows(boolean skipEmptyRows) {
+            this.skipEmptyRows = skipEmptyRows;
+            return this;
+        }
+        
+        /**
+         * @param skipEmptyColumns true to drop spreadsheet columns without any value
+         * @return this builder
+         */
+        public Builder skipEmptyColumns(boolean skipEmptyColumns) {
+            this.skipEmptyColumns = skipEmptyColumns;
+            return this;
+        }
+        
+        /**
+         * @param maxRowsPerTable maximum number of data rows per table, not negative
+         * @return this builder
+         */
+        public Builder maxRowsPerTable(int maxRowsPerTable) {
+            if (maxRowsPerTable < 0) {
+                throw new IllegalArgumentException("Max rows per table must not be negative: " + maxRowsPerTable);
+            }
+            this.maxRowsPerTable = maxRowsPerTable;
+            return this;
+        }
+        
+        /**
+         * @param maxSheets maximum number of sheets per workbook, not negative
+         * @return this builder
+         */
+        public Builder maxSheets(int maxSheets) {
+            if (maxSheets < 0) {
+                throw new IllegalArgumentException("Max sheets must not be negative: " + maxSheets);
+            }
+            this.maxSheets = maxSheets;
+            return this;
+        }
+        
+        /**
+         * @param samplingStrategy which rows to keep when a table exceeds the row limit
+         * @return this builder
+         */
+        public Builder samplingStrategy(SamplingStrategy samplingStrategy) {
+            this.samplingStrategy = Objects.requireNonNull(samplingStrategy, "samplingStrategy");
+            return this;
+        }
+        
+        public ParseOptions build() {
+            return new ParseOptions(this);
+        }
+    }
+}
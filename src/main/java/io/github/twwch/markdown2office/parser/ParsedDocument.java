@@ -1,5 +1,8 @@
 package io.github.twwch.markdown2office.parser;
 
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
+
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +24,11 @@ public class ParsedDocument {
     private String author;
     private String content;  // Main text content
     private String markdownContent;  // Converted to markdown format
+    // Set when content and markdown are joined from the pages on request instead of stored
+    private String pageMarkdownSuffix;
+    // Joined text kept until the pages change; may be reclaimed under memory pressure
+    private SoftReference<String> joinedContent;
+    private SoftReference<String> joinedMarkdown;
     private List<ParsedTable> tables;
     private List<ParsedImage> images;
     private Map<String, String> metadata;
@@ -55,10 +63,12 @@ public class ParsedDocument {
     
     public void setPages(List<PageContent> pages) {
         this.pages = pages;
+        clearJoinedPages();
     }
     
     public void addPage(PageContent page) {
         this.pages.add(page);
+        clearJoinedPages();
     }
     
     // Legacy getters and setters for backward compatibility
@@ -85,6 +95,14 @@ public class ParsedDocument {
     }
     
     public String getContent() {
+        if (content == null && pageMarkdownSuffix != null) {
+            String joined = joinedContent != null ? joinedContent.get() : null;
+            if (joined == null) {
+                joined = joinPages(false);
+                joinedContent = new SoftReference<>(joined);
+            }
+            return joined;
+        }
         return content;
     }
     
@@ -93,6 +111,14 @@ public class ParsedDocument {
     }
     
     public String getMarkdownContent() {
+        if (markdownContent == null && pageMarkdownSuffix != null) {
+            String joined = joinedMarkdown != null ? joinedMarkdown.get() : null;
+            if (joined == null) {
+                joined = joinPages(true);
+                joinedMarkdown = new SoftReference<>(joined);
+            }
+            return joined;
+        }
         return markdownContent;
     }
     
@@ -100,6 +126,45 @@ public class ParsedDocument {
         this.markdownContent = markdownContent;
     }
     
+    /**
+     * Build the content and markdown from the pages when they are requested instead of storing
+     * a second copy of the page text. The content is the raw text of the pages in order and the
+     * markdown is the markdown of each page followed by the suffix. The joined text is kept
+     * until {@link #addPage(PageContent)} or {@link #setPages(List)} is called, and may be
+     * released and joined again when memory runs low. A value set with
+     * {@link #setContent(String)} or {@link #setMarkdownContent(String)} takes precedence.
+     * @param markdownSuffix text appended after the markdown of each page, such as a blank line
+     */
+    public void setContentFromPages(String markdownSuffix) {
+        this.pageMarkdownSuffix = markdownSuffix;
+        clearJoinedPages();
+    }
+    
+    private void clearJoinedPages() {
+        joinedContent = null;
+        joinedMarkdown = null;
+    }
+    
+    private String joinPages(boolean markdown) {
+        int length = 0;
+        for (PageContent page : pages) {
+            String text = markdown ? page.getMarkdownContent() : page.getRawText();
+            length += (text != null ? text.length() : 0) + (markdown ? pageMarkdownSuffix.length() : 0);
+        }
+        
+        StringBuilder sb = new StringBuilder(length);
+        for (PageContent page : pages) {
+            String text = markdown ? page.getMarkdownContent() : page.getRawText();
+            if (text != null) {
+                sb.append(text);
+            }
+            if (markdown) {
+                sb.append(pageMarkdownSuffix);
+            }
+        }
+        return sb.toString();
+    }
+    
     public List<ParsedTable> getTables() {
         return tables;
     }
@@ -172,6 +237,8 @@ public class ParsedDocument {
         private String title;
         private List<List<String>> data;
         private List<String> headers;
+        private boolean truncated;
+        private long totalRows = -1;
         
         public ParsedTable() {
             this.data = new ArrayList<>();
@@ -203,17 +270,60 @@ public class ParsedDocument {
             this.headers = headers;
         }
         
+        /**
+         * Whether data rows were left out because of a row limit
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+        
+        public void setTruncated(boolean truncated) {
+            this.truncated = truncated;
+        }
+        
+        /**
+         * Number of data rows in the source table. This is the size of the data unless the
+         * table is truncated, and -1 when it is truncated and the count is not known.
+         */
+        public long getTotalRows() {
+            return truncated ? totalRows : data.size();
+        }
+        
+        public void setTotalRows(long totalRows) {
+            this.totalRows = totalRows;
+        }
+        
         /**
          * Convert table to markdown format
          */
         public String toMarkdown() {
             StringBuilder sb = new StringBuilder();
+            appendMarkdownTitle(sb, title);
+            appendMarkdownHeader(sb, headers);
             
+            // Data rows
+            for (List<String> row : data) {
+                appendMarkdownRow(sb, row);
+            }
+            
+            return sb.toString();
+        }
+        
+        /**
+         * Append the table title as used by {@link #toMarkdown()}.
+         * The append methods let parsers that stream rows produce the same markdown
+         * without first building the whole table.
+         */
+        public static void appendMarkdownTitle(StringBuilder sb, String title) {
             if (title != null && !title.isEmpty()) {
                 sb.append("### ").append(title).append("\n\n");
             }
-            
-            // Headers
+        }
+        
+        /**
+         * Append the header row and separator as used by {@link #toMarkdown()}
+         */
+        public static void appendMarkdownHeader(StringBuilder sb, List<String> headers) {
             if (!headers.isEmpty()) {
                 sb.append("| ");
                 for (String header : headers) {
@@ -228,17 +338,17 @@ public class ParsedDocument {
                 }
                 sb.append("\n");
             }
-            
-            // Data rows
-            for (List<String> row : data) {
-                sb.append("| ");
-                for (String cell : row) {
-                    sb.append(cell != null ? cell : "").append(" | ");
-                }
-                sb.append("\n");
+        }
+        
+        /**
+         * Append one data row as used by {@link #toMarkdown()}
+         */
+        public static void appendMarkdownRow(StringBuilder sb, List<String> row) {
+            sb.append("| ");
+            for (String cell : row) {
+                sb.append(cell != null ? cell : "").append(" | ");
             }
-            
-            return sb.toString();
+            sb.append("\n");
         }
     }
     
@@ -325,11 +435,7 @@ public class ParsedDocument {
         
         // Fallback to legacy content
         String textContent = content != null ? content : markdownContent;
-        if (textContent != null && !textContent.trim().isEmpty()) {
-            return textContent.trim().split("\\s+").length;
-        }
-        
-        return 0;
+        return TextStatistics.countWords(textContent);
     }
     
     /**
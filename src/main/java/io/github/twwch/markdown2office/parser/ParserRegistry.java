@@ -0,0 +1,410 @@
+package io.github.twwch.markdown2office.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Ordered registry of {@link FileParserProvider}s whose parsers are created lazily.
+ *
+ * A parser is only instantiated (and its library classes loaded) the first time a
+ * lookup selects it; after that the same instance is reused.
+ *
+ * Lookups by file name go through an extension index built from
+ * {@link FileParserProvider#getExtensions()}, and lookups by content type through a
+ * MIME index, so routing does not depend on the number of registered parsers.
+ * Parsers registered as instances are always consulted first, and
+ * {@link FileParserProvider#supports(String)} is only scanned when the index has
+ * no entry for the extension.
+ *
+ * The registry is copy-on-write: every change publishes a new immutable snapshot of
+ * the entries and indexes, so lookups never lock and never observe a half-applied
+ * change, while registrations are serialised.
+ */
+public class ParserRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ParserRegistry.class);
+    
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+    
+    /**
+     * Create an empty registry
+     */
+    public ParserRegistry() {
+    }
+    
+    /**
+     * Create a registry containing every provider visible to {@link ServiceLoader},
+     * sorted by {@link FileParserProvider#getOrder()}
+     * @return the populated registry
+     */
+    public static ParserRegistry loadDefault() {
+        ParserRegistry registry = new ParserRegistry();
+        List<FileParserProvider> providers = new ArrayList<>();
+        
+        Iterator<FileParserProvider> iterator =
+            ServiceLoader.load(FileParserProvider.class, ParserRegistry.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                providers.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                logger.warn("Skipping parser provider that failed to load: {}", e.getMessage());
+            }
+        }
+        
+        if (providers.isEmpty()) {
+            logger.warn("No FileParserProvider registered in META-INF/services");
+        }
+        
+        providers.sort(Comparator.comparingInt(FileParserProvider::getOrder));
+        List<Entry> entries = new ArrayList<>();
+        for (FileParserProvider provider : providers) {
+            entries.add(new Entry(provider));
+        }
+        registry.snapshot = new Snapshot(entries);
+        return registry;
+    }
+    
+    /**
+     * Get the parser for a file name, creating it on first use
+     * @param fileName the name of the file to parse
+     * @return FileParser that can handle the file type, or null if none does
+     */
+    public FileParser getParser(String fileName) {
+        Entry entry = snapshot.findByName(fileName);
+        return entry != null ? entry.get() : null;
+    }
+    
+    /**
+     * Get the parser for a file whose content type has been detected.
+     * A specific content type wins over the file name. A generic one
+     * (see {@link ContentSniffer#isGeneric(String)}) is only used when the file
+     * name has no extension; an unknown extension stays unsupported.
+     * @param fileName the name of the file to parse, may be null
+     * @param mimeType the detected content type, may be null
+     * @return FileParser that can handle the content, or null if none does
+     */
+    public FileParser getParser(String fileName, String mimeType) {
+        Snapshot current = snapshot;
+        Entry instance = fileName != null ? current.findInstance(fileName) : null;
+        if (instance != null) {
+            return instance.get();
+        }
+        
+        Entry byType = mimeType != null ? current.mimeTypeIndex.get(mimeType) : null;
+        if (byType != null &&
+            (!ContentSniffer.isGeneric(mimeType) || fileName == null || extensionOf(fileName) == null)) {
+            return byType.get();
+        }
+        
+        Entry byName = current.findByName(fileName);
+        return byName != null ? byName.get() : null;
+    }
+    
+    /**
+     * Get the parser registered for a content type
+     * @param mimeType lower-case MIME type, e.g. "application/pdf"
+     * @return FileParser for the type, or null if none is registered
+     */
+    public FileParser getParserForMimeType(String mimeType) {
+        Entry entry = mimeType != null ? snapshot.mimeTypeIndex.get(mimeType.toLowerCase(Locale.ROOT)) : null;
+        return entry != null ? entry.get() : null;
+    }
+    
+    /**
+     * Get the class name of the parser the file name alone would select, without creating it
+     * @param fileName the file name to check
+     * @return fully qualified parser class name, or null if no provider claims the name
+     */
+    public String getParserClassName(String fileName) {
+        Entry entry = snapshot.findByName(fileName);
+        return entry != null ? entry.provider.getParserClassName() : null;
+    }
+    
+    /**
+     * Check whether any provider handles the file name, without creating a parser
+     * @param fileName the file name to check
+     * @return true if a provider claims the file name
+     */
+    public boolean isSupported(String fileName) {
+        return snapshot.findByName(fileName) != null;
+    }
+    
+    /**
+     * Get the extensions declared by the registered providers.
+     * The set is computed when the registry changes, not on every call.
+     * @return lower-case extensions with leading dot, in lookup order
+     */
+    public Set<String> getSupportedExtensions() {
+        return snapshot.supportedExtensions;
+    }
+    
+    /**
+     * Add a provider, keeping the registry sorted by order
+     * @param provider the provider to add
+     */
+    public synchronized void register(FileParserProvider provider) {
+        List<Entry> entries = new ArrayList<>(snapshot.entries);
+        int index = 0;
+        while (index < entries.size() && entries.get(index).provider.getOrder() <= provider.getOrder()) {
+            index++;
+        }
+        entries.add(index, new Entry(provider));
+        snapshot = new Snapshot(entries);
+    }
+    
+    /**
+     * Add an already created parser ahead of every provider
+     * @param parser the parser to add
+     */
+    public synchronized void register(FileParser parser) {
+        List<Entry> entries = new ArrayList<>(snapshot.entries);
+        entries.add(0, new Entry(new InstanceProvider(parser), parser));
+        snapshot = new Snapshot(entries);
+    }
+    
+    /**
+     * Remove every parser of the given class
+     * @param parserClass the parser class to remove
+     * @return true if a parser was removed
+     */
+    public synchronized boolean remove(Class<? extends FileParser> parserClass) {
+        List<Entry> entries = new ArrayList<>(snapshot.entries);
+        boolean removed = entries.removeIf(entry -> entry.provider.getParserClassName().equals(parserClass.getName()));
+        if (removed) {
+            snapshot = new Snapshot(entries);
+        }
+        return removed;
+    }
+    
+    /**
+     * Get every parser, instantiating the ones that have not been used yet
+     * @return parsers in lookup order
+     */
+    public List<FileParser> getAllParsers() {
+        List<FileParser> parsers = new ArrayList<>();
+        for (Entry entry : snapshot.entries) {
+            parsers.add(entry.get());
+        }
+        return parsers;
+    }
+    
+    /**
+     * Get the registered providers
+     * @return providers in lookup order
+     */
+    public List<FileParserProvider> getProviders() {
+        List<FileParserProvider> providers = new ArrayList<>();
+        for (Entry entry : snapshot.entries) {
+            providers.add(entry.provider);
+        }
+        return Collections.unmodifiableList(providers);
+    }
+    
+    /**
+     * Check whether the parser of the given class has already been created
+     * @param parserClassName fully qualified parser class name
+     * @return true if an instance exists
+     */
+    public boolean isInstantiated(String parserClassName) {
+        for (Entry entry : snapshot.entries) {
+            if (entry.provider.getParserClassName().equals(parserClassName) && entry.instance != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get parser simple names in lookup order
+     * @return parser names
+     */
+    public List<String> getParserNames() {
+        List<String> names = new ArrayList<>();
+        for (Entry entry : snapshot.entries) {
+            names.add(entry.getSimpleName());
+        }
+        return names;
+    }
+    
+    private static boolean matches(Entry entry, String fileName) {
+        try {
+            return entry.provider.supports(fileName);
+        } catch (Exception e) {
+            logger.warn("Error checking parser support for {}: {}", entry.getSimpleName(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Get the lower-case extension of a file name, including the dot
+     */
+    static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        int separator = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        if (dot <= separator || dot == fileName.length() - 1) {
+            return null;
+        }
+        return fileName.substring(dot).toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Immutable view of the entries and the indexes built from them.
+     * Earlier entries win when two providers declare the same extension or type.
+     */
+    private static final class Snapshot {
+        private final List<Entry> entries;
+        private final List<Entry> instanceEntries = new ArrayList<>();
+        private final Map<String, Entry> extensionIndex = new HashMap<>();
+        private final Map<String, Entry> mimeTypeIndex = new HashMap<>();
+        private final Set<String> supportedExtensions;
+        
+        Snapshot(List<Entry> entries) {
+            this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+            Set<String> extensions = new LinkedHashSet<>();
+            for (Entry entry : this.entries) {
+                if (entry.provider instanceof InstanceProvider) {
+                    instanceEntries.add(entry);
+                    continue;
+                }
+                for (String extension : entry.provider.getExtensions()) {
+                    String key = extension.toLowerCase(Locale.ROOT);
+                    extensionIndex.putIfAbsent(key, entry);
+                    extensions.add(key);
+                }
+                for (String mimeType : entry.provider.getMimeTypes()) {
+                    mimeTypeIndex.putIfAbsent(mimeType.toLowerCase(Locale.ROOT), entry);
+                }
+            }
+            this.supportedExtensions = Collections.unmodifiableSet(extensions);
+        }
+        
+        private Entry findInstance(String fileName) {
+            for (Entry entry : instanceEntries) {
+                if (matches(entry, fileName)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+        
+        private Entry findByName(String fileName) {
+            if (fileName == null) {
+                return null;
+            }
+            Entry entry = findInstance(fileName);
+            if (entry != null) {
+                return entry;
+            }
+            
+            String extension = extensionOf(fileName);
+            if (extension != null) {
+                entry = extensionIndex.get(extension);
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            
+            // Providers that claim names by other rules, e.g. files without an extension
+            for (Entry candidate : entries) {
+                if (!(candidate.provider instanceof InstanceProvider) && matches(candidate, fileName)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Registry slot holding a provider and its lazily created parser
+     */
+    private static final class Entry {
+        private final FileParserProvider provider;
+        private volatile FileParser instance;
+        
+        Entry(FileParserProvider provider) {
+            this.provider = provider;
+        }
+        
+        Entry(FileParserProvider provider, FileParser instance) {
+            this.provider = provider;
+            this.instance = instance;
+        }
+        
+        FileParser get() {
+            FileParser parser = instance;
+            if (parser == null) {
+                synchronized (this) {
+                    parser = instance;
+                    if (parser == null) {
+                        parser = provider.createParser();
+                        instance = parser;
+                        logger.debug("Instantiated {}", getSimpleName());
+                    }
+                }
+            }
+            return parser;
+        }
+        
+        String getSimpleName() {
+            String name = provider.getParserClassName();
+            return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+        }
+    }
+    
+    /**
+     * Adapter for parsers registered as ready-made instances
+     */
+    private static final class InstanceProvider implements FileParserProvider {
+        private final FileParser parser;
+        
+        InstanceProvider(FileParser parser) {
+            this.parser = parser;
+        }
+        
+        @Override
+        public String getParserClassName() {
+            return parser.getClass().getName();
+        }
+        
+        @Override
+        public Set<String> getExtensions() {
+            return Collections.emptySet();
+        }
+        
+        @Override
+        public Set<String> getMimeTypes() {
+            return Collections.emptySet();
+        }
+        
+        @Override
+        public int getOrder() {
+            return Integer.MIN_VALUE;
+        }
+        
+        @Override
+        public boolean supports(String fileName) {
+            return parser.supports(fileName);
+        }
+        
+        @Override
+        public FileParser createParser() {
+            return parser;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package io.github.twwch.markdown2office.parser;
 
+import io.github.twwch.markdown2office.parser.util.SpooledInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -49,87 +51,44 @@ public class UniversalFileParser implements FileParser {
      */
     @Override
     public ParsedDocument parse(File file) throws IOException {
-        if (file == null) {
-            throw new IllegalArgumentException("File cannot be null");
-        }
-        
-        if (!file.exists()) {
-            throw new IOException("File does not exist: " + file.getAbsolutePath());
-        }
-        
-        if (!file.isFile()) {
-            throw new IOException("Path is not a file: " + file.getAbsolutePath());
-        }
-        
-        if (!file.canRead()) {
-            throw new IOException("Cannot read file: " + file.getAbsolutePath());
-        }
+        return parse(file, (ParseOptions) null);
+    }
+    
+    /**
+     * Parse file from File object using automatic type detection and per-call options
+     * @param file the file to parse
+     * @param options parsing options for this call, or null to use each parser's defaults
+     * @return ParsedDocument containing the extracted content
+     * @throws IOException if file cannot be read or parsed
+     * @throws UnsupportedOperationException if no parser supports the file type
+     */
+    @Override
+    public ParsedDocument parse(File file, ParseOptions options) throws IOException {
+        checkReadable(file);
         
         String fileName = file.getName();
-        FileParser parser = FileParserFactory.getParser(fileName);
         
-        if (parser == null) {
-            throw new UnsupportedOperationException(
-                "No parser available for file type: " + fileName + 
-                ". Supported extensions: " + String.join(", ", FileParserFactory.getSupportedExtensions())
-            );
-        }
+        // Inspect the leading bytes once so that e.g. a workbook saved as .csv goes straight to the Excel parser
+        String mimeType = ContentSniffer.detect(file);
+        FileParser parser = selectParser(fileName, mimeType);
         
         try {
             logger.info("Parsing file '{}' using {}", fileName, parser.getClass().getSimpleName());
-            ParsedDocument result = parser.parse(file);
+            ParsedDocument result = options != null ? parser.parse(file, options) : parser.parse(file);
             
             if (result != null) {
                 // Add parsing metadata
                 result.addMetadata("Parser Used", parser.getClass().getSimpleName());
                 result.addMetadata("File Size", String.valueOf(file.length()));
                 result.addMetadata("File Path", file.getAbsolutePath());
+                addDetectionNote(result, fileName, mimeType, parser);
                 
                 logger.info("Successfully parsed file '{}' - extracted {} characters", 
-                    fileName, result.getContent() != null ? result.getContent().length() : 0);
+                    fileName, result.getTotalCharacterCount());
             }
             
             return result;
-            
-        } catch (IOException e) {
-            // Check if this is a CSV file that's actually Excel
-            if (parser instanceof io.github.twwch.markdown2office.parser.impl.CsvFileParser &&
-                e.getMessage() != null && e.getMessage().contains("not a valid CSV file")) {
-                
-                logger.info("File '{}' appears to be Excel format despite .csv extension, trying Excel parser", fileName);
-                
-                // Try with Excel parser
-                try {
-                    io.github.twwch.markdown2office.parser.impl.ExcelFileParser excelParser = 
-                        new io.github.twwch.markdown2office.parser.impl.ExcelFileParser();
-                    
-                    ParsedDocument result = excelParser.parse(file);
-                    
-                    if (result != null) {
-                        // Add parsing metadata
-                        result.addMetadata("Parser Used", "ExcelFileParser (auto-detected)");
-                        result.addMetadata("File Size", String.valueOf(file.length()));
-                        result.addMetadata("File Path", file.getAbsolutePath());
-                        result.addMetadata("Note", "File had .csv extension but was Excel format");
-                        
-                        logger.info("Successfully parsed file '{}' as Excel - extracted {} characters", 
-                            fileName, result.getContent() != null ? result.getContent().length() : 0);
-                    }
-                    
-                    return result;
-                } catch (Exception excelException) {
-                    logger.error("Failed to parse '{}' as Excel: {}", fileName, excelException.getMessage());
-                    // Fall back to original error
-                    throw new IOException("Failed to parse file: " + fileName + 
-                        " (tried CSV parser and Excel parser)", e);
-                }
-            }
-            
-            // For other IOExceptions, just rethrow
-            logger.error("Error parsing file '{}' with {}: {}", 
-                fileName, parser.getClass().getSimpleName(), e.getMessage(), e);
-            throw new IOException("Failed to parse file: " + fileName, e);
-            
+        
         } catch (Exception e) {
             logger.error("Error parsing file '{}' with {}: {}", 
                 fileName, parser.getClass().getSimpleName(), e.getMessage(), e);
@@ -137,6 +96,80 @@ public class UniversalFileParser implements FileParser {
         }
     }
     
+    /**
+     * Parse a file page by page using automatic type detection, passing each page to the
+     * sink as the selected parser extracts it
+     * @param file the file to parse
+     * @param options parsing options for this call, or null to use each parser's defaults
+     * @param sink receives the metadata and pages
+     * @throws IOException if file cannot be read or parsed, or the sink fails
+     * @throws UnsupportedOperationException if no parser supports the file type
+     */
+    @Override
+    public void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        checkReadable(file);
+        
+        String fileName = file.getName();
+        String mimeType = ContentSniffer.detect(file);
+        FileParser parser = selectParser(fileName, mimeType);
+        
+        logger.info("Streaming pages of '{}' using {}", fileName, parser.getClass().getSimpleName());
+        parser.parse(file, options, sink);
+    }
+    
+    /**
+     * Read only the metadata of a file using automatic type detection
+     * @param file the file to read
+     * @return the document metadata, with the file name, path and size filled in
+     * @throws IOException if file cannot be read or parsed
+     * @throws UnsupportedOperationException if no parser supports the file type
+     */
+    @Override
+    public DocumentMetadata parseMetadata(File file) throws IOException {
+        checkReadable(file);
+        
+        String fileName = file.getName();
+        String mimeType = ContentSniffer.detect(file);
+        FileParser parser = selectParser(fileName, mimeType);
+        
+        logger.info("Reading metadata of '{}' using {}", fileName, parser.getClass().getSimpleName());
+        DocumentMetadata metadata;
+        try {
+            metadata = parser.parseMetadata(file);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read metadata of file: " + fileName, e);
+        }
+        if (metadata.getFileName() == null) {
+            metadata.setFileName(fileName);
+        }
+        if (metadata.getFileSize() == null) {
+            metadata.setFileSize(file.length());
+        }
+        metadata.setFilePath(file.getAbsolutePath());
+        if (metadata.getMimeType() == null) {
+            metadata.setMimeType(mimeType);
+        }
+        return metadata;
+    }
+    
+    private static void checkReadable(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        
+        if (!file.exists()) {
+            throw new IOException("File does not exist: " + file.getAbsolutePath());
+        }
+        
+        if (!file.isFile()) {
+            throw new IOException("Path is not a file: " + file.getAbsolutePath());
+        }
+        
+        if (!file.canRead()) {
+            throw new IOException("Cannot read file: " + file.getAbsolutePath());
+        }
+    }
+    
     /**
      * Parse file from InputStream using automatic type detection
      * @param inputStream the input stream to parse
@@ -147,6 +180,22 @@ public class UniversalFileParser implements FileParser {
      */
     @Override
     public ParsedDocument parse(InputStream inputStream, String fileName) throws IOException {
+        return parse(inputStream, fileName, null);
+    }
+    
+    /**
+     * Parse file from InputStream using automatic type detection and per-call options.
+     * Streams larger than {@link ParseOptions#getSpoolThreshold()} are copied to a temp file
+     * first, which is deleted after parsing.
+     * @param inputStream the input stream to parse
+     * @param fileName the original file name (for type detection)
+     * @param options parsing options for this call, or null to use each parser's defaults
+     * @return ParsedDocument containing the extracted content
+     * @throws IOException if stream cannot be read or parsed
+     * @throws UnsupportedOperationException if no parser supports the file type
+     */
+    @Override
+    public ParsedDocument parse(InputStream inputStream, String fileName, ParseOptions options) throws IOException {
         if (inputStream == null) {
             throw new IllegalArgumentException("InputStream cannot be null");
         }
@@ -155,31 +204,40 @@ public class UniversalFileParser implements FileParser {
             throw new IllegalArgumentException("File name cannot be null or empty for type detection");
         }
         
-        FileParser parser = FileParserFactory.getParser(fileName);
+        // Detect the format from the leading bytes so mislabelled streams reach the right parser
+        InputStream bufferedStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        String mimeType = ContentSniffer.detect(bufferedStream);
+        FileParser parser = selectParser(fileName, mimeType);
         
-        if (parser == null) {
-            throw new UnsupportedOperationException(
-                "No parser available for file type: " + fileName + 
-                ". Supported extensions: " + String.join(", ", FileParserFactory.getSupportedExtensions())
-            );
-        }
-        
-        try {
-            logger.info("Parsing stream for file '{}' using {}", fileName, parser.getClass().getSimpleName());
-            ParsedDocument result = parser.parse(inputStream, fileName);
+        ParseOptions spoolOptions = options != null ? options : ParseOptions.defaults();
+        long spoolThreshold = spoolOptions.getSpoolThreshold();
+        try (SpooledInput spooled = spoolThreshold == Long.MAX_VALUE ? null :
+                SpooledInput.spool(bufferedStream, fileName, spoolThreshold, spoolOptions.getScratchDirectory())) {
+            ParsedDocument result;
+            if (spooled != null && !spooled.isInMemory()) {
+                // Large streams are parsed from a temp file through the random-access code path
+                logger.info("Parsing stream for file '{}' from a temp file using {}", fileName, parser.getClass().getSimpleName());
+                File file = spooled.getFile();
+                result = options != null ? parser.parse(file, options) : parser.parse(file);
+            } else {
+                logger.info("Parsing stream for file '{}' using {}", fileName, parser.getClass().getSimpleName());
+                InputStream in = spooled != null ? spooled.openStream() : bufferedStream;
+                result = options != null ? parser.parse(in, fileName, options) : parser.parse(in, fileName);
+            }
             
             if (result != null) {
                 // Add parsing metadata
                 result.addMetadata("Parser Used", parser.getClass().getSimpleName());
                 result.addMetadata("Source", "InputStream");
                 result.addMetadata("File Name", fileName);
+                addDetectionNote(result, fileName, mimeType, parser);
                 
                 logger.info("Successfully parsed stream for file '{}' - extracted {} characters", 
-                    fileName, result.getContent() != null ? result.getContent().length() : 0);
+                    fileName, result.getTotalCharacterCount());
             }
             
             return result;
-            
+        
         } catch (Exception e) {
             logger.error("Error parsing stream for file '{}' with {}: {}", 
                 fileName, parser.getClass().getSimpleName(), e.getMessage(), e);
@@ -187,6 +245,34 @@ public class UniversalFileParser implements FileParser {
         }
     }
     
+    /**
+     * Choose the parser from the file name and the detected content type
+     */
+    private FileParser selectParser(String fileName, String mimeType) {
+        FileParser parser = FileParserFactory.getParser(fileName, mimeType);
+        if (parser == null) {
+            throw new UnsupportedOperationException(
+                "No parser available for file type: " + fileName + 
+                ". Supported extensions: " + String.join(", ", FileParserFactory.getSupportedExtensions())
+            );
+        }
+        return parser;
+    }
+    
+    /**
+     * Record when the content, not the file name, decided which parser was used
+     */
+    private void addDetectionNote(ParsedDocument result, String fileName, String mimeType, FileParser parser) {
+        String nameBasedParser = FileParserFactory.getRegistry().getParserClassName(fileName);
+        if (nameBasedParser != null && !nameBasedParser.equals(parser.getClass().getName())) {
+            int dot = fileName.lastIndexOf('.');
+            String extension = dot >= 0 ? fileName.substring(dot) : fileName;
+            String format = parser.getClass().getSimpleName().replace("FileParser", "");
+            result.addMetadata("Detected Content Type", mimeType);
+            result.addMetadata("Note", "File had " + extension + " extension but was " + format + " format");
+        }
+    }
+    
     /**
      * Check if this parser supports the given file type
      * This implementation always returns true since it delegates to specialized parsers
@@ -3,20 +3,31 @@ package io.github.twwch.markdown2office.parser.impl;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.exceptions.CsvException;
+import io.github.twwch.markdown2office.parser.ColumnarTableData;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
 import io.github.twwch.markdown2office.parser.FileParser;
 import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.ParseOptions;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.CharsetDetector;
+import io.github.twwch.markdown2office.parser.util.ParallelTasks;
+import io.github.twwch.markdown2office.parser.util.RowSampler;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Parser for CSV files with automatic encoding detection
@@ -25,6 +36,13 @@ public class CsvFileParser implements FileParser {
     
     private static final Logger logger = LoggerFactory.getLogger(CsvFileParser.class);
     
+    // Number of leading bytes used for encoding detection
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    
+    // Bounds for the size of the chunks a large file is split into for parallel parsing
+    private static final long MIN_CHUNK_SIZE = 64 * 1024;
+    private static final long MAX_CHUNK_SIZE = 64L * 1024 * 1024;
+    
     @Override
     public ParsedDocument parse(String filePath) throws IOException {
         return parse(new File(filePath));
@@ -32,44 +50,80 @@ public class CsvFileParser implements FileParser {
     
     @Override
     public ParsedDocument parse(File file) throws IOException {
+        return parse(file, ParseOptions.defaults());
+    }
+    
+    /**
+     * Parse a CSV file. Files of at least {@link ParseOptions#getParallelThreshold()} bytes are
+     * parsed in chunks on {@link ParseOptions#getParallelism()} threads; the result is identical
+     * to the sequential parse. With a row limit the file is read sequentially, and only up to
+     * the limit for the HEAD sampling strategy.
+     */
+    @Override
+    public ParsedDocument parse(File file, ParseOptions options) throws IOException {
+        if (options == null) {
+            options = ParseOptions.defaults();
+        }
+        
         // First check if this is really a CSV file
         if (!isRealCsvFile(file)) {
             throw new IOException("File '" + file.getName() + "' is not a valid CSV file. It appears to be an Excel or other binary file.");
         }
         
-        // Detect encoding first
-        Charset charset = detectEncoding(file);
+        // Detect encoding from a bounded prefix, then stream the rows
+        byte[] sample;
+        try (InputStream in = new FileInputStream(file)) {
+            sample = readSample(in);
+        }
+        Charset charset = detectEncoding(sample);
         logger.debug("Detected charset for CSV file {}: {}", file.getName(), charset.displayName());
         
-        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(file), charset)) {
-            return extractContent(reader, file.getName());
+        boolean limited = options.getMaxRowsPerTable() < Integer.MAX_VALUE;
+        if (!limited && options.getParallelism() > 1 && file.length() >= options.getParallelThreshold() && canSplit(charset)) {
+            List<RowAccumulator> chunks = parseChunks(file, charset, options.getParallelism());
+            if (chunks != null) {
+                return buildDocument(file.getName(), RowAccumulator.concat(chunks));
+            }
+        }
+        
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset))) {
+            return extractContent(reader, file.getName(), options);
         }
     }
     
     @Override
     public ParsedDocument parse(InputStream inputStream, String fileName) throws IOException {
-        // For InputStream, we need to buffer it to detect encoding
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buffer = new byte[1024];
-        int len;
-        while ((len = inputStream.read(buffer)) > -1) {
-            baos.write(buffer, 0, len);
+        return parse(inputStream, fileName, ParseOptions.defaults());
+    }
+    
+    @Override
+    public ParsedDocument parse(InputStream inputStream, String fileName, ParseOptions options) throws IOException {
+        if (options == null) {
+            options = ParseOptions.defaults();
         }
-        baos.flush();
         
-        byte[] bytes = baos.toByteArray();
+        // Only the sample is buffered; the rest of the stream is read once while parsing
+        BufferedInputStream bufferedStream = new BufferedInputStream(inputStream, SAMPLE_SIZE);
+        bufferedStream.mark(SAMPLE_SIZE + 1);
+        byte[] sample = readSample(bufferedStream);
+        bufferedStream.reset();
         
         // Check if this is really a CSV file
-        if (!isRealCsvContent(bytes)) {
+        if (!isRealCsvContent(sample)) {
             throw new IOException("Stream '" + fileName + "' is not a valid CSV file. It appears to be an Excel or other binary file.");
         }
         
-        Charset charset = detectEncoding(bytes);
+        Charset charset = detectEncoding(sample);
         logger.debug("Detected charset for CSV stream {}: {}", fileName, charset.displayName());
         
-        try (InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(bytes), charset)) {
-            return extractContent(reader, fileName);
-        }
+        // The caller owns the stream, so closing the CSV reader must not close it
+        InputStream unclosable = new FilterInputStream(bufferedStream) {
+            @Override
+            public void close() {
+            }
+        };
+        Reader reader = new BufferedReader(new InputStreamReader(unclosable, charset));
+        return extractContent(reader, fileName, options);
     }
     
     @Override
@@ -125,260 +179,186 @@ public class CsvFileParser implements FileParser {
     }
     
     /**
-     * Detect encoding of a file
-     */
-    private Charset detectEncoding(File file) throws IOException {
-        byte[] bytes = Files.readAllBytes(file.toPath());
-        return detectEncoding(bytes);
-    }
-    
-    /**
-     * Detect encoding from byte array
-     * Supports BOM detection and content-based detection for common Chinese encodings
+     * Read up to {@link #SAMPLE_SIZE} bytes for encoding detection. When the content is
+     * longer, the sample is cut after its last line break so that it never ends inside a
+     * multi-byte character (a newline byte cannot occur inside a UTF-8, GBK, GB18030 or
+     * Big5 character).
      */
-    private Charset detectEncoding(byte[] bytes) {
-        if (bytes == null || bytes.length == 0) {
-            return StandardCharsets.UTF_8;
+    private byte[] readSample(InputStream in) throws IOException {
+        byte[] buffer = new byte[SAMPLE_SIZE + 1];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
         }
-        
-        // Check for BOM (Byte Order Mark)
-        if (bytes.length >= 3) {
-            // UTF-8 BOM
-            if (bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
-                logger.debug("Detected UTF-8 BOM");
-                return StandardCharsets.UTF_8;
-            }
-            // UTF-16 BE BOM
-            if (bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) {
-                logger.debug("Detected UTF-16 BE BOM");
-                return StandardCharsets.UTF_16BE;
-            }
-            // UTF-16 LE BOM
-            if (bytes[0] == (byte) 0xFF && bytes[1] == (byte) 0xFE) {
-                logger.debug("Detected UTF-16 LE BOM");
-                return StandardCharsets.UTF_16LE;
-            }
+        if (length <= SAMPLE_SIZE) {
+            return Arrays.copyOf(buffer, length);
         }
         
-        // Try different encodings and score them
-        Charset bestCharset = StandardCharsets.UTF_8;
-        int bestScore = 0;
-        
-        // Test UTF-8
-        if (isValidUtf8(bytes)) {
-            try {
-                String utf8String = new String(bytes, StandardCharsets.UTF_8);
-                int score = scoreEncoding(utf8String);
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestCharset = StandardCharsets.UTF_8;
-                }
-                logger.debug("UTF-8 score: {}", score);
-            } catch (Exception e) {
-                // Ignore
-            }
+        int end = SAMPLE_SIZE;
+        while (end > 0 && buffer[end - 1] != '\n') {
+            end--;
         }
-        
-        // Test GBK
-        try {
-            String gbkString = new String(bytes, Charset.forName("GBK"));
-            int score = scoreEncoding(gbkString);
-            if (score > bestScore) {
-                bestScore = score;
-                bestCharset = Charset.forName("GBK");
+        if (end == 0) {
+            // No line break in the sample: drop a trailing incomplete UTF-8 sequence instead
+            end = SAMPLE_SIZE;
+            int lead = end - 1;
+            while (lead > 0 && end - lead < 4 && (buffer[lead] & 0xC0) == 0x80) {
+                lead--;
             }
-            logger.debug("GBK score: {}", score);
-        } catch (Exception e) {
-            // Ignore
-        }
-        
-        // Test GB18030
-        try {
-            String gb18030String = new String(bytes, Charset.forName("GB18030"));
-            int score = scoreEncoding(gb18030String);
-            if (score > bestScore) {
-                bestScore = score;
-                bestCharset = Charset.forName("GB18030");
+            int b = buffer[lead] & 0xFF;
+            int expected = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+            if (lead + expected > end) {
+                end = lead;
             }
-            logger.debug("GB18030 score: {}", score);
-        } catch (Exception e) {
-            // Ignore
         }
-        
-        // Test GB2312
-        try {
-            String gb2312String = new String(bytes, Charset.forName("GB2312"));
-            int score = scoreEncoding(gb2312String);
-            if (score > bestScore) {
-                bestScore = score;
-                bestCharset = Charset.forName("GB2312");
-            }
-            logger.debug("GB2312 score: {}", score);
-        } catch (Exception e) {
-            // Ignore
-        }
-        
-        // Test Big5 for Traditional Chinese
-        try {
-            String big5String = new String(bytes, Charset.forName("Big5"));
-            int score = scoreEncoding(big5String);
-            if (score > bestScore) {
-                bestScore = score;
-                bestCharset = Charset.forName("Big5");
-            }
-            logger.debug("Big5 score: {}", score);
-        } catch (Exception e) {
-            // Ignore
-        }
-        
-        // Test Windows-1252 for Western European
-        try {
-            String win1252String = new String(bytes, Charset.forName("Windows-1252"));
-            int score = scoreEncoding(win1252String);
-            if (score > bestScore) {
-                bestScore = score;
-                bestCharset = Charset.forName("Windows-1252");
-            }
-            logger.debug("Windows-1252 score: {}", score);
-        } catch (Exception e) {
-            // Ignore
-        }
-        
-        logger.info("Best encoding detected: {} with score: {}", bestCharset.displayName(), bestScore);
-        return bestCharset;
+        return Arrays.copyOf(buffer, end);
     }
     
     /**
-     * Score an encoding based on various heuristics
-     * Higher score means more likely to be correct
+     * Detect encoding from byte array
+     * Supports BOM detection and content-based detection for common Chinese encodings
      */
-    private int scoreEncoding(String str) {
-        if (str == null || str.isEmpty()) {
-            return 0;
-        }
-        
-        int score = 100; // Start with base score
-        
-        // Check for replacement characters (indicates wrong encoding)
-        int replacementCount = 0;
-        for (char c : str.toCharArray()) {
-            if (c == '\uFFFD') {
-                replacementCount++;
-            }
-        }
-        if (replacementCount > 0) {
-            score -= replacementCount * 50;
-        }
-        
-        // Check for control characters (except common ones like tab, newline)
-        int controlCharCount = 0;
-        for (char c : str.toCharArray()) {
-            if (Character.isISOControl(c) && c != '\t' && c != '\n' && c != '\r') {
-                controlCharCount++;
+    private Charset detectEncoding(byte[] bytes) {
+        Charset charset = CharsetDetector.detect(bytes);
+        logger.info("Best encoding detected: {}", charset.displayName());
+        return charset;
+    }
+    
+    private ParsedDocument extractContent(Reader reader, String fileName, ParseOptions options) throws IOException {
+        try (CSVReader csvReader = new CSVReaderBuilder(reader).build()) {
+            if (options.getMaxRowsPerTable() < Integer.MAX_VALUE) {
+                return buildDocument(fileName, readSampledRows(csvReader, RowSampler.of(options)));
             }
+            return buildDocument(fileName, readRows(csvReader, true));
+        } catch (CsvException e) {
+            logger.error("Error parsing CSV file: " + fileName, e);
+            throw new IOException("Failed to parse CSV file: " + fileName, e);
         }
-        if (controlCharCount > str.length() / 100) {
-            score -= controlCharCount * 10;
-        }
-        
-        // Bonus for Chinese characters
-        if (containsChineseCharacters(str)) {
-            score += 50;
+    }
+    
+    private static RowAccumulator readRows(CSVReader csvReader, boolean firstRowIsHeader) throws IOException, CsvException {
+        RowAccumulator rows = new RowAccumulator(firstRowIsHeader);
+        for (String[] row = csvReader.readNext(); row != null; row = csvReader.readNext()) {
+            rows.add(row);
         }
-        
-        // Bonus for common CSV patterns
-        if (str.contains(",") || str.contains("\t") || str.contains("|")) {
-            score += 20;
+        return rows;
+    }
+    
+    /**
+     * Read the header and the data rows kept by the sampler. Rows are not materialised
+     * beyond what the sampler holds, and reading stops once it is complete.
+     */
+    private static RowAccumulator readSampledRows(CSVReader csvReader, RowSampler<String[]> sampler) throws IOException, CsvException {
+        RowAccumulator rows = new RowAccumulator(true);
+        String[] header = csvReader.readNext();
+        if (header == null) {
+            return rows;
         }
-        
-        // Check for readable content (alphabetic, numeric, common punctuation)
-        int readableCount = 0;
-        for (char c : str.toCharArray()) {
-            if (Character.isLetterOrDigit(c) || " ,.;:!?()[]{}\"'-_/\\@#$%^&*+=<>".indexOf(c) >= 0 ||
-                c == '\n' || c == '\r' || c == '\t' || (c >= 0x4E00 && c <= 0x9FA5)) {
-                readableCount++;
+        rows.add(header);
+        String[] row;
+        while (!sampler.isComplete() && (row = csvReader.readNext()) != null) {
+            if (sampler.offer(row)) {
+                rows.add(row);
             }
         }
-        
-        // Calculate readability ratio
-        double readabilityRatio = (double) readableCount / str.length();
-        if (readabilityRatio > 0.95) {
-            score += 30;
-        } else if (readabilityRatio > 0.9) {
-            score += 20;
-        } else if (readabilityRatio < 0.7) {
-            score -= 30;
+        for (String[] sampled : sampler.remaining()) {
+            rows.add(sampled);
         }
-        
-        return Math.max(0, score);
+        rows.truncated = sampler.isTruncated();
+        rows.sourceRows = sampler.getTotalRows();
+        return rows;
     }
     
     /**
-     * Check if byte array is valid UTF-8
+     * Parse a large file on several threads. The memory-mapped file is cut into regions,
+     * each region is scanned for quotes and line breaks, and the regions are then moved to
+     * the first line break that lies outside quotes. The resulting chunks hold whole records
+     * and are parsed independently; their rows are stitched back in file order.
+     * @return the rows of each chunk in file order, or null when the file cannot be split safely
      */
-    private boolean isValidUtf8(byte[] bytes) {
-        int i = 0;
-        while (i < bytes.length) {
-            int b = bytes[i] & 0xFF;
-            int charBytes;
-            
-            if (b < 0x80) {
-                charBytes = 1;
-            } else if ((b & 0xE0) == 0xC0) {
-                charBytes = 2;
-            } else if ((b & 0xF0) == 0xE0) {
-                charBytes = 3;
-            } else if ((b & 0xF8) == 0xF0) {
-                charBytes = 4;
-            } else {
-                return false;
+    private List<RowAccumulator> parseChunks(File file, Charset charset, int parallelism) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long regionSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / (parallelism * 4L)));
+            int regionCount = (int) ((size + regionSize - 1) / regionSize);
+            if (regionCount < 2) {
+                return null;
             }
             
-            if (i + charBytes > bytes.length) {
-                return false;
+            // Speculative scan: each region records its first record boundary for both
+            // possible quote states at its start, since that state is not known yet
+            List<Callable<QuoteScan>> scans = new ArrayList<>(regionCount);
+            for (int i = 0; i < regionCount; i++) {
+                long start = i * regionSize;
+                long length = Math.min(regionSize, size - start);
+                scans.add(() -> QuoteScan.scan(channel.map(FileChannel.MapMode.READ_ONLY, start, length)));
             }
+            List<QuoteScan> regions = ParallelTasks.invokeAll(scans, parallelism);
             
-            for (int j = 1; j < charBytes; j++) {
-                if ((bytes[i + j] & 0xC0) != 0x80) {
-                    return false;
+            // The real quote state at a region start is the parity of all quotes before it
+            List<long[]> chunks = new ArrayList<>();
+            long chunkStart = 0;
+            boolean inQuotes = false;
+            for (int i = 0; i < regionCount; i++) {
+                QuoteScan region = regions.get(i);
+                if (region.hasEscapes) {
+                    logger.debug("CSV file {} contains escape characters, parsing sequentially", file.getName());
+                    return null;
+                }
+                long newline = inQuotes ? region.newlineIfStartInQuotes : region.newlineIfStartOutside;
+                if (i > 0 && newline >= 0) {
+                    // A region without a boundary is merged into the previous chunk
+                    long boundary = i * regionSize + newline + 1;
+                    chunks.add(new long[] {chunkStart, boundary});
+                    chunkStart = boundary;
                 }
+                inQuotes ^= region.oddQuotes;
             }
+            if (chunkStart < size) {
+                chunks.add(new long[] {chunkStart, size});
+            }
+            for (long[] chunk : chunks) {
+                if (chunk[1] - chunk[0] > Integer.MAX_VALUE) {
+                    return null;
+                }
+            }
+            logger.debug("Parsing CSV file {} as {} chunks on {} threads", file.getName(), chunks.size(), parallelism);
             
-            i += charBytes;
+            List<Callable<RowAccumulator>> tasks = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                long start = chunks.get(i)[0];
+                long length = chunks.get(i)[1] - start;
+                boolean first = i == 0;
+                tasks.add(() -> parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, start, length), charset, first));
+            }
+            return ParallelTasks.invokeAll(tasks, parallelism);
         }
-        return true;
     }
     
-    /**
-     * Check if string contains Chinese characters
-     */
-    private boolean containsChineseCharacters(String str) {
-        for (char c : str.toCharArray()) {
-            if (c >= 0x4E00 && c <= 0x9FA5) { // Common Chinese Unicode range
-                return true;
-            }
+    private static RowAccumulator parseChunk(ByteBuffer bytes, Charset charset, boolean firstChunk) throws IOException {
+        // Decode the way InputStreamReader does, replacing malformed input
+        CharBuffer chars = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(bytes);
+        Reader reader = new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        try (CSVReader csvReader = new CSVReaderBuilder(reader).build()) {
+            return readRows(csvReader, firstChunk);
+        } catch (CsvException e) {
+            throw new IOException("Failed to parse CSV chunk", e);
         }
-        return false;
     }
     
     /**
-     * Check if string contains garbage characters (indication of wrong encoding)
+     * Chunks are split at newline bytes, which only works when a newline or quote byte
+     * can never be part of a multi-byte character
      */
-    private boolean containsGarbage(String str) {
-        int garbageCount = 0;
-        for (char c : str.toCharArray()) {
-            // Common garbage characters from wrong encoding
-            if (c == '\uFFFD' || // Replacement character
-                (c >= 0xFFF0 && c <= 0xFFFF) || // Specials
-                (c >= 0xD800 && c <= 0xDFFF)) { // Surrogates
-                garbageCount++;
-            }
-        }
-        // If more than 1% of characters are garbage, encoding is likely wrong
-        return garbageCount > str.length() / 100;
+    private static boolean canSplit(Charset charset) {
+        return !StandardCharsets.UTF_16BE.equals(charset) && !StandardCharsets.UTF_16LE.equals(charset);
     }
     
-    private ParsedDocument extractContent(Reader reader, String fileName) throws IOException {
+    private ParsedDocument buildDocument(String fileName, RowAccumulator rows) {
         ParsedDocument parsedDoc = new ParsedDocument();
         parsedDoc.setFileType(ParsedDocument.FileType.CSV);
         
@@ -387,122 +367,185 @@ public class CsvFileParser implements FileParser {
         metadata.setFileType(ParsedDocument.FileType.CSV);
         metadata.setFileName(fileName);
         
-        try (CSVReader csvReader = new CSVReaderBuilder(reader).build()) {
-            List<String[]> allRows = csvReader.readAll();
-            
-            if (allRows.isEmpty()) {
-                parsedDoc.setContent("");
-                parsedDoc.setMarkdownContent("");
-                metadata.setTotalPages(0);
-                metadata.setTotalSheets(0);
-                parsedDoc.setDocumentMetadata(metadata);
-                return parsedDoc;
-            }
-            
-            // Set title from filename (remove extension)
-            String title = fileName != null && !fileName.isEmpty() ? 
-                fileName.replaceAll("\\.[^.]+$", "") : "CSV Data";
-            parsedDoc.setTitle(title);
-            metadata.setTitle(title);
-            
-            // Create table structure
-            ParsedDocument.ParsedTable parsedTable = new ParsedDocument.ParsedTable();
-            parsedTable.setTitle(title);
-            
-            // First row as headers
-            List<String> headers = null;
-            if (!allRows.isEmpty()) {
-                headers = Arrays.asList(allRows.get(0));
-                parsedTable.setHeaders(headers);
-            }
-            
-            // Remaining rows as data
-            List<List<String>> tableData = new ArrayList<>();
-            for (int i = 1; i < allRows.size(); i++) {
-                List<String> rowData = Arrays.asList(allRows.get(i));
+        if (rows.header == null) {
+            parsedDoc.setContent("");
+            parsedDoc.setMarkdownContent("");
+            metadata.setTotalPages(0);
+            metadata.setTotalSheets(0);
+            parsedDoc.setDocumentMetadata(metadata);
+            return parsedDoc;
+        }
+        
+        // Set title from filename (remove extension)
+        String title = fileName != null && !fileName.isEmpty() ? 
+            fileName.replaceAll("\\.[^.]+$", "") : "CSV Data";
+        parsedDoc.setTitle(title);
+        metadata.setTitle(title);
+        
+        // Create table structure, first row as headers
+        ParsedDocument.ParsedTable parsedTable = new ParsedDocument.ParsedTable();
+        parsedTable.setTitle(title);
+        List<String> headers = Arrays.asList(rows.header);
+        parsedTable.setHeaders(headers);
+        rows.tableData.trimToSize();
+        parsedTable.setData(rows.tableData);
+        parsedTable.setTruncated(rows.truncated);
+        parsedTable.setTotalRows(rows.sourceRows);
+        
+        // Create a PageContent object to be consistent with Excel
+        PageContent pageContent = new PageContent(1);
+        
+        // Content is tab-separated; the markdown rows were rendered while reading
+        StringBuilder markdown = new StringBuilder(rows.markdownRows.length() + 256);
+        markdown.append("# ").append(title).append("\n\n");
+        markdown.append("### ").append(title).append("\n\n");
+        ParsedDocument.ParsedTable.appendMarkdownTitle(markdown, title);
+        ParsedDocument.ParsedTable.appendMarkdownHeader(markdown, headers);
+        markdown.append(rows.markdownRows);
+        
+        // Add table to parsed document
+        parsedDoc.addTable(parsedTable);
+        
+        // Set page content; the raw text is the same tab-separated text as the document content,
+        // counted once when it is set
+        String text = rows.content.toString();
+        String markdownText = markdown.toString();
+        pageContent.setRawText(text);
+        pageContent.setMarkdownContent(markdownText);
+        pageContent.addTable(parsedTable);
+        
+        // Add headers as headings for the page
+        pageContent.addHeading(title);
+        TextStatistics statistics = pageContent.getStatistics();
+        
+        // Add the page to the document
+        parsedDoc.addPage(pageContent);
+        
+        // Set document-level content
+        parsedDoc.setContent(text);
+        parsedDoc.setMarkdownContent(markdownText);
+        
+        // Update metadata
+        metadata.setTotalPages(1);
+        metadata.setTotalSheets(1); // CSV is like one sheet
+        metadata.applyTextStatistics(statistics);
+        metadata.setTotalTables(1);
+        
+        parsedDoc.setDocumentMetadata(metadata);
+        
+        // Add legacy metadata for backward compatibility
+        // Rows of the source, header included; a row limit that stopped reading early leaves it unknown
+        long sourceTotal = rows.totalRows;
+        if (rows.truncated) {
+            sourceTotal = rows.sourceRows >= 0 ? rows.sourceRows + 1 : -1;
+        }
+        if (sourceTotal >= 0) {
+            parsedDoc.addMetadata("Total Rows", String.valueOf(sourceTotal));
+        }
+        parsedDoc.addMetadata("Total Columns", String.valueOf(rows.header.length));
+        parsedDoc.addMetadata("Page Count", "1");
+        parsedDoc.addMetadata("Word Count", String.valueOf(statistics.getWords()));
+        parsedDoc.addMetadata("Character Count", String.valueOf(statistics.getCharacters()));
+        
+        return parsedDoc;
+    }
+    
+    /**
+     * Rows of a whole file or of one chunk, with their text and markdown rendered on the fly
+     */
+    private static final class RowAccumulator {
+        private final boolean firstRowIsHeader;
+        private String[] header;
+        private final ColumnarTableData tableData = new ColumnarTableData();
+        private final StringBuilder content = new StringBuilder();
+        private final StringBuilder markdownRows = new StringBuilder();
+        private int totalRows;
+        // Set when a row limit left rows out; sourceRows is then the data row count or -1
+        private boolean truncated;
+        private long sourceRows = -1;
+        
+        RowAccumulator(boolean firstRowIsHeader) {
+            this.firstRowIsHeader = firstRowIsHeader;
+        }
+        
+        void add(String[] row) {
+            if (firstRowIsHeader && totalRows == 0) {
+                header = row;
+            } else {
+                List<String> rowData = Arrays.asList(row);
                 tableData.add(rowData);
+                ParsedDocument.ParsedTable.appendMarkdownRow(markdownRows, rowData);
             }
-            parsedTable.setData(tableData);
-            
-            // Add table to parsed document
-            parsedDoc.addTable(parsedTable);
-            
-            // Create a PageContent object to be consistent with Excel
-            PageContent pageContent = new PageContent(1);
+            totalRows++;
             
-            // Generate content and markdown
-            StringBuilder content = new StringBuilder();
-            StringBuilder markdown = new StringBuilder();
-            
-            // Add title
-            markdown.append("# ").append(title).append("\n\n");
-            markdown.append("### ").append(title).append("\n\n");
-            
-            // Add table to markdown
-            String tableMarkdown = parsedTable.toMarkdown();
-            markdown.append(tableMarkdown);
-            
-            // Set raw text for the page (tab-separated for consistency)
-            StringBuilder rawText = new StringBuilder();
-            for (String[] row : allRows) {
-                rawText.append(String.join("\t", row)).append("\n");
-                content.append(String.join("\t", row)).append("\n");
+            content.append(String.join("\t", row)).append("\n");
+        }
+        
+        /**
+         * Join the rows of consecutive chunks in order. Each chunk is released once
+         * copied, so at most one chunk is held twice.
+         */
+        static RowAccumulator concat(List<RowAccumulator> chunks) {
+            RowAccumulator first = chunks.get(0);
+            RowAccumulator all = new RowAccumulator(true);
+            int contentLength = 0;
+            int markdownLength = 0;
+            for (RowAccumulator chunk : chunks) {
+                contentLength += chunk.content.length();
+                markdownLength += chunk.markdownRows.length();
             }
-            
-            // Set page content
-            pageContent.setRawText(rawText.toString());
-            pageContent.setMarkdownContent(markdown.toString());
-            pageContent.addTable(parsedTable);
-            
-            // Add headers as headings for the page
-            if (headers != null) {
-                pageContent.addHeading(title);
+            all.header = first.header;
+            all.content.ensureCapacity(contentLength);
+            all.markdownRows.ensureCapacity(markdownLength);
+            for (int i = 0; i < chunks.size(); i++) {
+                RowAccumulator chunk = chunks.set(i, null);
+                all.tableData.addAll(chunk.tableData);
+                all.content.append(chunk.content);
+                all.markdownRows.append(chunk.markdownRows);
+                all.totalRows += chunk.totalRows;
             }
-            
-            // Calculate word and character counts
-            int totalWords = 0;
-            int totalChars = 0;
-            for (String[] row : allRows) {
-                for (String cell : row) {
-                    if (cell != null) {
-                        totalWords += cell.split("\\s+").length;
-                        totalChars += cell.length();
+            return all;
+        }
+    }
+    
+    /**
+     * Result of scanning one region for quotes and line breaks
+     */
+    private static final class QuoteScan {
+        // Offset of the first newline outside quotes if the region starts outside / inside quotes
+        private long newlineIfStartOutside = -1;
+        private long newlineIfStartInQuotes = -1;
+        private boolean oddQuotes;
+        private boolean hasEscapes;
+        
+        static QuoteScan scan(ByteBuffer bytes) {
+            QuoteScan scan = new QuoteScan();
+            byte[] buffer = new byte[64 * 1024];
+            long offset = 0;
+            boolean odd = false;
+            while (bytes.hasRemaining()) {
+                int length = Math.min(buffer.length, bytes.remaining());
+                bytes.get(buffer, 0, length);
+                for (int i = 0; i < length; i++) {
+                    byte b = buffer[i];
+                    if (b == '"') {
+                        odd = !odd;
+                    } else if (b == '\n') {
+                        if (!odd && scan.newlineIfStartOutside < 0) {
+                            scan.newlineIfStartOutside = offset + i;
+                        } else if (odd && scan.newlineIfStartInQuotes < 0) {
+                            scan.newlineIfStartInQuotes = offset + i;
+                        }
+                    } else if (b == '\\') {
+                        // opencsv treats backslash as an escape, which breaks quote parity
+                        scan.hasEscapes = true;
+                        return scan;
                     }
                 }
+                offset += length;
             }
-            
-            pageContent.setWordCount(totalWords);
-            pageContent.setCharacterCount(totalChars);
-            
-            // Add the page to the document
-            parsedDoc.addPage(pageContent);
-            
-            // Set document-level content
-            parsedDoc.setContent(content.toString());
-            parsedDoc.setMarkdownContent(markdown.toString());
-            
-            // Update metadata
-            metadata.setTotalPages(1);
-            metadata.setTotalSheets(1); // CSV is like one sheet
-            metadata.setTotalWords(totalWords);
-            metadata.setTotalCharacters(totalChars);
-            metadata.setTotalCharactersWithSpaces(content.toString().length());
-            metadata.setTotalTables(1);
-            
-            parsedDoc.setDocumentMetadata(metadata);
-            
-            // Add legacy metadata for backward compatibility
-            parsedDoc.addMetadata("Total Rows", String.valueOf(allRows.size()));
-            parsedDoc.addMetadata("Total Columns", String.valueOf(allRows.isEmpty() ? 0 : allRows.get(0).length));
-            parsedDoc.addMetadata("Page Count", "1");
-            parsedDoc.addMetadata("Word Count", String.valueOf(totalWords));
-            parsedDoc.addMetadata("Character Count", String.valueOf(totalChars));
-            
-            return parsedDoc;
-            
-        } catch (CsvException e) {
-            logger.error("Error parsing CSV file: " + fileName, e);
-            throw new IOException("Failed to parse CSV file: " + fileName, e);
+            scan.oddQuotes = odd;
+            return scan;
         }
     }
-}
\ No newline at end of file
+}
@@ -3,19 +3,25 @@ package io.github.twwch.markdown2office.parser.impl;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
 import io.github.twwch.markdown2office.parser.FileParser;
 import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +38,21 @@ public class ExcelFileParser implements FileParser {
     
     @Override
     public ParsedDocument parse(File file) throws IOException {
+        return parse(file, ParseOptions.defaults());
+    }
+    
+    /**
+     * Parse an Excel file. Workbooks of at least {@link ParseOptions#getStreamingThreshold()}
+     * bytes are read with a streaming reader (SAX for .xlsx, HSSF events for .xls) instead
+     * of a full workbook model; the result is the same. Either way the container is opened
+     * read-only from the file rather than copied from a stream.
+     */
+    @Override
+    public ParsedDocument parse(File file, ParseOptions options) throws IOException {
+        if (options == null) {
+            options = ParseOptions.defaults();
+        }
+        
         // Use BufferedInputStream to allow mark/reset for format detection
         try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file))) {
             // Mark the stream to allow reset after detection
@@ -46,7 +67,7 @@ public class ExcelFileParser implements FileParser {
             String headerStr = new String(header, 0, Math.min(bytesRead, 100), StandardCharsets.UTF_8);
             if (headerStr.contains("<?xml") && (headerStr.contains("xmlns") || headerStr.contains("Workbook"))) {
                 // This is Excel 2003 XML format (SpreadsheetML)
-                ParsedDocument parsedDoc = parseExcel2003XML(bis, file.getName());
+                ParsedDocument parsedDoc = SpreadsheetMlReader.read(bis, file.getName(), options);
                 // Set file size if available
                 if (parsedDoc.getDocumentMetadata() != null) {
                     parsedDoc.getDocumentMetadata().setFileSize(file.length());
@@ -59,21 +80,31 @@ public class ExcelFileParser implements FileParser {
             if (bytesRead >= 4 && header[0] == (byte) 0xD0 && header[1] == (byte) 0xCF && 
                 header[2] == (byte) 0x11 && header[3] == (byte) 0xE0) {
                 // Old Excel format (.xls)
-                workbook = new HSSFWorkbook(bis);
+                if (file.length() >= options.getStreamingThreshold()) {
+                    ParsedDocument parsedDoc = parseXlsStreaming(file, options);
+                    parsedDoc.getDocumentMetadata().setFileSize(file.length());
+                    return parsedDoc;
+                }
+                workbook = openXls(file);
             } else if (bytesRead >= 2 && header[0] == 'P' && header[1] == 'K') {
                 // New Excel format (.xlsx) - ZIP format
-                workbook = new XSSFWorkbook(bis);
+                if (file.length() >= options.getStreamingThreshold()) {
+                    ParsedDocument parsedDoc = parseXlsxStreaming(file, options);
+                    parsedDoc.getDocumentMetadata().setFileSize(file.length());
+                    return parsedDoc;
+                }
+                workbook = openXlsx(file);
             } else {
                 // Try WorkbookFactory as fallback
                 try {
-                    workbook = WorkbookFactory.create(bis);
+                    workbook = WorkbookFactory.create(file, null, true);
                 } catch (Exception e) {
                     throw new IOException("Cannot determine Excel format for file: " + file.getName(), e);
                 }
             }
             
             try {
-                ParsedDocument parsedDoc = extractContent(workbook, file.getName());
+                ParsedDocument parsedDoc = extractContent(workbook, file.getName(), options);
                 // Set file size if available
                 if (parsedDoc.getDocumentMetadata() != null) {
                     parsedDoc.getDocumentMetadata().setFileSize(file.length());
@@ -85,8 +116,123 @@ public class ExcelFileParser implements FileParser {
         }
     }
     
+    /**
+     * Pass each sheet to the sink as soon as it is read. Workbooks are always read with the
+     * streaming readers here, whatever their size, one sheet at a time.
+     */
+    @Override
+    public void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        if (options == null) {
+            options = ParseOptions.defaults();
+        }
+        
+        PageSink sizedSink = withFileSize(sink, file.length());
+        FileMagic magic = FileMagic.valueOf(file);
+        if (magic == FileMagic.OLE2) {
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                XlsStreamingReader.read(fs, file.getName(), options, sizedSink);
+            }
+        } else if (magic == FileMagic.OOXML) {
+            try {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    XlsxStreamingReader.read(pkg, file.getName(), options, sizedSink);
+                } finally {
+                    pkg.revert();
+                }
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid Excel file: " + file.getName(), e);
+            }
+        } else if (magic == FileMagic.XML) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                SpreadsheetMlReader.read(in, file.getName(), options, sizedSink);
+            }
+        } else {
+            FileParser.super.parse(file, options, sink);
+        }
+    }
+    
+    /**
+     * Read the workbook properties and sheet count without reading any cells: the summary
+     * information streams and the sheet list of the globals of an .xls file, or
+     * docProps/core.xml and app.xml and the sheet list of the workbook part of an .xlsx file.
+     * Other formats fall back to a full parse.
+     */
+    @Override
+    public DocumentMetadata parseMetadata(File file) throws IOException {
+        DocumentMetadata metadata = new DocumentMetadata();
+        metadata.setFileName(file.getName());
+        metadata.setFileType(ParsedDocument.FileType.EXCEL);
+        metadata.setFileSize(file.length());
+        
+        FileMagic magic = FileMagic.valueOf(file);
+        if (magic == FileMagic.OLE2) {
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                DirectoryNode root = fs.getRoot();
+                if (!OfficeMetadataReader.readEncryption(root, metadata)) {
+                    OfficeMetadataReader.readSummary(root, metadata);
+                    XlsStreamingReader.readGlobals(root, metadata);
+                }
+            }
+        } else if (magic == FileMagic.OOXML) {
+            try {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    OfficeMetadataReader.readProperties(pkg, metadata);
+                    metadata.setTotalSheets(XlsxStreamingReader.countSheets(pkg, file.getName()));
+                } finally {
+                    pkg.revert();
+                }
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid Excel file: " + file.getName(), e);
+            }
+        } else {
+            return FileParser.super.parseMetadata(file);
+        }
+        if (metadata.getTotalSheets() != null) {
+            metadata.setTotalPages(metadata.getTotalSheets()); // Each sheet is a page
+        }
+        return metadata;
+    }
+    
+    /**
+     * Record the file size in the metadata before the sink sees it
+     */
+    private static PageSink withFileSize(PageSink sink, long fileSize) {
+        return new PageSink() {
+            @Override
+            public void begin(DocumentMetadata metadata) throws IOException {
+                metadata.setFileSize(fileSize);
+                sink.begin(metadata);
+            }
+            
+            @Override
+            public void accept(PageContent page) throws IOException {
+                sink.accept(page);
+            }
+            
+            @Override
+            public void end(DocumentMetadata metadata) throws IOException {
+                sink.end(metadata);
+            }
+        };
+    }
+    
     @Override
     public ParsedDocument parse(InputStream inputStream, String fileName) throws IOException {
+        return parse(inputStream, fileName, ParseOptions.defaults());
+    }
+    
+    /**
+     * Parse an Excel stream. The size of a stream is not known up front, so the streaming
+     * readers are only used when the streaming threshold is 0.
+     */
+    @Override
+    public ParsedDocument parse(InputStream inputStream, String fileName, ParseOptions options) throws IOException {
+        if (options == null) {
+            options = ParseOptions.defaults();
+        }
+        
         // Buffer the input stream to allow mark/reset
         BufferedInputStream bis = inputStream instanceof BufferedInputStream ? 
             (BufferedInputStream) inputStream : new BufferedInputStream(inputStream);
@@ -103,7 +249,7 @@ public class ExcelFileParser implements FileParser {
         String headerStr = new String(header, 0, Math.min(bytesRead, 100), StandardCharsets.UTF_8);
         if (headerStr.contains("<?xml") && (headerStr.contains("xmlns") || headerStr.contains("Workbook"))) {
             // This is Excel 2003 XML format (SpreadsheetML)
-            return parseExcel2003XML(bis, fileName);
+            return SpreadsheetMlReader.read(bis, fileName, options);
         }
         
         // Continue with existing logic for binary formats
@@ -119,9 +265,21 @@ public class ExcelFileParser implements FileParser {
         if (bytesRead >= 4 && header[0] == (byte) 0xD0 && header[1] == (byte) 0xCF && 
             header[2] == (byte) 0x11 && header[3] == (byte) 0xE0) {
             // Old Excel format (.xls)
+            if (options.getStreamingThreshold() == 0) {
+                try (POIFSFileSystem fs = new POIFSFileSystem(bis)) {
+                    return XlsStreamingReader.read(fs, fileName, options);
+                }
+            }
             workbook = new HSSFWorkbook(bis);
         } else if (bytesRead >= 2 && header[0] == 'P' && header[1] == 'K') {
             // New Excel format (.xlsx) - ZIP format  
+            if (options.getStreamingThreshold() == 0) {
+                try (OPCPackage pkg = OPCPackage.open(bis)) {
+                    return XlsxStreamingReader.read(pkg, fileName, options);
+                } catch (InvalidFormatException e) {
+                    throw new IOException("Invalid Excel file: " + fileName, e);
+                }
+            }
             workbook = new XSSFWorkbook(bis);
         } else {
             // Try WorkbookFactory as fallback
@@ -143,12 +301,72 @@ public class ExcelFileParser implements FileParser {
         }
         
         try {
-            return extractContent(workbook, fileName);
+            return extractContent(workbook, fileName, options);
         } finally {
             workbook.close();
         }
     }
     
+    /**
+     * Open an .xls workbook model on a read-only file system; closing the workbook closes it
+     */
+    private static HSSFWorkbook openXls(File file) throws IOException {
+        POIFSFileSystem fs = new POIFSFileSystem(file, true);
+        try {
+            return new HSSFWorkbook(fs);
+        } catch (IOException | RuntimeException e) {
+            fs.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Open an .xlsx workbook model on a read-only package, so parts are read from the file
+     * on demand instead of the whole zip being inflated into memory first
+     */
+    private static XSSFWorkbook openXlsx(File file) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Invalid Excel file: " + file.getName(), e);
+        }
+        try {
+            return new XSSFWorkbook(pkg);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+    
+    /**
+     * Read an .xlsx file with the streaming SAX reader, parsing sheets concurrently.
+     * The package is opened read-only, so the file is never modified.
+     */
+    private ParsedDocument parseXlsxStreaming(File file, ParseOptions options) throws IOException {
+        try {
+            OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+            try {
+                return XlsxStreamingReader.read(pkg, file.getName(), options);
+            } finally {
+                // A read-only package is discarded, not saved
+                pkg.revert();
+            }
+        } catch (InvalidFormatException e) {
+            throw new IOException("Invalid Excel file: " + file.getName(), e);
+        }
+    }
+    
+    /**
+     * Read an .xls file with the HSSF event reader. The file system is opened read-only
+     * straight from the file instead of being copied into memory.
+     */
+    private ParsedDocument parseXlsStreaming(File file, ParseOptions options) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            return XlsStreamingReader.read(fs, file.getName(), options);
+        }
+    }
+    
     @Override
     public boolean supports(String fileName) {
         if (fileName == null) return false;
@@ -156,178 +374,57 @@ public class ExcelFileParser implements FileParser {
         return lower.endsWith(".xlsx") || lower.endsWith(".xls");
     }
     
-    private ParsedDocument extractContent(Workbook workbook, String fileName) {
-        ParsedDocument parsedDoc = new ParsedDocument();
-        parsedDoc.setFileType(ParsedDocument.FileType.EXCEL);
-        
-        // Set title from filename (remove extension) as default
-        String defaultTitle = fileName != null && !fileName.isEmpty() ? 
-            fileName.replaceAll("\\.[^.]+$", "") : "Excel Document";
-        parsedDoc.setTitle(defaultTitle);
-        
-        // Create and populate enhanced metadata
-        DocumentMetadata metadata = new DocumentMetadata();
-        metadata.setFileName(fileName);
-        metadata.setFileType(ParsedDocument.FileType.EXCEL);
-        metadata.setTotalSheets(workbook.getNumberOfSheets());
-        metadata.setTitle(defaultTitle); // Set default title first
+    private ParsedDocument extractContent(Workbook workbook, String fileName, ParseOptions options) throws IOException {
+        WorkbookDocumentBuilder document = new WorkbookDocumentBuilder(fileName);
         
         // Extract properties if available (for XLSX files)
         if (workbook instanceof XSSFWorkbook) {
             XSSFWorkbook xssfWorkbook = (XSSFWorkbook) workbook;
             try {
                 POIXMLProperties properties = xssfWorkbook.getProperties();
-                if (properties != null && properties.getCoreProperties() != null) {
-                    POIXMLProperties.CoreProperties coreProps = properties.getCoreProperties();
-                    if (coreProps.getTitle() != null && !coreProps.getTitle().isEmpty()) {
-                        // Override with document title if available
-                        metadata.setTitle(coreProps.getTitle());
-                        parsedDoc.setTitle(coreProps.getTitle());
-                    }
-                    if (coreProps.getCreator() != null) {
-                        metadata.setAuthor(coreProps.getCreator());
-                        parsedDoc.setAuthor(coreProps.getCreator());
-                    }
-                    if (coreProps.getSubject() != null) {
-                        metadata.setSubject(coreProps.getSubject());
-                    }
-                    if (coreProps.getDescription() != null) {
-                        metadata.setDescription(coreProps.getDescription());
-                    }
-                    if (coreProps.getKeywords() != null) {
-                        metadata.setKeywords(coreProps.getKeywords());
-                    }
-                    if (coreProps.getCreated() != null) {
-                        metadata.setCreationDate(coreProps.getCreated());
-                    }
-                    if (coreProps.getModified() != null) {
-                        metadata.setModificationDate(coreProps.getModified());
-                    }
+                if (properties != null) {
+                    document.applyCoreProperties(properties.getCoreProperties());
                 }
             } catch (Exception e) {
                 // Properties might not be accessible, continue without them
             }
         }
         
-        StringBuilder allContent = new StringBuilder();
-        StringBuilder allMarkdown = new StringBuilder();
-        int totalWords = 0;
-        int totalChars = 0;
-        int totalTables = 0;
-        
         // Process each sheet as a separate page
-        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+        int sheetCount = Math.min(workbook.getNumberOfSheets(), options.getMaxSheets());
+        document.setTotalSheets(workbook.getNumberOfSheets());
+        for (int i = 0; i < sheetCount; i++) {
             Sheet sheet = workbook.getSheetAt(i);
-            String sheetName = sheet.getSheetName();
-            
-            // Create page content for this sheet
-            PageContent pageContent = new PageContent(i + 1); // Page numbers start from 1
-            StringBuilder sheetContent = new StringBuilder();
-            StringBuilder sheetMarkdown = new StringBuilder();
-            
-            sheetContent.append("Sheet: ").append(sheetName).append("\n");
-            sheetMarkdown.append("# ").append(sheetName).append("\n\n");
-            pageContent.addHeading("# " + sheetName);
-            
-            // Process sheet data
-            ParsedDocument.ParsedTable parsedTable = processSheet(sheet, sheetName, sheetContent, sheetMarkdown);
-            if (parsedTable != null) {
-                parsedDoc.addTable(parsedTable);
-                pageContent.addTable(parsedTable);
-                totalTables++;
-            }
-            
-            String pageText = sheetContent.toString();
-            String pageMarkdownText = sheetMarkdown.toString();
-            
-            pageContent.setRawText(pageText);
-            pageContent.setMarkdownContent(pageMarkdownText);
-            
-            // Calculate statistics for this sheet
-            int sheetWords = countWords(pageText);
-            int sheetChars = pageText.length();
-            
-            totalWords += sheetWords;
-            totalChars += sheetChars;
-            
-            parsedDoc.addPage(pageContent);
-            
-            allContent.append(pageText);
-            allMarkdown.append(pageMarkdownText).append("\n\n");
+            SheetContentBuilder sheetContent = new SheetContentBuilder(sheet.getSheetName(), options);
+            processSheet(sheet, sheetContent);
+            document.addSheet(sheetContent);
         }
         
-        // Update metadata with statistics
-        metadata.setTotalWords(totalWords);
-        metadata.setTotalCharacters(totalChars);
-        metadata.setTotalCharactersWithSpaces(totalChars); // Same as totalChars for Excel
-        metadata.setTotalTables(totalTables);
-        metadata.setTotalPages(workbook.getNumberOfSheets()); // Each sheet is a page
-        
-        parsedDoc.setDocumentMetadata(metadata);
-        
-        // Set legacy content for backward compatibility
-        parsedDoc.setContent(allContent.toString());
-        parsedDoc.setMarkdownContent(allMarkdown.toString());
-        
-        // Add legacy metadata
-        parsedDoc.addMetadata("Sheet Count", String.valueOf(workbook.getNumberOfSheets()));
-        parsedDoc.addMetadata("Word Count", String.valueOf(totalWords));
-        parsedDoc.addMetadata("Character Count", String.valueOf(totalChars));
-        parsedDoc.addMetadata("Table Count", String.valueOf(totalTables));
-        
-        return parsedDoc;
+        return document.build();
     }
     
-    private ParsedDocument.ParsedTable processSheet(Sheet sheet, String sheetName, StringBuilder content, StringBuilder markdown) {
-        ParsedDocument.ParsedTable parsedTable = new ParsedDocument.ParsedTable();
-        parsedTable.setTitle(sheetName);
-        
-        List<List<String>> tableData = new ArrayList<>();
-        boolean firstRow = true;
-        boolean hasData = false;
-        
+    /**
+     * Feed the physically present cells of each row to the builder. Cells without a value
+     * are not materialised, so formatting that reaches far to the right costs nothing.
+     */
+    private void processSheet(Sheet sheet, SheetContentBuilder sheetContent) {
         for (Row row : sheet) {
-            List<String> rowData = new ArrayList<>();
             int lastCellNum = row.getLastCellNum();
-            
             if (lastCellNum <= 0) continue; // Skip empty rows
             
-            for (int cellIndex = 0; cellIndex < lastCellNum; cellIndex++) {
-                Cell cell = row.getCell(cellIndex);
-                String cellValue = getCellValueAsString(cell);
-                rowData.add(cellValue);
-                content.append(cellValue).append("\t");
-            }
-            
-            if (!rowData.stream().allMatch(String::isEmpty)) {
-                hasData = true;
-                if (firstRow) {
-                    parsedTable.setHeaders(rowData);
-                    firstRow = false;
-                } else {
-                    tableData.add(rowData);
+            List<String> rowData = new ArrayList<>();
+            for (Cell cell : row) {
+                String value = getCellValueAsString(cell);
+                if (value.isEmpty()) continue;
+                int cellIndex = cell.getColumnIndex();
+                while (rowData.size() < cellIndex) {
+                    rowData.add("");
                 }
+                rowData.add(value);
             }
-            
-            content.append("\n");
+            sheetContent.addRow(rowData, lastCellNum);
+            if (sheetContent.isComplete()) break; // Row limit reached
         }
-        
-        if (hasData) {
-            parsedTable.setData(tableData);
-            markdown.append(parsedTable.toMarkdown()).append("\n");
-            return parsedTable;
-        }
-        
-        return null;
-    }
-    
-    private int countWords(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return 0;
-        }
-        // Remove tabs and extra whitespace, then count words
-        String cleanText = text.replaceAll("\\t+", " ").replaceAll("\\s+", " ").trim();
-        return cleanText.isEmpty() ? 0 : cleanText.split("\\s+").length;
     }
     
     private String getCellValueAsString(Cell cell) {
@@ -367,156 +464,4 @@ public class ExcelFileParser implements FileParser {
                 return "";
         }
     }
-    
-    /**
-     * Parse Excel 2003 XML format (SpreadsheetML)
-     */
-    private ParsedDocument parseExcel2003XML(InputStream inputStream, String fileName) throws IOException {
-        ParsedDocument parsedDoc = new ParsedDocument();
-        parsedDoc.setFileType(ParsedDocument.FileType.EXCEL);
-        
-        // Create metadata
-        DocumentMetadata metadata = new DocumentMetadata();
-        metadata.setFileName(fileName);
-        metadata.setFileType(ParsedDocument.FileType.EXCEL);
-        metadata.setDocumentFormat("Excel 2003 XML (SpreadsheetML)");
-        
-        StringBuilder content = new StringBuilder();
-        StringBuilder markdown = new StringBuilder();
-        List<ParsedDocument.ParsedTable> tables = new ArrayList<>();
-        int sheetCount = 0;
-        
-        // Parse XML content
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            String line;
-            boolean inWorksheet = false;
-            boolean inTable = false;
-            boolean inRow = false;
-            String worksheetName = null;
-            List<String> currentRow = new ArrayList<>();
-            ParsedDocument.ParsedTable currentTable = null;
-            int rowCount = 0;
-            
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                
-                // Extract worksheet name
-                if (line.contains("<Worksheet") && line.contains("ss:Name=")) {
-                    int start = line.indexOf("ss:Name=\"") + 9;
-                    int end = line.indexOf("\"", start);
-                    if (end > start) {
-                        worksheetName = line.substring(start, end);
-                        inWorksheet = true;
-                        sheetCount++;
-                        markdown.append("## Sheet: ").append(worksheetName).append("\n\n");
-                        content.append("Sheet: ").append(worksheetName).append("\n");
-                    }
-                }
-                
-                // Start of table
-                if (line.contains("<Table")) {
-                    inTable = true;
-                    currentTable = new ParsedDocument.ParsedTable();
-                    if (worksheetName != null) {
-                        currentTable.setTitle(worksheetName);
-                    }
-                    rowCount = 0;
-                }
-                
-                // Start of row
-                if (line.contains("<Row") && inTable) {
-                    inRow = true;
-                    currentRow = new ArrayList<>();
-                }
-                
-                // Extract cell data
-                if (inRow && line.contains("<Data")) {
-                    int start = line.indexOf(">") + 1;
-                    int end = line.indexOf("</Data>");
-                    if (end > start) {
-                        String cellValue = line.substring(start, end);
-                        // Decode HTML entities
-                        cellValue = cellValue.replace("&lt;", "<")
-                                           .replace("&gt;", ">")
-                                           .replace("&amp;", "&")
-                                           .replace("&quot;", "\"")
-                                           .replace("&apos;", "'");
-                        currentRow.add(cellValue);
-                    } else if (line.contains("<Data") && line.contains("/>")) {
-                        // Empty cell
-                        currentRow.add("");
-                    }
-                }
-                
-                // End of row
-                if (line.contains("</Row>") && inRow) {
-                    inRow = false;
-                    if (!currentRow.isEmpty()) {
-                        if (rowCount == 0 && currentTable != null) {
-                            // First row as headers
-                            currentTable.setHeaders(new ArrayList<>(currentRow));
-                        } else if (currentTable != null) {
-                            // Data rows
-                            if (currentTable.getData() == null) {
-                                currentTable.setData(new ArrayList<>());
-                            }
-                            currentTable.getData().add(new ArrayList<>(currentRow));
-                        }
-                        
-                        // Add to content
-                        content.append(String.join("\t", currentRow)).append("\n");
-                        rowCount++;
-                    }
-                }
-                
-                // End of table
-                if (line.contains("</Table>") && inTable) {
-                    inTable = false;
-                    if (currentTable != null && currentTable.getHeaders() != null) {
-                        tables.add(currentTable);
-                        markdown.append(currentTable.toMarkdown()).append("\n\n");
-                    }
-                    currentTable = null;
-                }
-                
-                // End of worksheet
-                if (line.contains("</Worksheet>")) {
-                    inWorksheet = false;
-                    content.append("\n");
-                }
-            }
-        }
-        
-        // Set parsed content
-        parsedDoc.setContent(content.toString());
-        parsedDoc.setMarkdownContent(markdown.toString());
-        parsedDoc.setTables(tables);
-        
-        // Create a single page with all content
-        PageContent page = new PageContent(1);
-        page.setRawText(content.toString());
-        page.setMarkdownContent(markdown.toString());
-        page.setTables(tables);
-        
-        List<PageContent> pages = new ArrayList<>();
-        pages.add(page);
-        parsedDoc.setPages(pages);
-        
-        // Set metadata
-        metadata.setTotalPages(1);
-        metadata.setTotalSheets(sheetCount > 0 ? sheetCount : 1); // At least 1 sheet
-        metadata.setTotalTables(tables.size());
-        metadata.setTotalWords(content.toString().split("\\s+").length);
-        metadata.setTotalCharacters(content.toString().length());
-        
-        if (fileName != null) {
-            String title = fileName.replaceAll("\\.[^.]+$", "");
-            metadata.setTitle(title);
-            parsedDoc.setTitle(title);
-        }
-        
-        parsedDoc.setDocumentMetadata(metadata);
-        
-        return parsedDoc;
-    }
 }
\ No newline at end of file
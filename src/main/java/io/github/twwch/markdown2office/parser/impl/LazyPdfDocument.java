@@ -0,0 +1,115 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.PagedDocument;
+import io.github.twwch.markdown2office.parser.ParseOptions;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PDF behind {@link PdfFileParser#open(java.io.File, ParseOptions)}. Pages are extracted with
+ * the same code as a full parse, in contiguous runs of pages not yet cached.
+ * PDDocument is not thread-safe, so access is synchronized.
+ */
+final class LazyPdfDocument implements PagedDocument {
+    
+    private final PdfFileParser parser;
+    private final ParseOptions options;
+    private final DocumentMetadata metadata;
+    private final int pageCount;
+    // Indexed by page number - 1; null until the page has been extracted
+    private final PageContent[] pages;
+    private PDDocument document;
+    
+    LazyPdfDocument(PdfFileParser parser, PDDocument document, DocumentMetadata metadata, ParseOptions options) {
+        this.parser = parser;
+        this.document = document;
+        this.metadata = metadata;
+        this.options = options;
+        this.pageCount = document.getNumberOfPages();
+        this.pages = new PageContent[pageCount];
+    }
+    
+    @Override
+    public ParsedDocument.FileType getFileType() {
+        return ParsedDocument.FileType.PDF;
+    }
+    
+    @Override
+    public DocumentMetadata getDocumentMetadata() {
+        return metadata;
+    }
+    
+    @Override
+    public int getPageCount() {
+        return pageCount;
+    }
+    
+    @Override
+    public PageContent getPage(int pageNumber) throws IOException {
+        return getPages(pageNumber, pageNumber).get(0);
+    }
+    
+    @Override
+    public synchronized List<PageContent> getPages(int firstPage, int lastPage) throws IOException {
+        if (firstPage < 1 || lastPage > pageCount || firstPage > lastPage) {
+            throw new IllegalArgumentException("Invalid page range " + firstPage + "-" + lastPage
+                + " for a document with " + pageCount + " pages");
+        }
+        if (document == null) {
+            throw new IllegalStateException("Document has been closed");
+        }
+        
+        int pageNum = firstPage;
+        while (pageNum <= lastPage) {
+            if (pages[pageNum - 1] != null) {
+                pageNum++;
+                continue;
+            }
+            int runEnd = pageNum;
+            while (runEnd < lastPage && pages[runEnd] == null) {
+                runEnd++;
+            }
+            // Only non-empty pages are returned; the gaps are the empty pages
+            for (PageContent page : parser.extractPages(document, pageNum, runEnd, options)) {
+                pages[page.getPageNumber() - 1] = page;
+            }
+            for (int i = pageNum; i <= runEnd; i++) {
+                if (pages[i - 1] == null) {
+                    pages[i - 1] = emptyPage(i);
+                }
+            }
+            pageNum = runEnd + 1;
+        }
+        
+        List<PageContent> range = new ArrayList<>(lastPage - firstPage + 1);
+        for (int i = firstPage; i <= lastPage; i++) {
+            range.add(pages[i - 1]);
+        }
+        return range;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (document != null) {
+            try {
+                document.close();
+            } finally {
+                document = null;
+            }
+        }
+    }
+    
+    private static PageContent emptyPage(int pageNumber) {
+        PageContent page = new PageContent(pageNumber);
+        page.setRawText("");
+        page.setMarkdownContent("");
+        page.setWordCount(0);
+        return page;
+    }
+}
@@ -9,11 +9,12 @@ import org.commonmark.node.Heading;
 import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.text.TextContentRenderer;
+import io.github.twwch.markdown2office.parser.util.CharsetDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -70,15 +71,20 @@ public class MarkdownFileParser implements FileParser {
         StringBuilder content = new StringBuilder();
         List<String> lines = new ArrayList<>();
         
+        // Detect the encoding from the leading bytes instead of assuming UTF-8
+        BufferedInputStream bufferedStream = new BufferedInputStream(inputStream, CharsetDetector.DEFAULT_SAMPLE_SIZE);
+        Charset charset = CharsetDetector.detect(bufferedStream);
+        logger.debug("Detected charset for markdown file {}: {}", fileName, charset.displayName());
+        
         try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                new InputStreamReader(bufferedStream, charset))) {
             
             String line;
             while ((line = reader.readLine()) != null) {
                 content.append(line).append("\n");
                 lines.add(line);
             }
-            
+        
         } catch (IOException e) {
             logger.error("Error reading markdown file: " + fileName, e);
             throw new IOException("Failed to read markdown file: " + fileName, e);
@@ -98,15 +104,14 @@ public class MarkdownFileParser implements FileParser {
         parsedDoc.setMarkdownContent(markdownContent); // Keep original markdown
         
         // Extract structured information and create pages
-        List<PageContent> pages = createPages(document, lines, markdownContent);
+        List<PageContent> pages = createPages(document, lines, markdownContent, plainTextContent);
         parsedDoc.setPages(pages);
         
         // Extract title and set in metadata
         extractTitle(document, parsedDoc, fileName, metadata);
         
-        // Add metadata
-        metadata.setTotalWords(plainTextContent.split("\\s+").length);
-        metadata.setTotalCharacters(markdownContent.length());
+        // Add metadata; the single page holds the plain text, counted once
+        metadata.applyTextStatistics(pages.get(0).getStatistics());
         metadata.setTotalPages(pages.size());
         parsedDoc.setDocumentMetadata(metadata);
         
@@ -149,22 +154,17 @@ public class MarkdownFileParser implements FileParser {
         }
     }
     
-    private List<PageContent> createPages(Node document, List<String> lines, String markdownContent) {
+    private List<PageContent> createPages(Node document, List<String> lines, String markdownContent,
+                                          String plainTextContent) {
         List<PageContent> pages = new ArrayList<>();
         
         // For markdown files, put all content in a single page
         PageContent page = new PageContent(1);
-        
-        // Extract plain text content
-        TextContentRenderer textRenderer = TextContentRenderer.builder().build();
-        String plainTextContent = textRenderer.render(document);
-        
         page.setRawText(plainTextContent);
         page.setMarkdownContent(markdownContent);
-        page.setWordCount(plainTextContent.split("\\s+").length);
-        page.setCharacterCount(plainTextContent.length());
         
         // Walk through the document to extract structured data
+        TextContentRenderer textRenderer = TextContentRenderer.builder().build();
         Node node = document.getFirstChild();
         while (node != null) {
             if (node instanceof Heading) {
@@ -238,7 +238,7 @@ public class MarkdownFileParser implements FileParser {
             table.setData(data);
             
             return table;
-            
+        
         } catch (Exception e) {
             logger.warn("Error parsing markdown table", e);
             return null;
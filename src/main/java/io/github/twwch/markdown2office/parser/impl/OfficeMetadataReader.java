@@ -0,0 +1,178 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import org.apache.poi.hpsf.DocumentSummaryInformation;
+import org.apache.poi.hpsf.PropertySet;
+import org.apache.poi.hpsf.PropertySetFactory;
+import org.apache.poi.hpsf.SummaryInformation;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.openxmlformats.schemas.officeDocument.x2006.extendedProperties.CTProperties;
+
+/**
+ * Reads the document properties that Office applications store next to the content, for
+ * metadata-only parsing: the OLE2 summary information streams and the OOXML docProps parts.
+ * Neither touches the document body.
+ */
+final class OfficeMetadataReader {
+    
+    // Bit of the summary information security property set for password-protected files
+    private static final int SECURITY_PASSWORD_PROTECTED = 0x01;
+    
+    private OfficeMetadataReader() {
+    }
+    
+    /**
+     * Mark the metadata of an encrypted OOXML file, which is stored as an OLE2 container
+     * holding the encrypted package
+     * @return true if the container holds an encrypted package and nothing else can be read
+     */
+    static boolean readEncryption(DirectoryNode root, DocumentMetadata metadata) {
+        boolean encrypted = root.hasEntry(Decryptor.DEFAULT_POIFS_ENTRY);
+        if (encrypted) {
+            metadata.setIsEncrypted(true);
+            metadata.setIsPasswordProtected(true);
+        }
+        return encrypted;
+    }
+    
+    /**
+     * Copy the OLE2 SummaryInformation and DocumentSummaryInformation streams into the metadata
+     */
+    static void readSummary(DirectoryNode root, DocumentMetadata metadata) {
+        PropertySet summary = readPropertySet(root, SummaryInformation.DEFAULT_STREAM_NAME);
+        if (summary instanceof SummaryInformation) {
+            SummaryInformation info = (SummaryInformation) summary;
+            if (info.getTitle() != null) {
+                metadata.setTitle(info.getTitle());
+            }
+            if (info.getAuthor() != null) {
+                metadata.setAuthor(info.getAuthor());
+            }
+            if (info.getSubject() != null) {
+                metadata.setSubject(info.getSubject());
+            }
+            if (info.getKeywords() != null) {
+                metadata.setKeywords(info.getKeywords());
+            }
+            if (info.getComments() != null) {
+                metadata.setDescription(info.getComments());
+            }
+            if (info.getApplicationName() != null) {
+                metadata.setCreator(info.getApplicationName());
+            }
+            if (info.getCreateDateTime() != null) {
+                metadata.setCreationDate(info.getCreateDateTime());
+            }
+            if (info.getLastSaveDateTime() != null) {
+                metadata.setModificationDate(info.getLastSaveDateTime());
+            }
+            if (info.getPageCount() > 0) {
+                metadata.setTotalPages(info.getPageCount());
+            }
+            if (info.getWordCount() > 0) {
+                metadata.setTotalWords(info.getWordCount());
+            }
+            if (info.getCharCount() > 0) {
+                metadata.setTotalCharacters(info.getCharCount());
+            }
+            if ((info.getSecurity() & SECURITY_PASSWORD_PROTECTED) != 0) {
+                metadata.setIsPasswordProtected(true);
+            }
+        }
+        
+        PropertySet documentSummary = readPropertySet(root, DocumentSummaryInformation.DEFAULT_STREAM_NAME);
+        if (documentSummary instanceof DocumentSummaryInformation) {
+            DocumentSummaryInformation info = (DocumentSummaryInformation) documentSummary;
+            if (info.getSlideCount() > 0) {
+                metadata.setTotalSlides(info.getSlideCount());
+            }
+            if (info.getParCount() > 0) {
+                metadata.setTotalParagraphs(info.getParCount());
+            }
+            if (info.getLineCount() > 0) {
+                metadata.setTotalLines(info.getLineCount());
+            }
+        }
+    }
+    
+    /**
+     * Copy the OOXML core properties (docProps/core.xml) and the statistics of the extended
+     * properties (docProps/app.xml) into the metadata. The counts are the ones the saving
+     * application recorded.
+     */
+    static void readProperties(OPCPackage pkg, DocumentMetadata metadata) {
+        POIXMLProperties properties;
+        try {
+            properties = new POIXMLProperties(pkg);
+        } catch (Exception e) {
+            // Properties might not be accessible, continue without them
+            return;
+        }
+        
+        POIXMLProperties.CoreProperties core = properties.getCoreProperties();
+        if (core != null) {
+            if (core.getTitle() != null) {
+                metadata.setTitle(core.getTitle());
+            }
+            if (core.getCreator() != null) {
+                metadata.setAuthor(core.getCreator());
+            }
+            if (core.getSubject() != null) {
+                metadata.setSubject(core.getSubject());
+            }
+            if (core.getDescription() != null) {
+                metadata.setDescription(core.getDescription());
+            }
+            if (core.getKeywords() != null) {
+                metadata.setKeywords(core.getKeywords());
+            }
+            if (core.getCreated() != null) {
+                metadata.setCreationDate(core.getCreated());
+            }
+            if (core.getModified() != null) {
+                metadata.setModificationDate(core.getModified());
+            }
+        }
+        
+        POIXMLProperties.ExtendedProperties extended = properties.getExtendedProperties();
+        CTProperties app = extended != null ? extended.getUnderlyingProperties() : null;
+        if (app != null) {
+            if (app.isSetApplication()) {
+                metadata.setCreator(app.getApplication());
+            }
+            if (app.isSetPages() && app.getPages() > 0) {
+                metadata.setTotalPages(app.getPages());
+            }
+            if (app.isSetWords() && app.getWords() > 0) {
+                metadata.setTotalWords(app.getWords());
+            }
+            if (app.isSetCharacters() && app.getCharacters() > 0) {
+                metadata.setTotalCharacters(app.getCharacters());
+            }
+            if (app.isSetCharactersWithSpaces() && app.getCharactersWithSpaces() > 0) {
+                metadata.setTotalCharactersWithSpaces(app.getCharactersWithSpaces());
+            }
+            if (app.isSetParagraphs() && app.getParagraphs() > 0) {
+                metadata.setTotalParagraphs(app.getParagraphs());
+            }
+            if (app.isSetLines() && app.getLines() > 0) {
+                metadata.setTotalLines(app.getLines());
+            }
+        }
+    }
+    
+    private static PropertySet readPropertySet(DirectoryNode root, String streamName) {
+        if (!root.hasEntry(streamName)) {
+            return null;
+        }
+        try {
+            return PropertySetFactory.create(root, streamName);
+        } catch (Exception e) {
+            // A damaged property stream leaves the properties unset
+            return null;
+        }
+    }
+}
@@ -3,12 +3,20 @@ package io.github.twwch.markdown2office.parser.impl;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
 import io.github.twwch.markdown2office.parser.FileParser;
 import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.PagedDocument;
+import io.github.twwch.markdown2office.parser.ParseOptions;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.LineClassifier;
+import io.github.twwch.markdown2office.parser.util.ParallelTasks;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
 import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
 import org.apache.pdfbox.pdmodel.graphics.PDXObject;
 import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
@@ -20,23 +28,28 @@ import org.apache.pdfbox.text.TextPosition;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * Parser for PDF files with optional hidden layer filtering
  */
 public class PdfFileParser implements FileParser {
     
-    // Configuration field to control whether to read hidden layers
-    private boolean includeHiddenLayers = false;
+    // Fewer pages per worker are not worth loading another PDDocument
+    private static final int MIN_PAGES_PER_WORKER = 16;
+    
+    // Options used when the caller does not pass any; replaced as a whole, never mutated
+    private volatile ParseOptions defaultOptions;
     
     /**
      * Default constructor - hidden layers are excluded by default
      */
     public PdfFileParser() {
-        this(false);
+        this(ParseOptions.defaults());
     }
     
     /**
@@ -44,15 +57,26 @@ public class PdfFileParser implements FileParser {
      * @param includeHiddenLayers if true, hidden layers will be included in extraction
      */
     public PdfFileParser(boolean includeHiddenLayers) {
-        this.includeHiddenLayers = includeHiddenLayers;
+        this(ParseOptions.builder().includeHiddenLayers(includeHiddenLayers).build());
+    }
+    
+    /**
+     * Constructor with default options for calls that do not pass their own
+     * @param defaultOptions options used by the parse methods without a ParseOptions argument
+     */
+    public PdfFileParser(ParseOptions defaultOptions) {
+        this.defaultOptions = defaultOptions != null ? defaultOptions : ParseOptions.defaults();
     }
     
     /**
      * Set whether to include hidden layers in extraction
      * @param includeHiddenLayers true to include hidden layers, false to exclude them
+     * @deprecated changes the behaviour for every caller sharing this parser;
+     *             pass {@link ParseOptions} to {@link #parse(File, ParseOptions)} instead
      */
+    @Deprecated
     public void setIncludeHiddenLayers(boolean includeHiddenLayers) {
-        this.includeHiddenLayers = includeHiddenLayers;
+        this.defaultOptions = defaultOptions.toBuilder().includeHiddenLayers(includeHiddenLayers).build();
     }
     
     /**
@@ -60,7 +84,7 @@ public class PdfFileParser implements FileParser {
      * @return true if hidden layers are included, false otherwise
      */
     public boolean isIncludeHiddenLayers() {
-        return includeHiddenLayers;
+        return defaultOptions.isIncludeHiddenLayers();
     }
     
     @Override
@@ -70,13 +94,27 @@ public class PdfFileParser implements FileParser {
     
     @Override
     public ParsedDocument parse(File file) throws IOException {
-        try (PDDocument document = PDDocument.load(file)) {
-            // Remove hidden content if configured to do so
-            if (!includeHiddenLayers) {
-                removeHiddenContent(document);
-            }
+        return parse(file, defaultOptions);
+    }
+    
+    /**
+     * Parse a PDF file. Files of at least {@link ParseOptions#getParallelThreshold()} bytes
+     * are split into page ranges that are extracted concurrently, each from its own
+     * PDDocument; the result is the same as a sequential parse. Document data is buffered
+     * within {@link ParseOptions#getMemoryBudget()}.
+     */
+    @Override
+    public ParsedDocument parse(File file, ParseOptions options) throws IOException {
+        options = options != null ? options : defaultOptions;
+        try (PDDocument document = PDDocument.load(file, memoryUsage(options, 1))) {
+            int pageCount = document.getNumberOfPages();
+            int workers = workerCount(file, pageCount, options);
+            // In parallel mode this document is only read for metadata; the workers share the budget
+            List<PageContent> pages = workers > 1 ?
+                extractPagesParallel(file, memoryUsage(options, workers), pageCount, workers, options) :
+                extractPages(document, 1, pageCount, options);
             
-            ParsedDocument parsedDoc = extractContent(document, file.getName());
+            ParsedDocument parsedDoc = extractContent(document, file.getName(), pages);
             // Set file size if available
             if (parsedDoc.getDocumentMetadata() != null) {
                 parsedDoc.getDocumentMetadata().setFileSize(file.length());
@@ -87,27 +125,205 @@ public class PdfFileParser implements FileParser {
     
     @Override
     public ParsedDocument parse(InputStream inputStream, String fileName) throws IOException {
-        try (PDDocument document = PDDocument.load(inputStream)) {
-            // Remove hidden content if configured to do so
-            if (!includeHiddenLayers) {
-                removeHiddenContent(document);
-            }
+        return parse(inputStream, fileName, defaultOptions);
+    }
+    
+    @Override
+    public ParsedDocument parse(InputStream inputStream, String fileName, ParseOptions options) throws IOException {
+        options = options != null ? options : defaultOptions;
+        try (PDDocument document = PDDocument.load(inputStream, memoryUsage(options, 1))) {
+            List<PageContent> pages = extractPages(document, 1, document.getNumberOfPages(), options);
+            return extractContent(document, fileName, pages);
+        }
+    }
+    
+    /**
+     * Extract the pages of a PDF one at a time, in page order. Pages are extracted
+     * sequentially from a single PDDocument, whatever the parallelism option, and empty
+     * pages are skipped as in a full parse.
+     */
+    @Override
+    public void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        options = options != null ? options : defaultOptions;
+        try (PDDocument document = PDDocument.load(file, memoryUsage(options, 1))) {
+            DocumentMetadata metadata = readMetadata(document, file.getName());
+            metadata.setFileSize(file.length());
+            sink.begin(metadata);
+            
+            TextStatistics[] totals = {TextStatistics.EMPTY};
+            extractPages(document, 1, document.getNumberOfPages(), options, page -> {
+                totals[0] = totals[0].plus(page.getStatistics());
+                sink.accept(page);
+            });
             
-            return extractContent(document, fileName);
+            metadata.applyTextStatistics(totals[0]);
+            sink.end(metadata);
         }
     }
     
+    /**
+     * Open a PDF for page-by-page extraction with the default options
+     * @see #open(File, ParseOptions)
+     */
+    public PagedDocument open(File file) throws IOException {
+        return open(file, defaultOptions);
+    }
+    
+    /**
+     * Open a PDF whose pages are extracted on demand. Metadata and the page count are read
+     * immediately; the document stays open until the returned handle is closed.
+     * @param file the PDF file
+     * @param options options applied to every page extraction, or null for the defaults
+     * @return an open document; close it when done
+     * @throws IOException if the file cannot be loaded
+     */
+    public PagedDocument open(File file, ParseOptions options) throws IOException {
+        options = options != null ? options : defaultOptions;
+        PDDocument document = PDDocument.load(file, memoryUsage(options, 1));
+        try {
+            DocumentMetadata metadata = readMetadata(document, file.getName());
+            metadata.setFileSize(file.length());
+            return new LazyPdfDocument(this, document, metadata, options);
+        } catch (RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Read the document information dictionary and the page count from the page tree,
+     * without extracting any text. A file that cannot be opened without a password is
+     * reported as encrypted and password protected.
+     */
+    @Override
+    public DocumentMetadata parseMetadata(File file) throws IOException {
+        DocumentMetadata metadata;
+        try (PDDocument document = PDDocument.load(file, memoryUsage(defaultOptions, 1))) {
+            metadata = readMetadata(document, file.getName());
+        } catch (InvalidPasswordException e) {
+            metadata = new DocumentMetadata();
+            metadata.setFileName(file.getName());
+            metadata.setFileType(ParsedDocument.FileType.PDF);
+            metadata.setIsEncrypted(true);
+            metadata.setIsPasswordProtected(true);
+        }
+        metadata.setFileSize(file.length());
+        return metadata;
+    }
+    
     @Override
     public boolean supports(String fileName) {
         return fileName != null && fileName.toLowerCase().endsWith(".pdf");
     }
     
     /**
-     * Remove hidden content from PDF document
+     * PDFBox buffer settings for the memory budget, split between the documents that
+     * extract pages at the same time
+     */
+    private static MemoryUsageSetting memoryUsage(ParseOptions options, int documents) {
+        long budget = options.getMemoryBudget();
+        MemoryUsageSetting memoryUsage;
+        if (budget == Long.MAX_VALUE) {
+            memoryUsage = MemoryUsageSetting.setupMainMemoryOnly();
+        } else if (budget / documents == 0) {
+            memoryUsage = MemoryUsageSetting.setupTempFileOnly();
+        } else {
+            memoryUsage = MemoryUsageSetting.setupMixed(budget / documents);
+        }
+        if (options.getScratchDirectory() != null) {
+            memoryUsage.setTempDir(options.getScratchDirectory());
+        }
+        return memoryUsage;
+    }
+    
+    /**
+     * Number of page ranges to extract concurrently; 1 for a sequential parse
+     */
+    private static int workerCount(File file, int pageCount, ParseOptions options) {
+        if (options.getParallelism() <= 1 || file.length() < options.getParallelThreshold()) {
+            return 1;
+        }
+        return Math.max(1, Math.min(options.getParallelism(), pageCount / MIN_PAGES_PER_WORKER));
+    }
+    
+    /**
+     * Extract the pages in contiguous ranges, one per worker. PDDocument is not thread-safe,
+     * so each worker loads its own document from the file with the same memory settings.
+     */
+    private List<PageContent> extractPagesParallel(File file, MemoryUsageSetting memoryUsage, int pageCount,
+                                                   int workers, ParseOptions options) throws IOException {
+        List<Callable<List<PageContent>>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            int firstPage = (int) ((long) pageCount * i / workers) + 1;
+            int lastPage = (int) ((long) pageCount * (i + 1) / workers);
+            tasks.add(() -> {
+                try (PDDocument document = PDDocument.load(file, memoryUsage)) {
+                    return extractPages(document, firstPage, lastPage, options);
+                }
+            });
+        }
+        List<PageContent> pages = new ArrayList<>();
+        for (List<PageContent> range : ParallelTasks.invokeAll(tasks, workers)) {
+            pages.addAll(range);
+        }
+        return pages;
+    }
+    
+    /**
+     * Extract the non-empty pages of a range, with hidden content removed unless the options
+     * include it. Hidden content is only looked for on the pages of the range.
+     */
+    List<PageContent> extractPages(PDDocument document, int firstPage, int lastPage,
+                                   ParseOptions options) throws IOException {
+        List<PageContent> pages = new ArrayList<>();
+        extractPages(document, firstPage, lastPage, options, pages::add);
+        return pages;
+    }
+    
+    /**
+     * Extract the non-empty pages of a range and pass each to the sink before extracting the next
+     */
+    private void extractPages(PDDocument document, int firstPage, int lastPage,
+                              ParseOptions options, PageSink sink) throws IOException {
+        // Remove hidden content if configured to do so
+        if (!options.isIncludeHiddenLayers()) {
+            removeHiddenContent(document, firstPage, lastPage);
+        }
+        
+        // Use filtered text stripper if configured to exclude hidden layers
+        PDFTextStripper textStripper = options.isIncludeHiddenLayers() ?
+            new PDFTextStripper() : new FilteredTextStripper();
+        
+        for (int pageNum = firstPage; pageNum <= lastPage; pageNum++) {
+            // Extract text for this specific page
+            textStripper.setStartPage(pageNum);
+            textStripper.setEndPage(pageNum);
+            String pageText = textStripper.getText(document);
+            
+            if (pageText != null && !pageText.trim().isEmpty()) {
+                PageContent pageContent = new PageContent(pageNum);
+                pageContent.setRawText(pageText);
+                
+                // Convert page text to markdown with better formatting
+                pageContent.setMarkdownContent(convertPageToMarkdown(LineClassifier.classify(pageText), pageNum));
+                
+                // The structured content is classified again from the page text if it is used
+                pageContent.setStructureExtractor(page ->
+                    extractPageStructure(LineClassifier.classify(page.getRawText()), page));
+                
+                sink.accept(pageContent);
+            }
+        }
+    }
+    
+    /**
+     * Remove hidden content from a range of pages (1-based, inclusive)
      */
-    private void removeHiddenContent(PDDocument document) {
-        for (PDPage page : document.getPages()) {
+    private void removeHiddenContent(PDDocument document, int firstPage, int lastPage) {
+        for (int pageNum = firstPage; pageNum <= lastPage; pageNum++) {
             try {
+                PDPage page = document.getPage(pageNum - 1);
+                
                 // Remove hidden annotations
                 List<PDAnnotation> annotations = page.getAnnotations();
                 if (annotations != null) {
@@ -129,7 +345,7 @@ public class PdfFileParser implements FileParser {
                 if (resources != null) {
                     removeWatermarkFromResources(resources);
                 }
-                
+            
             } catch (Exception e) {
                 // Continue processing even if one page fails
                 // Silently ignore to avoid disrupting the parsing process
@@ -190,9 +406,10 @@ public class PdfFileParser implements FileParser {
     }
     
     /**
-     * Custom PDFTextStripper that filters invisible text when configured
+     * Custom PDFTextStripper that filters invisible text.
+     * Created per parse call, so it carries no state shared between requests.
      */
-    private class FilteredTextStripper extends PDFTextStripper {
+    private static class FilteredTextStripper extends PDFTextStripper {
         
         public FilteredTextStripper() throws IOException {
             super();
@@ -202,12 +419,6 @@ public class PdfFileParser implements FileParser {
         
         @Override
         protected void processTextPosition(TextPosition text) {
-            // If including hidden layers, process everything
-            if (includeHiddenLayers) {
-                super.processTextPosition(text);
-                return;
-            }
-            
             // Otherwise, filter out hidden content
             RenderingMode renderingMode = getGraphicsState().getTextState().getRenderingMode();
             
@@ -238,26 +449,62 @@ public class PdfFileParser implements FileParser {
         }
     }
     
-    private ParsedDocument extractContent(PDDocument document, String fileName) throws IOException {
+    private ParsedDocument extractContent(PDDocument document, String fileName, List<PageContent> pages) {
         ParsedDocument parsedDoc = new ParsedDocument();
         parsedDoc.setFileType(ParsedDocument.FileType.PDF);
         
-        // Create and populate enhanced metadata
+        DocumentMetadata metadata = readMetadata(document, fileName);
+        if (metadata.getTitle() != null) {
+            parsedDoc.setTitle(metadata.getTitle());
+        }
+        if (metadata.getAuthor() != null) {
+            parsedDoc.setAuthor(metadata.getAuthor());
+        }
+        
+        // Extract content page by page for better structure preservation
+        TextStatistics totals = TextStatistics.EMPTY;
+        
+        // Pages arrive in page order, already extracted and counted
+        for (PageContent pageContent : pages) {
+            parsedDoc.addPage(pageContent);
+            totals = totals.plus(pageContent.getStatistics());
+        }
+        
+        // Update metadata with calculated statistics
+        metadata.applyTextStatistics(totals);
+        
+        parsedDoc.setDocumentMetadata(metadata);
+        
+        // Legacy content is joined from the pages when requested
+        parsedDoc.setContentFromPages("\n\n");
+        
+        // Add legacy metadata
+        parsedDoc.addMetadata("Page Count", String.valueOf(document.getNumberOfPages()));
+        parsedDoc.addMetadata("Word Count", String.valueOf(totals.getWords()));
+        parsedDoc.addMetadata("Character Count", String.valueOf(totals.getCharacters()));
+        
+        return parsedDoc;
+    }
+    
+    /**
+     * Metadata from the document information dictionary, without page statistics
+     */
+    private DocumentMetadata readMetadata(PDDocument document, String fileName) {
         DocumentMetadata metadata = new DocumentMetadata();
         metadata.setFileName(fileName);
         metadata.setFileType(ParsedDocument.FileType.PDF);
         metadata.setTotalPages(document.getNumberOfPages());
+        metadata.setDocumentFormat("PDF " + document.getVersion());
+        metadata.setIsEncrypted(document.isEncrypted());
         
         // Extract PDF metadata
         PDDocumentInformation info = document.getDocumentInformation();
         if (info != null) {
             if (info.getTitle() != null) {
                 metadata.setTitle(info.getTitle());
-                parsedDoc.setTitle(info.getTitle());
             }
             if (info.getAuthor() != null) {
                 metadata.setAuthor(info.getAuthor());
-                parsedDoc.setAuthor(info.getAuthor());
             }
             if (info.getSubject() != null) {
                 metadata.setSubject(info.getSubject());
@@ -278,69 +525,11 @@ public class PdfFileParser implements FileParser {
                 metadata.setModificationDate(info.getModificationDate().getTime());
             }
         }
-        
-        // Extract content page by page for better structure preservation
-        StringBuilder allContent = new StringBuilder();
-        StringBuilder allMarkdown = new StringBuilder();
-        int totalWords = 0;
-        int totalChars = 0;
-        
-        // Use filtered text stripper if configured to exclude hidden layers
-        PDFTextStripper textStripper = includeHiddenLayers ? 
-            new PDFTextStripper() : new FilteredTextStripper();
-        
-        for (int pageNum = 1; pageNum <= document.getNumberOfPages(); pageNum++) {
-            // Extract text for this specific page
-            textStripper.setStartPage(pageNum);
-            textStripper.setEndPage(pageNum);
-            String pageText = textStripper.getText(document);
-            
-            if (pageText != null && !pageText.trim().isEmpty()) {
-                PageContent pageContent = new PageContent(pageNum);
-                pageContent.setRawText(pageText);
-                
-                // Convert page text to markdown with better formatting
-                String pageMarkdown = convertPageToMarkdown(pageText, pageNum);
-                pageContent.setMarkdownContent(pageMarkdown);
-                
-                // Extract structured content from the page
-                extractPageStructure(pageText, pageContent);
-                
-                parsedDoc.addPage(pageContent);
-                
-                allContent.append(pageText);
-                allMarkdown.append(pageMarkdown).append("\n\n");
-                
-                if (pageContent.getWordCount() != null) {
-                    totalWords += pageContent.getWordCount();
-                }
-                if (pageContent.getCharacterCount() != null) {
-                    totalChars += pageContent.getCharacterCount();
-                }
-            }
-        }
-        
-        // Update metadata with calculated statistics
-        metadata.setTotalWords(totalWords);
-        metadata.setTotalCharacters(totalChars);
-        metadata.setTotalCharactersWithSpaces(allContent.toString().length());
-        
-        parsedDoc.setDocumentMetadata(metadata);
-        
-        // Set legacy content for backward compatibility
-        parsedDoc.setContent(allContent.toString());
-        parsedDoc.setMarkdownContent(allMarkdown.toString());
-        
-        // Add legacy metadata
-        parsedDoc.addMetadata("Page Count", String.valueOf(document.getNumberOfPages()));
-        parsedDoc.addMetadata("Word Count", String.valueOf(totalWords));
-        parsedDoc.addMetadata("Character Count", String.valueOf(totalChars));
-        
-        return parsedDoc;
+        return metadata;
     }
     
-    private String convertPageToMarkdown(String text, int pageNum) {
-        if (text == null || text.isEmpty()) {
+    private String convertPageToMarkdown(List<LineClassifier.Line> lines, int pageNum) {
+        if (lines.isEmpty()) {
             return "";
         }
         
@@ -351,13 +540,12 @@ public class PdfFileParser implements FileParser {
             markdown.append("---\n\n");
         }
         
-        String[] lines = text.split("\n");
         boolean inParagraph = false;
         
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i].trim();
+        for (LineClassifier.Line line : lines) {
+            LineClassifier.Type type = line.getType();
             
-            if (line.isEmpty()) {
+            if (type == LineClassifier.Type.BLANK) {
                 if (inParagraph) {
                     markdown.append("\n\n");
                     inParagraph = false;
@@ -367,35 +555,27 @@ public class PdfFileParser implements FileParser {
                 continue;
             }
             
-            // Detect different types of content
-            if (isHeading(line, i, lines)) {
-                if (inParagraph) {
-                    markdown.append("\n\n");
-                    inParagraph = false;
-                }
-                
-                int level = detectHeadingLevel(line);
-                markdown.append("#".repeat(level)).append(" ").append(line).append("\n\n");
-            } else if (isBulletPoint(line)) {
-                if (inParagraph) {
-                    markdown.append("\n\n");
-                    inParagraph = false;
-                }
-                markdown.append("- ").append(cleanBulletPoint(line)).append("\n");
-            } else if (isNumberedList(line)) {
-                if (inParagraph) {
-                    markdown.append("\n\n");
-                    inParagraph = false;
-                }
-                markdown.append(line).append("\n");
-            } else {
+            if (type == LineClassifier.Type.TEXT) {
                 // Regular paragraph text
                 if (!inParagraph) {
                     inParagraph = true;
                 } else {
                     markdown.append(" ");
                 }
-                markdown.append(line);
+                markdown.append(line.getText());
+                continue;
+            }
+            
+            if (inParagraph) {
+                markdown.append("\n\n");
+                inParagraph = false;
+            }
+            if (type == LineClassifier.Type.HEADING) {
+                markdown.append("#".repeat(line.getHeadingLevel())).append(" ").append(line.getText()).append("\n\n");
+            } else if (type == LineClassifier.Type.BULLET) {
+                markdown.append("- ").append(line.getItemText()).append("\n");
+            } else {
+                markdown.append(line.getText()).append("\n");
             }
         }
         
@@ -406,57 +586,24 @@ public class PdfFileParser implements FileParser {
         return markdown.toString();
     }
     
-    private void extractPageStructure(String pageText, PageContent pageContent) {
-        String[] lines = pageText.split("\n");
-        
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i].trim();
-            
-            if (line.isEmpty()) continue;
-            
-            if (isHeading(line, i, lines)) {
-                pageContent.addHeading(line);
-            } else if (isBulletPoint(line) || isNumberedList(line)) {
-                pageContent.addList(line);
-            } else if (line.length() > 20) { // Assume longer lines are paragraphs
-                pageContent.addParagraph(line);
+    private static void extractPageStructure(List<LineClassifier.Line> lines, PageContent pageContent) {
+        for (LineClassifier.Line line : lines) {
+            switch (line.getType()) {
+                case HEADING:
+                    pageContent.addHeading(line.getText());
+                    break;
+                case BULLET:
+                case NUMBERED:
+                    pageContent.addList(line.getText());
+                    break;
+                case TEXT:
+                    if (line.getText().length() > 20) { // Assume longer lines are paragraphs
+                        pageContent.addParagraph(line.getText());
+                    }
+                    break;
+                default:
+                    break;
             }
         }
     }
-    
-    private boolean isHeading(String line, int lineIndex, String[] allLines) {
-        // Multiple criteria for heading detection
-        return (line.length() < 80 && // Not too long
-               line.equals(line.toUpperCase()) && // All caps
-               !line.matches(".*\\d{4}.*") && // No years
-               !line.matches(".*\\$\\d+.*") && // No prices
-               line.length() > 3) || // Not too short
-               (line.length() < 60 &&
-                lineIndex + 1 < allLines.length &&
-                allLines[lineIndex + 1].trim().isEmpty()); // Followed by empty line
-    }
-    
-    private int detectHeadingLevel(String line) {
-        if (line.length() < 30 && line.equals(line.toUpperCase())) {
-            return 2; // Major heading
-        }
-        return 3; // Minor heading
-    }
-    
-    private boolean isBulletPoint(String line) {
-        return line.matches("^[•\\*\\-\\+]\\s+.*") ||
-               line.matches("^\\s*[•\\*\\-\\+]\\s+.*") ||
-               line.matches("^\\s*[→►▪▫◦‣⁃]\\s+.*");
-    }
-    
-    private boolean isNumberedList(String line) {
-        return line.matches("^\\d+[.)]\\s+.*") ||
-               line.matches("^\\s*\\d+[.)]\\s+.*") ||
-               line.matches("^[a-zA-Z][.)]\\s+.*");
-    }
-    
-    private String cleanBulletPoint(String line) {
-        return line.replaceFirst("^[•\\*\\-\\+→►▪▫◦‣⁃]\\s*", "")
-                  .replaceFirst("^\\s*[•\\*\\-\\+→►▪▫◦‣⁃]\\s*", "");
-    }
-}
\ No newline at end of file
+}
@@ -3,16 +3,24 @@ package io.github.twwch.markdown2office.parser.impl;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
 import io.github.twwch.markdown2office.parser.FileParser;
 import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
 import org.apache.poi.hslf.usermodel.HSLFSlideShow;
 import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.sl.usermodel.*;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFRelation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -30,16 +38,36 @@ public class PowerPointFileParser implements FileParser {
         return parse(new File(filePath));
     }
     
+    /**
+     * Parse a PowerPoint file. The container is opened read-only straight from the file, so
+     * POI reads parts on demand instead of copying the whole file into memory first.
+     */
     @Override
     public ParsedDocument parse(File file) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            ParsedDocument parsedDoc = parse(fis, file.getName());
-            // Set file size if available
-            if (parsedDoc.getDocumentMetadata() != null) {
-                parsedDoc.getDocumentMetadata().setFileSize(file.length());
+        ParsedDocument parsedDoc;
+        try {
+            if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    parsedDoc = extractContent(new XMLSlideShow(pkg), file.getName());
+                } finally {
+                    // A read-only package is discarded, not saved
+                    pkg.revert();
+                }
+            } else {
+                try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                    parsedDoc = extractContent(new HSLFSlideShow(fs), file.getName());
+                }
             }
-            return parsedDoc;
+        } catch (Exception e) {
+            logger.error("Error parsing PowerPoint file: " + file.getName(), e);
+            throw new IOException("Failed to parse PowerPoint file: " + file.getName(), e);
         }
+        // Set file size if available
+        if (parsedDoc.getDocumentMetadata() != null) {
+            parsedDoc.getDocumentMetadata().setFileSize(file.length());
+        }
+        return parsedDoc;
     }
     
     @Override
@@ -47,11 +75,12 @@ public class PowerPointFileParser implements FileParser {
         try {
             SlideShow<?,?> slideShow;
             
-            // Determine if it's PPTX or PPT based on file extension
-            if (fileName != null && fileName.toLowerCase().endsWith(".pptx")) {
-                slideShow = new XMLSlideShow(inputStream);
+            // Determine if it's PPTX or PPT from the content, not the file name
+            InputStream checkedStream = FileMagic.prepareToCheckMagic(inputStream);
+            if (FileMagic.valueOf(checkedStream) == FileMagic.OOXML) {
+                slideShow = new XMLSlideShow(checkedStream);
             } else {
-                slideShow = new HSLFSlideShow(inputStream);
+                slideShow = new HSLFSlideShow(checkedStream);
             }
             
             return extractContent(slideShow, fileName);
@@ -68,10 +97,122 @@ public class PowerPointFileParser implements FileParser {
         return lower.endsWith(".pptx") || lower.endsWith(".ppt");
     }
     
-    private ParsedDocument extractContent(SlideShow<?,?> slideShow, String fileName) {
+    /**
+     * Pass each slide to the sink as a page. The slide show is still loaded as a whole,
+     * but the text, markdown and tables of a slide are only held until the sink returns.
+     */
+    @Override
+    public void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        try {
+            if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    streamSlides(new XMLSlideShow(pkg), file, sink);
+                } finally {
+                    pkg.revert();
+                }
+            } else {
+                try (POIFSFileSystem fs = new POIFSFileSystem(file, true);
+                     HSLFSlideShow slideShow = new HSLFSlideShow(fs)) {
+                    streamSlides(slideShow, file, sink);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error parsing PowerPoint file: " + file.getName(), e);
+            throw new IOException("Failed to parse PowerPoint file: " + file.getName(), e);
+        }
+    }
+    
+    /**
+     * Read the presentation properties and slide count without loading any slide: the
+     * summary information streams of a PPT file, or docProps/core.xml and app.xml and the
+     * slide parts of a PPTX file. Unlike a full parse, the title is not taken from the
+     * first slide when the properties have none.
+     */
+    @Override
+    public DocumentMetadata parseMetadata(File file) throws IOException {
+        DocumentMetadata metadata = new DocumentMetadata();
+        metadata.setFileName(file.getName());
+        metadata.setFileType(ParsedDocument.FileType.POWERPOINT);
+        metadata.setFileSize(file.length());
+        try {
+            if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    OfficeMetadataReader.readProperties(pkg, metadata);
+                    metadata.setTotalSlides(pkg.getPartsByContentType(XSLFRelation.SLIDE.getContentType()).size());
+                } finally {
+                    pkg.revert();
+                }
+            } else {
+                try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                    DirectoryNode root = fs.getRoot();
+                    if (!OfficeMetadataReader.readEncryption(root, metadata)) {
+                        OfficeMetadataReader.readSummary(root, metadata);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error reading PowerPoint metadata: " + file.getName(), e);
+            throw new IOException("Failed to read PowerPoint metadata: " + file.getName(), e);
+        }
+        // Each slide is a page
+        metadata.setTotalPages(metadata.getTotalSlides());
+        return metadata;
+    }
+    
+    private void streamSlides(SlideShow<?,?> slideShow, File file, PageSink sink) throws IOException {
+        DocumentMetadata metadata = readMetadata(slideShow, file.getName());
+        metadata.setFileSize(file.length());
+        sink.begin(metadata);
+        extractSlides(slideShow, metadata, sink);
+        sink.end(metadata);
+    }
+    
+    private ParsedDocument extractContent(SlideShow<?,?> slideShow, String fileName) throws IOException {
         ParsedDocument parsedDoc = new ParsedDocument();
         parsedDoc.setFileType(ParsedDocument.FileType.POWERPOINT);
         
+        DocumentMetadata metadata = readMetadata(slideShow, fileName);
+        if (metadata.getTitle() != null) {
+            parsedDoc.setTitle(metadata.getTitle());
+        }
+        if (metadata.getAuthor() != null) {
+            parsedDoc.setAuthor(metadata.getAuthor());
+        }
+        
+        extractSlides(slideShow, metadata, pageContent -> {
+            parsedDoc.addPage(pageContent);
+            for (ParsedDocument.ParsedTable table : pageContent.getTables()) {
+                parsedDoc.addTable(table);
+            }
+        });
+        
+        parsedDoc.setDocumentMetadata(metadata);
+        
+        // Legacy content is joined from the pages when requested
+        parsedDoc.setContentFromPages("\n\n");
+        
+        // Add legacy metadata
+        parsedDoc.addMetadata("Total Slides", String.valueOf(slideShow.getSlides().size()));
+        parsedDoc.addMetadata("File Format", slideShow instanceof XMLSlideShow ? "PPTX" : "PPT");
+        parsedDoc.addMetadata("Word Count", String.valueOf(metadata.getTotalWords()));
+        parsedDoc.addMetadata("Character Count", String.valueOf(metadata.getTotalCharactersWithSpaces()));
+        parsedDoc.addMetadata("Table Count", String.valueOf(metadata.getTotalTables()));
+        
+        try {
+            slideShow.close();
+        } catch (IOException e) {
+            logger.warn("Error closing slideshow", e);
+        }
+        
+        return parsedDoc;
+    }
+    
+    /**
+     * Metadata from the document properties and the first slide, without slide statistics
+     */
+    private DocumentMetadata readMetadata(SlideShow<?,?> slideShow, String fileName) {
         // Create and populate enhanced metadata
         DocumentMetadata metadata = new DocumentMetadata();
         metadata.setFileName(fileName);
@@ -88,11 +229,9 @@ public class PowerPointFileParser implements FileParser {
                     POIXMLProperties.CoreProperties coreProps = properties.getCoreProperties();
                     if (coreProps.getTitle() != null) {
                         metadata.setTitle(coreProps.getTitle());
-                        parsedDoc.setTitle(coreProps.getTitle());
                     }
                     if (coreProps.getCreator() != null) {
                         metadata.setAuthor(coreProps.getCreator());
-                        parsedDoc.setAuthor(coreProps.getCreator());
                     }
                     if (coreProps.getSubject() != null) {
                         metadata.setSubject(coreProps.getSubject());
@@ -120,14 +259,16 @@ public class PowerPointFileParser implements FileParser {
             String title = extractSlideTitle(slideShow.getSlides().get(0));
             if (title != null && !title.trim().isEmpty()) {
                 metadata.setTitle(title);
-                parsedDoc.setTitle(title);
             }
         }
-        
-        StringBuilder allContent = new StringBuilder();
-        StringBuilder allMarkdown = new StringBuilder();
-        int totalWords = 0;
-        int totalChars = 0;
+        return metadata;
+    }
+    
+    /**
+     * Extract each slide as a page and pass it to the sink, then record the totals in the metadata
+     */
+    private void extractSlides(SlideShow<?,?> slideShow, DocumentMetadata metadata, PageSink sink) throws IOException {
+        TextStatistics totals = TextStatistics.EMPTY;
         int totalTables = 0;
         
         // Process each slide as a separate page
@@ -137,7 +278,7 @@ public class PowerPointFileParser implements FileParser {
             StringBuilder slideContent = new StringBuilder();
             StringBuilder slideMarkdown = new StringBuilder();
             
-            processSlide(slide, slideNumber, parsedDoc, slideContent, slideMarkdown, pageContent);
+            processSlide(slide, slideNumber, slideContent, slideMarkdown, pageContent);
             
             String pageText = slideContent.toString();
             String pageMarkdownText = slideMarkdown.toString();
@@ -145,54 +286,24 @@ public class PowerPointFileParser implements FileParser {
             pageContent.setRawText(pageText);
             pageContent.setMarkdownContent(pageMarkdownText);
             
-            // Calculate statistics for this slide
-            int slideWords = countWords(pageText);
-            int slideChars = pageText.length();
-            
-            totalWords += slideWords;
-            totalChars += slideChars;
+            // The slide text was counted when it was set
+            totals = totals.plus(pageContent.getStatistics());
             
             if (!pageContent.getTables().isEmpty()) {
                 totalTables += pageContent.getTables().size();
             }
             
-            parsedDoc.addPage(pageContent);
-            
-            allContent.append(pageText);
-            allMarkdown.append(pageMarkdownText).append("\n\n");
+            sink.accept(pageContent);
             
             slideNumber++;
         }
         
         // Update metadata with statistics
-        metadata.setTotalWords(totalWords);
-        metadata.setTotalCharacters(totalChars);
-        metadata.setTotalCharactersWithSpaces(totalChars); // Same as totalChars for PowerPoint
+        metadata.applyTextStatistics(totals);
         metadata.setTotalTables(totalTables);
-        
-        parsedDoc.setDocumentMetadata(metadata);
-        
-        // Set legacy content for backward compatibility
-        parsedDoc.setContent(allContent.toString());
-        parsedDoc.setMarkdownContent(allMarkdown.toString());
-        
-        // Add legacy metadata
-        parsedDoc.addMetadata("Total Slides", String.valueOf(slideShow.getSlides().size()));
-        parsedDoc.addMetadata("File Format", fileName != null && fileName.toLowerCase().endsWith(".pptx") ? "PPTX" : "PPT");
-        parsedDoc.addMetadata("Word Count", String.valueOf(totalWords));
-        parsedDoc.addMetadata("Character Count", String.valueOf(totalChars));
-        parsedDoc.addMetadata("Table Count", String.valueOf(totalTables));
-        
-        try {
-            slideShow.close();
-        } catch (IOException e) {
-            logger.warn("Error closing slideshow", e);
-        }
-        
-        return parsedDoc;
     }
     
-    private void processSlide(Slide<?,?> slide, int slideNumber, ParsedDocument parsedDoc, 
+    private void processSlide(Slide<?,?> slide, int slideNumber,
                              StringBuilder content, StringBuilder markdown, PageContent pageContent) {
         
         // Add slide header
@@ -211,7 +322,7 @@ public class PowerPointFileParser implements FileParser {
             if (shape instanceof TextShape) {
                 processTextShape((TextShape<?,?>) shape, content, markdown, pageContent);
             } else if (shape instanceof TableShape) {
-                processTableShape((TableShape<?,?>) shape, parsedDoc, content, markdown, pageContent);
+                processTableShape((TableShape<?,?>) shape, content, markdown, pageContent);
             }
         }
         
@@ -300,7 +411,7 @@ public class PowerPointFileParser implements FileParser {
         return text.toString().trim();
     }
     
-    private void processTableShape(TableShape<?,?> tableShape, ParsedDocument parsedDoc, 
+    private void processTableShape(TableShape<?,?> tableShape,
                                   StringBuilder content, StringBuilder markdown, PageContent pageContent) {
         try {
             ParsedDocument.ParsedTable parsedTable = new ParsedDocument.ParsedTable();
@@ -340,26 +451,16 @@ public class PowerPointFileParser implements FileParser {
             
             if (hasData) {
                 parsedTable.setData(tableData);
-                parsedDoc.addTable(parsedTable);
                 pageContent.addTable(parsedTable);
                 
                 // Add table to markdown
                 markdown.append("\n").append(parsedTable.toMarkdown()).append("\n");
             }
-            
+        
         } catch (Exception e) {
             logger.warn("Error processing table shape", e);
             content.append("[Table content could not be extracted]\n");
             markdown.append("*[Table content could not be extracted]*\n\n");
         }
     }
-    
-    private int countWords(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return 0;
-        }
-        // Remove extra whitespace and count words
-        String cleanText = text.replaceAll("\\s+", " ").trim();
-        return cleanText.isEmpty() ? 0 : cleanText.split("\\s+").length;
-    }
 }
\ No newline at end of file
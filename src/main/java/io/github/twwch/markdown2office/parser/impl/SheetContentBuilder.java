@@ -0,0 +1,244 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.ColumnarTableData;
+import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.ParseOptions;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.RowSampler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Builds the text, markdown and table of one spreadsheet sheet row by row.
+ * Every Excel reader (workbook model and streaming) feeds its rows through this
+ * class so that all of them produce identical output.
+ *
+ * Output is limited to the used range of the sheet: empty rows after the last row with a
+ * value are dropped, and a row is cut after the last column that held a value in any row
+ * so far. Formatting that reaches the last row or column of a sheet therefore does not
+ * produce millions of empty cells.
+ *
+ * Data rows beyond {@link ParseOptions#getMaxRowsPerTable()} are sampled with a
+ * {@link RowSampler}; rows it buffers are written at the end, without the empty rows
+ * around them.
+ */
+final class SheetContentBuilder {
+    
+    private final String sheetName;
+    private final boolean skipEmptyRows;
+    private final boolean skipEmptyColumns;
+    private final StringBuilder content = new StringBuilder();
+    private final StringBuilder markdown = new StringBuilder();
+    private final ParsedDocument.ParsedTable table = new ParsedDocument.ParsedTable();
+    private ColumnarTableData tableData = new ColumnarTableData();
+    private List<String> headers;
+    private final RowSampler<List<String>> sampler;
+    
+    // One past the last column that held a value in any row so far
+    private int usedColumns;
+    
+    // Widths of empty rows that are only written once a row with a value follows
+    private int[] pendingEmptyRows = new int[16];
+    private int pendingEmptyCount;
+    
+    // With skipEmptyColumns the text is written at the end, once the used columns are known
+    private BitSet valueColumns;
+    private int[] emptyRowsBefore;
+    private int keptRows;
+    
+    SheetContentBuilder(String sheetName, ParseOptions options) {
+        this.sheetName = sheetName;
+        this.skipEmptyRows = options.isSkipEmptyRows();
+        this.skipEmptyColumns = options.isSkipEmptyColumns();
+        this.sampler = RowSampler.of(options);
+        if (skipEmptyColumns) {
+            valueColumns = new BitSet();
+            emptyRowsBefore = new int[16];
+        }
+        content.append("Sheet: ").append(sheetName).append("\n");
+        markdown.append("# ").append(sheetName).append("\n\n");
+        table.setTitle(sheetName);
+    }
+    
+    String getSheetName() {
+        return sheetName;
+    }
+    
+    /**
+     * Add a row that has at least one cell. Readers only need to pass the cells up to the
+     * last one with a value, with missing cells in between as empty strings; trailing empty
+     * cells are described by the physical length alone. The list may be kept, so callers
+     * pass a new list per row.
+     * @param cells the cells of the row, at least up to the last cell with a value
+     * @param physicalLength one past the last cell present in the row
+     */
+    void addRow(List<String> cells, int physicalLength) {
+        int valueLength = cells.size();
+        while (valueLength > 0 && cells.get(valueLength - 1).isEmpty()) {
+            valueLength--;
+        }
+        
+        if (valueLength == 0) {
+            if (!skipEmptyRows) {
+                addPendingEmptyRow(Math.min(physicalLength, usedColumns));
+            }
+            return;
+        }
+        
+        usedColumns = Math.max(usedColumns, valueLength);
+        List<String> row = resize(cells, Math.max(valueLength, Math.min(physicalLength, usedColumns)));
+        if (headers != null && !sampler.offer(row)) {
+            // Buffered or dropped by the sampler, together with the empty rows before it
+            pendingEmptyCount = 0;
+            return;
+        }
+        acceptRow(row);
+    }
+    
+    /**
+     * @return true when the row limit is reached and no further row can be kept, so the
+     *         reader may stop reading this sheet
+     */
+    boolean isComplete() {
+        return sampler.isComplete();
+    }
+    
+    /**
+     * @return the sheet table, or null when the sheet has no non-empty row
+     */
+    ParsedDocument.ParsedTable finishTable() {
+        pendingEmptyCount = 0;
+        for (List<String> row : sampler.remaining()) {
+            acceptRow(row);
+        }
+        if (skipEmptyColumns) {
+            writeWithoutEmptyColumns();
+        }
+        if (headers == null) {
+            return null;
+        }
+        tableData.trimToSize();
+        table.setHeaders(headers);
+        table.setData(tableData);
+        table.setTruncated(sampler.isTruncated());
+        table.setTotalRows(sampler.getTotalRows());
+        markdown.append(table.toMarkdown()).append("\n");
+        return table;
+    }
+    
+    private void acceptRow(List<String> row) {
+        if (skipEmptyColumns) {
+            for (int column = 0; column < row.size(); column++) {
+                if (!row.get(column).isEmpty()) {
+                    valueColumns.set(column);
+                }
+            }
+            if (keptRows == emptyRowsBefore.length) {
+                emptyRowsBefore = Arrays.copyOf(emptyRowsBefore, keptRows * 2);
+            }
+            emptyRowsBefore[keptRows++] = pendingEmptyCount;
+            pendingEmptyCount = 0;
+        } else {
+            flushPendingEmptyRows();
+            appendText(row);
+        }
+        
+        if (headers == null) {
+            headers = row;
+        } else {
+            tableData.add(row);
+        }
+    }
+    
+    /**
+     * Build the page for this sheet; call after all rows were added
+     */
+    PageContent toPage(int pageNumber, ParsedDocument.ParsedTable finishedTable) {
+        PageContent pageContent = new PageContent(pageNumber);
+        pageContent.addHeading("# " + sheetName);
+        if (finishedTable != null) {
+            pageContent.addTable(finishedTable);
+        }
+        pageContent.setRawText(content.toString());
+        pageContent.setMarkdownContent(markdown.toString());
+        return pageContent;
+    }
+    
+    private void appendText(List<String> row) {
+        for (String cell : row) {
+            content.append(cell).append("\t");
+        }
+        content.append("\n");
+    }
+    
+    private void addPendingEmptyRow(int width) {
+        if (pendingEmptyCount == pendingEmptyRows.length) {
+            pendingEmptyRows = Arrays.copyOf(pendingEmptyRows, pendingEmptyCount * 2);
+        }
+        pendingEmptyRows[pendingEmptyCount++] = width;
+    }
+    
+    private void flushPendingEmptyRows() {
+        for (int i = 0; i < pendingEmptyCount; i++) {
+            for (int column = 0; column < pendingEmptyRows[i]; column++) {
+                content.append("\t");
+            }
+            content.append("\n");
+        }
+        pendingEmptyCount = 0;
+    }
+    
+    /**
+     * Write the deferred text and rebuild the table with only the columns that hold a value.
+     * Empty rows lose all their columns and become blank lines.
+     */
+    private void writeWithoutEmptyColumns() {
+        if (headers == null) {
+            return;
+        }
+        int[] kept = valueColumns.stream().toArray();
+        ColumnarTableData projected = new ColumnarTableData();
+        for (int row = 0; row < keptRows; row++) {
+            for (int i = 0; i < emptyRowsBefore[row]; i++) {
+                content.append("\n");
+            }
+            List<String> cells = project(row == 0 ? headers : tableData.get(row - 1), kept);
+            appendText(cells);
+            if (row == 0) {
+                headers = cells;
+            } else {
+                projected.add(cells);
+            }
+        }
+        tableData = projected;
+    }
+    
+    private static List<String> project(List<String> cells, int[] columns) {
+        List<String> projected = new ArrayList<>(columns.length);
+        for (int column : columns) {
+            if (column >= cells.size()) {
+                break;
+            }
+            projected.add(cells.get(column));
+        }
+        return projected;
+    }
+    
+    private static List<String> resize(List<String> cells, int width) {
+        if (cells.size() == width) {
+            return cells;
+        }
+        if (cells.size() > width) {
+            return new ArrayList<>(cells.subList(0, width));
+        }
+        List<String> padded = new ArrayList<>(width);
+        padded.addAll(cells);
+        while (padded.size() < width) {
+            padded.add("");
+        }
+        return padded;
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import org.apache.poi.util.XMLHelper;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Streaming reader for Excel 2003 XML (SpreadsheetML) workbooks built on StAX.
+ *
+ * The document is read event by event, so minified single-line files cost no more than
+ * indented ones, and each row is passed to a {@link SheetContentBuilder} as soon as it
+ * ends. Cell positions follow {@code ss:Index} and {@code ss:MergeAcross}; values are
+ * converted like the other Excel readers convert cells. The factory comes from
+ * {@link XMLHelper}, which disables DTDs and external entities.
+ */
+final class SpreadsheetMlReader {
+    
+    static final String DOCUMENT_FORMAT = "Excel 2003 XML (SpreadsheetML)";
+    
+    private static final String SS_NAMESPACE = "urn:schemas-microsoft-com:office:spreadsheet";
+    
+    private final ParseOptions options;
+    private final WorkbookDocumentBuilder document;
+    
+    private SheetContentBuilder sheet;
+    private int sheetCount;
+    private List<String> row;
+    private int physicalLength;
+    private int nextColumn;
+    
+    private int cellColumn;
+    private String cellType;
+    private final StringBuilder cellText = new StringBuilder();
+    
+    private SpreadsheetMlReader(String fileName, ParseOptions options, PageSink sink) {
+        this.options = options;
+        this.document = new WorkbookDocumentBuilder(fileName, sink);
+        document.setDocumentFormat(DOCUMENT_FORMAT);
+    }
+    
+    /**
+     * Read a SpreadsheetML document; the caller closes the stream
+     */
+    static ParsedDocument read(InputStream in, String fileName, ParseOptions options) throws IOException {
+        return read(in, fileName, options, null);
+    }
+    
+    /**
+     * Read a SpreadsheetML document, passing each sheet to the sink when one is given
+     */
+    static ParsedDocument read(InputStream in, String fileName, ParseOptions options, PageSink sink) throws IOException {
+        SpreadsheetMlReader reader = new SpreadsheetMlReader(fileName, options, sink);
+        XMLStreamReader xml = null;
+        try {
+            XMLInputFactory factory = XMLHelper.newXMLInputFactory();
+            xml = factory.createXMLStreamReader(in);
+            reader.read(xml);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to parse Excel 2003 XML file: " + fileName, e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+        return reader.document.build();
+    }
+    
+    private void read(XMLStreamReader xml) throws XMLStreamException, IOException {
+        while (xml.hasNext()) {
+            if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xml.getLocalName()) {
+                case "Worksheet":
+                    if (sheetCount >= options.getMaxSheets()) {
+                        return;
+                    }
+                    sheetCount++;
+                    String name = attribute(xml, "Name");
+                    sheet = new SheetContentBuilder(name != null ? name : "Sheet" + sheetCount, options);
+                    readWorksheet(xml);
+                    document.addSheet(sheet);
+                    sheet = null;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Read up to the end of the current Worksheet element
+     */
+    private void readWorksheet(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("Row".equals(xml.getLocalName()) && !sheet.isComplete()) {
+                    readRow(xml);
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+    
+    /**
+     * Read one Row element and pass it to the sheet
+     */
+    private void readRow(XMLStreamReader xml) throws XMLStreamException {
+        row = new ArrayList<>();
+        physicalLength = 0;
+        nextColumn = 0;
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("Cell".equals(xml.getLocalName())) {
+                    readCell(xml);
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if (physicalLength > 0) {
+            sheet.addRow(row, physicalLength);
+        }
+        row = null;
+    }
+    
+    /**
+     * Read one Cell element. Only Data directly inside the cell is its value; Data inside a
+     * Comment is ignored. Rich text in Data is flattened to its characters.
+     */
+    private void readCell(XMLStreamReader xml) throws XMLStreamException {
+        String index = attribute(xml, "Index");
+        cellColumn = index != null ? Integer.parseInt(index.trim()) - 1 : nextColumn;
+        String mergeAcross = attribute(xml, "MergeAcross");
+        int span = 1 + (mergeAcross != null ? Integer.parseInt(mergeAcross.trim()) : 0);
+        cellType = null;
+        cellText.setLength(0);
+        boolean hasData = false;
+        
+        int depth = 1;
+        int dataDepth = 0;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 2 && "Data".equals(xml.getLocalName())) {
+                    hasData = true;
+                    dataDepth = depth;
+                    cellType = attribute(xml, "Type");
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == dataDepth) {
+                    dataDepth = 0;
+                }
+                depth--;
+            } else if (dataDepth > 0 && (event == XMLStreamConstants.CHARACTERS ||
+                event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE)) {
+                cellText.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+            }
+        }
+        
+        String value = hasData ? cellValue() : "";
+        // Only cells with a value are materialised; gaps before them are filled
+        if (!value.isEmpty()) {
+            while (row.size() <= cellColumn) {
+                row.add("");
+            }
+            row.set(cellColumn, value);
+        }
+        // Merged cells keep their value in the first cell and leave the others empty
+        nextColumn = cellColumn + span;
+        physicalLength = Math.max(physicalLength, nextColumn);
+    }
+    
+    /**
+     * Convert the current cell like the other Excel readers convert cells
+     */
+    private String cellValue() {
+        String text = cellText.toString();
+        if (cellType == null) {
+            return text;
+        }
+        switch (cellType) {
+            case "Number":
+                try {
+                    double number = Double.parseDouble(text.trim());
+                    if (number == (long) number) {
+                        return String.valueOf((long) number);
+                    }
+                    return String.valueOf(number);
+                } catch (NumberFormatException e) {
+                    return text;
+                }
+            case "DateTime":
+                try {
+                    LocalDateTime dateTime = LocalDateTime.parse(text.trim());
+                    return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant()).toString();
+                } catch (DateTimeParseException e) {
+                    return text;
+                }
+            case "Boolean":
+                String flag = text.trim();
+                return String.valueOf("1".equals(flag) || "true".equalsIgnoreCase(flag));
+            case "Error":
+                return "";
+            default:
+                return text;
+        }
+    }
+    
+    /**
+     * An attribute in the ss namespace, or without a namespace as some writers emit it
+     */
+    private static String attribute(XMLStreamReader xml, String localName) {
+        String value = xml.getAttributeValue(SS_NAMESPACE, localName);
+        if (value != null) {
+            return value;
+        }
+        for (int i = 0; i < xml.getAttributeCount(); i++) {
+            if (localName.equals(xml.getAttributeLocalName(i))) {
+                return xml.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+}
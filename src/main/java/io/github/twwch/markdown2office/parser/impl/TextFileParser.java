@@ -1,14 +1,19 @@
 package io.github.twwch.markdown2office.parser.impl;
 
 import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
 import io.github.twwch.markdown2office.parser.PageContent;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.util.CharsetDetector;
+import io.github.twwch.markdown2office.parser.util.LineClassifier;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +24,9 @@ public class TextFileParser implements FileParser {
     
     private static final Logger logger = LoggerFactory.getLogger(TextFileParser.class);
     
+    // A page sink receives text files in chunks of whole lines of about this many characters
+    private static final int CHUNK_CHARACTERS = 64 * 1024;
+    
     @Override
     public ParsedDocument parse(String filePath) throws IOException {
         return parse(new File(filePath));
@@ -36,6 +44,47 @@ public class TextFileParser implements FileParser {
         return extractContent(inputStream, fileName);
     }
     
+    /**
+     * Pass a text file to the sink in chunks of whole lines, each about
+     * {@value #CHUNK_CHARACTERS} characters long, so the whole text is never held at once.
+     * A full parse returns the text as a single page instead.
+     */
+    @Override
+    public void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        DocumentMetadata metadata = new DocumentMetadata();
+        metadata.setFileName(file.getName());
+        metadata.setFileType(ParsedDocument.FileType.TEXT);
+        metadata.setTitle(file.getName().replaceAll("\\.[^.]+$", "")); // Remove extension
+        metadata.setFileSize(file.length());
+        sink.begin(metadata);
+        
+        TextStatistics totals = TextStatistics.EMPTY;
+        int pageCount = 0;
+        try (BufferedInputStream bufferedStream = new BufferedInputStream(new FileInputStream(file), CharsetDetector.DEFAULT_SAMPLE_SIZE)) {
+            Charset charset = CharsetDetector.detect(bufferedStream);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(bufferedStream, charset));
+            
+            StringBuilder chunk = new StringBuilder();
+            String line;
+            do {
+                line = reader.readLine();
+                if (line != null) {
+                    chunk.append(line).append("\n");
+                }
+                if (chunk.length() > 0 && (line == null || chunk.length() >= CHUNK_CHARACTERS)) {
+                    PageContent page = createPage(++pageCount, chunk.toString());
+                    totals = totals.plus(page.getStatistics());
+                    sink.accept(page);
+                    chunk = new StringBuilder();
+                }
+            } while (line != null);
+        }
+        
+        metadata.applyTextStatistics(totals);
+        metadata.setTotalPages(pageCount);
+        sink.end(metadata);
+    }
+    
     @Override
     public boolean supports(String fileName) {
         if (fileName == null) return false;
@@ -56,12 +105,17 @@ public class TextFileParser implements FileParser {
         metadata.setFileName(fileName);
         metadata.setFileType(ParsedDocument.FileType.TEXT);
         
-        List<String> lines = new ArrayList<>();
+        int lineCount = 0;
         StringBuilder content = new StringBuilder();
         String firstLine = null;
         
+        // Detect the encoding from the leading bytes instead of assuming UTF-8
+        BufferedInputStream bufferedStream = new BufferedInputStream(inputStream, CharsetDetector.DEFAULT_SAMPLE_SIZE);
+        Charset charset = CharsetDetector.detect(bufferedStream);
+        logger.debug("Detected charset for text file {}: {}", fileName, charset.displayName());
+        
         try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                new InputStreamReader(bufferedStream, charset))) {
             
             String line;
             while ((line = reader.readLine()) != null) {
@@ -69,9 +123,9 @@ public class TextFileParser implements FileParser {
                     firstLine = line.trim();
                 }
                 content.append(line).append("\n");
-                lines.add(line);
+                lineCount++;
             }
-            
+        
         } catch (IOException e) {
             logger.error("Error reading text file: " + fileName, e);
             throw new IOException("Failed to read text file: " + fileName, e);
@@ -102,17 +156,16 @@ public class TextFileParser implements FileParser {
         parsedDoc.setMarkdownContent(markdownContent);
         
         // Create pages
-        List<PageContent> pages = createPages(lines, textContent);
+        List<PageContent> pages = createPages(textContent);
         parsedDoc.setPages(pages);
         
-        // Add metadata
-        metadata.setTotalWords(textContent.split("\\s+").length);
-        metadata.setTotalCharacters(textContent.length());
+        // Add metadata; the single page holds the whole text, counted once
+        metadata.applyTextStatistics(pages.get(0).getStatistics());
         metadata.setTotalPages(pages.size());
         parsedDoc.setDocumentMetadata(metadata);
         
         parsedDoc.addMetadata("File Type", "Plain Text");
-        parsedDoc.addMetadata("Line Count", String.valueOf(lines.size()));
+        parsedDoc.addMetadata("Line Count", String.valueOf(lineCount));
         parsedDoc.addMetadata("Character Count", String.valueOf(textContent.length()));
         parsedDoc.addMetadata("Page Count", String.valueOf(pages.size()));
         
@@ -173,7 +226,7 @@ public class TextFileParser implements FileParser {
         }
         
         // Check if line is all uppercase (likely a header)
-        if (line.equals(line.toUpperCase()) && line.matches(".*[A-Z].*")) {
+        if (LineClassifier.isUpperCase(line) && LineClassifier.hasCapitalLetter(line)) {
             return true;
         }
         
@@ -185,7 +238,7 @@ public class TextFileParser implements FileParser {
         return false;
     }
     
-    private List<PageContent> createPages(List<String> lines, String fullContent) {
+    private List<PageContent> createPages(String fullContent) {
         List<PageContent> pages = new ArrayList<>();
         
         // For text files, put all content in a single page
@@ -198,25 +251,42 @@ public class TextFileParser implements FileParser {
             return pages;
         }
         
+        pages.add(createPage(1, fullContent));
+        return pages;
+    }
+    
+    /**
+     * Build a page from whole lines of text, each ending with a line break
+     */
+    private PageContent createPage(int pageNumber, String fullContent) {
+        PageContent page = new PageContent(pageNumber);
+        
         // Convert to markdown with minimal processing
         String markdownContent = convertToMarkdown(fullContent, null);
         
         page.setRawText(fullContent);
         page.setMarkdownContent(markdownContent);
-        page.setWordCount(fullContent.split("\\s+").length);
-        page.setCharacterCount(fullContent.length());
         
-        // Extract structured data
-        for (String line : lines) {
-            String trimmedLine = line.trim();
+        // Structured data is extracted from the lines of the page text if it is used
+        page.setStructureExtractor(this::extractStructure);
+        return page;
+    }
+    
+    private void extractStructure(PageContent page) {
+        String text = page.getRawText();
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            String trimmedLine = text.substring(start, end).trim();
             if (isLikelyHeader(trimmedLine)) {
                 page.addHeading("## " + trimmedLine);
             } else if (trimmedLine.length() > 10) {
                 page.addParagraph(trimmedLine);
             }
+            start = end + 1;
         }
-        
-        pages.add(page);
-        return pages;
     }
 }
\ No newline at end of file
@@ -4,14 +4,22 @@ import io.github.twwch.markdown2office.parser.FileParser;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
 import io.github.twwch.markdown2office.parser.PageContent;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.util.LineClassifier;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
 import org.apache.tika.Tika;
+import org.apache.tika.config.TikaConfig;
 import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.Office;
+import org.apache.tika.metadata.PagedText;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.mime.MediaType;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.parser.Parser;
 import org.apache.tika.sax.BodyContentHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.helpers.DefaultHandler;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -62,6 +70,51 @@ public class TikaFileParser implements FileParser {
         return extractContent(inputStream, fileName);
     }
     
+    /**
+     * Run the Tika parser with a handler that discards the body, so no text is collected
+     * or converted; only the metadata the format parser reports is kept. The page count
+     * is the one the format records, if any.
+     */
+    @Override
+    public DocumentMetadata parseMetadata(File file) throws IOException {
+        DocumentMetadata docMetadata = new DocumentMetadata();
+        docMetadata.setFileName(file.getName());
+        docMetadata.setFileSize(file.length());
+        
+        Metadata metadata = new Metadata();
+        metadata.set("resourceName", file.getName());
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            // Content detection is only needed when the name does not tell the type,
+            // and it does not cope with HTML (see extractContent)
+            String type = tika.detect(file.getName());
+            Parser parser;
+            if (MediaType.OCTET_STREAM.toString().equals(type)) {
+                parser = new AutoDetectParser();
+            } else {
+                metadata.set(Metadata.CONTENT_TYPE, type);
+                parser = TikaConfig.getDefaultConfig().getParser();
+            }
+            ParseContext context = new ParseContext();
+            context.set(Parser.class, parser);
+            parser.parse(in, new DefaultHandler(), metadata, context);
+        } catch (Exception e) {
+            logger.error("Error reading metadata with Tika: " + file.getName(), e);
+            throw new IOException("Failed to read metadata with Tika: " + file.getName(), e);
+        }
+        
+        ParsedDocument parsedDoc = new ParsedDocument();
+        extractMetadata(metadata, parsedDoc, file.getName(), docMetadata);
+        setFileType(parsedDoc, metadata, file.getName(), docMetadata);
+        Integer pages = metadata.getInt(PagedText.N_PAGES);
+        if (pages == null) {
+            pages = metadata.getInt(Office.PAGE_COUNT);
+        }
+        if (pages != null) {
+            docMetadata.setTotalPages(pages);
+        }
+        return docMetadata;
+    }
+    
     @Override
     public boolean supports(String fileName) {
         if (fileName == null) return false;
@@ -121,13 +174,13 @@ public class TikaFileParser implements FileParser {
                     // Set file type
                     setFileType(parsedDoc, metadata, fileName, docMetadata);
 
-                    // Create pages from content
+                    // Create pages from content; the raw HTML is kept, but only its text is counted
                     List<PageContent> pages = createPages(content, markdownContent);
+                    pages.get(0).setStatistics(TextStatistics.of(stripMarkup(content)));
                     parsedDoc.setPages(pages);
 
-                    // Set document metadata
-                    docMetadata.setTotalWords(content.split("\\s+").length);
-                    docMetadata.setTotalCharacters(content.length());
+                    // Set document metadata; the single page holds the whole text, counted once
+                    docMetadata.applyTextStatistics(pages.get(0).getStatistics());
                     docMetadata.setTotalPages(pages.size());
                     parsedDoc.setDocumentMetadata(docMetadata);
 
@@ -160,9 +213,8 @@ public class TikaFileParser implements FileParser {
             List<PageContent> pages = createPages(content, markdownContent);
             parsedDoc.setPages(pages);
             
-            // Set document metadata
-            docMetadata.setTotalWords(content.split("\\s+").length);
-            docMetadata.setTotalCharacters(content.length());
+            // Set document metadata; the single page holds the whole text, counted once
+            docMetadata.applyTextStatistics(pages.get(0).getStatistics());
             docMetadata.setTotalPages(pages.size());
             parsedDoc.setDocumentMetadata(docMetadata);
             
@@ -226,13 +278,17 @@ public class TikaFileParser implements FileParser {
         String creationDate = metadata.get("meta:creation-date");
         if (creationDate != null && !creationDate.trim().isEmpty()) {
             parsedDoc.addMetadata("Creation Date", creationDate.trim());
-            // Could parse and set to docMetadata.setCreationDate() if needed
+        }
+        if (metadata.getDate(TikaCoreProperties.CREATED) != null) {
+            docMetadata.setCreationDate(metadata.getDate(TikaCoreProperties.CREATED));
         }
         
         String lastModified = metadata.get("dcterms:modified");
         if (lastModified != null && !lastModified.trim().isEmpty()) {
             parsedDoc.addMetadata("Last Modified", lastModified.trim());
-            // Could parse and set to docMetadata.setModificationDate() if needed
+        }
+        if (metadata.getDate(TikaCoreProperties.MODIFIED) != null) {
+            docMetadata.setModificationDate(metadata.getDate(TikaCoreProperties.MODIFIED));
         }
         
         // Set subject and keywords if available  
@@ -323,8 +379,8 @@ public class TikaFileParser implements FileParser {
         
         // Check if text is shorter and might be a heading
         if (text.length() < 50 && (
-            text.equals(text.toUpperCase()) ||  // All caps
-            Character.isUpperCase(text.charAt(0)) && text.matches(".*[A-Z].*") // Title case with capitals
+            LineClassifier.isUpperCase(text) ||  // All caps
+            Character.isUpperCase(text.charAt(0)) && LineClassifier.hasCapitalLetter(text) // Title case with capitals
         )) {
             return true;
         }
@@ -332,6 +388,47 @@ public class TikaFileParser implements FileParser {
         return false;
     }
     
+    /**
+     * Replace tags and character entities with spaces, so that only the text of HTML is counted
+     */
+    private static String stripMarkup(String html) {
+        StringBuilder text = new StringBuilder(html.length());
+        int length = html.length();
+        for (int i = 0; i < length; i++) {
+            char c = html.charAt(i);
+            int end = -1;
+            if (c == '<') {
+                end = html.indexOf('>', i + 1);
+            } else if (c == '&') {
+                end = entityEnd(html, i);
+            }
+            if (end > i + 1) {
+                text.append(' ');
+                i = end;
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+    
+    /**
+     * @return the index of the semicolon ending an entity such as {@code &amp;} or {@code &#160;}, or -1
+     */
+    private static int entityEnd(String html, int start) {
+        int limit = Math.min(html.length(), start + 12);
+        for (int i = start + 1; i < limit; i++) {
+            char c = html.charAt(i);
+            if (c == ';') {
+                return i;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '#') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+    
     private List<PageContent> createPages(String content, String markdownContent) {
         List<PageContent> pages = new ArrayList<>();
 
@@ -349,18 +446,6 @@ public class TikaFileParser implements FileParser {
         page.setRawText(content);
         page.setMarkdownContent(markdownContent);
 
-        // Calculate word count (handle HTML content appropriately)
-        String textForCounting = content;
-        if (content.contains("<") && content.contains(">")) {
-            // For HTML content, strip tags for word counting only
-            textForCounting = content.replaceAll("<[^>]+>", " ")
-                                    .replaceAll("&[^;]+;", " ")
-                                    .replaceAll("\\s+", " ")
-                                    .trim();
-        }
-        page.setWordCount(textForCounting.split("\\s+").length);
-        page.setCharacterCount(content.length());
-
         // Don't extract structured data, keep content as-is
         // Just add the whole content as a single paragraph
         if (!content.trim().isEmpty()) {
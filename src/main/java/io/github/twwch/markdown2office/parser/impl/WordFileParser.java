@@ -3,7 +3,11 @@ package io.github.twwch.markdown2office.parser.impl;
 import io.github.twwch.markdown2office.parser.DocumentMetadata;
 import io.github.twwch.markdown2office.parser.FileParser;
 import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
 import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.LineClassifier;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
 import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.extractor.WordExtractor;
 import org.apache.poi.hwpf.usermodel.Range;
@@ -13,33 +17,166 @@ import org.apache.poi.hwpf.usermodel.Table;
 import org.apache.poi.hwpf.usermodel.TableRow;
 import org.apache.poi.hwpf.usermodel.TableCell;
 import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
 import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.xwpf.usermodel.*;
 
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Date;
+import java.util.regex.Pattern;
 
 /**
  * Parser for Word documents (DOC and DOCX)
  */
 public class WordFileParser implements FileParser {
     
+    // Numbered, chapter and section headings in English documents
+    private static final Pattern NUMBERED_HEADING = Pattern.compile("^[0-9]+\\..*");
+    private static final Pattern CHAPTER_HEADING = Pattern.compile("^Chapter \\d+.*");
+    private static final Pattern SECTION_HEADING = Pattern.compile("^Section \\d+.*");
+    
+    // fEncrypted in the flags word at offset 0x0A of the DOC file information block
+    private static final int FIB_FLAGS_OFFSET = 0x0A;
+    private static final int FIB_ENCRYPTED = 0x0100;
+    private static final String WORD_DOCUMENT_STREAM = "WordDocument";
+    
     @Override
     public ParsedDocument parse(String filePath) throws IOException {
         return parse(new File(filePath));
     }
     
+    /**
+     * Parse a Word file. The container is opened read-only straight from the file, so POI
+     * reads parts on demand instead of copying the whole file into memory first.
+     */
     @Override
     public ParsedDocument parse(File file) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            ParsedDocument parsedDoc = parse(fis, file.getName());
-            // Set file size if available
-            if (parsedDoc.getDocumentMetadata() != null) {
-                parsedDoc.getDocumentMetadata().setFileSize(file.length());
+        FileMagic fileMagic = FileMagic.valueOf(file);
+        ParsedDocument parsedDoc;
+        if (fileMagic == FileMagic.OLE2) {
+            // This is a DOC file (old format)
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true);
+                 HWPFDocument document = new HWPFDocument(fs)) {
+                parsedDoc = extractDocContent(document, file.getName());
+            }
+        } else if (fileMagic == FileMagic.OOXML) {
+            // This is a DOCX file (new format)
+            try {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    parsedDoc = extractDocxContent(new XWPFDocument(pkg), file.getName());
+                } finally {
+                    // A read-only package is discarded, not saved
+                    pkg.revert();
+                }
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid Word file: " + file.getName(), e);
+            }
+        } else {
+            throw new IOException("Unsupported Word file format: " + fileMagic);
+        }
+        // Set file size if available
+        if (parsedDoc.getDocumentMetadata() != null) {
+            parsedDoc.getDocumentMetadata().setFileSize(file.length());
+        }
+        return parsedDoc;
+    }
+    
+    /**
+     * Pass each page of a Word document to the sink. DOCX pages are the groups between
+     * page breaks, DOC pages are groups of 50 paragraphs, as in a full parse.
+     */
+    @Override
+    public void parse(File file, ParseOptions options, PageSink sink) throws IOException {
+        FileMagic fileMagic = FileMagic.valueOf(file);
+        if (fileMagic == FileMagic.OLE2) {
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true);
+                 HWPFDocument document = new HWPFDocument(fs)) {
+                DocumentMetadata metadata = readDocMetadata(document, file.getName());
+                metadata.setFileSize(file.length());
+                sink.begin(metadata);
+                extractDocPages(document, metadata, sink);
+                sink.end(metadata);
+            }
+        } else if (fileMagic == FileMagic.OOXML) {
+            try {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    XWPFDocument document = new XWPFDocument(pkg);
+                    DocumentMetadata metadata = readDocxMetadata(document, file.getName());
+                    metadata.setFileSize(file.length());
+                    sink.begin(metadata);
+                    extractDocxPages(document, metadata, null, sink);
+                    sink.end(metadata);
+                } finally {
+                    pkg.revert();
+                }
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid Word file: " + file.getName(), e);
+            }
+        } else {
+            throw new IOException("Unsupported Word file format: " + fileMagic);
+        }
+    }
+    
+    /**
+     * Read the document properties without loading the body: the summary information
+     * streams of a DOC file, or docProps/core.xml and app.xml of a DOCX file. Page and
+     * word counts are the ones recorded by the application that saved the document.
+     */
+    @Override
+    public DocumentMetadata parseMetadata(File file) throws IOException {
+        DocumentMetadata metadata = new DocumentMetadata();
+        metadata.setFileName(file.getName());
+        metadata.setFileType(ParsedDocument.FileType.WORD);
+        metadata.setFileSize(file.length());
+        
+        FileMagic fileMagic = FileMagic.valueOf(file);
+        if (fileMagic == FileMagic.OLE2) {
+            try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+                DirectoryNode root = fs.getRoot();
+                if (!OfficeMetadataReader.readEncryption(root, metadata)) {
+                    OfficeMetadataReader.readSummary(root, metadata);
+                    if (isEncryptedDoc(root)) {
+                        metadata.setIsEncrypted(true);
+                        metadata.setIsPasswordProtected(true);
+                    }
+                }
             }
-            return parsedDoc;
+        } else if (fileMagic == FileMagic.OOXML) {
+            try {
+                OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+                try {
+                    OfficeMetadataReader.readProperties(pkg, metadata);
+                } finally {
+                    pkg.revert();
+                }
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid Word file: " + file.getName(), e);
+            }
+        } else {
+            throw new IOException("Unsupported Word file format: " + fileMagic);
+        }
+        return metadata;
+    }
+    
+    /**
+     * Check the encryption flag in the file information block at the start of the WordDocument stream
+     */
+    private static boolean isEncryptedDoc(DirectoryNode root) throws IOException {
+        if (!root.hasEntry(WORD_DOCUMENT_STREAM)) {
+            return false;
+        }
+        try (DocumentInputStream in = root.createDocumentInputStream(WORD_DOCUMENT_STREAM)) {
+            in.skip(FIB_FLAGS_OFFSET);
+            return (in.readUShort() & FIB_ENCRYPTED) != 0;
         }
     }
     
@@ -92,10 +229,35 @@ public class WordFileParser implements FileParser {
     /**
      * Extract content from DOC file
      */
-    private ParsedDocument extractDocContent(HWPFDocument document, String fileName) {
+    private ParsedDocument extractDocContent(HWPFDocument document, String fileName) throws IOException {
         ParsedDocument parsedDoc = new ParsedDocument();
         parsedDoc.setFileType(ParsedDocument.FileType.WORD);
         
+        DocumentMetadata metadata = readDocMetadata(document, fileName);
+        if (metadata.getTitle() != null) {
+            parsedDoc.setTitle(metadata.getTitle());
+        }
+        if (metadata.getAuthor() != null) {
+            parsedDoc.setAuthor(metadata.getAuthor());
+        }
+        
+        extractDocPages(document, metadata, parsedDoc::addPage);
+        
+        parsedDoc.setDocumentMetadata(metadata);
+        parsedDoc.setContentFromPages("");
+        
+        // Add legacy metadata
+        parsedDoc.addMetadata("Pages", String.valueOf(metadata.getTotalPages()));
+        parsedDoc.addMetadata("Word Count", String.valueOf(metadata.getTotalWords()));
+        parsedDoc.addMetadata("Character Count", String.valueOf(metadata.getTotalCharactersWithSpaces()));
+        
+        return parsedDoc;
+    }
+    
+    /**
+     * Metadata from the DOC summary information, without text statistics
+     */
+    private DocumentMetadata readDocMetadata(HWPFDocument document, String fileName) {
         // Create and populate metadata
         DocumentMetadata metadata = new DocumentMetadata();
         metadata.setFileName(fileName);
@@ -106,11 +268,9 @@ public class WordFileParser implements FileParser {
             var sumInfo = document.getSummaryInformation();
             if (sumInfo.getTitle() != null) {
                 metadata.setTitle(sumInfo.getTitle());
-                parsedDoc.setTitle(sumInfo.getTitle());
             }
             if (sumInfo.getAuthor() != null) {
                 metadata.setAuthor(sumInfo.getAuthor());
-                parsedDoc.setAuthor(sumInfo.getAuthor());
             }
             if (sumInfo.getSubject() != null) {
                 metadata.setSubject(sumInfo.getSubject());
@@ -125,10 +285,14 @@ public class WordFileParser implements FileParser {
                 metadata.setModificationDate(sumInfo.getLastSaveDateTime());
             }
         }
-        
-        StringBuilder allContent = new StringBuilder();
-        StringBuilder allMarkdown = new StringBuilder();
-        
+        return metadata;
+    }
+    
+    /**
+     * Split the paragraphs of a DOC file into pages, pass each page to the sink and
+     * record the totals in the metadata
+     */
+    private void extractDocPages(HWPFDocument document, DocumentMetadata metadata, PageSink sink) throws IOException {
         // Use WordExtractor for simpler text extraction
         WordExtractor extractor = new WordExtractor(document);
         
@@ -136,15 +300,14 @@ public class WordFileParser implements FileParser {
         String[] paragraphs = extractor.getParagraphText();
         
         // Create pages (simple division for DOC files)
-        List<PageContent> pages = new ArrayList<>();
+        int pageCount = 0;
         PageContent currentPage = new PageContent(1);
         StringBuilder pageContent = new StringBuilder();
         StringBuilder pageMarkdown = new StringBuilder();
         
         int paragraphsPerPage = 50;
         int paragraphCount = 0;
-        int totalWords = 0;
-        int totalChars = 0;
+        TextStatistics totals = TextStatistics.EMPTY;
         
         for (String paragraph : paragraphs) {
             if (paragraph != null && !paragraph.trim().isEmpty()) {
@@ -152,38 +315,30 @@ public class WordFileParser implements FileParser {
                 
                 // Add to content
                 pageContent.append(trimmed).append("\n");
-                allContent.append(trimmed).append("\n");
                 
                 // Check if it's a heading (simple heuristic)
                 if (isLikelyHeading(trimmed)) {
                     pageMarkdown.append("## ").append(trimmed).append("\n\n");
-                    allMarkdown.append("## ").append(trimmed).append("\n\n");
                     currentPage.addHeading("## " + trimmed);
                 } else {
                     pageMarkdown.append(trimmed).append("\n\n");
-                    allMarkdown.append(trimmed).append("\n\n");
                     if (trimmed.length() > 10) {
                         currentPage.addParagraph(trimmed);
                     }
                 }
                 
-                // Count words and characters
-                String[] words = trimmed.split("\\s+");
-                totalWords += words.length;
-                totalChars += trimmed.length();
-                
                 paragraphCount++;
                 
                 // Check if we should start a new page
                 if (paragraphCount >= paragraphsPerPage) {
                     currentPage.setRawText(pageContent.toString());
                     currentPage.setMarkdownContent(pageMarkdown.toString());
-                    currentPage.setWordCount(countWords(pageContent.toString()));
-                    currentPage.setCharacterCount(pageContent.toString().length());
-                    pages.add(currentPage);
+                    totals = totals.plus(currentPage.getStatistics());
+                    sink.accept(currentPage);
+                    pageCount++;
                     
                     // Start new page
-                    currentPage = new PageContent(pages.size() + 1);
+                    currentPage = new PageContent(pageCount + 1);
                     pageContent = new StringBuilder();
                     pageMarkdown = new StringBuilder();
                     paragraphCount = 0;
@@ -195,29 +350,14 @@ public class WordFileParser implements FileParser {
         if (pageContent.length() > 0) {
             currentPage.setRawText(pageContent.toString());
             currentPage.setMarkdownContent(pageMarkdown.toString());
-            currentPage.setWordCount(countWords(pageContent.toString()));
-            currentPage.setCharacterCount(pageContent.toString().length());
-            pages.add(currentPage);
-        }
-        
-        // Add pages to document
-        for (PageContent page : pages) {
-            parsedDoc.addPage(page);
+            totals = totals.plus(currentPage.getStatistics());
+            sink.accept(currentPage);
+            pageCount++;
         }
         
         // Update metadata
-        metadata.setTotalWords(totalWords);
-        metadata.setTotalCharacters(totalChars);
-        metadata.setTotalPages(pages.size());
-        
-        parsedDoc.setDocumentMetadata(metadata);
-        parsedDoc.setContent(allContent.toString());
-        parsedDoc.setMarkdownContent(allMarkdown.toString());
-        
-        // Add legacy metadata
-        parsedDoc.addMetadata("Pages", String.valueOf(pages.size()));
-        parsedDoc.addMetadata("Word Count", String.valueOf(totalWords));
-        parsedDoc.addMetadata("Character Count", String.valueOf(totalChars));
+        metadata.applyTextStatistics(totals);
+        metadata.setTotalPages(pageCount);
         
         // Clean up
         try {
@@ -225,17 +365,48 @@ public class WordFileParser implements FileParser {
         } catch (IOException e) {
             // Log and continue, already extracted content
         }
-        
-        return parsedDoc;
     }
     
     /**
      * Extract content from DOCX file (existing implementation)
      */
-    private ParsedDocument extractDocxContent(XWPFDocument document, String fileName) {
+    private ParsedDocument extractDocxContent(XWPFDocument document, String fileName) throws IOException {
         ParsedDocument parsedDoc = new ParsedDocument();
         parsedDoc.setFileType(ParsedDocument.FileType.WORD);
         
+        DocumentMetadata metadata = readDocxMetadata(document, fileName);
+        if (metadata.getTitle() != null) {
+            parsedDoc.setTitle(metadata.getTitle());
+        }
+        if (metadata.getAuthor() != null) {
+            parsedDoc.setAuthor(metadata.getAuthor());
+        }
+        
+        TextStatistics[] totals = {TextStatistics.EMPTY};
+        
+        int pageGroups = extractDocxPages(document, metadata, parsedDoc, page -> {
+            parsedDoc.addPage(page);
+            totals[0] = totals[0].plus(page.getStatistics());
+        });
+        
+        parsedDoc.setDocumentMetadata(metadata);
+        
+        // Legacy content is joined from the pages when requested
+        parsedDoc.setContentFromPages("\n\n");
+        
+        // Add legacy metadata
+        parsedDoc.addMetadata("Pages", String.valueOf(pageGroups));
+        parsedDoc.addMetadata("Word Count", String.valueOf(totals[0].getWords()));
+        parsedDoc.addMetadata("Character Count", String.valueOf(totals[0].getCharacters()));
+        parsedDoc.addMetadata("Table Count", String.valueOf(metadata.getTotalTables()));
+        
+        return parsedDoc;
+    }
+    
+    /**
+     * Metadata from the DOCX core and extended properties
+     */
+    private DocumentMetadata readDocxMetadata(XWPFDocument document, String fileName) {
         // Create and populate enhanced metadata
         DocumentMetadata metadata = new DocumentMetadata();
         metadata.setFileName(fileName);
@@ -246,11 +417,9 @@ public class WordFileParser implements FileParser {
             POIXMLProperties.CoreProperties props = document.getProperties().getCoreProperties();
             if (props.getTitle() != null) {
                 metadata.setTitle(props.getTitle());
-                parsedDoc.setTitle(props.getTitle());
             }
             if (props.getCreator() != null) {
                 metadata.setAuthor(props.getCreator());
-                parsedDoc.setAuthor(props.getCreator());
             }
             if (props.getSubject() != null) {
                 metadata.setSubject(props.getSubject());
@@ -299,16 +468,22 @@ public class WordFileParser implements FileParser {
                 }
             }
         }
-        
-        StringBuilder allContent = new StringBuilder();
-        StringBuilder allMarkdown = new StringBuilder();
-        
+        return metadata;
+    }
+    
+    /**
+     * Process the DOCX body one page group at a time, pass each non-empty page to the sink
+     * and fill in the statistics the extended properties did not provide
+     * @param tables document that collects the tables, or null
+     * @return the number of page groups, including empty ones
+     */
+    private int extractDocxPages(XWPFDocument document, DocumentMetadata metadata, ParsedDocument tables,
+                                 PageSink sink) throws IOException {
         // Process content page by page (detect page breaks)
         List<List<IBodyElement>> pages = extractPages(document);
         int pageNum = 1;
         
-        int totalWords = 0;
-        int totalChars = 0;
+        TextStatistics totals = TextStatistics.EMPTY;
         int totalTables = 0;
         
         for (List<IBodyElement> pageElements : pages) {
@@ -323,7 +498,7 @@ public class WordFileParser implements FileParser {
                     processParagraph(paragraph, pageContentBuilder, pageMarkdownBuilder, pageContent);
                 } else if (element instanceof XWPFTable) {
                     XWPFTable table = (XWPFTable) element;
-                    processTable(table, parsedDoc, pageContentBuilder, pageMarkdownBuilder, pageContent);
+                    processTable(table, tables, pageContentBuilder, pageMarkdownBuilder, pageContent);
                     totalTables++;
                 }
             }
@@ -334,18 +509,8 @@ public class WordFileParser implements FileParser {
             if (!pageText.trim().isEmpty()) {
                 pageContent.setRawText(pageText);
                 pageContent.setMarkdownContent(pageMarkdown);
-                
-                parsedDoc.addPage(pageContent);
-                
-                allContent.append(pageText);
-                allMarkdown.append(pageMarkdown).append("\n\n");
-                
-                if (pageContent.getWordCount() != null) {
-                    totalWords += pageContent.getWordCount();
-                }
-                if (pageContent.getCharacterCount() != null) {
-                    totalChars += pageContent.getCharacterCount();
-                }
+                totals = totals.plus(pageContent.getStatistics());
+                sink.accept(pageContent);
             }
             
             pageNum++;
@@ -353,29 +518,25 @@ public class WordFileParser implements FileParser {
         
         // Update metadata with calculated statistics if not already set
         if (metadata.getTotalWords() == null) {
-            metadata.setTotalWords(totalWords);
+            metadata.setTotalWords(totals.getWords());
         }
         if (metadata.getTotalCharacters() == null) {
-            metadata.setTotalCharacters(totalChars);
+            metadata.setTotalCharacters(totals.getCharactersWithoutSpaces());
+        }
+        if (metadata.getTotalCharactersWithSpaces() == null) {
+            metadata.setTotalCharactersWithSpaces(totals.getCharacters());
+        }
+        if (metadata.getTotalParagraphs() == null) {
+            metadata.setTotalParagraphs(totals.getParagraphs());
+        }
+        if (metadata.getTotalLines() == null) {
+            metadata.setTotalLines(totals.getLines());
         }
         if (metadata.getTotalPages() == null) {
             metadata.setTotalPages(pages.size());
         }
         metadata.setTotalTables(totalTables);
-        
-        parsedDoc.setDocumentMetadata(metadata);
-        
-        // Set legacy content for backward compatibility
-        parsedDoc.setContent(allContent.toString());
-        parsedDoc.setMarkdownContent(allMarkdown.toString());
-        
-        // Add legacy metadata
-        parsedDoc.addMetadata("Pages", String.valueOf(pages.size()));
-        parsedDoc.addMetadata("Word Count", String.valueOf(totalWords));
-        parsedDoc.addMetadata("Character Count", String.valueOf(totalChars));
-        parsedDoc.addMetadata("Table Count", String.valueOf(totalTables));
-        
-        return parsedDoc;
+        return pages.size();
     }
     
     private List<List<IBodyElement>> extractPages(XWPFDocument document) {
@@ -517,16 +678,17 @@ public class WordFileParser implements FileParser {
                 // Consider it a heading if bold and larger font, or matches Chinese heading patterns
                 if ((allBold && fontSize >= 14) || 
                     (allBold && text.length() < 50) ||
-                    isChineseHeading(text)) {
+                    LineClassifier.isChineseHeading(text)) {
                     
                     // Determine level based on font size or pattern
-                    if (fontSize >= 20 || text.matches("^第[一二三四五六七八九十]+[章节部分篇]")) {
+                    int chineseLevel = LineClassifier.chineseHeadingLevel(text);
+                    if (fontSize >= 20 || chineseLevel == 1) {
                         markdownPrefix = "# ";
                         headingLevel = 1;
-                    } else if (fontSize >= 16 || text.matches("^[一二三四五六七八九十]+[、.]")) {
+                    } else if (fontSize >= 16 || chineseLevel == 2) {
                         markdownPrefix = "## ";
                         headingLevel = 2;
-                    } else if (fontSize >= 14 || text.matches("^\\d+[、.]")) {
+                    } else if (fontSize >= 14 || chineseLevel == 3) {
                         markdownPrefix = "### ";
                         headingLevel = 3;
                     } else {
@@ -578,7 +740,7 @@ public class WordFileParser implements FileParser {
         }
     }
     
-    private void processTable(XWPFTable table, ParsedDocument parsedDoc, StringBuilder content, StringBuilder markdown, PageContent pageContent) {
+    private void processTable(XWPFTable table, ParsedDocument tables, StringBuilder content, StringBuilder markdown, PageContent pageContent) {
         ParsedDocument.ParsedTable parsedTable = new ParsedDocument.ParsedTable();
         List<List<String>> tableData = new ArrayList<>();
         
@@ -602,27 +764,15 @@ public class WordFileParser implements FileParser {
         }
         
         parsedTable.setData(tableData);
-        parsedDoc.addTable(parsedTable);
+        if (tables != null) {
+            tables.addTable(parsedTable);
+        }
         pageContent.addTable(parsedTable);
         
         // Add table to markdown
         markdown.append("\n").append(parsedTable.toMarkdown()).append("\n");
     }
     
-    private boolean isChineseHeading(String text) {
-        if (text == null || text.isEmpty()) {
-            return false;
-        }
-        
-        // Chinese heading patterns
-        return text.matches("^第[一二三四五六七八九十]+[章节部分篇].*") || // 第一章, 第二节, etc.
-               text.matches("^[一二三四五六七八九十]+[、.。].*") || // 一、引言, 二、内容, etc.
-               text.matches("^\\d+[、.。].*") || // 1、内容, 2. 标题, etc.
-               text.matches("^[(（][一二三四五六七八九十0-9]+[)）].*") || // (一), (1), etc.
-               text.matches("^[①②③④⑤⑥⑦⑧⑨⑩].*") || // ①标题, etc.
-               (text.length() < 30 && text.matches(".*[概述|简介|介绍|总结|结论|背景|目的|方法|结果]$")); // Common heading endings
-    }
-    
     private boolean isLikelyHeading(String text) {
         if (text == null || text.isEmpty()) {
             return false;
@@ -630,18 +780,11 @@ public class WordFileParser implements FileParser {
         
         // Simple heuristics for headings
         return text.length() < 100 && (
-            text.matches("^[0-9]+\\..*") || // Numbered headings
-            text.matches("^Chapter \\d+.*") || // Chapter headings
-            text.matches("^Section \\d+.*") || // Section headings
-            isChineseHeading(text) || // Chinese headings
-            text.equals(text.toUpperCase()) && text.length() < 50 // All caps short text
+            NUMBERED_HEADING.matcher(text).matches() || // Numbered headings
+            CHAPTER_HEADING.matcher(text).matches() || // Chapter headings
+            SECTION_HEADING.matcher(text).matches() || // Section headings
+            LineClassifier.isChineseHeading(text) || // Chinese headings
+            LineClassifier.isUpperCase(text) && text.length() < 50 // All caps short text
         );
     }
-    
-    private int countWords(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return 0;
-        }
-        return text.trim().split("\\s+").length;
-    }
 }
\ No newline at end of file
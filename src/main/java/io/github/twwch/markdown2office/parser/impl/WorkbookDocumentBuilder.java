@@ -0,0 +1,168 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
+import org.apache.poi.ooxml.POIXMLProperties;
+
+import java.io.IOException;
+
+/**
+ * Assembles the ParsedDocument of a workbook from its sheets, one page per sheet.
+ * Shared by the workbook model and streaming Excel readers. With a {@link PageSink}
+ * each sheet is passed on as soon as it is added instead of being collected.
+ */
+final class WorkbookDocumentBuilder {
+    
+    private final ParsedDocument parsedDoc = new ParsedDocument();
+    private final DocumentMetadata metadata = new DocumentMetadata();
+    private TextStatistics totals = TextStatistics.EMPTY;
+    private int totalTables;
+    private int sheetCount;
+    private int totalSheets;
+    private final PageSink sink;
+    private boolean begun;
+    
+    WorkbookDocumentBuilder(String fileName) {
+        this(fileName, null);
+    }
+    
+    /**
+     * @param sink receives the sheets as they are added, or null to collect them;
+     *             with a sink {@link #build()} returns a document without pages
+     */
+    WorkbookDocumentBuilder(String fileName, PageSink sink) {
+        this.sink = sink;
+        parsedDoc.setFileType(ParsedDocument.FileType.EXCEL);
+        
+        // Set title from filename (remove extension) as default
+        String defaultTitle = fileName != null && !fileName.isEmpty() ? 
+            fileName.replaceAll("\\.[^.]+$", "") : "Excel Document";
+        parsedDoc.setTitle(defaultTitle);
+        
+        metadata.setFileName(fileName);
+        metadata.setFileType(ParsedDocument.FileType.EXCEL);
+        metadata.setTitle(defaultTitle); // Set default title first
+    }
+    
+    /**
+     * Copy the OOXML core properties (title, author, dates) into the document
+     */
+    void applyCoreProperties(POIXMLProperties.CoreProperties coreProps) {
+        if (coreProps == null) {
+            return;
+        }
+        if (coreProps.getTitle() != null && !coreProps.getTitle().isEmpty()) {
+            // Override with document title if available
+            metadata.setTitle(coreProps.getTitle());
+            parsedDoc.setTitle(coreProps.getTitle());
+        }
+        if (coreProps.getCreator() != null) {
+            metadata.setAuthor(coreProps.getCreator());
+            parsedDoc.setAuthor(coreProps.getCreator());
+        }
+        if (coreProps.getSubject() != null) {
+            metadata.setSubject(coreProps.getSubject());
+        }
+        if (coreProps.getDescription() != null) {
+            metadata.setDescription(coreProps.getDescription());
+        }
+        if (coreProps.getKeywords() != null) {
+            metadata.setKeywords(coreProps.getKeywords());
+        }
+        if (coreProps.getCreated() != null) {
+            metadata.setCreationDate(coreProps.getCreated());
+        }
+        if (coreProps.getModified() != null) {
+            metadata.setModificationDate(coreProps.getModified());
+        }
+    }
+    
+    /**
+     * Name the workbook format in the metadata, for formats other than .xls and .xlsx
+     */
+    void setDocumentFormat(String documentFormat) {
+        metadata.setDocumentFormat(documentFormat);
+    }
+    
+    /**
+     * Record the number of sheets in the workbook when fewer are read because of a sheet limit
+     */
+    void setTotalSheets(int totalSheets) {
+        this.totalSheets = totalSheets;
+    }
+    
+    /**
+     * @return true if sheets are passed to a sink instead of being collected
+     */
+    boolean hasSink() {
+        return sink != null;
+    }
+    
+    /**
+     * Add the next sheet as a page; sheets must be added in workbook order
+     */
+    void addSheet(SheetContentBuilder sheet) throws IOException {
+        ParsedDocument.ParsedTable parsedTable = sheet.finishTable();
+        PageContent pageContent = sheet.toPage(++sheetCount, parsedTable); // Page numbers start from 1
+        if (parsedTable != null) {
+            totalTables++;
+        }
+        
+        // The sheet text was counted when it was set
+        totals = totals.plus(pageContent.getStatistics());
+        
+        if (sink != null) {
+            begin();
+            sink.accept(pageContent);
+            return;
+        }
+        
+        if (parsedTable != null) {
+            parsedDoc.addTable(parsedTable);
+        }
+        parsedDoc.addPage(pageContent);
+    }
+    
+    ParsedDocument build() throws IOException {
+        // Update metadata with statistics
+        int workbookSheets = Math.max(sheetCount, totalSheets);
+        metadata.setTotalSheets(workbookSheets);
+        metadata.applyTextStatistics(totals);
+        metadata.setTotalTables(totalTables);
+        metadata.setTotalPages(sheetCount); // Each sheet is a page
+        
+        if (sink != null) {
+            begin();
+            sink.end(metadata);
+        }
+        
+        parsedDoc.setDocumentMetadata(metadata);
+        
+        // Legacy content is joined from the pages when requested
+        parsedDoc.setContentFromPages("\n\n");
+        
+        // Add legacy metadata
+        parsedDoc.addMetadata("Sheet Count", String.valueOf(workbookSheets));
+        parsedDoc.addMetadata("Word Count", String.valueOf(totals.getWords()));
+        parsedDoc.addMetadata("Character Count", String.valueOf(totals.getCharacters()));
+        parsedDoc.addMetadata("Table Count", String.valueOf(totalTables));
+        
+        return parsedDoc;
+    }
+    
+    /**
+     * Pass the metadata known so far to the sink, before the first sheet
+     */
+    private void begin() throws IOException {
+        if (!begun) {
+            begun = true;
+            if (totalSheets > 0) {
+                metadata.setTotalSheets(totalSheets);
+            }
+            sink.begin(metadata);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FilePassRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for legacy .xls workbooks built on the HSSF event model. Records are
+ * handled one at a time and each row is passed to a {@link SheetContentBuilder} as soon
+ * as the next row starts, so memory stays bounded by the shared string table and the
+ * produced output instead of a full HSSFWorkbook.
+ *
+ * Cell values are converted exactly as ExcelFileParser converts HSSF cells, so the
+ * result matches the workbook model and the .xlsx streaming reader.
+ */
+final class XlsStreamingReader implements HSSFListener {
+    
+    private final ParseOptions options;
+    private final WorkbookDocumentBuilder document;
+    private final FormatTrackingHSSFListener formatListener;
+    private final EventWorkbookBuilder.SheetRecordCollectingListener workbookListener;
+    
+    private final List<BoundSheetRecord> boundSheets = new ArrayList<>();
+    private BoundSheetRecord[] orderedSheets;
+    private int nextSheet;
+    private SSTRecord sharedStrings;
+    private boolean date1904;
+    private HSSFWorkbook stubWorkbook;
+    // Set once the sheet limit is reached, which ends the record stream
+    private boolean finished;
+    
+    // Nesting of BOF/EOF substreams; embedded charts open substreams inside a sheet
+    private int depth;
+    private SheetContentBuilder sheet;
+    private int currentRow = -1;
+    private List<String> row;
+    private int physicalLength;
+    
+    // A formula with a string result is followed by a StringRecord holding the value
+    private int pendingStringRow = -1;
+    private int pendingStringColumn;
+    
+    private XlsStreamingReader(String fileName, ParseOptions options, PageSink sink) {
+        this.options = options;
+        this.document = new WorkbookDocumentBuilder(fileName, sink);
+        this.formatListener = new FormatTrackingHSSFListener(this);
+        this.workbookListener = new EventWorkbookBuilder.SheetRecordCollectingListener(formatListener);
+    }
+    
+    /**
+     * Read the workbook stream of a POIFS file system; the caller closes the file system
+     */
+    static ParsedDocument read(POIFSFileSystem fs, String fileName, ParseOptions options) throws IOException {
+        return read(fs, fileName, options, null);
+    }
+    
+    /**
+     * Read the workbook stream, passing each sheet to the sink when one is given
+     */
+    static ParsedDocument read(POIFSFileSystem fs, String fileName, ParseOptions options, PageSink sink) throws IOException {
+        XlsStreamingReader reader = new XlsStreamingReader(fileName, options, sink);
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(new AbortableHSSFListener() {
+            @Override
+            public short abortableProcessRecord(Record record) {
+                reader.workbookListener.processRecord(record);
+                return reader.finished ? (short) 1 : 0;
+            }
+        });
+        try {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+        } catch (HSSFUserException e) {
+            throw new IOException("Failed to stream Excel file: " + fileName, e);
+        } catch (UncheckedIOException e) {
+            // A sink failure, carried out of the record listener
+            throw e.getCause();
+        }
+        // Reading may have been aborted inside the last sheet
+        reader.finishSheet();
+        reader.document.setTotalSheets(reader.boundSheets.size());
+        return reader.document.build();
+    }
+    
+    /**
+     * Count the sheets listed in the workbook globals and note a FILEPASS record. Only the
+     * record headers of the globals substream are read, so this also works for encrypted
+     * workbooks, whose record headers are not encrypted.
+     */
+    static void readGlobals(DirectoryNode root, DocumentMetadata metadata) throws IOException {
+        int totalSheets = 0;
+        try (InputStream stream = root.createDocumentInputStream(HSSFWorkbook.getWorkbookDirEntryName(root))) {
+            RecordInputStream records = new RecordInputStream(stream);
+            while (records.hasNextRecord()) {
+                records.nextRecord();
+                short sid = records.getSid();
+                if (sid == EOFRecord.sid) {
+                    break;
+                }
+                if (sid == BoundSheetRecord.sid) {
+                    totalSheets++;
+                } else if (sid == FilePassRecord.sid) {
+                    metadata.setIsEncrypted(true);
+                    metadata.setIsPasswordProtected(true);
+                }
+                records.readRemainder();
+            }
+        }
+        metadata.setTotalSheets(totalSheets);
+    }
+    
+    @Override
+    public void processRecord(Record record) {
+        switch (record.getSid()) {
+            case BOFRecord.sid:
+                BOFRecord bof = (BOFRecord) record;
+                if (depth++ == 0 && bof.getType() != BOFRecord.TYPE_WORKBOOK) {
+                    startSheet();
+                }
+                break;
+            case EOFRecord.sid:
+                if (--depth == 0) {
+                    finishSheet();
+                }
+                break;
+            case BoundSheetRecord.sid:
+                boundSheets.add((BoundSheetRecord) record);
+                break;
+            case SSTRecord.sid:
+                sharedStrings = (SSTRecord) record;
+                break;
+            case DateWindow1904Record.sid:
+                date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+                break;
+            case BlankRecord.sid:
+                BlankRecord blank = (BlankRecord) record;
+                addCell(blank.getRow(), blank.getColumn(), "");
+                break;
+            case BoolErrRecord.sid:
+                BoolErrRecord boolErr = (BoolErrRecord) record;
+                addCell(boolErr.getRow(), boolErr.getColumn(),
+                    boolErr.isBoolean() ? String.valueOf(boolErr.getBooleanValue()) : "");
+                break;
+            case FormulaRecord.sid:
+                formulaCell((FormulaRecord) record);
+                break;
+            case StringRecord.sid:
+                if (pendingStringRow >= 0) {
+                    addCell(pendingStringRow, pendingStringColumn, ((StringRecord) record).getString());
+                    pendingStringRow = -1;
+                }
+                break;
+            case LabelRecord.sid:
+                LabelRecord label = (LabelRecord) record;
+                addCell(label.getRow(), label.getColumn(), label.getValue());
+                break;
+            case LabelSSTRecord.sid:
+                LabelSSTRecord labelSst = (LabelSSTRecord) record;
+                addCell(labelSst.getRow(), labelSst.getColumn(),
+                    sharedStrings.getString(labelSst.getSSTIndex()).getString());
+                break;
+            case NumberRecord.sid:
+                // RK and MulRK records arrive as NumberRecords, MulBlank as BlankRecords
+                NumberRecord number = (NumberRecord) record;
+                addCell(number.getRow(), number.getColumn(), numericValue(number, number.getValue()));
+                break;
+            default:
+                break;
+        }
+    }
+    
+    private void startSheet() {
+        if (orderedSheets == null) {
+            orderedSheets = BoundSheetRecord.orderByBofPosition(boundSheets);
+        }
+        if (nextSheet >= options.getMaxSheets()) {
+            finished = true;
+            return;
+        }
+        String name = nextSheet < orderedSheets.length ? orderedSheets[nextSheet].getSheetname() : "Sheet" + (nextSheet + 1);
+        nextSheet++;
+        sheet = new SheetContentBuilder(name, options);
+        currentRow = -1;
+        row = null;
+    }
+    
+    private void finishSheet() {
+        if (sheet != null) {
+            flushRow();
+            SheetContentBuilder completed = sheet;
+            sheet = null;
+            try {
+                document.addSheet(completed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    /**
+     * Like HSSFCell: a string result is read as a string, a numeric result as a double,
+     * and anything else falls back to the formula text
+     */
+    private void formulaCell(FormulaRecord formula) {
+        switch (formula.getCachedResultTypeEnum()) {
+            case STRING:
+                if (formula.hasCachedResultString()) {
+                    pendingStringRow = formula.getRow();
+                    pendingStringColumn = formula.getColumn();
+                } else {
+                    addCell(formula.getRow(), formula.getColumn(), "");
+                }
+                break;
+            case NUMERIC:
+                addCell(formula.getRow(), formula.getColumn(), String.valueOf(formula.getValue()));
+                break;
+            default:
+                if (stubWorkbook == null) {
+                    stubWorkbook = workbookListener.getStubHSSFWorkbook();
+                }
+                addCell(formula.getRow(), formula.getColumn(),
+                    HSSFFormulaParser.toFormulaString(stubWorkbook, formula.getParsedExpression()));
+                break;
+        }
+    }
+    
+    private String numericValue(CellValueRecordInterface cell, double value) {
+        if (DateUtil.isValidExcelDate(value) &&
+            DateUtil.isADateFormat(formatListener.getFormatIndex(cell), formatListener.getFormatString(cell))) {
+            return DateUtil.getJavaDate(value, date1904).toString();
+        }
+        if (value == (long) value) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+    
+    private void addCell(int rowIndex, int column, String value) {
+        if (sheet == null) {
+            return;
+        }
+        if (sheet.isComplete()) {
+            // Nothing more is needed from this sheet; stop if no further sheet is read
+            finished = nextSheet >= options.getMaxSheets();
+            return;
+        }
+        if (rowIndex != currentRow) {
+            flushRow();
+            currentRow = rowIndex;
+            row = new ArrayList<>();
+            physicalLength = 0;
+        }
+        // Only cells with a value are materialised; gaps before them are filled
+        if (!value.isEmpty()) {
+            while (row.size() <= column) {
+                row.add("");
+            }
+            row.set(column, value);
+        }
+        physicalLength = Math.max(physicalLength, column + 1);
+    }
+    
+    private void flushRow() {
+        if (row != null && physicalLength > 0) {
+            sheet.addRow(row, physicalLength);
+        }
+        row = null;
+    }
+}
@@ -0,0 +1,393 @@
+package io.github.twwch.markdown2office.parser.impl;
+
+import io.github.twwch.markdown2office.parser.PageSink;
+import io.github.twwch.markdown2office.parser.ParseOptions;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.util.ParallelTasks;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Streaming reader for .xlsx workbooks. Instead of building an XSSFWorkbook, the sheet
+ * XML is read with SAX and each row is passed straight to a {@link SheetContentBuilder};
+ * only the shared strings and styles tables are held in memory. Sheets are independent,
+ * so they can be parsed concurrently.
+ *
+ * Cell values are converted exactly as ExcelFileParser converts XSSF cells, so the
+ * result matches the workbook model.
+ */
+final class XlsxStreamingReader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(XlsxStreamingReader.class);
+    
+    private XlsxStreamingReader() {
+    }
+    
+    /**
+     * Read a workbook package; the caller closes the package. Once the shared strings and
+     * styles are loaded, each worksheet part is parsed by its own SAX handler, up to
+     * {@link ParseOptions#getParallelism()} sheets at a time, and the sheets are merged in
+     * workbook order.
+     */
+    static ParsedDocument read(OPCPackage pkg, String fileName, ParseOptions options) throws IOException {
+        return read(pkg, fileName, options, null);
+    }
+    
+    /**
+     * Read a workbook package, passing each sheet to the sink when one is given. Sheets are
+     * then parsed one at a time, so only the sheet being passed on is held in memory.
+     */
+    static ParsedDocument read(OPCPackage pkg, String fileName, ParseOptions options, PageSink sink) throws IOException {
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            boolean[] dateStyles = dateStyles(reader.getStylesTable());
+            boolean date1904 = isDate1904(reader);
+            
+            WorkbookDocumentBuilder document = new WorkbookDocumentBuilder(fileName, sink);
+            try {
+                document.applyCoreProperties(new POIXMLProperties(pkg).getCoreProperties());
+            } catch (Exception e) {
+                // Properties might not be accessible, continue without them
+            }
+            
+            List<Callable<SheetContentBuilder>> tasks = new ArrayList<>();
+            int totalSheets = 0;
+            XSSFReader.SheetIterator sheets = reader.getSheetIterator();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                if (totalSheets++ >= options.getMaxSheets()) {
+                    continue;
+                }
+                String sheetName = sheets.getSheetName();
+                PackagePart part = sheets.getSheetPart();
+                tasks.add(() -> {
+                    SheetContentBuilder sheet = new SheetContentBuilder(sheetName, options);
+                    try (InputStream sheetData = part.getInputStream()) {
+                        parse(sheetData, new SheetHandler(sheet, sharedStrings, dateStyles, date1904));
+                    }
+                    return sheet;
+                });
+            }
+            
+            document.setTotalSheets(totalSheets);
+            if (document.hasSink()) {
+                for (Callable<SheetContentBuilder> task : tasks) {
+                    document.addSheet(ParallelTasks.call(task));
+                }
+            } else {
+                for (SheetContentBuilder sheet : ParallelTasks.invokeAll(tasks, options.getParallelism())) {
+                    document.addSheet(sheet);
+                }
+            }
+            logger.debug("Streamed workbook {} ({} sheets, parallelism {})", fileName, tasks.size(), options.getParallelism());
+            return document.build();
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Failed to stream Excel file: " + fileName, e);
+        }
+    }
+    
+    /**
+     * Count the sheets listed in the workbook part, the same way {@link #read} does,
+     * without parsing any of them
+     */
+    static int countSheets(OPCPackage pkg, String fileName) throws IOException {
+        try {
+            int totalSheets = 0;
+            XSSFReader.SheetIterator sheets = new XSSFReader(pkg).getSheetIterator();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                totalSheets++;
+            }
+            return totalSheets;
+        } catch (OpenXML4JException e) {
+            throw new IOException("Failed to read Excel file: " + fileName, e);
+        }
+    }
+    
+    private static void parse(InputStream in, DefaultHandler handler) throws IOException, SAXException {
+        try {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(handler);
+            xmlReader.parse(new InputSource(in));
+        } catch (StopParsing e) {
+            // The handler has read everything it needs
+        } catch (ParserConfigurationException e) {
+            throw new IOException("SAX parser is not available", e);
+        }
+    }
+    
+    private static boolean isDate1904(XSSFReader reader) throws IOException, OpenXML4JException, SAXException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream workbook = reader.getWorkbookData()) {
+            parse(workbook, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equals(value);
+                    }
+                }
+            });
+        }
+        return date1904[0];
+    }
+    
+    /**
+     * Resolve up front which cell styles use a date format, so sheet handlers running on
+     * different threads never touch the styles table
+     */
+    private static boolean[] dateStyles(StylesTable styles) {
+        if (styles == null) {
+            return new boolean[0];
+        }
+        boolean[] dateStyles = new boolean[styles.getNumCellStyles()];
+        for (int i = 0; i < dateStyles.length; i++) {
+            XSSFCellStyle style = styles.getStyleAt(i);
+            dateStyles[i] = style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+        return dateStyles;
+    }
+    
+    /**
+     * Escaped characters such as {@code _x000D_} are decoded the way XSSFRichTextString does
+     */
+    private static String decode(String text) {
+        return text.contains("_x") ? new XSSFRichTextString(text).getString() : text;
+    }
+    
+    /**
+     * Thrown by a handler to end the parse of a sheet once its row limit is reached
+     */
+    private static final class StopParsing extends SAXException {
+        StopParsing() {
+            super("Row limit reached");
+        }
+    }
+    
+    /**
+     * SAX handler for one worksheet part
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final SheetContentBuilder sheet;
+        private final SharedStrings sharedStrings;
+        private final boolean[] dateStyles;
+        private final boolean date1904;
+        
+        private List<String> row;
+        private int nextColumn;
+        private int physicalLength;
+        
+        private int column;
+        private String type;
+        private int styleIndex;
+        private boolean hasFormula;
+        private boolean hasValue;
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+        private final StringBuilder inlineText = new StringBuilder();
+        private final StringBuilder inlineRuns = new StringBuilder();
+        private boolean hasRuns;
+        
+        private StringBuilder capture;
+        private boolean inRun;
+        private boolean inPhonetic;
+        
+        SheetHandler(SheetContentBuilder sheet, SharedStrings sharedStrings, boolean[] dateStyles, boolean date1904) {
+            this.sheet = sheet;
+            this.sharedStrings = sharedStrings;
+            this.dateStyles = dateStyles;
+            this.date1904 = date1904;
+        }
+        
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    row = new ArrayList<>();
+                    nextColumn = 0;
+                    physicalLength = 0;
+                    break;
+                case "c":
+                    String reference = attributes.getValue("r");
+                    column = reference != null ? columnIndex(reference) : nextColumn;
+                    type = attributes.getValue("t");
+                    String style = attributes.getValue("s");
+                    styleIndex = style != null ? Integer.parseInt(style) : 0;
+                    hasFormula = false;
+                    hasValue = false;
+                    hasRuns = false;
+                    value.setLength(0);
+                    formula.setLength(0);
+                    inlineText.setLength(0);
+                    inlineRuns.setLength(0);
+                    break;
+                case "v":
+                    hasValue = true;
+                    capture = value;
+                    break;
+                case "f":
+                    hasFormula = true;
+                    capture = formula;
+                    break;
+                case "r":
+                    inRun = true;
+                    hasRuns = true;
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                case "t":
+                    if (!inPhonetic) {
+                        capture = inRun ? inlineRuns : inlineText;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                case "f":
+                case "t":
+                    capture = null;
+                    break;
+                case "r":
+                    inRun = false;
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "c":
+                    if (row != null) {
+                        // Only cells with a value are materialised; gaps before them are filled
+                        String cellValue = cellValue();
+                        if (!cellValue.isEmpty()) {
+                            while (row.size() <= column) {
+                                row.add("");
+                            }
+                            row.set(column, cellValue);
+                        }
+                        nextColumn = column + 1;
+                        physicalLength = Math.max(physicalLength, nextColumn);
+                    }
+                    break;
+                case "row":
+                    // Rows without cells are skipped, like rows whose last cell number is 0
+                    if (physicalLength > 0) {
+                        sheet.addRow(row, physicalLength);
+                    }
+                    row = null;
+                    if (sheet.isComplete()) {
+                        throw new StopParsing();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capture != null) {
+                capture.append(ch, start, length);
+            }
+        }
+        
+        /**
+         * Convert the current cell like ExcelFileParser.getCellValueAsString does for XSSF cells
+         */
+        private String cellValue() {
+            String raw = hasValue ? value.toString() : null;
+            
+            if (hasFormula) {
+                if ("str".equals(type) || "s".equals(type) || "inlineStr".equals(type)) {
+                    return decode(raw != null ? raw : "");
+                }
+                if ("b".equals(type) || "e".equals(type)) {
+                    // Neither a string nor a numeric result: the formula itself
+                    return formula.toString();
+                }
+                return String.valueOf(raw == null || raw.isEmpty() ? 0.0 : Double.parseDouble(raw));
+            }
+            
+            if ("s".equals(type)) {
+                if (raw == null) {
+                    return "";
+                }
+                return decode(sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString());
+            }
+            if ("inlineStr".equals(type)) {
+                return decode(hasRuns ? inlineRuns.toString() : inlineText.toString());
+            }
+            if ("str".equals(type)) {
+                return decode(raw != null ? raw : "");
+            }
+            if ("b".equals(type)) {
+                return String.valueOf("1".equals(raw));
+            }
+            if ("e".equals(type)) {
+                return "";
+            }
+            
+            // Numeric, or blank when there is no value
+            if (raw == null) {
+                return "";
+            }
+            double number = Double.parseDouble(raw);
+            if (isDateStyle(styleIndex) && DateUtil.isValidExcelDate(number)) {
+                return DateUtil.getJavaDate(number, date1904).toString();
+            }
+            if (number == (long) number) {
+                return String.valueOf((long) number);
+            }
+            return String.valueOf(number);
+        }
+        
+        private boolean isDateStyle(int index) {
+            return index >= 0 && index < dateStyles.length && dateStyles[index];
+        }
+        
+        /**
+         * Zero-based column of a cell reference such as "AB12"
+         */
+        private static int columnIndex(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParserProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Base class for providers that declare a fixed set of extensions and MIME types
+ */
+public abstract class AbstractFileParserProvider implements FileParserProvider {
+    
+    private final String parserClassName;
+    private final int order;
+    private final Set<String> extensions;
+    private final Set<String> mimeTypes;
+    
+    protected AbstractFileParserProvider(String parserClassName, int order, String[] extensions, String[] mimeTypes) {
+        this.parserClassName = parserClassName;
+        this.order = order;
+        this.extensions = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(extensions)));
+        this.mimeTypes = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(mimeTypes)));
+    }
+    
+    @Override
+    public String getParserClassName() {
+        return parserClassName;
+    }
+    
+    @Override
+    public Set<String> getExtensions() {
+        return extensions;
+    }
+    
+    @Override
+    public Set<String> getMimeTypes() {
+        return mimeTypes;
+    }
+    
+    @Override
+    public int getOrder() {
+        return order;
+    }
+    
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + extensions;
+    }
+}
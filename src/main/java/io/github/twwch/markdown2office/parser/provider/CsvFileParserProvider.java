@@ -0,0 +1,21 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+
+/**
+ * Provider for {@link CsvFileParser}
+ */
+public class CsvFileParserProvider extends AbstractFileParserProvider {
+    
+    public CsvFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.CsvFileParser", 500,
+            new String[] {".csv"},
+            new String[] {"text/csv"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new CsvFileParser();
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+
+/**
+ * Provider for {@link ExcelFileParser}
+ */
+public class ExcelFileParserProvider extends AbstractFileParserProvider {
+    
+    public ExcelFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.ExcelFileParser", 300,
+            new String[] {".xlsx", ".xls"},
+            new String[] {"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "application/vnd.ms-excel",
+                "application/vnd.ms-spreadsheetml"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new ExcelFileParser();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.MarkdownFileParser;
+
+/**
+ * Provider for {@link MarkdownFileParser}
+ */
+public class MarkdownFileParserProvider extends AbstractFileParserProvider {
+    
+    public MarkdownFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.MarkdownFileParser", 600,
+            new String[] {".md", ".markdown", ".mdown", ".mkd", ".mkdn"},
+            new String[] {"text/markdown", "text/x-markdown"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new MarkdownFileParser();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+
+/**
+ * Provider for {@link PdfFileParser}
+ */
+public class PdfFileParserProvider extends AbstractFileParserProvider {
+    
+    public PdfFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.PdfFileParser", 100,
+            new String[] {".pdf"},
+            new String[] {"application/pdf"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new PdfFileParser();
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.PowerPointFileParser;
+
+/**
+ * Provider for {@link PowerPointFileParser}
+ */
+public class PowerPointFileParserProvider extends AbstractFileParserProvider {
+    
+    public PowerPointFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.PowerPointFileParser", 400,
+            new String[] {".pptx", ".ppt"},
+            new String[] {"application/vnd.openxmlformats-officedocument.presentationml.presentation",
+                "application/vnd.ms-powerpoint"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new PowerPointFileParser();
+    }
+}
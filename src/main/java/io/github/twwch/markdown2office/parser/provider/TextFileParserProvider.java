@@ -0,0 +1,28 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.TextFileParser;
+
+/**
+ * Provider for {@link TextFileParser}. Also claims file names without an extension.
+ */
+public class TextFileParserProvider extends AbstractFileParserProvider {
+    
+    public TextFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.TextFileParser", 700,
+            new String[] {".txt", ".text", ".log"},
+            new String[] {"text/plain"});
+    }
+    
+    @Override
+    public boolean supports(String fileName) {
+        // Files without an extension are treated as plain text
+        return super.supports(fileName) ||
+               (fileName != null && !fileName.isEmpty() && !fileName.contains("."));
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new TextFileParser();
+    }
+}
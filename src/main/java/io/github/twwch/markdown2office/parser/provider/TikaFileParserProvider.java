@@ -0,0 +1,28 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.TikaFileParser;
+
+/**
+ * Provider for the fallback {@link TikaFileParser}. Creating it loads the Tika service registry,
+ * so it is ordered last and only instantiated when a Tika-only format is parsed.
+ */
+public class TikaFileParserProvider extends AbstractFileParserProvider {
+    
+    public TikaFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.TikaFileParser", 1000,
+            new String[] {".html", ".htm", ".xml", ".rtf", ".odt", ".ods", ".odp",
+                ".pages", ".numbers", ".key", ".epub", ".mobi", ".azw", ".azw3"},
+            new String[] {"text/html", "application/xhtml+xml", "application/xml", "text/xml", "application/rtf",
+                "application/vnd.oasis.opendocument.text", "application/vnd.oasis.opendocument.spreadsheet",
+                "application/vnd.oasis.opendocument.presentation", "application/epub+zip",
+                "application/x-mobipocket-ebook", "application/vnd.apple.pages",
+                "application/vnd.apple.numbers", "application/vnd.apple.keynote",
+                "application/x-tika-msoffice", "application/x-tika-ooxml"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new TikaFileParser();
+    }
+}
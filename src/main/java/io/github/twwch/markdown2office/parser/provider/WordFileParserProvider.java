@@ -0,0 +1,21 @@
+package io.github.twwch.markdown2office.parser.provider;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.impl.WordFileParser;
+
+/**
+ * Provider for {@link WordFileParser}
+ */
+public class WordFileParserProvider extends AbstractFileParserProvider {
+    
+    public WordFileParserProvider() {
+        super("io.github.twwch.markdown2office.parser.impl.WordFileParser", 200,
+            new String[] {".docx", ".doc"},
+            new String[] {"application/vnd.openxmlformats-officedocument.wordprocessingml.document", "application/msword"});
+    }
+    
+    @Override
+    public FileParser createParser() {
+        return new WordFileParser();
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass charset detector for text-based files (CSV, plain text, markdown).
+ *
+ * The bytes are scanned once. A UTF-8 state machine checks validity while, in the
+ * same loop, the bytes are also read as double-byte GB (GBK/GB18030) and Big5
+ * sequences and the lead/trail pairs are classified. Nothing is decoded into
+ * strings. The scan stops as soon as enough non-ASCII sequences have been seen
+ * to decide, so large inputs cost the same as a small sample.
+ *
+ * Result order of preference: BOM, UTF-8 (also for pure ASCII), GBK / GB18030,
+ * Big5, Windows-1252. Text whose non-ASCII bytes mostly stand alone inside words,
+ * such as the accented letters of Latin-1 text, is Windows-1252 even when its bytes
+ * also form valid GB or Big5 pairs.
+ */
+public final class CharsetDetector {
+    
+    /**
+     * Number of leading bytes read by {@link #detect(InputStream)}
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+    
+    public static final Charset GBK = Charset.forName("GBK");
+    public static final Charset GB18030 = Charset.forName("GB18030");
+    public static final Charset BIG5 = Charset.forName("Big5");
+    public static final Charset WINDOWS_1252 = Charset.forName("Windows-1252");
+    
+    // Non-ASCII sequences after which the verdict is considered stable
+    private static final int CONFIDENT_SEQUENCES = 1024;
+    // Fewer double-byte pairs or a smaller share of non-ASCII bytes is not taken as Chinese
+    private static final int MIN_DOUBLE_BYTE_PAIRS = 2;
+    private static final int MIN_HIGH_BYTE_PERCENT = 1;
+    
+    private CharsetDetector() {
+    }
+    
+    /**
+     * Detect the charset of a byte array
+     * @param bytes the content, or a prefix of it
+     * @return the detected charset, UTF-8 when the content is empty or ASCII
+     */
+    public static Charset detect(byte[] bytes) {
+        return bytes == null ? StandardCharsets.UTF_8 : detect(bytes, 0, bytes.length);
+    }
+    
+    /**
+     * Detect the charset of a stream without consuming it.
+     * Reads at most {@link #DEFAULT_SAMPLE_SIZE} bytes; the stream must support mark/reset.
+     * @param in the stream to inspect
+     * @return the detected charset
+     * @throws IOException if the stream cannot be read
+     */
+    public static Charset detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("InputStream must support mark/reset for charset detection");
+        }
+        byte[] sample = new byte[DEFAULT_SAMPLE_SIZE];
+        int length = 0;
+        in.mark(DEFAULT_SAMPLE_SIZE);
+        try {
+            int read;
+            while (length < sample.length && (read = in.read(sample, length, sample.length - length)) > 0) {
+                length += read;
+            }
+        } finally {
+            in.reset();
+        }
+        return detect(sample, 0, length);
+    }
+    
+    /**
+     * Detect the charset of part of a byte array. A sequence cut off at the end of the
+     * range is not counted as an error, so the range may be an arbitrary prefix.
+     * @param bytes the buffer
+     * @param offset start of the content
+     * @param length number of bytes to inspect
+     * @return the detected charset
+     */
+    public static Charset detect(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        if (length <= 0) {
+            return StandardCharsets.UTF_8;
+        }
+        
+        // Byte order marks
+        if (length >= 3 && bytes[offset] == (byte) 0xEF && bytes[offset + 1] == (byte) 0xBB && bytes[offset + 2] == (byte) 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        if (length >= 2 && bytes[offset] == (byte) 0xFE && bytes[offset + 1] == (byte) 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (length >= 2 && bytes[offset] == (byte) 0xFF && bytes[offset + 1] == (byte) 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+        
+        // UTF-8 state: number of continuation bytes still expected
+        boolean utf8Valid = true;
+        int utf8Pending = 0;
+        int utf8Sequences = 0;
+        
+        // GB state: position inside a 2- or 4-byte sequence
+        int gbState = 0;
+        int gbPairs = 0;
+        int gbCommon = 0;
+        int gbExtension = 0;
+        int gbFourByte = 0;
+        int gbInvalid = 0;
+        
+        // Big5 state: lead byte waiting for its trail, or -1
+        int big5Lead = -1;
+        int big5Pairs = 0;
+        int big5LowTrail = 0;
+        int big5Invalid = 0;
+        
+        // Runs of non-ASCII bytes, and those of one or two bytes between ASCII letters
+        int highBytes = 0;
+        int highRuns = 0;
+        int wordRuns = 0;
+        int runLength = 0;
+        boolean runAfterLetter = false;
+        int scanned = length;
+        
+        for (int i = offset; i < end; i++) {
+            int b = bytes[i] & 0xFF;
+            
+            if (b >= 0x80) {
+                highBytes++;
+                if (runLength++ == 0) {
+                    runAfterLetter = i > offset && isAsciiLetter(bytes[i - 1] & 0xFF);
+                }
+            } else if (runLength > 0) {
+                highRuns++;
+                if (runAfterLetter && runLength <= 2 && isAsciiLetter(b)) {
+                    wordRuns++;
+                }
+                runLength = 0;
+            }
+            
+            // ASCII outside any multi-byte sequence changes no state
+            if (b < 0x80 && gbState == 0 && big5Lead < 0 && (utf8Pending == 0 || !utf8Valid)) {
+                continue;
+            }
+            
+            // UTF-8 state machine
+            if (utf8Valid) {
+                if (utf8Pending > 0) {
+                    if ((b & 0xC0) == 0x80) {
+                        if (--utf8Pending == 0) {
+                            utf8Sequences++;
+                        }
+                    } else {
+                        utf8Valid = false;
+                    }
+                } else if (b >= 0xC2 && b <= 0xDF) {
+                    utf8Pending = 1;
+                } else if (b >= 0xE0 && b <= 0xEF) {
+                    utf8Pending = 2;
+                } else if (b >= 0xF0 && b <= 0xF4) {
+                    utf8Pending = 3;
+                } else if (b >= 0x80) {
+                    utf8Valid = false;
+                }
+            }
+            
+            // GBK / GB18030
+            if (gbState == 0) {
+                if (b >= 0x81 && b <= 0xFE) {
+                    gbState = b;
+                } else if (b == 0x80 || b == 0xFF) {
+                    gbInvalid++;
+                }
+            } else if (gbState > 0) {
+                int lead = gbState;
+                if (b >= 0x30 && b <= 0x39) {
+                    gbState = -1; // second byte of a four-byte sequence
+                } else if (b >= 0x40 && b <= 0xFE && b != 0x7F) {
+                    gbPairs++;
+                    if (lead >= 0xB0 && lead <= 0xF7 && b >= 0xA1) {
+                        gbCommon++; // GB2312 hanzi area
+                    } else if (lead <= 0xA0) {
+                        gbExtension++; // GBK-only lead bytes, invalid in Big5
+                    }
+                    gbState = 0;
+                } else {
+                    gbInvalid++;
+                    gbState = 0;
+                }
+            } else if (gbState == -1) {
+                if (b >= 0x81 && b <= 0xFE) {
+                    gbState = -2; // third byte, the fourth must be a digit again
+                } else {
+                    gbInvalid++;
+                    gbState = 0;
+                }
+            } else {
+                if (b >= 0x30 && b <= 0x39) {
+                    gbFourByte++;
+                } else {
+                    gbInvalid++;
+                }
+                gbState = 0;
+            }
+            
+            // Big5
+            if (big5Lead < 0) {
+                if (b >= 0xA1 && b <= 0xF9) {
+                    big5Lead = b;
+                } else if (b >= 0x80) {
+                    big5Invalid++;
+                }
+            } else {
+                if ((b >= 0x40 && b <= 0x7E) || (b >= 0xA1 && b <= 0xFE)) {
+                    big5Pairs++;
+                    if (b <= 0x7E) {
+                        big5LowTrail++;
+                    }
+                } else {
+                    big5Invalid++;
+                }
+                big5Lead = -1;
+            }
+            
+            // Stop once the verdict can no longer reasonably change
+            if ((utf8Valid && utf8Sequences >= CONFIDENT_SEQUENCES) ||
+                (!utf8Valid && gbPairs + big5Pairs >= 2 * CONFIDENT_SEQUENCES)) {
+                scanned = i + 1 - offset;
+                break;
+            }
+        }
+        
+        if (utf8Valid) {
+            return StandardCharsets.UTF_8;
+        }
+        
+        // Accented Latin letters sit alone inside words; Chinese text is rarely glued to letters on both sides
+        if (wordRuns * 2 > highRuns) {
+            return WINDOWS_1252;
+        }
+        
+        boolean enoughHighBytes = highBytes * 100L >= (long) scanned * MIN_HIGH_BYTE_PERCENT;
+        boolean gbPlausible = enoughHighBytes && gbPairs + gbFourByte >= MIN_DOUBLE_BYTE_PAIRS &&
+            gbInvalid * 50 <= gbPairs + gbFourByte;
+        boolean big5Plausible = enoughHighBytes && big5Pairs >= MIN_DOUBLE_BYTE_PAIRS && big5Invalid * 50 <= big5Pairs;
+        
+        // Big5 hanzi often use trail bytes below 0x7F; common GB text almost never does
+        if (big5Plausible && gbExtension == 0 && big5LowTrail * 10 >= big5Pairs && gbCommon * 2 < gbPairs) {
+            return BIG5;
+        }
+        if (gbPlausible && (gbCommon * 2 >= gbPairs || gbExtension > 0 || gbFourByte > 0)) {
+            return gbFourByte > 0 ? GB18030 : GBK;
+        }
+        if (big5Plausible) {
+            return BIG5;
+        }
+        return WINDOWS_1252;
+    }
+    
+    private static boolean isAsciiLetter(int b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+}
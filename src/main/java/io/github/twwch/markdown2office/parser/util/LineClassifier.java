@@ -0,0 +1,338 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Line-level heuristics shared by the parsers that turn plain text into markdown.
+ *
+ * {@link #classify(String)} splits the text of a PDF page into lines and decides once per
+ * line whether it is a heading, a list item or body text, so the markdown and the page
+ * structure are built from the same result. The checks are hand-written scans that give
+ * the same answers as the regular expressions they replace, without compiling or running
+ * a pattern per line. The remaining predicates use patterns compiled once.
+ */
+public final class LineClassifier {
+    
+    /**
+     * What a line of text is taken to be
+     */
+    public enum Type {
+        /** Empty after trimming */
+        BLANK,
+        /** All-caps line, or a short line followed by a blank one */
+        HEADING,
+        /** Starts with a bullet character and whitespace */
+        BULLET,
+        /** Starts with a number or a single letter followed by "." or ")" and whitespace */
+        NUMBERED,
+        /** Anything else */
+        TEXT
+    }
+    
+    /**
+     * One classified line
+     */
+    public static final class Line {
+        private final String text;
+        private final Type type;
+        
+        Line(String text, Type type) {
+            this.text = text;
+            this.type = type;
+        }
+        
+        /**
+         * @return the trimmed line
+         */
+        public String getText() {
+            return text;
+        }
+        
+        public Type getType() {
+            return type;
+        }
+        
+        /**
+         * @return 2 for short all-caps headings, 3 for other headings, 0 for other lines
+         */
+        public int getHeadingLevel() {
+            if (type != Type.HEADING) {
+                return 0;
+            }
+            return text.length() < 30 && isUpperCase(text) ? 2 : 3;
+        }
+        
+        /**
+         * @return the text of a bullet item without its bullet, or the trimmed line
+         */
+        public String getItemText() {
+            return type == Type.BULLET ? stripBullet(text) : text;
+        }
+    }
+    
+    private static final String BULLETS = "•*-+→►▪▫◦‣⁃";
+    
+    private static final Pattern[] CHINESE_HEADINGS = {
+        Pattern.compile("^第[一二三四五六七八九十]+[章节部分篇].*"), // 第一章, 第二节, etc.
+        Pattern.compile("^[一二三四五六七八九十]+[、.。].*"), // 一、引言, 二、内容, etc.
+        Pattern.compile("^\\d+[、.。].*"), // 1、内容, 2. 标题, etc.
+        Pattern.compile("^[(（][一二三四五六七八九十0-9]+[)）].*"), // (一), (1), etc.
+        Pattern.compile("^[①②③④⑤⑥⑦⑧⑨⑩].*") // ①标题, etc.
+    };
+    // Common heading endings
+    private static final Pattern CHINESE_HEADING_ENDING = Pattern.compile(".*[概述|简介|介绍|总结|结论|背景|目的|方法|结果]$");
+    
+    // Whole-line Chinese headings by level: 第一章, 一、 and 1、
+    private static final Pattern[] CHINESE_HEADING_LEVELS = {
+        Pattern.compile("^第[一二三四五六七八九十]+[章节部分篇]"),
+        Pattern.compile("^[一二三四五六七八九十]+[、.]"),
+        Pattern.compile("^\\d+[、.]")
+    };
+    
+    private LineClassifier() {
+    }
+    
+    /**
+     * Split text into lines and classify each one with the heuristics used for PDF pages.
+     * Lines are split at '\n' and trimmed; trailing empty lines are dropped, as
+     * {@code String.split} does.
+     * @param text the page text
+     * @return the classified lines in order
+     */
+    public static List<Line> classify(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> lines = splitLines(text);
+        List<Line> result = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            Type type;
+            if (line.isEmpty()) {
+                type = Type.BLANK;
+            } else if (isHeading(line, i + 1 < lines.size() && lines.get(i + 1).isEmpty())) {
+                type = Type.HEADING;
+            } else if (isBullet(line)) {
+                type = Type.BULLET;
+            } else if (isNumbered(line)) {
+                type = Type.NUMBERED;
+            } else {
+                type = Type.TEXT;
+            }
+            result.add(new Line(line, type));
+        }
+        return result;
+    }
+    
+    /**
+     * Whether the text is unchanged by upper-casing, checked without allocating for ASCII text
+     */
+    public static boolean isUpperCase(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return text.equals(text.toUpperCase());
+            }
+            if (c >= 'a' && c <= 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Whether the text is a single line containing an ASCII capital letter,
+     * like {@code text.matches(".*[A-Z].*")}
+     */
+    public static boolean hasCapitalLetter(String text) {
+        boolean found = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                found = true;
+            } else if (isLineTerminator(c)) {
+                return false;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Whether the text starts like a Chinese heading: 第一章, 一、, 1、, (一), ① or a short
+     * line ending in a common heading word
+     */
+    public static boolean isChineseHeading(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        for (Pattern pattern : CHINESE_HEADINGS) {
+            if (pattern.matcher(text).matches()) {
+                return true;
+            }
+        }
+        return text.length() < 30 && CHINESE_HEADING_ENDING.matcher(text).matches();
+    }
+    
+    /**
+     * Heading level of text that consists only of a Chinese heading number
+     * @return 1 for 第一章, 2 for 一、, 3 for 1、 and 0 otherwise
+     */
+    public static int chineseHeadingLevel(String text) {
+        for (int i = 0; i < CHINESE_HEADING_LEVELS.length; i++) {
+            if (CHINESE_HEADING_LEVELS[i].matcher(text).matches()) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Split at '\n' and trim, dropping trailing lines that were empty before trimming
+     */
+    private static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end == 0) {
+            // An empty text is one empty line, a text of only newlines has none
+            if (text.isEmpty()) {
+                lines.add("");
+            }
+            return lines;
+        }
+        int start = 0;
+        while (start <= end) {
+            int newline = text.indexOf('\n', start);
+            if (newline < 0 || newline > end) {
+                newline = end;
+            }
+            lines.add(text.substring(start, newline).trim());
+            start = newline + 1;
+        }
+        return lines;
+    }
+    
+    private static boolean isHeading(String line, boolean followedByBlank) {
+        int length = line.length();
+        if (length < 80 && length > 3 && isUpperCase(line) && !hasYear(line) && !hasPrice(line)) {
+            return true;
+        }
+        return length < 60 && followedByBlank;
+    }
+    
+    /**
+     * Like {@code matches(".*\\d{4}.*")}: four digits in a row on a single line
+     */
+    private static boolean hasYear(String line) {
+        int run = 0;
+        boolean found = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                found |= ++run >= 4;
+            } else {
+                run = 0;
+                if (isLineTerminator(c)) {
+                    return false;
+                }
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Like {@code matches(".*\\$\\d+.*")}: a dollar sign followed by a digit on a single line
+     */
+    private static boolean hasPrice(String line) {
+        boolean found = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if (c == '$' && i + 1 < line.length() && isDigit(line.charAt(i + 1))) {
+                found = true;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * A bullet character followed by whitespace; the line is already trimmed
+     */
+    private static boolean isBullet(String line) {
+        return line.length() > 1 && BULLETS.indexOf(line.charAt(0)) >= 0
+            && isWhitespace(line.charAt(1)) && isSingleLine(line, skipWhitespace(line, 1));
+    }
+    
+    /**
+     * Digits or a single letter, then "." or ")" and whitespace
+     */
+    private static boolean isNumbered(String line) {
+        int i = 0;
+        while (i < line.length() && isDigit(line.charAt(i))) {
+            i++;
+        }
+        if (i == 0) {
+            char c = line.charAt(0);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                return false;
+            }
+            i = 1;
+        }
+        return i + 1 < line.length() && (line.charAt(i) == '.' || line.charAt(i) == ')')
+            && isWhitespace(line.charAt(i + 1)) && isSingleLine(line, skipWhitespace(line, i + 1));
+    }
+    
+    /**
+     * Remove a leading bullet and the whitespace after it, then once more after any
+     * whitespace, as the two {@code replaceFirst} calls this replaces did
+     */
+    private static String stripBullet(String line) {
+        int i = 0;
+        if (i < line.length() && BULLETS.indexOf(line.charAt(i)) >= 0) {
+            i = skipWhitespace(line, i + 1);
+        }
+        int j = skipWhitespace(line, i);
+        if (j < line.length() && BULLETS.indexOf(line.charAt(j)) >= 0) {
+            i = skipWhitespace(line, j + 1);
+        }
+        return line.substring(i);
+    }
+    
+    private static int skipWhitespace(String line, int i) {
+        while (i < line.length() && isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static boolean isSingleLine(String line, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // The characters matched by \d
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    // The characters matched by \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+    
+    // The characters not matched by .
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent parsing tasks on a ForkJoinPool and returns their results in
+ * submission order, so callers can stitch partial results back together.
+ */
+public final class ParallelTasks {
+    
+    private ParallelTasks() {
+    }
+    
+    /**
+     * Run all tasks and wait for them
+     * @param tasks the tasks, results are returned in the same order
+     * @param parallelism maximum number of threads; 1 runs the tasks on the calling thread
+     * @return the task results
+     * @throws IOException the first failure, unwrapped when it was an IOException
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int parallelism) throws IOException {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        if (parallelism <= 1 || tasks.size() == 1) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for parallel parsing tasks");
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * Run one task on the calling thread
+     * @param task the task
+     * @return the task result
+     * @throws IOException the failure, unwrapped when it was an IOException
+     */
+    public static <T> T call(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw toIOException(e);
+        }
+    }
+    
+    private static IOException toIOException(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException("Parallel parsing task failed", cause);
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import io.github.twwch.markdown2office.parser.ParseOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Decides which rows of a table are kept under a row limit, holding at most the limit
+ * in memory.
+ *
+ * Rows are offered in source order. Leading rows that are certain to be kept are handed
+ * back to the caller to be written immediately; rows whose fate is only known at the end
+ * (the tail of {@link ParseOptions.SamplingStrategy#HEAD_TAIL}, the reservoir of
+ * {@link ParseOptions.SamplingStrategy#RESERVOIR}) are buffered and returned by
+ * {@link #remaining()} in source order. Not thread-safe.
+ *
+ * @param <T> the row type
+ */
+public final class RowSampler<T> {
+    
+    // Fixed seed, so the same input always produces the same sample
+    private static final long RESERVOIR_SEED = 0x5DEECE66DL;
+    
+    private final int limit;
+    private final ParseOptions.SamplingStrategy strategy;
+    private final int headLimit;
+    private final Object[] buffer;
+    private final long[] bufferIndexes;
+    private final SplittableRandom random;
+    private int buffered;
+    private long rowCount;
+    
+    /**
+     * @param limit maximum number of rows kept
+     * @param strategy which rows to keep once the limit is exceeded
+     */
+    public RowSampler(int limit, ParseOptions.SamplingStrategy strategy) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        this.strategy = strategy;
+        switch (strategy) {
+            case HEAD_TAIL:
+                headLimit = limit - limit / 2;
+                break;
+            case RESERVOIR:
+                headLimit = 0;
+                break;
+            default:
+                headLimit = limit;
+                break;
+        }
+        int bufferSize = limit - headLimit;
+        this.buffer = new Object[bufferSize];
+        this.bufferIndexes = new long[bufferSize];
+        this.random = strategy == ParseOptions.SamplingStrategy.RESERVOIR ? new SplittableRandom(RESERVOIR_SEED) : null;
+    }
+    
+    /**
+     * Create a sampler for the row limit and strategy of the options
+     * @param options the parse options
+     * @return the sampler
+     */
+    public static <T> RowSampler<T> of(ParseOptions options) {
+        return new RowSampler<>(options.getMaxRowsPerTable(), options.getSamplingStrategy());
+    }
+    
+    /**
+     * Offer the next row
+     * @param row the row
+     * @return true if the row is kept and should be written now; false if it was buffered
+     *         for {@link #remaining()} or dropped
+     */
+    public boolean offer(T row) {
+        long index = rowCount++;
+        if (index < headLimit) {
+            return true;
+        }
+        if (buffer.length == 0) {
+            return false;
+        }
+        if (strategy == ParseOptions.SamplingStrategy.RESERVOIR) {
+            // Algorithm R: the row replaces a random slot with probability limit / (index + 1)
+            if (index < buffer.length) {
+                store((int) index, row, index);
+            } else {
+                long slot = random.nextLong(index + 1);
+                if (slot < buffer.length) {
+                    store((int) slot, row, index);
+                }
+            }
+        } else {
+            // Ring buffer of the latest rows
+            store((int) ((index - headLimit) % buffer.length), row, index);
+        }
+        return false;
+    }
+    
+    /**
+     * @return true when no further row can be kept, so the caller may stop reading
+     */
+    public boolean isComplete() {
+        return strategy == ParseOptions.SamplingStrategy.HEAD && rowCount > limit;
+    }
+    
+    /**
+     * @return true if at least one offered row was not kept
+     */
+    public boolean isTruncated() {
+        return rowCount > limit;
+    }
+    
+    /**
+     * @return the number of rows offered so far
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * The true number of rows, if every row was offered
+     * @return the row count, or -1 when reading stopped early
+     */
+    public long getTotalRows() {
+        return isComplete() ? -1 : rowCount;
+    }
+    
+    /**
+     * Buffered rows that are kept, in source order; call once after the last row
+     * @return the rows to write after the ones accepted by {@link #offer(Object)}
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> remaining() {
+        if (buffered == 0) {
+            return Collections.emptyList();
+        }
+        Integer[] order = new Integer[buffered];
+        for (int i = 0; i < buffered; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(bufferIndexes[a], bufferIndexes[b]));
+        List<T> rows = new ArrayList<>(buffered);
+        for (int slot : order) {
+            rows.add((T) buffer[slot]);
+            buffer[slot] = null;
+        }
+        buffered = 0;
+        return rows;
+    }
+    
+    private void store(int slot, T row, long index) {
+        if (buffer[slot] == null) {
+            buffered++;
+        }
+        buffer[slot] = row;
+        bufferIndexes[slot] = index;
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * The content of an InputStream, held in memory when it is small and spooled to a temp
+ * file otherwise, so large uploads can be parsed through the random-access File code
+ * paths instead of being buffered on the heap.
+ *
+ * The temp file keeps the original file name (inside its own temp directory), so parsers
+ * that derive the title or format from the name behave as for the stream. Closing deletes
+ * the file.
+ */
+public final class SpooledInput implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SpooledInput.class);
+    
+    // Largest array the JVM reliably allocates
+    private static final int MAX_IN_MEMORY = Integer.MAX_VALUE - 8;
+    
+    private final byte[] bytes;
+    private final Path file;
+    
+    private SpooledInput(byte[] bytes, Path file) {
+        this.bytes = bytes;
+        this.file = file;
+    }
+    
+    /**
+     * Read a stream to its end; the caller closes the stream
+     * @param in the stream
+     * @param fileName the original file name, used for the temp file
+     * @param threshold inputs of at most this many bytes stay in memory
+     * @return the spooled input, to be closed after parsing
+     * @throws IOException if the stream cannot be read or the temp file written
+     */
+    public static SpooledInput spool(InputStream in, String fileName, long threshold) throws IOException {
+        return spool(in, fileName, threshold, null);
+    }
+    
+    /**
+     * Read a stream to its end; the caller closes the stream
+     * @param in the stream
+     * @param fileName the original file name, used for the temp file
+     * @param threshold inputs of at most this many bytes stay in memory
+     * @param directory where the temp file is created, or null for the system temp directory
+     * @return the spooled input, to be closed after parsing
+     * @throws IOException if the stream cannot be read or the temp file written
+     */
+    public static SpooledInput spool(InputStream in, String fileName, long threshold, File directory) throws IOException {
+        int limit = (int) Math.min(threshold, MAX_IN_MEMORY - 1);
+        byte[] head = in.readNBytes(limit + 1);
+        if (head.length <= limit) {
+            return new SpooledInput(head, null);
+        }
+        
+        Path spoolDirectory = directory != null ?
+            Files.createTempDirectory(directory.toPath(), "markdown2office-") :
+            Files.createTempDirectory("markdown2office-");
+        Path file;
+        try {
+            file = spoolDirectory.resolve(safeName(fileName));
+        } catch (InvalidPathException e) {
+            file = spoolDirectory.resolve("input");
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(head);
+            head = null;
+            in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            delete(file, spoolDirectory);
+            throw e;
+        }
+        logger.debug("Spooled '{}' to {} ({} bytes)", fileName, file, Files.size(file));
+        return new SpooledInput(null, file);
+    }
+    
+    /**
+     * @return true if the content is held in memory, false if it was spooled to a file
+     */
+    public boolean isInMemory() {
+        return file == null;
+    }
+    
+    /**
+     * @return the temp file, or null when the content is held in memory
+     */
+    public File getFile() {
+        return file != null ? file.toFile() : null;
+    }
+    
+    /**
+     * Open a new stream over the content
+     * @return the stream
+     * @throws IOException if the temp file cannot be opened
+     */
+    public InputStream openStream() throws IOException {
+        return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(bytes);
+    }
+    
+    /**
+     * @return the content length in bytes
+     * @throws IOException if the size of the temp file cannot be read
+     */
+    public long length() throws IOException {
+        return file != null ? Files.size(file) : bytes.length;
+    }
+    
+    @Override
+    public void close() {
+        if (file != null) {
+            delete(file, file.getParent());
+        }
+    }
+    
+    private static void delete(Path file, Path directory) {
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled input {}", file, e);
+        }
+    }
+    
+    /**
+     * The last path segment of the name, so a name like "../x" cannot leave the temp directory
+     */
+    private static String safeName(String fileName) {
+        String name = fileName != null ? fileName : "";
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        if (name.isEmpty() || ".".equals(name) || "..".equals(name)) {
+            return "input";
+        }
+        return name;
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.twwch.markdown2office.parser.util;
+
+/**
+ * Word, character, line and paragraph counts of a piece of text.
+ *
+ * {@link #of(CharSequence)} computes all counts in a single pass over the text without
+ * splitting it or creating any intermediate strings, so a parser can count a page once and
+ * reuse the result for the page and the document totals.
+ *
+ * A word is a run of non-whitespace characters that contains at least one letter or digit,
+ * so stray punctuation such as a bullet or a dash is not a word. Chinese and Japanese text is
+ * not separated by spaces: every Han, Hiragana and Katakana character counts as one word, and
+ * CJK punctuation ends the current word. Characters are counted as Unicode code points.
+ */
+public final class TextStatistics {
+    
+    /** The counts of empty text */
+    public static final TextStatistics EMPTY = new TextStatistics(0, 0, 0, 0, 0);
+    
+    private final int words;
+    private final int characters;
+    private final int charactersWithoutSpaces;
+    private final int lines;
+    private final int paragraphs;
+    
+    private TextStatistics(int words, int characters, int charactersWithoutSpaces, int lines, int paragraphs) {
+        this.words = words;
+        this.characters = characters;
+        this.charactersWithoutSpaces = charactersWithoutSpaces;
+        this.lines = lines;
+        this.paragraphs = paragraphs;
+    }
+    
+    /**
+     * Count the text in one pass
+     * @param text the text, or null for {@link #EMPTY}
+     */
+    public static TextStatistics of(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return EMPTY;
+        }
+        
+        int words = 0;
+        int characters = 0;
+        int charactersWithoutSpaces = 0;
+        int lineBreaks = 0;
+        int paragraphs = 0;
+        boolean wordCounted = false;
+        boolean lineHasText = false;
+        boolean previousLineBlank = true;
+        boolean previousCarriageReturn = false;
+        boolean endsWithLineBreak = false;
+        
+        int length = text.length();
+        for (int i = 0; i < length; ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            characters++;
+            
+            if (codePoint == '\n' || codePoint == '\r') {
+                // A \r\n pair is one line break
+                if (codePoint == '\r' || !previousCarriageReturn) {
+                    lineBreaks++;
+                    previousLineBlank = !lineHasText;
+                    lineHasText = false;
+                }
+                previousCarriageReturn = codePoint == '\r';
+                endsWithLineBreak = true;
+                wordCounted = false;
+                continue;
+            }
+            previousCarriageReturn = false;
+            endsWithLineBreak = false;
+            
+            if (isWhitespace(codePoint)) {
+                wordCounted = false;
+                continue;
+            }
+            
+            charactersWithoutSpaces++;
+            if (!lineHasText) {
+                lineHasText = true;
+                if (previousLineBlank) {
+                    paragraphs++;
+                }
+            }
+            
+            if (isIdeograph(codePoint)) {
+                words++;
+                wordCounted = false;
+            } else if (isCjkPunctuation(codePoint)) {
+                wordCounted = false;
+            } else if (!wordCounted && Character.isLetterOrDigit(codePoint)) {
+                words++;
+                wordCounted = true;
+            }
+        }
+        
+        int lines = endsWithLineBreak ? lineBreaks : lineBreaks + 1;
+        return new TextStatistics(words, characters, charactersWithoutSpaces, lines, paragraphs);
+    }
+    
+    /**
+     * Count only the words of the text, by the same rules as {@link #of(CharSequence)}
+     * @param text the text, may be null
+     */
+    public static int countWords(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        
+        int words = 0;
+        boolean wordCounted = false;
+        int length = text.length();
+        for (int i = 0; i < length; ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            
+            if (isIdeograph(codePoint)) {
+                words++;
+                wordCounted = false;
+            } else if (isWhitespace(codePoint) || isCjkPunctuation(codePoint)) {
+                wordCounted = false;
+            } else if (!wordCounted && Character.isLetterOrDigit(codePoint)) {
+                words++;
+                wordCounted = true;
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * @return the counts of this text followed by the other text as a separate block
+     */
+    public TextStatistics plus(TextStatistics other) {
+        if (other == null || other == EMPTY) {
+            return this;
+        }
+        if (this == EMPTY) {
+            return other;
+        }
+        return new TextStatistics(words + other.words, characters + other.characters,
+            charactersWithoutSpaces + other.charactersWithoutSpaces, lines + other.lines,
+            paragraphs + other.paragraphs);
+    }
+    
+    public int getWords() {
+        return words;
+    }
+    
+    /**
+     * @return the number of characters, including whitespace and line breaks
+     */
+    public int getCharacters() {
+        return characters;
+    }
+    
+    public int getCharactersWithoutSpaces() {
+        return charactersWithoutSpaces;
+    }
+    
+    /**
+     * @return the number of lines; a trailing line break does not start another line
+     */
+    public int getLines() {
+        return lines;
+    }
+    
+    /**
+     * @return the number of blocks of non-blank lines
+     */
+    public int getParagraphs() {
+        return paragraphs;
+    }
+    
+    @Override
+    public String toString() {
+        return "TextStatistics{words=" + words + ", characters=" + characters +
+               ", charactersWithoutSpaces=" + charactersWithoutSpaces + ", lines=" + lines +
+               ", paragraphs=" + paragraphs + "}";
+    }
+    
+    private static boolean isWhitespace(int codePoint) {
+        return Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint);
+    }
+    
+    private static boolean isIdeograph(int codePoint) {
+        if (codePoint < 0x2E80) {
+            return false;
+        }
+        if (Character.isIdeographic(codePoint)) {
+            return true;
+        }
+        boolean kana = (codePoint >= 0x3040 && codePoint <= 0x30FF)     // Hiragana and Katakana
+            || (codePoint >= 0x31F0 && codePoint <= 0x31FF)             // Katakana phonetic extensions
+            || (codePoint >= 0xFF66 && codePoint <= 0xFF9D);            // Halfwidth Katakana
+        return kana && Character.isLetter(codePoint);
+    }
+    
+    private static boolean isCjkPunctuation(int codePoint) {
+        return ((codePoint >= 0x3000 && codePoint <= 0x303F) || (codePoint >= 0xFF00 && codePoint <= 0xFFEF))
+            && !Character.isLetterOrDigit(codePoint);
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.twwch.markdown2office.daemon;
+
+import io.github.twwch.markdown2office.Markdown2Office;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionDaemonTest {
+
+    @TempDir
+    Path tokenDirectory;
+
+    private ConversionDaemon daemon;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        daemon = new ConversionDaemon(new Markdown2Office(), 0, 2, tokenDirectory);
+        daemon.start();
+    }
+
+    private DaemonClient connect() throws IOException {
+        return new DaemonClient(daemon.getPort(), DaemonClient.readToken(daemon.getTokenFile()));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        daemon.close();
+    }
+
+    @Test
+    public void testJobsOverOneConnection(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input file.md");
+        Files.write(input, "# Title\n\nSome **bold** text.".getBytes(StandardCharsets.UTF_8));
+        Path docx = tempDir.resolve("out.docx");
+        Path txt = tempDir.resolve("out.bin");
+
+        try (DaemonClient client = connect()) {
+            assertTrue(client.ping());
+
+            String response = client.convert(input.toString(), docx.toString(), null);
+            assertTrue(response.startsWith("OK"), response);
+            assertTrue(Files.size(docx) > 0);
+
+            // Explicit format overrides the output extension
+            response = client.convert(input.toString(), txt.toString(), "txt");
+            assertTrue(response.startsWith("OK"), response);
+            assertTrue(new String(Files.readAllBytes(txt), StandardCharsets.UTF_8).contains("bold"));
+        }
+    }
+
+    @Test
+    public void testErrorsAreReportedPerJob(@TempDir Path tempDir) throws IOException {
+        try (DaemonClient client = connect()) {
+            String response = client.convert(tempDir.resolve("missing.md").toString(),
+                tempDir.resolve("out.pdf").toString(), null);
+            assertTrue(response.startsWith("ERROR"), response);
+
+            // The connection stays usable after a failed job
+            assertTrue(client.ping());
+        }
+
+        assertTrue(daemon.handle("only-one-field").startsWith("ERROR"));
+    }
+
+    @Test
+    public void testIdleConnectionsDoNotBlockJobs(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.md");
+        Files.write(input, "# Title".getBytes(StandardCharsets.UTF_8));
+
+        try (ConversionDaemon single = new ConversionDaemon(new Markdown2Office(), 0, 1, tokenDirectory)) {
+            single.start();
+            String token = DaemonClient.readToken(single.getTokenFile());
+            // Neither a socket that never authenticates nor an idle client holds the only worker
+            try (Socket silent = new Socket(InetAddress.getLoopbackAddress(), single.getPort());
+                 DaemonClient idle = new DaemonClient(single.getPort(), token);
+                 DaemonClient busy = new DaemonClient(single.getPort(), token)) {
+                String response = busy.convert(input.toString(), tempDir.resolve("out.txt").toString(), null);
+                assertTrue(response.startsWith("OK"), response);
+                assertTrue(idle.ping());
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionsMustAuthenticate() throws IOException {
+        Path tokenFile = daemon.getTokenFile();
+        assertEquals(daemon.getToken(), DaemonClient.readToken(tokenFile));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)));
+        }
+
+        IOException rejected = assertThrows(IOException.class, () -> new DaemonClient(daemon.getPort(), "wrong"));
+        assertTrue(rejected.getMessage().contains("rejected"), rejected.getMessage());
+
+        daemon.close();
+        assertFalse(Files.exists(tokenFile));
+    }
+}
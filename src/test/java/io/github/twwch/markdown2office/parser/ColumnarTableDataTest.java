@@ -0,0 +1,120 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the columnar table storage
+ */
+public class ColumnarTableDataTest {
+    
+    @Test
+    void testRowsRoundTrip() {
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(Arrays.asList("1", "北京", "007", "-42"));
+        rows.add(Arrays.asList("2", "上海", "8", null));
+        rows.add(Arrays.asList("3"));
+        rows.add(Arrays.asList("4", "北京", "", "9", "extra"));
+        rows.add(Arrays.asList("-0", "北京", "1.50", "99999999999999999999"));
+        
+        ColumnarTableData data = new ColumnarTableData(rows);
+        System.out.println("Columnar rows: " + data);
+        
+        assertEquals(rows, data);
+        assertEquals(data, rows);
+        assertEquals(rows.hashCode(), data.hashCode());
+        assertEquals(5, data.getColumnCount());
+        assertEquals(1, data.get(2).size());
+        assertNull(data.getCell(1, 3));
+        assertEquals("-0", data.getCell(4, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> data.getCell(2, 1));
+        assertThrows(UnsupportedOperationException.class, () -> data.get(0).add("x"));
+        assertThrows(UnsupportedOperationException.class, () -> data.get(0).remove(0));
+    }
+    
+    @Test
+    void testRowsAndCellsCanBeChanged() {
+        List<List<String>> expected = new ArrayList<>();
+        ColumnarTableData data = new ColumnarTableData();
+        for (int i = 0; i < 20; i++) {
+            List<String> row = Arrays.asList(String.valueOf(i), i % 2 == 0 ? "even" : "odd");
+            expected.add(new ArrayList<>(row));
+            data.add(row);
+        }
+        
+        // Cells can be set, moving the column to a storage that holds the new value
+        assertEquals("3", data.get(3).set(0, "three"));
+        expected.get(3).set(0, "three");
+        assertEquals(ColumnarTableData.Storage.DICTIONARY, data.getStorage(0));
+        data.get(4).set(1, null);
+        expected.get(4).set(1, null);
+        
+        // Rows can be replaced with rows of another length and removed
+        assertEquals(Arrays.asList("5", "odd"), data.set(5, Arrays.asList("five", "odd", "extra")));
+        expected.set(5, Arrays.asList("five", "odd", "extra"));
+        data.set(6, Arrays.asList("6"));
+        expected.set(6, Arrays.asList("6"));
+        assertEquals(Arrays.asList("0", "even"), data.remove(0));
+        expected.remove(0);
+        data.removeIf(row -> row.get(0).equals("10"));
+        expected.removeIf(row -> row.get(0).equals("10"));
+        data.add(Arrays.asList("20", "even"));
+        expected.add(Arrays.asList("20", "even"));
+        
+        assertEquals(expected, data);
+        assertEquals(3, data.getColumnCount());
+        data.clear();
+        assertTrue(data.isEmpty());
+        data.addRow("a");
+        assertEquals(Arrays.asList(Arrays.asList("a")), data);
+    }
+    
+    @Test
+    void testStorageIsChosenPerColumn() {
+        ColumnarTableData data = new ColumnarTableData();
+        for (int i = 0; i < 10_000; i++) {
+            data.addRow(String.valueOf(i), i % 2 == 0 ? "男" : "女", "id-" + i);
+        }
+        data.trimToSize();
+        
+        assertEquals(ColumnarTableData.Storage.LONG, data.getStorage(0));
+        assertEquals(ColumnarTableData.Storage.DICTIONARY, data.getStorage(1));
+        assertEquals(ColumnarTableData.Storage.RAW, data.getStorage(2));
+        assertEquals(Arrays.asList("9999", "女", "id-9999"), data.get(9999));
+        
+        // A non-numeric value turns a numeric column into strings; with this many
+        // distinct values a dictionary does not pay off
+        data.addRow("n/a", "男", "id-x");
+        assertEquals(ColumnarTableData.Storage.RAW, data.getStorage(0));
+        assertEquals("1234", data.getCell(1234, 0));
+        assertEquals("n/a", data.getCell(10_000, 0));
+        
+        ColumnarTableData scores = new ColumnarTableData();
+        for (int i = 0; i < 1000; i++) {
+            scores.addRow(String.valueOf(i % 5));
+        }
+        scores.addRow("absent");
+        assertEquals(ColumnarTableData.Storage.DICTIONARY, scores.getStorage(0));
+        assertEquals("4", scores.getCell(999, 0));
+    }
+    
+    @Test
+    void testCsvTablesUseColumnarStorage() throws IOException {
+        String csv = "id,city\n1,北京\n2,上海\n3,北京\n";
+        ParsedDocument doc = new CsvFileParser().parse(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "cities.csv");
+        
+        List<List<String>> data = doc.getTables().get(0).getData();
+        assertTrue(data instanceof ColumnarTableData);
+        assertEquals(Arrays.asList(Arrays.asList("1", "北京"), Arrays.asList("2", "上海"), Arrays.asList("3", "北京")), data);
+    }
+}
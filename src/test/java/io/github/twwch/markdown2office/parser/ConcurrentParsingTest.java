@@ -0,0 +1,154 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for sharing parsers and the registry across threads
+ */
+public class ConcurrentParsingTest {
+    
+    private static final int THREADS = 16;
+    private static final int TASKS = 200;
+    
+    @Test
+    void testSharedPdfParserKeepsOptionsPerCall() throws Exception {
+        byte[] pdf = createPdfWithHiddenText();
+        PdfFileParser parser = new PdfFileParser();
+        ParseOptions withHidden = ParseOptions.builder().includeHiddenLayers(true).build();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                boolean includeHidden = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    ParsedDocument doc = parser.parse(new ByteArrayInputStream(pdf), "hidden.pdf",
+                        includeHidden ? withHidden : ParseOptions.defaults());
+                    assertTrue(doc.getContent().contains("Visible"));
+                    return doc.getContent().contains("Secret") == includeHidden;
+                }));
+            }
+            start.countDown();
+            
+            int consistent = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    consistent++;
+                }
+            }
+            System.out.println("Consistent results: " + consistent + "/" + TASKS);
+            assertEquals(TASKS, consistent, "Options must not leak between concurrent calls");
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // The parser's own defaults are untouched by per-call options
+        assertFalse(parser.isIncludeHiddenLayers());
+    }
+    
+    @Test
+    void testRegistryLookupsDuringRegistration() throws Exception {
+        ParserRegistry registry = ParserRegistry.loadDefault();
+        AtomicBoolean running = new AtomicBoolean(true);
+        
+        Thread mutator = new Thread(() -> {
+            while (running.get()) {
+                registry.register(new FakeParser());
+                registry.remove(FakeParser.class);
+            }
+        });
+        mutator.start();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        assertTrue(registry.getParser("data.csv") instanceof CsvFileParser);
+                        FileParser fake = registry.getParser("data.fake");
+                        assertTrue(fake == null || fake instanceof FakeParser);
+                        assertTrue(registry.getSupportedExtensions().contains(".pdf"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            mutator.join();
+            executor.shutdownNow();
+        }
+        
+        assertNull(registry.getParser("data.fake"));
+        assertEquals(1, registry.getParserNames().stream().filter("CsvFileParser"::equals).count());
+    }
+    
+    private static byte[] createPdfWithHiddenText() throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 12);
+                content.newLineAtOffset(50, 700);
+                content.showText("Visible text");
+                content.newLineAtOffset(0, -20);
+                content.setRenderingMode(RenderingMode.NEITHER);
+                content.showText("Secret text");
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+    
+    static class FakeParser implements FileParser {
+        @Override
+        public ParsedDocument parse(String filePath) {
+            return new ParsedDocument();
+        }
+        
+        @Override
+        public ParsedDocument parse(File file) {
+            return new ParsedDocument();
+        }
+        
+        @Override
+        public ParsedDocument parse(InputStream inputStream, String fileName) {
+            return new ParsedDocument();
+        }
+        
+        @Override
+        public boolean supports(String fileName) {
+            return fileName != null && fileName.endsWith(".fake");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import io.github.twwch.markdown2office.parser.impl.PowerPointFileParser;
+import io.github.twwch.markdown2office.parser.impl.TextFileParser;
+import io.github.twwch.markdown2office.parser.impl.TikaFileParser;
+import io.github.twwch.markdown2office.parser.impl.WordFileParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.poi.hslf.usermodel.HSLFSlideShow;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for content sniffing and content-based parser routing
+ */
+public class ContentSnifferTest {
+    
+    @Test
+    void testOfficeFormatsAreRecognised() throws IOException {
+        assertEquals(ContentSniffer.XLSX, sniff(xlsx()));
+        assertEquals(ContentSniffer.XLS, sniff(xls()));
+        assertEquals(ContentSniffer.DOCX, sniff(docx()));
+        assertEquals(ContentSniffer.DOC, sniff(ole2WithStream("WordDocument")));
+        assertEquals(ContentSniffer.PPTX, sniff(pptx()));
+        assertEquals(ContentSniffer.PPT, sniff(ppt()));
+        assertEquals(ContentSniffer.OLE2, sniff(ole2WithStream("Contents")));
+    }
+    
+    @Test
+    void testTextFormatsAreRecognised() throws IOException {
+        assertEquals(ContentSniffer.PDF, sniff(pdf()));
+        assertEquals(ContentSniffer.SPREADSHEET_ML, sniff(utf8("<?xml version=\"1.0\"?>\n" +
+            "<Workbook xmlns=\"urn:schemas-microsoft-com:office:spreadsheet\"></Workbook>")));
+        assertEquals(ContentSniffer.XML, sniff(utf8("<?xml version=\"1.0\"?><root/>")));
+        assertEquals(ContentSniffer.HTML, sniff(utf8("<!DOCTYPE html><html></html>")));
+        assertEquals(ContentSniffer.RTF, sniff(utf8("{\\rtf1\\ansi hello}")));
+        assertEquals(ContentSniffer.TEXT, sniff(utf8("name,age\n张三,30\n")));
+        assertNull(sniff(new byte[] {0, 1, 2, 3, 0, 0, 7}));
+    }
+    
+    @Test
+    void testPdfSignatureOnlyAtStart(@TempDir Path tempDir) throws IOException {
+        assertEquals(ContentSniffer.PDF, sniff(utf8("\uFEFF\r\n%PDF-1.7\n")));
+        byte[] junk = {0, 0, 0, 0, 0, 0, 0, 0, '%', 'P', 'D', 'F', '-', '1', '.', '4'};
+        assertEquals(ContentSniffer.PDF, sniff(junk));
+        
+        // Text that mentions the header is still text
+        assertEquals(ContentSniffer.TEXT, sniff(utf8("A PDF starts with the %PDF-1.7 header line.\n")));
+        Path notes = tempDir.resolve("notes.md");
+        Files.write(notes, utf8("# Notes\n\nEvery file we received had a `%PDF-` header.\n"));
+        Path data = tempDir.resolve("data.txt");
+        Files.write(data, utf8("id,header\n1,%PDF-1.4\n"));
+        
+        UniversalFileParser parser = new UniversalFileParser();
+        assertEquals("MarkdownFileParser", parser.parse(notes.toFile()).getMetadata().get("Parser Used"));
+        ParsedDocument text = parser.parse(data.toFile());
+        assertEquals("TextFileParser", text.getMetadata().get("Parser Used"));
+        assertTrue(text.getContent().contains("%PDF-1.4"));
+    }
+    
+    @Test
+    void testStreamIsNotConsumed() throws IOException {
+        byte[] data = xlsx();
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(data));
+        assertEquals(ContentSniffer.XLSX, ContentSniffer.detect(in));
+        assertArrayEquals(data, in.readAllBytes());
+    }
+    
+    @Test
+    void testContentWinsOverMisleadingName(@TempDir Path tempDir) throws IOException {
+        Path workbook = tempDir.resolve("export.csv");
+        Files.write(workbook, xlsx());
+        assertTrue(FileParserFactory.getParser(workbook.toFile()) instanceof ExcelFileParser);
+        
+        Path csv = tempDir.resolve("real.csv");
+        Files.write(csv, utf8("a,b\n1,2\n"));
+        assertTrue(FileParserFactory.getParser(csv.toFile()) instanceof CsvFileParser);
+        
+        assertTrue(FileParserFactory.getParser(stream(pdf()), "upload.bin") instanceof PdfFileParser);
+        assertTrue(FileParserFactory.getParser(stream(docx()), "attachment") instanceof WordFileParser);
+        assertTrue(FileParserFactory.getParser(stream(ppt()), "slides.dat") instanceof PowerPointFileParser);
+        assertTrue(FileParserFactory.getParser(stream(utf8("plain words")), "notes") instanceof TextFileParser);
+        assertTrue(FileParserFactory.getParser(stream(utf8("<!DOCTYPE html><html></html>")), "page") instanceof TikaFileParser);
+        
+        // Generic content never overrides an explicit, unknown extension
+        assertNull(FileParserFactory.getParser(stream(utf8("plain words")), "notes.dat"));
+    }
+    
+    @Test
+    void testUniversalParserRoutesStreamByContent() throws IOException {
+        UniversalFileParser parser = new UniversalFileParser();
+        ParsedDocument document = parser.parse(new ByteArrayInputStream(xlsx()), "report.dat");
+        
+        assertEquals("ExcelFileParser", document.getMetadata().get("Parser Used"));
+        assertTrue(document.getContent().contains("Revenue"));
+    }
+    
+    @Test
+    void testExtensionIndex() {
+        ParserRegistry registry = ParserRegistry.loadDefault();
+        assertTrue(registry.getSupportedExtensions().contains(".xlsx"));
+        assertTrue(registry.getSupportedExtensions().contains(".azw3"));
+        assertSame(registry.getSupportedExtensions(), registry.getSupportedExtensions());
+        assertTrue(registry.getParser("/data/REPORT.XLSX") instanceof ExcelFileParser);
+        assertTrue(registry.getParserForMimeType("application/pdf") instanceof PdfFileParser);
+        assertNull(ParserRegistry.extensionOf("dir.name/README"));
+    }
+    
+    private static String sniff(byte[] data) {
+        return ContentSniffer.detect(data, data.length);
+    }
+    
+    private static InputStream stream(byte[] data) {
+        return new BufferedInputStream(new ByteArrayInputStream(data));
+    }
+    
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] xlsx() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.createSheet("Sales").createRow(0).createCell(0).setCellValue("Revenue");
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+    
+    private static byte[] xls() throws IOException {
+        try (HSSFWorkbook workbook = new HSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.createSheet("Sales").createRow(0).createCell(0).setCellValue("Revenue");
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+    
+    private static byte[] docx() throws IOException {
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.createParagraph().createRun().setText("Hello");
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+    
+    private static byte[] pptx() throws IOException {
+        try (XMLSlideShow slideShow = new XMLSlideShow(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            slideShow.createSlide();
+            slideShow.write(out);
+            return out.toByteArray();
+        }
+    }
+    
+    private static byte[] ppt() throws IOException {
+        try (HSLFSlideShow slideShow = new HSLFSlideShow(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            slideShow.createSlide();
+            slideShow.write(out);
+            return out.toByteArray();
+        }
+    }
+    
+    private static byte[] ole2WithStream(String name) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            fs.createDocument(new ByteArrayInputStream(new byte[4096]), name);
+            fs.writeFilesystem(out);
+            return out.toByteArray();
+        }
+    }
+    
+    private static byte[] pdf() throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.addPage(new PDPage());
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -96,4 +96,59 @@ public class CsvEncodingTest {
         assertTrue(markdown.contains("姓名") || markdown.contains("张三") || 
                   markdown.contains("北京"), "Should contain Chinese characters");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testLargeGbkCsvIsStreamed() throws IOException {
+        // Larger than the encoding sample, with Chinese text straddling the sample boundary
+        Charset gbk = Charset.forName("GBK");
+        StringBuilder csv = new StringBuilder("编号,姓名,城市,备注\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i).append(",张三").append(i).append(",北京,\"软件工程师, 负责数据处理\"\n");
+        }
+        File gbkFile = new File("target/test_large_gbk.csv");
+        try (FileOutputStream fos = new FileOutputStream(gbkFile)) {
+            fos.write(csv.toString().getBytes(gbk));
+        }
+        
+        CsvFileParser parser = new CsvFileParser();
+        ParsedDocument fromFile = parser.parse(gbkFile);
+        ParsedDocument.ParsedTable table = fromFile.getTables().get(0);
+        assertEquals(5000, table.getData().size());
+        assertEquals("张三4999", table.getData().get(4999).get(1));
+        assertFalse(fromFile.getContent().contains("\uFFFD"), "Should not have garbled text");
+        assertEquals("5001", fromFile.getMetadata().get("Total Rows"));
+        
+        // Markdown built while streaming matches the table's own rendering
+        assertEquals("# test_large_gbk\n\n### test_large_gbk\n\n" + table.toMarkdown(), fromFile.getMarkdownContent());
+        
+        // The stream overload gives the same result and leaves the caller's stream open
+        try (java.io.FileInputStream fis = new java.io.FileInputStream(gbkFile)) {
+            ParsedDocument fromStream = parser.parse(fis, gbkFile.getName());
+            assertEquals(fromFile.getMarkdownContent(), fromStream.getMarkdownContent());
+            assertEquals(fromFile.getContent(), fromStream.getContent());
+            assertEquals(-1, fis.read());
+        }
+        
+        gbkFile.delete();
+    }
+    
+    @Test
+    public void testSampleWithoutLineBreakKeepsUtf8Valid() throws IOException {
+        // A single header line longer than the sample must not be cut inside a character
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 30000; i++) {
+            csv.append("列").append(i % 10);
+        }
+        csv.append(",结束\n值,数据\n");
+        File utf8File = new File("target/test_long_line.csv");
+        try (FileOutputStream fos = new FileOutputStream(utf8File)) {
+            fos.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        
+        ParsedDocument document = new CsvFileParser().parse(utf8File);
+        assertEquals("结束", document.getTables().get(0).getHeaders().get(1));
+        assertEquals("数据", document.getTables().get(0).getData().get(0).get(1));
+        
+        utf8File.delete();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for chunked parallel CSV parsing
+ */
+public class CsvParallelParsingTest {
+    
+    private static final ParseOptions SEQUENTIAL = ParseOptions.builder().parallelism(1).build();
+    private static final ParseOptions PARALLEL = ParseOptions.builder().parallelism(4).parallelThreshold(0).build();
+    
+    @Test
+    void testParallelMatchesSequentialUtf8(@TempDir Path tempDir) throws IOException {
+        Path csv = tempDir.resolve("orders.csv");
+        Files.write(csv, generateCsv(20_000, false).getBytes(StandardCharsets.UTF_8));
+        assertSameResult(csv);
+    }
+    
+    @Test
+    void testParallelMatchesSequentialGbk(@TempDir Path tempDir) throws IOException {
+        Path csv = tempDir.resolve("orders_gbk.csv");
+        Files.write(csv, generateCsv(20_000, false).getBytes(Charset.forName("GBK")));
+        assertSameResult(csv);
+    }
+    
+    @Test
+    void testBackslashEscapesFallBackToSequential(@TempDir Path tempDir) throws IOException {
+        Path csv = tempDir.resolve("escaped.csv");
+        Files.write(csv, generateCsv(20_000, true).getBytes(StandardCharsets.UTF_8));
+        assertSameResult(csv);
+    }
+    
+    @Test
+    void testOptionsValidation() {
+        assertThrows(IllegalArgumentException.class, () -> ParseOptions.builder().parallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> ParseOptions.builder().parallelThreshold(-1));
+        assertEquals(PARALLEL, PARALLEL.toBuilder().build());
+        assertNotEquals(PARALLEL, SEQUENTIAL);
+    }
+    
+    private static void assertSameResult(Path csv) throws IOException {
+        CsvFileParser parser = new CsvFileParser();
+        ParsedDocument sequential = parser.parse(csv.toFile(), SEQUENTIAL);
+        ParsedDocument parallel = parser.parse(csv.toFile(), PARALLEL);
+        
+        System.out.println(csv.getFileName() + ": " + Files.size(csv) + " bytes, " +
+            sequential.getMetadata().get("Total Rows") + " rows");
+        assertEquals(sequential.getContent(), parallel.getContent());
+        assertEquals(sequential.getMarkdownContent(), parallel.getMarkdownContent());
+        assertEquals(sequential.getMetadata(), parallel.getMetadata());
+        assertEquals(sequential.getTables().get(0).getHeaders(), parallel.getTables().get(0).getHeaders());
+        assertEquals(sequential.getTables().get(0).getData(), parallel.getTables().get(0).getData());
+        assertEquals(sequential.getPages().get(0).getRawText(), parallel.getPages().get(0).getRawText());
+        assertEquals(sequential.getPages().get(0).getMarkdownContent(), parallel.getPages().get(0).getMarkdownContent());
+        assertEquals(sequential.getPages().get(0).getWordCount(), parallel.getPages().get(0).getWordCount());
+    }
+    
+    /**
+     * Rows with quoted separators, doubled quotes and line breaks inside quoted fields,
+     * so that many region boundaries fall inside quotes
+     */
+    private static String generateCsv(int rows, boolean withEscapes) {
+        String[] notes = {
+            "plain",
+            "\"comma, inside\"",
+            "\"multi\nline\nnote\"",
+            "\"say \"\"hello\"\"\nthen leave\"",
+            "\"北京，上海\n广州\"",
+            "张三"
+        };
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder("id,name,note,amount\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append(i).append(",客户").append(i % 97).append(',')
+                .append(notes[random.nextInt(notes.length)]).append(',')
+                .append(random.nextInt(10_000)).append('\n');
+            if (withEscapes && i == rows / 2) {
+                sb.append(i).append(",escaped,\"a \\\" quote\",0\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 
@@ -117,4 +118,34 @@ public class ExcelFormatDetectionTest {
         System.out.println("File size: " + demo1.length() + " bytes");
         System.out.println("Content length: " + doc.getContent().length() + " characters");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testWorkbookWithCsvExtensionIsRoutedOnFirstPass() throws IOException {
+        File fakeCsv = new File("target/workbook_as.csv");
+        try (Workbook wb = new XSSFWorkbook()) {
+            wb.createSheet("Data").createRow(0).createCell(0).setCellValue("Hidden Workbook");
+            try (FileOutputStream fos = new FileOutputStream(fakeCsv)) {
+                wb.write(fos);
+            }
+        }
+        
+        UniversalFileParser parser = new UniversalFileParser();
+        
+        System.out.println("\n=== Testing .xlsx file with .csv extension ===");
+        ParsedDocument fromFile = parser.parse(fakeCsv);
+        assertEquals("ExcelFileParser", fromFile.getMetadata().get("Parser Used"));
+        assertTrue(fromFile.getMetadata().get("Note").contains(".csv extension but was Excel format"));
+        assertTrue(fromFile.getMarkdownContent().contains("Hidden Workbook"));
+        
+        System.out.println("\n=== Testing the same workbook as a stream ===");
+        try (FileInputStream fis = new FileInputStream(fakeCsv)) {
+            ParsedDocument fromStream = parser.parse(fis, fakeCsv.getName());
+            assertEquals("ExcelFileParser", fromStream.getMetadata().get("Parser Used"));
+            assertTrue(fromStream.getMetadata().get("Note").contains(".csv extension but was Excel format"));
+            assertTrue(fromStream.getMarkdownContent().contains("Hidden Workbook"));
+        }
+        
+        fakeCsv.delete();
+        System.out.println("Workbook routed to Excel parser without a CSV attempt");
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the streaming Excel readers: their output must match the workbook model
+ */
+public class ExcelStreamingTest {
+    
+    private static final ParseOptions WORKBOOK_MODEL = ParseOptions.builder().streamingThreshold(Long.MAX_VALUE).build();
+    private static final ParseOptions STREAMING = ParseOptions.builder().streamingThreshold(0).build();
+    
+    @Test
+    void testXlsxStreamingMatchesWorkbookModel(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("report.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            populate(workbook);
+            workbook.getProperties().getCoreProperties().setTitle("Quarterly Report");
+            workbook.getProperties().getCoreProperties().setCreator("Finance");
+            workbook.write(out);
+        }
+        
+        ExcelFileParser parser = new ExcelFileParser();
+        ParsedDocument expected = parser.parse(file.toFile(), WORKBOOK_MODEL);
+        ParsedDocument streamed = parser.parse(file.toFile(), STREAMING);
+        System.out.println("Streamed XLSX markdown:\n" + streamed.getMarkdownContent());
+        
+        assertSameDocument(expected, streamed);
+        assertEquals("Quarterly Report", streamed.getTitle());
+        assertEquals("Finance", streamed.getDocumentMetadata().getAuthor());
+        
+        // The stream overload streams when the threshold is 0
+        ParsedDocument fromStream = parser.parse(new ByteArrayInputStream(Files.readAllBytes(file)), "report.xlsx", STREAMING);
+        assertEquals(expected.getContent(), fromStream.getContent());
+        assertEquals(expected.getMarkdownContent(), fromStream.getMarkdownContent());
+    }
+    
+    @Test
+    void testXlsStreamingMatchesWorkbookModel(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("report.xls");
+        try (HSSFWorkbook workbook = new HSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            populate(workbook);
+            workbook.write(out);
+        }
+        
+        ExcelFileParser parser = new ExcelFileParser();
+        ParsedDocument expected = parser.parse(file.toFile(), WORKBOOK_MODEL);
+        ParsedDocument streamed = parser.parse(file.toFile(), STREAMING);
+        System.out.println("Streamed XLS markdown:\n" + streamed.getMarkdownContent());
+        
+        assertSameDocument(expected, streamed);
+        assertEquals(3, streamed.getDocumentMetadata().getTotalSheets());
+        
+        ParsedDocument fromStream = parser.parse(new ByteArrayInputStream(Files.readAllBytes(file)), "report.xls", STREAMING);
+        assertEquals(expected.getContent(), fromStream.getContent());
+        assertEquals(expected.getMarkdownContent(), fromStream.getMarkdownContent());
+    }
+    
+    @Test
+    void testParallelSheetsKeepWorkbookOrder(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("many-sheets.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            populate(workbook);
+            for (int s = 0; s < 12; s++) {
+                Sheet sheet = workbook.createSheet("Region " + s);
+                sheet.createRow(0).createCell(0).setCellValue("Id");
+                sheet.getRow(0).createCell(1).setCellValue("Value");
+                for (int r = 1; r <= 200 * (s % 4 + 1); r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue(r);
+                    row.createCell(1).setCellValue("s" + s + "-r" + r);
+                }
+            }
+            workbook.write(out);
+        }
+        
+        ExcelFileParser parser = new ExcelFileParser();
+        ParsedDocument expected = parser.parse(file.toFile(), WORKBOOK_MODEL);
+        ParsedDocument sequential = parser.parse(file.toFile(), STREAMING.toBuilder().parallelism(1).build());
+        ParsedDocument parallel = parser.parse(file.toFile(), STREAMING.toBuilder().parallelism(4).build());
+        System.out.println("Parallel sheets: " + parallel.getDocumentMetadata().getTotalSheets());
+        
+        assertSameDocument(expected, sequential);
+        assertSameDocument(expected, parallel);
+        assertEquals(15, parallel.getPages().size());
+        assertEquals("Region 11", parallel.getTables().get(parallel.getTables().size() - 1).getTitle());
+    }
+    
+    /**
+     * Sheets with strings, integers, decimals, dates, booleans, formulas, blanks,
+     * gaps between cells and rows, an all-blank row and an empty sheet
+     */
+    static void populate(Workbook workbook) {
+        CreationHelper helper = workbook.getCreationHelper();
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(helper.createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle moneyStyle = workbook.createCellStyle();
+        moneyStyle.setDataFormat(helper.createDataFormat().getFormat("#,##0.00"));
+        
+        Sheet sales = workbook.createSheet("销售");
+        Row header = sales.createRow(0);
+        String[] headers = {"Region", "Units", "Price", "Date", "Paid", "Total", "Label", "Check"};
+        for (int i = 0; i < headers.length; i++) {
+            header.createCell(i).setCellValue(headers[i]);
+        }
+        for (int r = 1; r <= 50; r++) {
+            Row row = sales.createRow(r + (r > 25 ? 3 : 0));
+            row.createCell(0).setCellValue(r % 3 == 0 ? "华东" : "North");
+            row.createCell(1).setCellValue(r * 10);
+            row.createCell(2).setCellValue(r + 0.25);
+            row.getCell(2).setCellStyle(moneyStyle);
+            row.createCell(3).setCellValue(new GregorianCalendar(2024, Calendar.JANUARY, r % 28 + 1).getTime());
+            row.getCell(3).setCellStyle(dateStyle);
+            row.createCell(4).setCellValue(r % 2 == 0);
+            int excelRow = row.getRowNum() + 1;
+            row.createCell(5).setCellFormula("B" + excelRow + "*C" + excelRow);
+            row.createCell(6).setCellFormula("A" + excelRow + "&\"-\"&B" + excelRow);
+            row.createCell(7).setCellFormula("B" + excelRow + ">100");
+            if (r % 7 == 0) {
+                // Leave a gap in the middle of the row
+                row.removeCell(row.getCell(2));
+            }
+        }
+        Row blank = sales.createRow(60);
+        blank.createCell(0).setCellValue("");
+        blank.createCell(3);
+        
+        Sheet notes = workbook.createSheet("Notes");
+        notes.createRow(2).createCell(1).setCellValue("Only cell, in B3");
+        notes.createRow(4).createCell(4).setCellValue(3.14159);
+        
+        workbook.createSheet("Empty");
+        
+        helper.createFormulaEvaluator().evaluateAll();
+    }
+    
+    static void assertSameDocument(ParsedDocument expected, ParsedDocument actual) {
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getMarkdownContent(), actual.getMarkdownContent());
+        assertEquals(expected.getMetadata(), actual.getMetadata());
+        assertEquals(expected.getTables().size(), actual.getTables().size());
+        for (int i = 0; i < expected.getTables().size(); i++) {
+            assertEquals(expected.getTables().get(i).getTitle(), actual.getTables().get(i).getTitle());
+            assertEquals(expected.getTables().get(i).getHeaders(), actual.getTables().get(i).getHeaders());
+            assertEquals(expected.getTables().get(i).getData(), actual.getTables().get(i).getData());
+        }
+        assertEquals(expected.getPages().size(), actual.getPages().size());
+        for (int i = 0; i < expected.getPages().size(); i++) {
+            assertEquals(expected.getPages().get(i).getRawText(), actual.getPages().get(i).getRawText());
+            assertEquals(expected.getPages().get(i).getMarkdownContent(), actual.getPages().get(i).getMarkdownContent());
+            assertEquals(expected.getPages().get(i).getHeadings(), actual.getPages().get(i).getHeadings());
+        }
+        DocumentMetadata expectedMeta = expected.getDocumentMetadata();
+        DocumentMetadata actualMeta = actual.getDocumentMetadata();
+        assertEquals(expectedMeta.getTotalSheets(), actualMeta.getTotalSheets());
+        assertEquals(expectedMeta.getTotalPages(), actualMeta.getTotalPages());
+        assertEquals(expectedMeta.getTotalWords(), actualMeta.getTotalWords());
+        assertEquals(expectedMeta.getTotalCharacters(), actualMeta.getTotalCharacters());
+        assertEquals(expectedMeta.getTotalTables(), actualMeta.getTotalTables());
+        assertEquals(expectedMeta.getFileSize(), actualMeta.getFileSize());
+    }
+}
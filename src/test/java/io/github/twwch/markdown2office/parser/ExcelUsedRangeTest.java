@@ -0,0 +1,110 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for used-range trimming and the empty row and column options of ExcelFileParser
+ */
+public class ExcelUsedRangeTest {
+    
+    private static final ParseOptions WORKBOOK_MODEL = ParseOptions.builder().streamingThreshold(Long.MAX_VALUE).build();
+    private static final ParseOptions STREAMING = ParseOptions.builder().streamingThreshold(0).build();
+    
+    @Test
+    void testFormattedBlankCellsAreTrimmed(@TempDir Path tempDir) throws IOException {
+        Path xlsx = write(tempDir.resolve("formatted.xlsx"), new XSSFWorkbook(), 16000);
+        Path xls = write(tempDir.resolve("formatted.xls"), new HSSFWorkbook(), 255);
+        
+        ExcelFileParser parser = new ExcelFileParser();
+        for (Path file : Arrays.asList(xlsx, xls)) {
+            ParsedDocument doc = parser.parse(file.toFile(), WORKBOOK_MODEL);
+            ParsedDocument streamed = parser.parse(file.toFile(), STREAMING);
+            System.out.println(file.getFileName() + " text length: " + doc.getContent().length());
+            
+            ParsedDocument.ParsedTable table = doc.getTables().get(0);
+            assertEquals(Arrays.asList("Name", "", "Score"), table.getHeaders());
+            assertEquals(3, table.getData().size());
+            assertEquals(Arrays.asList("Bob", "", ""), table.getData().get(1));
+            // Formatted rows after the last value are dropped
+            assertTrue(doc.getContent().endsWith("Carol\t\t70\t\n"));
+            assertTrue(doc.getContent().length() < 200, "Trailing formatting must not produce text");
+            
+            assertEquals(doc.getContent(), streamed.getContent());
+            assertEquals(doc.getMarkdownContent(), streamed.getMarkdownContent());
+            assertEquals(table.getData(), streamed.getTables().get(0).getData());
+        }
+    }
+    
+    @Test
+    void testSkipEmptyRowsAndColumns(@TempDir Path tempDir) throws IOException {
+        Path file = write(tempDir.resolve("sparse.xlsx"), new XSSFWorkbook(), 50);
+        ParseOptions skipping = ParseOptions.builder().skipEmptyRows(true).skipEmptyColumns(true).build();
+        
+        ExcelFileParser parser = new ExcelFileParser();
+        for (ParseOptions options : Arrays.asList(
+                skipping.toBuilder().streamingThreshold(Long.MAX_VALUE).build(),
+                skipping.toBuilder().streamingThreshold(0).build())) {
+            ParsedDocument doc = parser.parse(file.toFile(), options);
+            System.out.println("Without empty rows and columns:\n" + doc.getContent());
+            
+            ParsedDocument.ParsedTable table = doc.getTables().get(0);
+            assertEquals(Arrays.asList("Name", "Score"), table.getHeaders());
+            assertEquals(Arrays.asList(Arrays.asList("Alice", "90"), Arrays.asList("Bob", ""), Arrays.asList("Carol", "70")),
+                table.getData());
+            assertEquals("Sheet: Scores\nName\tScore\t\nAlice\t90\t\nBob\t\t\nCarol\t70\t\n", doc.getContent());
+        }
+        
+        // Only the rows are skipped: the empty middle column stays
+        ParsedDocument rowsOnly = parser.parse(file.toFile(), ParseOptions.builder().skipEmptyRows(true).build());
+        assertEquals("Sheet: Scores\nName\t\tScore\t\nAlice\t\t90\t\nBob\t\t\t\nCarol\t\t70\t\n", rowsOnly.getContent());
+    }
+    
+    /**
+     * A three-column table with an empty middle column and an empty row, where every row is
+     * formatted up to the given column and formatted empty rows follow the data
+     */
+    private static Path write(Path file, Workbook workbook, int formattedColumns) throws IOException {
+        try (Workbook wb = workbook; OutputStream out = Files.newOutputStream(file)) {
+            CellStyle filled = wb.createCellStyle();
+            filled.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+            filled.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            
+            Sheet sheet = wb.createSheet("Scores");
+            String[][] rows = {{"Name", "", "Score"}, {"Alice", "", "90"}, null, {"Bob"}, {"Carol", "", "70"}};
+            for (int r = 0; r < 40; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < formattedColumns; c += 7) {
+                    row.createCell(c).setCellStyle(filled);
+                }
+                String[] values = r < rows.length ? rows[r] : null;
+                if (values != null) {
+                    for (int c = 0; c < values.length; c++) {
+                        if (!values[c].isEmpty()) {
+                            row.createCell(c).setCellValue(values[c]);
+                        }
+                    }
+                }
+            }
+            wb.write(out);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.twwch.markdown2office.parser;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for document content joined from the pages and page structure extracted on use
+ */
+public class LazyContentTest {
+    
+    private final UniversalFileParser parser = new UniversalFileParser();
+    
+    @Test
+    void testContentJoinedFromPages() {
+        ParsedDocument doc = new ParsedDocument();
+        for (int i = 1; i <= 3; i++) {
+            PageContent page = new PageContent(i);
+            page.setRawText("Text " + i + "\n");
+            page.setMarkdownContent("## Page " + i);
+            doc.addPage(page);
+        }
+        assertNull(doc.getContent());
+        
+        doc.setContentFromPages("\n\n");
+        assertEquals("Text 1\nText 2\nText 3\n", doc.getContent());
+        assertEquals("## Page 1\n\n## Page 2\n\n## Page 3\n\n", doc.getMarkdownContent());
+        assertSame(doc.getContent(), doc.getContent());
+        assertSame(doc.getMarkdownContent(), doc.getMarkdownContent());
+        
+        // Pages added later are included, and explicit values take precedence
+        PageContent last = new PageContent(4);
+        last.setRawText("Text 4\n");
+        last.setMarkdownContent("## Page 4");
+        doc.addPage(last);
+        assertTrue(doc.getContent().endsWith("Text 4\n"));
+        doc.setMarkdownContent("# Replaced");
+        assertEquals("# Replaced", doc.getMarkdownContent());
+    }
+    
+    @Test
+    void testStructureExtractedOnFirstUse() {
+        AtomicInteger calls = new AtomicInteger();
+        PageContent page = new PageContent(1);
+        page.setRawText("Heading\nA paragraph of text\n");
+        page.setStructureExtractor(p -> {
+            calls.incrementAndGet();
+            p.addHeading("## Heading");
+            p.addParagraph("A paragraph of text");
+        });
+        assertEquals(0, calls.get());
+        
+        page.addList("- added before use");
+        assertEquals(1, calls.get());
+        assertEquals(Arrays.asList("## Heading"), page.getHeadings());
+        assertEquals(Arrays.asList("A paragraph of text"), page.getParagraphs());
+        assertEquals(Arrays.asList("- added before use"), page.getLists());
+        assertEquals(1, calls.get());
+        
+        PageContent empty = new PageContent(2);
+        empty.setStructureExtractor(p -> p.addHeading("## Only heading"));
+        assertTrue(empty.hasContent());
+        assertTrue(empty.toMarkdown().contains("## Only heading"));
+    }
+    
+    @Test
+    void testPdfContentAndStructure(@TempDir Path tempDir) throws IOException {
+        File pdf = PdfFixture.pages(3).text(i -> "CHAPTER " + i + "\nThis is the first paragraph of page " + i
+            + " in the test.\n- a list item").write(tempDir.resolve("lazy.pdf").toFile());
+        
+        ParsedDocument doc = parser.parse(pdf);
+        StringBuilder content = new StringBuilder();
+        StringBuilder markdown = new StringBuilder();
+        for (PageContent page : doc.getPages()) {
+            content.append(page.getRawText());
+            markdown.append(page.getMarkdownContent()).append("\n\n");
+        }
+        assertEquals(content.toString(), doc.getContent());
+        assertEquals(markdown.toString(), doc.getMarkdownContent());
+        
+        PageContent first = doc.getPages().get(0);
+        assertEquals(Arrays.asList("CHAPTER 1"), first.getHeadings());
+        assertEquals(Arrays.asList("This is the first paragraph of page 1 in the test."), first.getParagraphs());
+        assertEquals(Arrays.asList("- a list item"), first.getLists());
+    }
+    
+    @Test
+    void testTextStructureAndWorkbookContent(@TempDir Path tempDir) throws IOException {
+        File text = tempDir.resolve("notes.txt").toFile();
+        Files.write(text.toPath(), "SUMMARY\n\nshort\nA line that is long enough\n  Indented and also long  \n"
+            .getBytes(StandardCharsets.UTF_8));
+        PageContent page = parser.parse(text).getPages().get(0);
+        assertEquals(Arrays.asList("## SUMMARY"), page.getHeadings());
+        assertEquals(Arrays.asList("A line that is long enough", "Indented and also long"), page.getParagraphs());
+        assertEquals(new ArrayList<String>(), page.getLists());
+        
+        File xlsx = tempDir.resolve("book.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(xlsx)) {
+            workbook.createSheet("First").createRow(0).createCell(0).setCellValue("Alpha");
+            workbook.createSheet("Second").createRow(0).createCell(0).setCellValue("Beta");
+            workbook.write(out);
+        }
+        ParsedDocument book = parser.parse(xlsx);
+        assertEquals(book.getPages().get(0).getRawText() + book.getPages().get(1).getRawText(), book.getContent());
+        assertEquals(book.getPages().get(0).getMarkdownContent() + "\n\n" + book.getPages().get(1).getMarkdownContent() + "\n\n",
+            book.getMarkdownContent());
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.twwch.markdown2office.parser;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.crypt.EncryptionMode;
+import org.apache.poi.poifs.crypt.Encryptor;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for metadata-only parsing
+ */
+public class MetadataParsingTest {
+    
+    private final UniversalFileParser parser = new UniversalFileParser();
+    
+    @Test
+    void testPdfMetadata(@TempDir Path tempDir) throws IOException {
+        File pdf = tempDir.resolve("report.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation info = new PDDocumentInformation();
+            info.setTitle("Annual Report");
+            info.setAuthor("Jane Doe");
+            document.setDocumentInformation(info);
+            for (int i = 1; i <= 12; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i);
+                    content.endText();
+                }
+            }
+            document.save(pdf);
+        }
+        
+        DocumentMetadata metadata = parser.parseMetadata(pdf);
+        DocumentMetadata full = parser.parse(pdf).getDocumentMetadata();
+        
+        assertEquals(ParsedDocument.FileType.PDF, metadata.getFileType());
+        assertEquals("Annual Report", metadata.getTitle());
+        assertEquals(full.getAuthor(), metadata.getAuthor());
+        assertEquals(12, metadata.getTotalPages());
+        assertEquals(pdf.length(), metadata.getFileSize());
+        assertEquals(pdf.getAbsolutePath(), metadata.getFilePath());
+        assertTrue(metadata.getDocumentFormat().startsWith("PDF "));
+        assertFalse(metadata.getIsEncrypted());
+        assertNull(metadata.getTotalWords(), "No text is extracted");
+    }
+    
+    @Test
+    void testPasswordProtectedPdf(@TempDir Path tempDir) throws IOException {
+        File pdf = tempDir.resolve("locked.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            StandardProtectionPolicy policy = new StandardProtectionPolicy("owner", "user", new AccessPermission());
+            policy.setEncryptionKeyLength(128);
+            document.protect(policy);
+            document.save(pdf);
+        }
+        
+        DocumentMetadata metadata = parser.parseMetadata(pdf);
+        assertTrue(metadata.getIsEncrypted());
+        assertTrue(metadata.getIsPasswordProtected());
+        assertEquals("locked.pdf", metadata.getFileName());
+    }
+    
+    @Test
+    void testWordAndPowerPointProperties(@TempDir Path tempDir) throws IOException {
+        File docx = tempDir.resolve("memo.docx").toFile();
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = new FileOutputStream(docx)) {
+            document.createParagraph().createRun().setText("Memo text");
+            document.getProperties().getCoreProperties().setTitle("Memo");
+            document.getProperties().getCoreProperties().setCreator("John Smith");
+            document.getProperties().getExtendedProperties().getUnderlyingProperties().setPages(3);
+            document.write(out);
+        }
+        DocumentMetadata word = parser.parseMetadata(docx);
+        assertEquals(ParsedDocument.FileType.WORD, word.getFileType());
+        assertEquals("Memo", word.getTitle());
+        assertEquals("John Smith", word.getAuthor());
+        assertEquals(3, word.getTotalPages());
+        assertEquals(parser.parse(docx).getDocumentMetadata().getTitle(), word.getTitle());
+        
+        File pptx = tempDir.resolve("deck.pptx").toFile();
+        try (XMLSlideShow slideShow = new XMLSlideShow(); OutputStream out = new FileOutputStream(pptx)) {
+            for (int i = 1; i <= 5; i++) {
+                slideShow.createSlide().createTextBox().setText("Slide " + i);
+            }
+            slideShow.getProperties().getCoreProperties().setTitle("Deck");
+            slideShow.write(out);
+        }
+        DocumentMetadata slides = parser.parseMetadata(pptx);
+        assertEquals(ParsedDocument.FileType.POWERPOINT, slides.getFileType());
+        assertEquals("Deck", slides.getTitle());
+        assertEquals(5, slides.getTotalSlides());
+        assertEquals(5, slides.getTotalPages());
+    }
+    
+    @Test
+    void testWorkbookSheetCounts(@TempDir Path tempDir) throws IOException {
+        for (Workbook workbook : new Workbook[] {new XSSFWorkbook(), new HSSFWorkbook()}) {
+            String name = workbook instanceof XSSFWorkbook ? "book.xlsx" : "book.xls";
+            File file = tempDir.resolve(name).toFile();
+            try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+                for (int s = 1; s <= 4; s++) {
+                    Sheet sheet = wb.createSheet("Sheet " + s);
+                    sheet.createRow(0).createCell(0).setCellValue("Value " + s);
+                }
+                if (wb instanceof XSSFWorkbook) {
+                    ((XSSFWorkbook) wb).getProperties().getCoreProperties().setTitle("Budget");
+                } else {
+                    ((HSSFWorkbook) wb).createInformationProperties();
+                    ((HSSFWorkbook) wb).getSummaryInformation().setTitle("Budget");
+                }
+                wb.write(out);
+            }
+            
+            DocumentMetadata metadata = parser.parseMetadata(file);
+            DocumentMetadata full = parser.parse(file).getDocumentMetadata();
+            System.out.println(name + ": " + metadata.getTotalSheets() + " sheets, title " + metadata.getTitle());
+            assertEquals(ParsedDocument.FileType.EXCEL, metadata.getFileType());
+            assertEquals("Budget", metadata.getTitle());
+            assertEquals(full.getTotalSheets(), metadata.getTotalSheets());
+            assertEquals(full.getTotalPages(), metadata.getTotalPages());
+            assertNull(metadata.getIsEncrypted());
+        }
+    }
+    
+    @Test
+    void testEncryptedWorkbooks(@TempDir Path tempDir) throws IOException, GeneralSecurityException {
+        File xls = tempDir.resolve("locked.xls").toFile();
+        Biff8EncryptionKey.setCurrentUserPassword("secret");
+        try (HSSFWorkbook workbook = new HSSFWorkbook(); OutputStream out = new FileOutputStream(xls)) {
+            workbook.createSheet("One");
+            workbook.createSheet("Two");
+            workbook.write(out);
+        } finally {
+            Biff8EncryptionKey.setCurrentUserPassword(null);
+        }
+        DocumentMetadata legacy = parser.parseMetadata(xls);
+        assertTrue(legacy.getIsEncrypted());
+        assertEquals(2, legacy.getTotalSheets());
+        
+        File xlsx = tempDir.resolve("locked.xlsx").toFile();
+        try (POIFSFileSystem fs = new POIFSFileSystem()) {
+            Encryptor encryptor = new EncryptionInfo(EncryptionMode.agile).getEncryptor();
+            encryptor.confirmPassword("secret");
+            try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = encryptor.getDataStream(fs)) {
+                workbook.createSheet("One");
+                workbook.write(out);
+            }
+            try (OutputStream out = new FileOutputStream(xlsx)) {
+                fs.writeFilesystem(out);
+            }
+        }
+        DocumentMetadata ooxml = parser.parseMetadata(xlsx);
+        assertTrue(ooxml.getIsEncrypted());
+        assertTrue(ooxml.getIsPasswordProtected());
+        assertNull(ooxml.getTotalSheets());
+    }
+    
+    @Test
+    void testTikaAndFallbackFormats(@TempDir Path tempDir) throws IOException {
+        File html = tempDir.resolve("page.html").toFile();
+        Files.write(html.toPath(), "<html><head><title>Welcome</title></head><body><p>Hello</p></body></html>"
+            .getBytes(StandardCharsets.UTF_8));
+        DocumentMetadata page = parser.parseMetadata(html);
+        assertEquals("Welcome", page.getTitle());
+        assertEquals(ParsedDocument.FileType.HTML, page.getFileType());
+        
+        // Formats without separate metadata fall back to a full parse
+        File text = tempDir.resolve("notes.txt").toFile();
+        Files.write(text.toPath(), "first line\nsecond line\n".getBytes(StandardCharsets.UTF_8));
+        DocumentMetadata notes = parser.parseMetadata(text);
+        assertEquals(parser.parse(text).getDocumentMetadata().getTotalWords(), notes.getTotalWords());
+        assertEquals(text.length(), notes.getFileSize());
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFTextBox;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.BreakType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for page-by-page parsing with a PageSink
+ */
+public class PageStreamingTest {
+    
+    private final UniversalFileParser parser = new UniversalFileParser();
+    
+    /**
+     * Records the calls made to the sink
+     */
+    private static class RecordingSink implements PageSink {
+        final List<PageContent> pages = new ArrayList<>();
+        DocumentMetadata begun;
+        DocumentMetadata ended;
+        
+        @Override
+        public void begin(DocumentMetadata metadata) {
+            assertNull(begun, "begin must be called once");
+            assertTrue(pages.isEmpty(), "begin must come before the first page");
+            begun = metadata;
+        }
+        
+        @Override
+        public void accept(PageContent page) {
+            assertNotNull(begun, "begin must come before the first page");
+            assertNull(ended, "No page may follow end");
+            pages.add(page);
+        }
+        
+        @Override
+        public void end(DocumentMetadata metadata) {
+            assertNull(ended, "end must be called once");
+            ended = metadata;
+        }
+    }
+    
+    @Test
+    void testPdfPagesMatchFullParse(@TempDir Path tempDir) throws IOException {
+        File pdf = tempDir.resolve("pages.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= 40; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i + " of the streaming test");
+                    content.endText();
+                }
+            }
+            document.save(pdf);
+        }
+        
+        ParsedDocument full = parser.parse(pdf);
+        RecordingSink sink = new RecordingSink();
+        parser.parse(pdf, sink);
+        
+        assertEquals(40, sink.begun.getTotalPages());
+        assertEquals(pdf.length(), sink.begun.getFileSize());
+        assertRawTextEquals(full, sink);
+        assertEquals(full.getDocumentMetadata().getTotalWords(), sink.ended.getTotalWords());
+    }
+    
+    @Test
+    void testSinkFailureStopsParsing(@TempDir Path tempDir) throws IOException {
+        List<PageContent> received = new ArrayList<>();
+        IOException e = assertThrows(IOException.class, () -> new PdfFileParser().parse(writePdf(tempDir, 10), page -> {
+            received.add(page);
+            if (page.getPageNumber() == 3) {
+                throw new IOException("index full");
+            }
+        }));
+        assertEquals("index full", e.getMessage());
+        assertEquals(3, received.size());
+    }
+    
+    @Test
+    void testExcelSheetsAreStreamed(@TempDir Path tempDir) throws IOException {
+        for (Workbook workbook : new Workbook[] {new XSSFWorkbook(), new HSSFWorkbook()}) {
+            String name = workbook instanceof XSSFWorkbook ? "sheets.xlsx" : "sheets.xls";
+            File file = tempDir.resolve(name).toFile();
+            try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+                for (int s = 1; s <= 3; s++) {
+                    Sheet sheet = wb.createSheet("Sheet " + s);
+                    Row header = sheet.createRow(0);
+                    header.createCell(0).setCellValue("Name");
+                    header.createCell(1).setCellValue("Value");
+                    for (int r = 1; r <= 20; r++) {
+                        Row row = sheet.createRow(r);
+                        row.createCell(0).setCellValue("Item " + s + "-" + r);
+                        row.createCell(1).setCellValue(r * s);
+                    }
+                }
+                wb.write(out);
+            }
+            
+            ParsedDocument full = parser.parse(file);
+            RecordingSink sink = new RecordingSink();
+            parser.parse(file, sink);
+            
+            System.out.println(name + ": " + sink.pages.size() + " sheets streamed");
+            assertEquals(3, sink.pages.size());
+            assertRawTextEquals(full, sink);
+            assertEquals(1, sink.pages.get(2).getTables().size());
+            assertEquals(3, sink.ended.getTotalTables());
+            assertEquals(full.getDocumentMetadata().getTotalWords(), sink.ended.getTotalWords());
+        }
+    }
+    
+    @Test
+    void testSlidesAndWordPagesAreStreamed(@TempDir Path tempDir) throws IOException {
+        File pptx = tempDir.resolve("slides.pptx").toFile();
+        try (XMLSlideShow slideShow = new XMLSlideShow(); OutputStream out = new FileOutputStream(pptx)) {
+            for (int i = 1; i <= 4; i++) {
+                XSLFTextBox box = slideShow.createSlide().createTextBox();
+                box.setText("Slide text " + i);
+            }
+            slideShow.write(out);
+        }
+        File docx = tempDir.resolve("pages.docx").toFile();
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = new FileOutputStream(docx)) {
+            for (int i = 1; i <= 3; i++) {
+                XWPFRun run = document.createParagraph().createRun();
+                run.setText("Word page " + i);
+                run.addBreak(BreakType.PAGE);
+            }
+            document.write(out);
+        }
+        
+        for (File file : new File[] {pptx, docx}) {
+            ParsedDocument full = parser.parse(file);
+            RecordingSink sink = new RecordingSink();
+            parser.parse(file, sink);
+            
+            System.out.println(file.getName() + ": " + sink.pages.size() + " pages streamed");
+            assertFalse(sink.pages.isEmpty());
+            assertRawTextEquals(full, sink);
+            assertEquals(full.getDocumentMetadata().getTotalWords(), sink.ended.getTotalWords());
+        }
+    }
+    
+    @Test
+    void testTextIsStreamedInChunks(@TempDir Path tempDir) throws IOException {
+        File text = tempDir.resolve("long.txt").toFile();
+        writeLines(text, 20000);
+        
+        ParsedDocument full = parser.parse(text);
+        RecordingSink sink = new RecordingSink();
+        parser.parse(text, sink);
+        
+        System.out.println("Text chunks: " + sink.pages.size());
+        assertTrue(sink.pages.size() > 1);
+        StringBuilder joined = new StringBuilder();
+        for (PageContent page : sink.pages) {
+            assertTrue(page.getRawText().endsWith("\n"), "Chunks end at line boundaries");
+            joined.append(page.getRawText());
+        }
+        assertEquals(full.getContent(), joined.toString());
+        assertEquals(sink.pages.size(), sink.ended.getTotalPages());
+        assertEquals("long", sink.begun.getTitle());
+    }
+    
+    @Test
+    void testFormatsWithoutStreamingFallBackToFullParse(@TempDir Path tempDir) throws IOException {
+        File csv = tempDir.resolve("people.csv").toFile();
+        Files.write(csv.toPath(), "Name,Age\nJohn,30\nJane,25".getBytes(StandardCharsets.UTF_8));
+        
+        ParsedDocument full = parser.parse(csv);
+        RecordingSink sink = new RecordingSink();
+        parser.parse(csv, sink);
+        
+        assertRawTextEquals(full, sink);
+        assertSame(sink.begun, sink.ended);
+    }
+    
+    private static void assertRawTextEquals(ParsedDocument full, RecordingSink sink) {
+        assertNotNull(sink.ended, "end must be called");
+        assertEquals(full.getPages().size(), sink.pages.size());
+        for (int i = 0; i < full.getPages().size(); i++) {
+            assertEquals(full.getPages().get(i).getPageNumber(), sink.pages.get(i).getPageNumber());
+            assertEquals(full.getPages().get(i).getRawText(), sink.pages.get(i).getRawText());
+        }
+    }
+    
+    private static void writeLines(File file, int lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= lines; i++) {
+            text.append("Line ").append(i).append(" of a long plain text file\n");
+        }
+        Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static File writePdf(Path tempDir, int pages) throws IOException {
+        return PdfFixture.pages(pages).write(tempDir.resolve("short.pdf").toFile());
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import io.github.twwch.markdown2office.parser.impl.TikaFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the lazy, provider-based parser registry
+ */
+public class ParserRegistryTest {
+    
+    @Test
+    void testProvidersAreDiscoveredInOrder() {
+        ParserRegistry registry = ParserRegistry.loadDefault();
+        
+        List<String> names = registry.getParserNames();
+        assertEquals("PdfFileParser", names.get(0));
+        assertEquals("TikaFileParser", names.get(names.size() - 1));
+        assertEquals(8, names.size());
+    }
+    
+    @Test
+    void testParsersAreCreatedOnFirstUse() {
+        ParserRegistry registry = ParserRegistry.loadDefault();
+        for (FileParserProvider provider : registry.getProviders()) {
+            assertFalse(registry.isInstantiated(provider.getParserClassName()));
+        }
+        
+        FileParser csvParser = registry.getParser("data.csv");
+        assertTrue(csvParser instanceof CsvFileParser);
+        assertSame(csvParser, registry.getParser("other.CSV"));
+        
+        assertTrue(registry.isInstantiated(CsvFileParser.class.getName()));
+        assertFalse(registry.isInstantiated(TikaFileParser.class.getName()));
+        assertFalse(registry.isInstantiated(PdfFileParser.class.getName()));
+        
+        // Support checks must not create parsers either
+        assertTrue(registry.isSupported("page.html"));
+        assertFalse(registry.isInstantiated(TikaFileParser.class.getName()));
+    }
+    
+    @Test
+    void testExtensionlessFilesAreText() {
+        ParserRegistry registry = ParserRegistry.loadDefault();
+        assertEquals("TextFileParser", registry.getParser("README").getClass().getSimpleName());
+        assertNull(registry.getParser("archive.xyz"));
+    }
+    
+    @Test
+    void testRegisterAndRemove() {
+        ParserRegistry registry = ParserRegistry.loadDefault();
+        FileParser custom = new StubParser();
+        registry.register(custom);
+        assertSame(custom, registry.getParser("custom.pdf"));
+        assertEquals("StubParser", registry.getParserNames().get(0));
+        
+        assertTrue(registry.remove(StubParser.class));
+        assertTrue(registry.getParser("custom.pdf") instanceof PdfFileParser);
+        
+        registry.register(new FileParserProvider() {
+            @Override
+            public String getParserClassName() {
+                return StubParser.class.getName();
+            }
+            
+            @Override
+            public Set<String> getExtensions() {
+                return Collections.singleton(".stub");
+            }
+            
+            @Override
+            public Set<String> getMimeTypes() {
+                return Collections.emptySet();
+            }
+            
+            @Override
+            public FileParser createParser() {
+                return new StubParser();
+            }
+        });
+        assertTrue(registry.getParser("file.stub") instanceof StubParser);
+        assertEquals("StubParser", registry.getParserNames().get(registry.getParserNames().size() - 1));
+    }
+    
+    static class StubParser implements FileParser {
+        @Override
+        public ParsedDocument parse(String filePath) {
+            return new ParsedDocument();
+        }
+        
+        @Override
+        public ParsedDocument parse(File file) {
+            return new ParsedDocument();
+        }
+        
+        @Override
+        public ParsedDocument parse(InputStream inputStream, String fileName) {
+            return new ParsedDocument();
+        }
+        
+        @Override
+        public boolean supports(String fileName) {
+            return fileName != null && fileName.endsWith(".pdf");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.twwch.markdown2office.parser;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Writes the PDF files used by the parser tests and benchmarks.
+ *
+ * Each page shows the lines of its text, one per line from the top of the page, in
+ * Helvetica. Pages can be left blank, carry invisible text or a scanned image:
+ * <pre>
+ * PdfFixture.pages(70).text(i -&gt; "Page " + i).blankPage(7).hiddenNoteEvery(10).write(file);
+ * </pre>
+ */
+public final class PdfFixture {
+    
+    private final int pages;
+    private String title;
+    private IntFunction<String> text = i -> "Page " + i;
+    private float fontSize = 12;
+    private final Set<Integer> blankPages = new HashSet<>();
+    private int hiddenNoteInterval;
+    private int imageWidth;
+    
+    private PdfFixture(int pages) {
+        this.pages = pages;
+    }
+    
+    /**
+     * @param pages the number of pages
+     */
+    public static PdfFixture pages(int pages) {
+        return new PdfFixture(pages);
+    }
+    
+    /**
+     * Set the title of the document information
+     */
+    public PdfFixture title(String title) {
+        this.title = title;
+        return this;
+    }
+    
+    /**
+     * Set the text of each page; lines are separated by {@code \n}. Defaults to "Page n".
+     */
+    public PdfFixture text(IntFunction<String> text) {
+        this.text = text;
+        return this;
+    }
+    
+    public PdfFixture fontSize(float fontSize) {
+        this.fontSize = fontSize;
+        return this;
+    }
+    
+    /**
+     * Leave a page without any content
+     * @param page the 1-based page number
+     */
+    public PdfFixture blankPage(int page) {
+        blankPages.add(page);
+        return this;
+    }
+    
+    /**
+     * Add the invisible text "hidden note n" to every page whose number is a multiple of the interval
+     */
+    public PdfFixture hiddenNoteEvery(int interval) {
+        this.hiddenNoteInterval = interval;
+        return this;
+    }
+    
+    /**
+     * Draw an image of random pixels on each page, like a scan that does not compress
+     * @param width the image width in pixels; the height is three quarters of it
+     */
+    public PdfFixture scannedImage(int width) {
+        this.imageWidth = width;
+        return this;
+    }
+    
+    /**
+     * Write the document
+     * @param file the file to write
+     * @return the file
+     */
+    public File write(File file) throws IOException {
+        Random random = new Random(1);
+        BufferedImage image = imageWidth > 0
+            ? new BufferedImage(imageWidth, imageWidth * 3 / 4, BufferedImage.TYPE_INT_RGB) : null;
+        try (PDDocument document = new PDDocument()) {
+            if (title != null) {
+                PDDocumentInformation info = new PDDocumentInformation();
+                info.setTitle(title);
+                document.setDocumentInformation(info);
+            }
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                if (blankPages.contains(i)) {
+                    continue;
+                }
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    if (image != null) {
+                        drawScan(document, content, image, random);
+                    }
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, fontSize);
+                    content.setLeading(fontSize * 1.2f);
+                    content.newLineAtOffset(72, 720);
+                    for (String line : text.apply(i).split("\n")) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                    if (hiddenNoteInterval > 0 && i % hiddenNoteInterval == 0) {
+                        content.beginText();
+                        content.setFont(PDType1Font.HELVETICA, fontSize);
+                        content.setRenderingMode(RenderingMode.NEITHER);
+                        content.newLineAtOffset(72, 40);
+                        content.showText("hidden note " + i);
+                        content.endText();
+                    }
+                }
+            }
+            document.save(file);
+        }
+        return file;
+    }
+    
+    private static void drawScan(PDDocument document, PDPageContentStream content, BufferedImage image,
+                                 Random random) throws IOException {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        PDImageXObject scan = LosslessFactory.createFromImage(document, image);
+        content.drawImage(scan, 50, 200, 500, 375);
+    }
+}
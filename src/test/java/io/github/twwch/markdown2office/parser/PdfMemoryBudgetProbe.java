@@ -0,0 +1,24 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+
+import java.io.File;
+
+/**
+ * Runs in a fresh JVM with a small heap and parses one PDF with the given memory budget.
+ * Output: {@code <page count> <extracted characters>}
+ */
+public class PdfMemoryBudgetProbe {
+    
+    public static void main(String[] args) throws Exception {
+        File pdf = new File(args[0]);
+        ParseOptions options = ParseOptions.builder()
+            .memoryBudget(Long.parseLong(args[1]))
+            .scratchDirectory(args.length > 2 ? new File(args[2]) : null)
+            .parallelism(1)
+            .build();
+        
+        ParsedDocument doc = new PdfFileParser().parse(pdf, options);
+        System.out.println(doc.getDocumentMetadata().getTotalPages() + " " + doc.getContent().length());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the PDF memory budget
+ */
+public class PdfMemoryBudgetTest {
+    
+    private static final int PAGES = 16;
+    private static final String HEAP = "-Xmx48m";
+    
+    @Test
+    void testTempFileBudgetParsesLargePdfInSmallHeap(@TempDir Path tempDir) throws Exception {
+        File pdf = writePdf(tempDir.resolve("scanned.pdf").toFile());
+        System.out.println("Generated PDF: " + pdf.length() / (1024 * 1024) + " MB, parsed with " + HEAP);
+        
+        // Main memory only keeps every image stream on the heap
+        ProbeResult mainMemory = probe(pdf, Long.MAX_VALUE, null);
+        System.out.println("Main memory only: exit " + mainMemory.exitCode + ", " + mainMemory.message);
+        
+        // With the budget the image streams are buffered in the scratch directory instead
+        Path scratch = Files.createDirectory(tempDir.resolve("scratch"));
+        ProbeResult budgeted = probe(pdf, 4L * 1024 * 1024, scratch.toFile());
+        System.out.println("4 MB budget: exit " + budgeted.exitCode + ", " + budgeted.message);
+        assertEquals(0, budgeted.exitCode, "Parse with a memory budget failed: " + budgeted.message);
+        assertTrue(budgeted.message.startsWith(PAGES + " "));
+        
+        ProbeResult tempFileOnly = probe(pdf, 0, scratch.toFile());
+        assertEquals(0, tempFileOnly.exitCode, "Temp-file-only parse failed: " + tempFileOnly.message);
+        assertEquals(budgeted.message, tempFileOnly.message);
+    }
+    
+    @Test
+    void testBudgetDoesNotChangeContent(@TempDir Path tempDir) throws IOException {
+        File pdf = writePdf(tempDir.resolve("small.pdf").toFile(), 2, 64);
+        PdfFileParser parser = new PdfFileParser();
+        
+        ParsedDocument inMemory = parser.parse(pdf);
+        ParsedDocument budgeted = parser.parse(pdf, ParseOptions.builder().memoryBudget(0).build());
+        ParsedDocument streamed;
+        try (InputStream in = Files.newInputStream(pdf.toPath())) {
+            streamed = parser.parse(in, "small.pdf",
+                ParseOptions.builder().memoryBudget(1024).scratchDirectory(tempDir.toFile()).build());
+        }
+        
+        assertEquals(inMemory.getContent(), budgeted.getContent());
+        assertEquals(inMemory.getContent(), streamed.getContent());
+    }
+    
+    private static final class ProbeResult {
+        final int exitCode;
+        final String message;
+        
+        ProbeResult(int exitCode, String message) {
+            this.exitCode = exitCode;
+            this.message = message;
+        }
+    }
+    
+    private static ProbeResult probe(File pdf, long budget, File scratch) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = scratch != null ?
+            new ProcessBuilder(java, HEAP, "-cp", System.getProperty("java.class.path"),
+                PdfMemoryBudgetProbe.class.getName(), pdf.getPath(), String.valueOf(budget), scratch.getPath()) :
+            new ProcessBuilder(java, HEAP, "-cp", System.getProperty("java.class.path"),
+                PdfMemoryBudgetProbe.class.getName(), pdf.getPath(), String.valueOf(budget));
+        Process process = builder.redirectErrorStream(true).start();
+        String first = null;
+        String last = "";
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty() && !line.contains(" WARN ")) {
+                    first = first != null ? first : line;
+                    last = line;
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        // On failure the first line names the exception, the last one is a stack frame
+        return new ProbeResult(exitCode, exitCode == 0 || first == null ? last : first);
+    }
+    
+    private static File writePdf(File file) throws IOException {
+        return writePdf(file, PAGES, 1000);
+    }
+    
+    private static File writePdf(File file, int pages, int imageWidth) throws IOException {
+        return PdfFixture.pages(pages).text(i -> "Scanned page " + i).scannedImage(imageWidth).write(file);
+    }
+}
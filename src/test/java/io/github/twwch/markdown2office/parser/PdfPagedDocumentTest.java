@@ -0,0 +1,92 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for on-demand page extraction with PdfFileParser.open
+ */
+public class PdfPagedDocumentTest {
+    
+    private static final int PAGES = 30;
+    
+    @Test
+    void testPagesMatchFullParse(@TempDir Path tempDir) throws IOException {
+        File pdf = writePdf(tempDir);
+        PdfFileParser parser = new PdfFileParser();
+        ParsedDocument full = parser.parse(pdf);
+        
+        try (PagedDocument doc = parser.open(pdf)) {
+            assertEquals(ParsedDocument.FileType.PDF, doc.getFileType());
+            assertEquals(PAGES, doc.getPageCount());
+            assertEquals(PAGES, doc.getDocumentMetadata().getTotalPages());
+            assertEquals("Paged Test", doc.getDocumentMetadata().getTitle());
+            assertEquals(pdf.length(), doc.getDocumentMetadata().getFileSize());
+            
+            for (PageContent expected : full.getPages()) {
+                PageContent actual = doc.getPage(expected.getPageNumber());
+                assertEquals(expected.getRawText(), actual.getRawText());
+                assertEquals(expected.getMarkdownContent(), actual.getMarkdownContent());
+                assertEquals(expected.getParagraphs(), actual.getParagraphs());
+            }
+            assertFalse(doc.getPage(10).getRawText().contains("hidden note"));
+        }
+    }
+    
+    @Test
+    void testPagesAreExtractedOnceAndCached(@TempDir Path tempDir) throws IOException {
+        File pdf = writePdf(tempDir);
+        
+        try (PagedDocument doc = new PdfFileParser().open(pdf)) {
+            PageContent page11 = doc.getPage(11);
+            assertTrue(page11.getRawText().contains("Page 11 "));
+            
+            List<PageContent> range = doc.getPages(10, 12);
+            assertEquals(3, range.size());
+            assertEquals(10, range.get(0).getPageNumber());
+            assertSame(page11, range.get(1));
+            assertSame(range.get(2), doc.getPage(12));
+            
+            // The empty page is returned with empty text instead of being skipped
+            PageContent empty = doc.getPages(6, 8).get(1);
+            assertEquals(7, empty.getPageNumber());
+            assertEquals("", empty.getRawText());
+            assertEquals(0, empty.getWordCount());
+            
+            assertThrows(IllegalArgumentException.class, () -> doc.getPage(0));
+            assertThrows(IllegalArgumentException.class, () -> doc.getPage(PAGES + 1));
+            assertThrows(IllegalArgumentException.class, () -> doc.getPages(12, 10));
+        }
+    }
+    
+    @Test
+    void testClosedDocumentKeepsExtractedPages(@TempDir Path tempDir) throws IOException {
+        File pdf = writePdf(tempDir);
+        PagedDocument doc = new PdfFileParser().open(pdf, ParseOptions.builder().includeHiddenLayers(true).build());
+        PageContent page10 = doc.getPage(10);
+        assertTrue(page10.getRawText().contains("hidden note"));
+        
+        doc.close();
+        doc.close();
+        assertThrows(IllegalStateException.class, () -> doc.getPage(1));
+        assertThrows(IllegalStateException.class, () -> doc.getPage(10));
+        assertEquals(PAGES, doc.getPageCount());
+        assertTrue(page10.getRawText().contains("Page 10 "));
+    }
+    
+    /**
+     * One line of text per page, invisible text on every tenth page and an empty page 7
+     */
+    private static File writePdf(Path tempDir) throws IOException {
+        return PdfFixture.pages(PAGES).title("Paged Test").text(i -> "Page " + i + " of the paged document test")
+            .blankPage(7).hiddenNoteEvery(10).write(tempDir.resolve("pages.pdf").toFile());
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for parallel page-range extraction in PdfFileParser
+ */
+public class PdfParallelParsingTest {
+    
+    private static final int PAGES = 70;
+    
+    @Test
+    void testParallelMatchesSequential(@TempDir Path tempDir) throws IOException {
+        File pdf = PdfFixture.pages(PAGES).text(i -> "Page " + i + " of the parallel extraction test")
+            .blankPage(7).hiddenNoteEvery(10).write(tempDir.resolve("pages.pdf").toFile());
+        PdfFileParser parser = new PdfFileParser();
+        
+        for (boolean includeHidden : new boolean[] {false, true}) {
+            ParseOptions sequential = ParseOptions.builder().includeHiddenLayers(includeHidden).parallelism(1).build();
+            ParseOptions parallel = sequential.toBuilder().parallelism(4).parallelThreshold(0).build();
+            
+            ParsedDocument expected = parser.parse(pdf, sequential);
+            ParsedDocument actual = parser.parse(pdf, parallel);
+            
+            assertEquals(expected.getContent(), actual.getContent());
+            assertEquals(expected.getMarkdownContent(), actual.getMarkdownContent());
+            assertEquals(pageNumbers(expected), pageNumbers(actual));
+            assertEquals(expected.getDocumentMetadata().getTotalWords(), actual.getDocumentMetadata().getTotalWords());
+            // The empty page is left out
+            assertEquals(PAGES - 1, actual.getPages().size());
+            assertEquals(includeHidden, actual.getContent().contains("hidden note"),
+                "Hidden text filtering must not depend on parallel extraction");
+        }
+        
+        ParsedDocument doc = parser.parse(pdf, ParseOptions.builder().parallelism(4).parallelThreshold(0).build());
+        System.out.println("Parallel pages: " + pageNumbers(doc));
+        assertTrue(doc.getContent().indexOf("Page 9 ") < doc.getContent().indexOf("Page 10 "));
+    }
+    
+    private static List<Integer> pageNumbers(ParsedDocument doc) {
+        List<Integer> numbers = new ArrayList<>();
+        for (PageContent page : doc.getPages()) {
+            numbers.add(page.getPageNumber());
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Excel 2003 XML (SpreadsheetML) parsing
+ */
+public class SpreadsheetMlParsingTest {
+    
+    // Minified: the whole workbook is a single line
+    private static final String WORKBOOK = "<?xml version=\"1.0\"?>" +
+        "<Workbook xmlns=\"urn:schemas-microsoft-com:office:spreadsheet\" " +
+        "xmlns:ss=\"urn:schemas-microsoft-com:office:spreadsheet\" " +
+        "xmlns:html=\"http://www.w3.org/TR/REC-html40\">" +
+        "<Worksheet ss:Name=\"R&amp;D\"><Table>" +
+        "<Row><Cell><Data ss:Type=\"String\">Name</Data></Cell><Cell ss:Index=\"3\"><Data ss:Type=\"String\">Score</Data></Cell></Row>" +
+        "<Row><Cell><Data ss:Type=\"String\">A &lt;b&gt; &amp; &#x4E2D;</Data></Cell><Cell ss:Index=\"3\"><Data ss:Type=\"Number\">90</Data></Cell></Row>" +
+        "<Row><Cell ss:MergeAcross=\"1\"><Data ss:Type=\"String\">Merged</Data></Cell><Cell><Data ss:Type=\"Number\">2.5</Data></Cell></Row>" +
+        "<Row><Cell><ss:Data ss:Type=\"String\"><B>Rich</B> text</ss:Data>" +
+        "<Comment><Data>not a value</Data></Comment></Cell><Cell ss:Index=\"3\"><Data ss:Type=\"Boolean\">1</Data></Cell></Row>" +
+        "</Table></Worksheet>" +
+        "<Worksheet ss:Name=\"Second\"><Table><Row><Cell><Data ss:Type=\"String\">Only</Data></Cell></Row></Table></Worksheet>" +
+        "</Workbook>";
+    
+    @Test
+    void testMinifiedWorkbook(@TempDir Path tempDir) throws IOException {
+        ExcelFileParser parser = new ExcelFileParser();
+        Path file = tempDir.resolve("minified.xml");
+        Files.write(file, WORKBOOK.getBytes(StandardCharsets.UTF_8));
+        
+        ParsedDocument doc = parser.parse(file.toFile());
+        System.out.println(doc.getMarkdownContent());
+        
+        assertEquals("Excel 2003 XML (SpreadsheetML)", doc.getDocumentMetadata().getDocumentFormat());
+        assertEquals(2, doc.getDocumentMetadata().getTotalSheets());
+        assertEquals(2, doc.getPages().size());
+        
+        ParsedDocument.ParsedTable table = doc.getTables().get(0);
+        assertEquals("R&D", table.getTitle());
+        assertEquals(Arrays.asList("Name", "", "Score"), table.getHeaders());
+        assertEquals(Arrays.asList(
+            Arrays.asList("A <b> & 中", "", "90"),
+            Arrays.asList("Merged", "", "2.5"),
+            Arrays.asList("Rich text", "", "true")), table.getData());
+        assertFalse(doc.getContent().contains("not a value"));
+        assertEquals(Arrays.asList("Only"), doc.getTables().get(1).getHeaders());
+        
+        // Streams give the same result
+        ParsedDocument streamed = parser.parse(new ByteArrayInputStream(WORKBOOK.getBytes(StandardCharsets.UTF_8)), "minified.xml");
+        assertEquals(doc.getContent(), streamed.getContent());
+        assertEquals(doc.getMarkdownContent(), streamed.getMarkdownContent());
+    }
+    
+    @Test
+    void testOptionsApply() throws IOException {
+        ParseOptions options = ParseOptions.builder().maxSheets(1).maxRowsPerTable(1).build();
+        ParsedDocument doc = new ExcelFileParser().parse(
+            new ByteArrayInputStream(WORKBOOK.getBytes(StandardCharsets.UTF_8)), "minified.xml", options);
+        
+        assertEquals(1, doc.getPages().size());
+        ParsedDocument.ParsedTable table = doc.getTables().get(0);
+        assertEquals(1, table.getData().size());
+        assertTrue(table.isTruncated());
+    }
+    
+    @Test
+    void testExternalEntitiesAreNotResolved(@TempDir Path tempDir) throws IOException {
+        Path secret = tempDir.resolve("secret.txt");
+        Files.write(secret, "top secret".getBytes(StandardCharsets.UTF_8));
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE Workbook [<!ENTITY xxe SYSTEM \"" + secret.toUri() + "\">]>" +
+            "<Workbook xmlns=\"urn:schemas-microsoft-com:office:spreadsheet\"><Worksheet><Table>" +
+            "<Row><Cell><Data>&xxe;</Data></Cell></Row></Table></Worksheet></Workbook>";
+        
+        try {
+            ParsedDocument doc = new ExcelFileParser().parse(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "xxe.xml");
+            assertFalse(doc.getContent().contains("top secret"));
+        } catch (IOException e) {
+            // Rejecting the document is fine as well
+            System.out.println("Rejected: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.twwch.markdown2office.parser;
+
+import io.github.twwch.markdown2office.parser.ParseOptions.SamplingStrategy;
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for row limits, sampling and sheet limits of the tabular parsers
+ */
+public class TablePreviewTest {
+    
+    private static final int ROWS = 500;
+    
+    @Test
+    void testExcelHeadPreview(@TempDir Path tempDir) throws IOException {
+        Path xlsx = write(tempDir.resolve("preview.xlsx"), new XSSFWorkbook());
+        Path xls = write(tempDir.resolve("preview.xls"), new HSSFWorkbook());
+        ExcelFileParser parser = new ExcelFileParser();
+        
+        for (Path file : Arrays.asList(xlsx, xls)) {
+            for (long threshold : new long[] {Long.MAX_VALUE, 0}) {
+                ParseOptions options = ParseOptions.builder()
+                    .maxRowsPerTable(10)
+                    .maxSheets(2)
+                    .streamingThreshold(threshold)
+                    .build();
+                ParsedDocument doc = parser.parse(file.toFile(), options);
+                System.out.println(file.getFileName() + " (threshold " + threshold + "): " + doc.getTables().size() + " tables");
+                
+                assertEquals(2, doc.getPages().size());
+                assertEquals(3, doc.getDocumentMetadata().getTotalSheets());
+                ParsedDocument.ParsedTable table = doc.getTables().get(0);
+                assertEquals(Arrays.asList("Id", "Name"), table.getHeaders());
+                assertEquals(10, table.getData().size());
+                assertEquals(Arrays.asList("10", "row 10"), table.getData().get(9));
+                assertTrue(table.isTruncated());
+                assertEquals(-1, table.getTotalRows());
+                assertFalse(doc.getContent().contains("row 11"));
+                
+                // A sheet under the limit is complete
+                ParsedDocument.ParsedTable small = doc.getTables().get(1);
+                assertFalse(small.isTruncated());
+                assertEquals(3, small.getTotalRows());
+            }
+        }
+    }
+    
+    @Test
+    void testExcelHeadTailSample(@TempDir Path tempDir) throws IOException {
+        Path file = write(tempDir.resolve("sample.xlsx"), new XSSFWorkbook());
+        ParseOptions options = ParseOptions.builder().maxRowsPerTable(4).samplingStrategy(SamplingStrategy.HEAD_TAIL).build();
+        ExcelFileParser parser = new ExcelFileParser();
+        
+        ParsedDocument model = parser.parse(file.toFile(), options.toBuilder().streamingThreshold(Long.MAX_VALUE).build());
+        ParsedDocument streamed = parser.parse(file.toFile(), options.toBuilder().streamingThreshold(0).build());
+        
+        ParsedDocument.ParsedTable table = model.getTables().get(0);
+        assertEquals(Arrays.asList(Arrays.asList("1", "row 1"), Arrays.asList("2", "row 2"),
+            Arrays.asList("499", "row 499"), Arrays.asList("500", "row 500")), table.getData());
+        assertTrue(table.isTruncated());
+        assertEquals(ROWS, table.getTotalRows());
+        assertEquals(model.getContent(), streamed.getContent());
+        assertEquals(model.getMarkdownContent(), streamed.getMarkdownContent());
+        assertEquals(ROWS, streamed.getTables().get(0).getTotalRows());
+    }
+    
+    @Test
+    void testCsvSampling() throws IOException {
+        StringBuilder csv = new StringBuilder("Id,Name\n");
+        for (int i = 1; i <= ROWS; i++) {
+            csv.append(i).append(",row ").append(i).append("\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        CsvFileParser parser = new CsvFileParser();
+        
+        ParsedDocument head = parser.parse(new ByteArrayInputStream(bytes), "preview.csv",
+            ParseOptions.builder().maxRowsPerTable(3).build());
+        ParsedDocument.ParsedTable headTable = head.getTables().get(0);
+        assertEquals(Arrays.asList("3", "row 3"), headTable.getData().get(2));
+        assertEquals(3, headTable.getData().size());
+        assertTrue(headTable.isTruncated());
+        assertEquals(-1, headTable.getTotalRows());
+        assertNull(head.getMetadata().get("Total Rows"));
+        assertEquals("Id\tName\n1\trow 1\n2\trow 2\n3\trow 3\n", head.getContent());
+        
+        ParsedDocument reservoir = parser.parse(new ByteArrayInputStream(bytes), "preview.csv",
+            ParseOptions.builder().maxRowsPerTable(20).samplingStrategy(SamplingStrategy.RESERVOIR).build());
+        ParsedDocument.ParsedTable sampled = reservoir.getTables().get(0);
+        System.out.println("CSV reservoir sample:\n" + reservoir.getMarkdownContent());
+        assertEquals(20, sampled.getData().size());
+        assertEquals(ROWS, sampled.getTotalRows());
+        assertEquals(String.valueOf(ROWS + 1), reservoir.getMetadata().get("Total Rows"));
+        List<List<String>> data = sampled.getData();
+        for (int i = 1; i < data.size(); i++) {
+            assertTrue(Integer.parseInt(data.get(i - 1).get(0)) < Integer.parseInt(data.get(i).get(0)));
+        }
+        
+        // Without a limit nothing changes
+        ParsedDocument full = parser.parse(new ByteArrayInputStream(bytes), "preview.csv");
+        assertFalse(full.getTables().get(0).isTruncated());
+        assertEquals(ROWS, full.getTables().get(0).getTotalRows());
+    }
+    
+    /**
+     * A large sheet, a small sheet and a third sheet that is over the sheet limit
+     */
+    private static Path write(Path file, Workbook workbook) throws IOException {
+        try (Workbook wb = workbook; OutputStream out = Files.newOutputStream(file)) {
+            Sheet large = wb.createSheet("Large");
+            Sheet small = wb.createSheet("Small");
+            for (Sheet sheet : Arrays.asList(large, small)) {
+                Row header = sheet.createRow(0);
+                header.createCell(0).setCellValue("Id");
+                header.createCell(1).setCellValue("Name");
+                int rows = sheet == large ? ROWS : 3;
+                for (int i = 1; i <= rows; i++) {
+                    Row row = sheet.createRow(i);
+                    row.createCell(0).setCellValue(i);
+                    row.createCell(1).setCellValue("row " + i);
+                }
+            }
+            wb.createSheet("Skipped").createRow(0).createCell(0).setCellValue("never read");
+            wb.write(out);
+        }
+        return file;
+    }
+}
@@ -117,6 +117,33 @@ public class UniversalFileParserTest {
         assertEquals("CsvFileParser", result.getMetadata().get("Parser Used"));
     }
     
+    @Test
+    void testHtmlWordCountIgnoresMarkup() throws IOException {
+        String html = "<html><head><title>T</title></head><body>\n" +
+            "<div class=\"a b c\" id=\"main\"><p>Hello&nbsp;world</p></div>\n</body></html>";
+        ParsedDocument doc = parser.parse(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), "page.html");
+        
+        // The raw HTML is kept, only its text is counted
+        assertEquals(html, doc.getContent());
+        assertEquals(3, doc.getDocumentMetadata().getTotalWords());
+        assertEquals(3, doc.getPages().get(0).getWordCount());
+    }
+    
+    @Test
+    void testSpooledStreamMatchesInMemoryStream() throws IOException {
+        byte[] bytes = "Name,Age\nJohn,30\nJane,25".getBytes(StandardCharsets.UTF_8);
+        ParseOptions spooling = ParseOptions.builder().spoolThreshold(0).build();
+        ParseOptions inMemory = ParseOptions.builder().spoolThreshold(Long.MAX_VALUE).build();
+        
+        ParsedDocument spooled = parser.parse(new ByteArrayInputStream(bytes), "people.csv", spooling);
+        ParsedDocument streamed = parser.parse(new ByteArrayInputStream(bytes), "people.csv", inMemory);
+        
+        assertEquals(streamed.getContent(), spooled.getContent());
+        assertEquals(streamed.getTables().get(0).getData(), spooled.getTables().get(0).getData());
+        assertEquals("people.csv", spooled.getDocumentMetadata().getFileName());
+        assertEquals("InputStream", spooled.getMetadata().get("Source"));
+    }
+    
     @Test
     void testParseWithOptionsFailSilently() throws IOException {
         // Create a temporary file for testing
@@ -0,0 +1,119 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.util.CharsetDetector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the single-pass charset detector with the previous approach, which decoded
+ * the whole input once per candidate charset and scored every resulting string.
+ * The input size defaults to 200 MB and can be changed with
+ * {@code -Dbenchmark.charset.mb=<size>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class CharsetDetectorBenchmark {
+    
+    private static final Charset[] LEGACY_CANDIDATES = {
+        StandardCharsets.UTF_8, Charset.forName("GBK"), Charset.forName("GB18030"),
+        Charset.forName("GB2312"), Charset.forName("Big5"), Charset.forName("Windows-1252")
+    };
+    
+    @Test
+    public void benchmarkSinglePassVersusDecodeAndScore() {
+        int megabytes = Integer.getInteger("benchmark.charset.mb", 200);
+        byte[] data = generateGbkCsv(megabytes * 1024 * 1024);
+        
+        // Warm up both paths on a small slice
+        for (int i = 0; i < 5; i++) {
+            CharsetDetector.detect(data, 0, 1024 * 1024);
+            legacyDetect(Arrays.copyOf(data, 1024 * 1024));
+        }
+        
+        long start = System.nanoTime();
+        Charset singlePass = CharsetDetector.detect(data);
+        long singlePassMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        start = System.nanoTime();
+        Charset legacy = legacyDetect(data);
+        long legacyMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println("\n=== Charset detection on " + megabytes + " MB of GBK CSV ===");
+        System.out.println("Single pass      : " + singlePassMillis + " ms -> " + singlePass.name());
+        System.out.println("Decode and score : " + legacyMillis + " ms -> " + legacy.name());
+        
+        assertEquals(CharsetDetector.GBK, singlePass);
+        assertTrue(singlePassMillis < legacyMillis, "Single pass should be faster than decoding six times");
+    }
+    
+    @Test
+    public void benchmarkFullScanOfAsciiInput() {
+        int megabytes = Integer.getInteger("benchmark.charset.mb", 200);
+        byte[] data = new byte[megabytes * 1024 * 1024];
+        byte[] row = "12345,order-12345,2024-01-01,199.99\n".getBytes(StandardCharsets.US_ASCII);
+        for (int offset = 0; offset < data.length; offset++) {
+            data[offset] = row[offset % row.length];
+        }
+        
+        // Pure ASCII gives no early verdict, so every byte is inspected
+        long start = System.nanoTime();
+        Charset detected = CharsetDetector.detect(data);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println("\n=== Full scan of " + megabytes + " MB ASCII CSV ===");
+        System.out.println("Single pass      : " + millis + " ms (" +
+            (millis == 0 ? "n/a" : (megabytes * 1000L / millis) + " MB/s") + ")");
+        assertEquals(StandardCharsets.UTF_8, detected);
+    }
+    
+    private static byte[] generateGbkCsv(int size) {
+        String[] names = {"张三", "李四", "王五", "赵六", "孙七", "周八"};
+        String[] cities = {"北京", "上海", "广州", "深圳", "杭州", "成都"};
+        Random random = new Random(42);
+        StringBuilder chunk = new StringBuilder("编号,姓名,城市,金额\n");
+        for (int i = 0; i < 10_000; i++) {
+            chunk.append(i).append(',')
+                .append(names[random.nextInt(names.length)]).append(',')
+                .append(cities[random.nextInt(cities.length)]).append(',')
+                .append(random.nextInt(100_000)).append('\n');
+        }
+        byte[] block = chunk.toString().getBytes(Charset.forName("GBK"));
+        byte[] data = new byte[size];
+        for (int offset = 0; offset < size; offset += block.length) {
+            System.arraycopy(block, 0, data, offset, Math.min(block.length, size - offset));
+        }
+        return data;
+    }
+    
+    /**
+     * Reduced copy of the previous CSV detection: decode once per candidate, pick the
+     * decoding with the fewest replacement characters
+     */
+    private static Charset legacyDetect(byte[] bytes) {
+        Charset best = StandardCharsets.UTF_8;
+        long bestScore = Long.MIN_VALUE;
+        for (Charset candidate : LEGACY_CANDIDATES) {
+            String decoded = new String(bytes, candidate);
+            long score = 0;
+            for (int i = 0; i < decoded.length(); i++) {
+                char c = decoded.charAt(i);
+                if (c == '\uFFFD') {
+                    score -= 50;
+                } else if (c >= 0x4E00 && c <= 0x9FA5) {
+                    score++;
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.ColumnarTableData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retained heap of row-oriented table data (one list per row, as the parsers built it
+ * before) versus {@link ColumnarTableData}, for a table with id, categorical, numeric and
+ * free-text columns. Row count defaults to 1,000,000 and can be changed with
+ * {@code -Dbenchmark.table.rows=<rows>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ColumnarTableMemoryBenchmark {
+    
+    private static final String[] CITIES = {"北京", "上海", "广州", "深圳", "杭州", "成都", "武汉", "西安"};
+    private static final String[] STATUS = {"paid", "pending", "refunded", "cancelled"};
+    
+    @Test
+    public void benchmarkRetainedHeap() {
+        int rows = Integer.getInteger("benchmark.table.rows", 1_000_000);
+        
+        long before = usedHeap();
+        List<List<String>> rowOriented = new ArrayList<>();
+        fill(rowOriented, rows);
+        long rowBytes = usedHeap() - before;
+        List<String> sample = new ArrayList<>(rowOriented.get(rows / 2));
+        rowOriented = null;
+        
+        before = usedHeap();
+        ColumnarTableData columnar = new ColumnarTableData();
+        fill(columnar, rows);
+        columnar.trimToSize();
+        long columnarBytes = usedHeap() - before;
+        
+        System.out.println("\n=== Table memory for " + rows + " rows x 6 columns ===");
+        System.out.println("List<List<String>>  : " + rowBytes / (1024 * 1024) + " MB");
+        System.out.println("ColumnarTableData   : " + columnarBytes / (1024 * 1024) + " MB");
+        for (int column = 0; column < columnar.getColumnCount(); column++) {
+            System.out.println("  column " + column + ": " + columnar.getStorage(column));
+        }
+        
+        assertEquals(sample, columnar.get(rows / 2));
+        assertTrue(columnarBytes < rowBytes, "Columnar storage should retain less heap");
+    }
+    
+    /**
+     * Cells are fresh strings per row, as a CSV or spreadsheet reader produces them
+     */
+    private static void fill(List<List<String>> table, int rows) {
+        Random random = new Random(1);
+        for (int i = 0; i < rows; i++) {
+            List<String> row = new ArrayList<>(Arrays.asList(
+                String.valueOf(100_000 + i),
+                new String(CITIES[random.nextInt(CITIES.length)]),
+                new String(STATUS[random.nextInt(STATUS.length)]),
+                String.valueOf(random.nextInt(100_000)),
+                String.valueOf(random.nextInt(500)),
+                "order note " + random.nextInt(1_000_000)));
+            table.add(row);
+        }
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.ParseOptions;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.impl.CsvFileParser;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sequential versus chunked parallel CSV parsing on a generated file.
+ * The file size defaults to 50 MB and can be changed with
+ * {@code -Dbenchmark.csv.mb=<size>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class CsvParallelBenchmark {
+    
+    @Test
+    public void benchmarkSequentialVersusParallel(@TempDir Path tempDir) throws IOException {
+        int megabytes = Integer.getInteger("benchmark.csv.mb", 50);
+        Path csv = tempDir.resolve("large.csv");
+        writeCsv(csv, megabytes * 1024L * 1024L);
+        
+        CsvFileParser parser = new CsvFileParser();
+        ParseOptions sequential = ParseOptions.builder().parallelism(1).build();
+        ParseOptions parallel = ParseOptions.builder()
+            .parallelism(Math.max(4, Runtime.getRuntime().availableProcessors()))
+            .parallelThreshold(0)
+            .build();
+        
+        long start = System.nanoTime();
+        ParsedDocument sequentialDoc = parser.parse(csv.toFile(), sequential);
+        long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+        String rows = sequentialDoc.getMetadata().get("Total Rows");
+        int contentLength = sequentialDoc.getContent().length();
+        sequentialDoc = null;
+        
+        start = System.nanoTime();
+        ParsedDocument parallelDoc = parser.parse(csv.toFile(), parallel);
+        long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println("\n=== CSV parsing of " + megabytes + " MB, " + rows + " rows ===");
+        System.out.println("Sequential : " + sequentialMillis + " ms");
+        System.out.println("Parallel   : " + parallelMillis + " ms (" + parallel.getParallelism() + " threads)");
+        
+        assertEquals(rows, parallelDoc.getMetadata().get("Total Rows"));
+        assertEquals(contentLength, parallelDoc.getContent().length());
+    }
+    
+    private static void writeCsv(Path path, long size) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("id,customer,city,note,amount\n");
+            long written = 0;
+            for (int i = 0; written < size; i++) {
+                String line = i + ",客户" + (i % 1000) + ",北京,\"note, with comma\"," + (i * 7 % 10_000) + "\n";
+                writer.write(line);
+                written += line.length() + 8;
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import io.github.twwch.markdown2office.parser.impl.WordFileParser;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retained heap of a POI document opened from an InputStream (the whole container copied
+ * into memory, as the parsers did before) versus opened read-only from the File, for a
+ * large .xlsx, .xls and image-heavy .docx, plus the parse time of both parser entry
+ * points. Spreadsheet rows default to 60,000 and can be changed with
+ * {@code -Dbenchmark.office.rows=<rows>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class FileBackedOpeningBenchmark {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.office.rows", 60_000);
+    
+    @FunctionalInterface
+    private interface Opener {
+        Closeable open() throws Exception;
+    }
+    
+    @Test
+    public void benchmarkRetainedHeap(@TempDir Path tempDir) throws Exception {
+        File xlsx = writeWorkbook(tempDir.resolve("large.xlsx"), new SXSSFWorkbook(100));
+        File xls = writeWorkbook(tempDir.resolve("large.xls"), new HSSFWorkbook());
+        File docx = writeDocument(tempDir.resolve("images.docx"));
+        
+        System.out.println("\n=== Retained heap with the document open ===");
+        long xlsxStream = retained(() -> new XSSFWorkbook(new FileInputStream(xlsx)));
+        long xlsxFile = retained(() -> new XSSFWorkbook(OPCPackage.open(xlsx, PackageAccess.READ)));
+        report(xlsx, xlsxStream, xlsxFile);
+        
+        long xlsStream = retained(() -> new HSSFWorkbook(new FileInputStream(xls)));
+        long xlsFile = retained(() -> new HSSFWorkbook(new POIFSFileSystem(xls, true)));
+        report(xls, xlsStream, xlsFile);
+        
+        long docxStream = retained(() -> new XWPFDocument(new FileInputStream(docx)));
+        long docxFile = retained(() -> new XWPFDocument(OPCPackage.open(docx, PackageAccess.READ)));
+        report(docx, docxStream, docxFile);
+        
+        System.out.println("\n=== Parse time, InputStream vs File ===");
+        time(new ExcelFileParser(), xlsx);
+        time(new ExcelFileParser(), xls);
+        time(new WordFileParser(), docx);
+        
+        assertTrue(xlsFile < xlsStream, "An .xls opened from the file should retain less heap");
+        assertTrue(docxFile < docxStream, "A .docx opened from the file should retain less heap");
+    }
+    
+    private static long retained(Opener opener) throws Exception {
+        long before = usedHeap();
+        Closeable document = opener.open();
+        long bytes = usedHeap() - before;
+        // Keep the document reachable until it has been measured
+        document.close();
+        return bytes;
+    }
+    
+    private static void report(File file, long streamBytes, long fileBytes) {
+        System.out.println(file.getName() + " (" + file.length() / 1024 + " KB on disk)");
+        System.out.println("  InputStream : " + streamBytes / (1024 * 1024) + " MB");
+        System.out.println("  File        : " + fileBytes / (1024 * 1024) + " MB");
+    }
+    
+    private static void time(FileParser parser, File file) throws IOException {
+        long start = System.nanoTime();
+        ParsedDocument fromStream;
+        try (InputStream in = new FileInputStream(file)) {
+            fromStream = parser.parse(in, file.getName());
+        }
+        long streamMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        start = System.nanoTime();
+        ParsedDocument fromFile = parser.parse(file);
+        long fileMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println(file.getName() + ": InputStream " + streamMillis + " ms, File " + fileMillis + " ms");
+        assertEquals(fromStream.getContent(), fromFile.getContent());
+    }
+    
+    private static File writeWorkbook(Path path, Workbook workbook) throws IOException {
+        Random random = new Random(1);
+        // Closing a streaming workbook also deletes its temporary files
+        try (Workbook wb = workbook; OutputStream out = Files.newOutputStream(path)) {
+            Sheet sheet = wb.createSheet("Data");
+            for (int r = 0; r < Math.min(ROWS, 65_536); r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(r);
+                row.createCell(1).setCellValue("customer " + random.nextInt(100_000));
+                row.createCell(2).setCellValue(random.nextDouble() * 1000);
+                row.createCell(3).setCellValue("note " + random.nextInt(1_000_000));
+            }
+            wb.write(out);
+        }
+        return path.toFile();
+    }
+    
+    /**
+     * A short document with 20 incompressible 1 MB pictures
+     */
+    private static File writeDocument(Path path) throws Exception {
+        Random random = new Random(1);
+        byte[] picture = new byte[1024 * 1024];
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(path)) {
+            for (int i = 0; i < 20; i++) {
+                XWPFRun run = document.createParagraph().createRun();
+                run.setText("Figure " + (i + 1));
+                random.nextBytes(picture);
+                run.addPicture(new ByteArrayInputStream(picture), Document.PICTURE_TYPE_PNG, "figure" + i + ".png", 100, 100);
+            }
+            document.write(out);
+        }
+        return path.toFile();
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.PageContent;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.PdfFixture;
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap retained by a parsed PDF whose document content and page structure are built on
+ * request, versus the same document with every copy held as before: the joined content and
+ * markdown and the headings, paragraphs and lists of each page. The number of pages defaults
+ * to 400 and can be changed with {@code -Dbenchmark.lazy.pages=<count>}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class LazyContentBenchmark {
+    
+    private static final int PAGES = Integer.getInteger("benchmark.lazy.pages", 400);
+    
+    @Test
+    public void benchmarkRetainedHeap(@TempDir Path tempDir) throws IOException {
+        File pdf = writePdf(tempDir.resolve("text.pdf").toFile());
+        PdfFileParser parser = new PdfFileParser();
+        
+        // Warm up so that caches filled by the first parse are part of the baseline
+        parser.parse(pdf);
+        long baseline = usedHeap();
+        
+        ParsedDocument doc = parser.parse(pdf);
+        long lazyBytes = usedHeap() - baseline;
+        
+        // Hold every copy, as the parsers did before
+        doc.setContent(doc.getContent());
+        doc.setMarkdownContent(doc.getMarkdownContent());
+        for (PageContent page : doc.getPages()) {
+            page.getHeadings();
+        }
+        long eagerBytes = usedHeap() - baseline;
+        
+        System.out.println("\n=== Retained heap of a " + PAGES + "-page PDF ===");
+        System.out.println(String.format("Built on request : %,d KB", lazyBytes / 1024));
+        System.out.println(String.format("All copies held  : %,d KB (%.1fx)", eagerBytes / 1024,
+            (double) eagerBytes / Math.max(1, lazyBytes)));
+        
+        assertEquals(PAGES, doc.getPages().size());
+        assertTrue(lazyBytes * 2 < eagerBytes, "Building on request should retain well under half the heap");
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Collect until the figure settles
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+    
+    private static File writePdf(File file) throws IOException {
+        return PdfFixture.pages(PAGES).fontSize(10).text(LazyContentBenchmark::pageText).write(file);
+    }
+    
+    private static String pageText(int page) {
+        StringBuilder text = new StringBuilder("SECTION ").append(page);
+        for (int line = 0; line < 55; line++) {
+            text.append('\n').append(line % 9 == 0 ? "- " : "").append("Line ").append(line).append(" of page ")
+                .append(page).append(" with enough text to be taken as a paragraph");
+        }
+        return text.toString();
+    }
+}
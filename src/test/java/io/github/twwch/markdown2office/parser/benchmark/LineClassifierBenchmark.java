@@ -0,0 +1,122 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.util.LineClassifier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the line classifier with the previous PDF page heuristics, which split every page
+ * twice (once for the markdown, once for the page structure) and ran several uncompiled
+ * regular expressions per line. The number of pages defaults to 5,000 and can be changed with
+ * {@code -Dbenchmark.lines.pages=<count>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class LineClassifierBenchmark {
+    
+    @Test
+    public void benchmarkClassifyOnceVersusRegexTwice() {
+        int pageCount = Integer.getInteger("benchmark.lines.pages", 5000);
+        List<String> pages = generatePages(pageCount);
+        
+        // Warm up both paths
+        for (int i = 0; i < 3; i++) {
+            for (String page : pages.subList(0, Math.min(200, pages.size()))) {
+                LineClassifier.classify(page);
+                legacyClassify(page);
+            }
+        }
+        
+        long start = System.nanoTime();
+        long classified = 0;
+        for (String page : pages) {
+            classified += LineClassifier.classify(page).size();
+        }
+        long classifierMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        start = System.nanoTime();
+        long legacyClassified = 0;
+        for (String page : pages) {
+            // The markdown and the page structure each classified the page separately
+            legacyClassified += legacyClassify(page).size();
+            legacyClassify(page);
+        }
+        long legacyMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println("\n=== Line classification of " + pageCount + " pages (" + classified + " lines) ===");
+        System.out.println("Classify once    : " + classifierMillis + " ms");
+        System.out.println("Regex twice      : " + legacyMillis + " ms");
+        
+        for (String page : pages.subList(0, Math.min(500, pages.size()))) {
+            List<LineClassifier.Line> lines = LineClassifier.classify(page);
+            List<LineClassifier.Type> expected = legacyClassify(page);
+            assertEquals(expected.size(), lines.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), lines.get(i).getType());
+            }
+        }
+        assertEquals(legacyClassified, classified);
+        assertTrue(classifierMillis < legacyMillis, "Classifying once should be faster than the regular expressions");
+    }
+    
+    private static List<String> generatePages(int count) {
+        String[] words = {"report", "market", "growth", "quarter", "revenue", "customer", "product", "review"};
+        Random random = new Random(42);
+        List<String> pages = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            StringBuilder page = new StringBuilder();
+            page.append("SECTION ").append(p + 1).append(" OVERVIEW\n\n");
+            for (int l = 0; l < 45; l++) {
+                int kind = random.nextInt(10);
+                if (kind == 0) {
+                    page.append("• ");
+                } else if (kind == 1) {
+                    page.append(l).append(". ");
+                }
+                int length = 6 + random.nextInt(10);
+                for (int w = 0; w < length; w++) {
+                    page.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                page.append(random.nextInt(3) == 0 ? "$" + random.nextInt(1000) : "in 2024").append('\n');
+                if (random.nextInt(12) == 0) {
+                    page.append('\n');
+                }
+            }
+            pages.add(page.toString());
+        }
+        return pages;
+    }
+    
+    private static List<LineClassifier.Type> legacyClassify(String text) {
+        String[] lines = text.split("\n");
+        List<LineClassifier.Type> types = new ArrayList<>(lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty()) {
+                types.add(LineClassifier.Type.BLANK);
+            } else if (legacyIsHeading(line, i, lines)) {
+                types.add(LineClassifier.Type.HEADING);
+            } else if (line.matches("^[•\\*\\-\\+]\\s+.*") || line.matches("^\\s*[•\\*\\-\\+]\\s+.*") ||
+                       line.matches("^\\s*[→►▪▫◦‣⁃]\\s+.*")) {
+                types.add(LineClassifier.Type.BULLET);
+            } else if (line.matches("^\\d+[.)]\\s+.*") || line.matches("^\\s*\\d+[.)]\\s+.*") ||
+                       line.matches("^[a-zA-Z][.)]\\s+.*")) {
+                types.add(LineClassifier.Type.NUMBERED);
+            } else {
+                types.add(LineClassifier.Type.TEXT);
+            }
+        }
+        return types;
+    }
+    
+    private static boolean legacyIsHeading(String line, int lineIndex, String[] allLines) {
+        return (line.length() < 80 && line.equals(line.toUpperCase()) &&
+               !line.matches(".*\\d{4}.*") && !line.matches(".*\\$\\d+.*") && line.length() > 3) ||
+               (line.length() < 60 && lineIndex + 1 < allLines.length && allLines[lineIndex + 1].trim().isEmpty());
+    }
+}
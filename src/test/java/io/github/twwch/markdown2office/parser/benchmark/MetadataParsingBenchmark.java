@@ -0,0 +1,103 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.PdfFixture;
+import io.github.twwch.markdown2office.parser.impl.ExcelFileParser;
+import io.github.twwch.markdown2office.parser.impl.PdfFileParser;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time of a metadata-only parse versus a full parse of a text-heavy PDF and a large
+ * .xlsx. PDF pages default to 500 and spreadsheet rows to 100,000; change them with
+ * {@code -Dbenchmark.metadata.pages=<pages>} and {@code -Dbenchmark.metadata.rows=<rows>}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class MetadataParsingBenchmark {
+    
+    private static final int PAGES = Integer.getInteger("benchmark.metadata.pages", 500);
+    private static final int ROWS = Integer.getInteger("benchmark.metadata.rows", 100_000);
+    
+    @Test
+    public void benchmarkMetadataOnlyVersusFullParse(@TempDir Path tempDir) throws IOException {
+        File pdf = writePdf(tempDir.resolve("large.pdf").toFile());
+        File xlsx = writeWorkbook(tempDir.resolve("large.xlsx"));
+        
+        System.out.println("\n=== Metadata only vs full parse ===");
+        long[] pdfTimes = time(new PdfFileParser(), pdf);
+        long[] xlsxTimes = time(new ExcelFileParser(), xlsx);
+        
+        assertTrue(pdfTimes[0] * 10 < pdfTimes[1], "PDF metadata should take a fraction of a full parse");
+        assertTrue(xlsxTimes[0] * 10 < xlsxTimes[1], "Workbook metadata should take a fraction of a full parse");
+    }
+    
+    /**
+     * @return the metadata-only and the full parse time in microseconds
+     */
+    private static long[] time(FileParser parser, File file) throws IOException {
+        // Warm up the metadata path; the full parse is long enough to need none
+        for (int i = 0; i < 5; i++) {
+            parser.parseMetadata(file);
+        }
+        
+        long start = System.nanoTime();
+        DocumentMetadata metadata = parser.parseMetadata(file);
+        long metadataMicros = (System.nanoTime() - start) / 1_000;
+        
+        start = System.nanoTime();
+        ParsedDocument full = parser.parse(file);
+        long fullMicros = (System.nanoTime() - start) / 1_000;
+        
+        System.out.println(String.format("%-10s (%,d KB): metadata %,d us, full parse %,d us (%dx)",
+            file.getName(), file.length() / 1024, metadataMicros, fullMicros,
+            fullMicros / Math.max(1, metadataMicros)));
+        
+        assertEquals(full.getDocumentMetadata().getTitle(), metadata.getTitle());
+        assertEquals(full.getDocumentMetadata().getTotalPages(), metadata.getTotalPages());
+        return new long[] {metadataMicros, fullMicros};
+    }
+    
+    private static File writePdf(File file) throws IOException {
+        return PdfFixture.pages(PAGES).title("Benchmark Report").fontSize(10).text(page -> {
+            StringBuilder text = new StringBuilder();
+            for (int line = 0; line < 55; line++) {
+                text.append("Page ").append(page).append(" line ").append(line)
+                    .append(" of the metadata benchmark report text\n");
+            }
+            return text.toString();
+        }).write(file);
+    }
+    
+    private static File writeWorkbook(Path path) throws IOException {
+        // Closing a streaming workbook also deletes its temporary files
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(path)) {
+            workbook.getXSSFWorkbook().getProperties().getCoreProperties().setTitle("Benchmark Workbook");
+            for (int s = 1; s <= 3; s++) {
+                Sheet sheet = workbook.createSheet("Sheet " + s);
+                for (int r = 0; r < ROWS / 3; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("Item " + r);
+                    row.createCell(1).setCellValue(r * 1.5);
+                    row.createCell(2).setCellValue("Category " + (r % 17));
+                }
+            }
+            workbook.write(out);
+        }
+        return path.toFile();
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cold-start cost of the parser registry, measured in fresh JVMs.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ParserStartupBenchmark {
+    
+    private static final int RUNS = 5;
+    
+    @Test
+    public void benchmarkLazyVersusEagerStartup() throws Exception {
+        long[] lazy = measure("lazy");
+        long[] eager = measure("eager");
+        
+        System.out.println("\n=== Parser registry cold start (median of " + RUNS + " JVMs) ===");
+        System.out.println("Lazy registry : " + lazy[0] + " ms, " + lazy[1] + " classes loaded");
+        System.out.println("Eager parsers : " + eager[0] + " ms, " + eager[1] + " classes loaded");
+        
+        assertTrue(lazy[1] < eager[1], "Lazy registry should load fewer classes");
+    }
+    
+    private long[] measure(String mode) throws IOException, InterruptedException {
+        List<Long> millis = new ArrayList<>();
+        List<Long> classes = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ParserStartupProbe.class.getName(), mode)
+                .redirectErrorStream(true)
+                .start();
+            String last = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    last = line;
+                }
+            }
+            assertEquals(0, process.waitFor(), "Probe failed: " + last);
+            String[] parts = last.trim().split(" ");
+            millis.add(Long.parseLong(parts[0]));
+            classes.add(Long.parseLong(parts[1]));
+        }
+        Collections.sort(millis);
+        Collections.sort(classes);
+        return new long[] {millis.get(RUNS / 2), classes.get(RUNS / 2)};
+    }
+}
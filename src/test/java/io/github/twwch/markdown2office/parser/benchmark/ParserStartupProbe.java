@@ -0,0 +1,43 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.FileParser;
+import io.github.twwch.markdown2office.parser.FileParserFactory;
+import io.github.twwch.markdown2office.parser.impl.*;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs in a fresh JVM and reports how long it takes to parse one small CSV,
+ * either through the lazy registry or after eagerly creating every parser
+ * the way the old static initialiser did.
+ * Output: {@code <elapsed millis> <loaded class count>}
+ */
+public class ParserStartupProbe {
+    
+    public static void main(String[] args) throws Exception {
+        boolean eager = args.length > 0 && "eager".equals(args[0]);
+        byte[] csv = "a,b,c\n1,2,3\n".getBytes(StandardCharsets.UTF_8);
+        
+        long start = System.nanoTime();
+        FileParser parser;
+        if (eager) {
+            new PdfFileParser();
+            new WordFileParser();
+            new ExcelFileParser();
+            new PowerPointFileParser();
+            parser = new CsvFileParser();
+            new MarkdownFileParser();
+            new TextFileParser();
+            new TikaFileParser();
+        } else {
+            parser = FileParserFactory.getParser("data.csv");
+        }
+        parser.parse(new ByteArrayInputStream(csv), "data.csv");
+        long elapsed = System.nanoTime() - start;
+        
+        System.out.println((elapsed / 1_000_000) + " " +
+            ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.twwch.markdown2office.parser.benchmark;
+
+import io.github.twwch.markdown2office.parser.util.TextStatistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the single-pass text statistics with the previous counting, where a page was
+ * split on whitespace when its text was set and then cleaned with replaceAll and split again
+ * for the document totals. The number of pages defaults to 5,000 and can be changed with
+ * {@code -Dbenchmark.statistics.pages=<count>}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class TextStatisticsBenchmark {
+    
+    // Keeps the page counts of the legacy path from being optimised away
+    private static long pageCounts;
+    
+    @Test
+    public void benchmarkSinglePassVersusSplit() {
+        int pageCount = Integer.getInteger("benchmark.statistics.pages", 5000);
+        List<String> pages = generatePages(pageCount);
+        
+        // Warm up both paths
+        for (int i = 0; i < 3; i++) {
+            for (String page : pages.subList(0, Math.min(200, pages.size()))) {
+                TextStatistics.of(page);
+                legacyCount(page);
+            }
+        }
+        
+        long start = System.nanoTime();
+        TextStatistics totals = TextStatistics.EMPTY;
+        for (String page : pages) {
+            totals = totals.plus(TextStatistics.of(page));
+        }
+        long singlePassMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        start = System.nanoTime();
+        long legacyWords = 0;
+        for (String page : pages) {
+            legacyWords += legacyCount(page);
+        }
+        long legacyMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println("\n=== Text statistics of " + pageCount + " pages (" + totals.getWords() + " words) ===");
+        System.out.println("Single pass      : " + singlePassMillis + " ms (words, characters, lines, paragraphs)");
+        System.out.println("Split twice      : " + legacyMillis + " ms (words and characters only)");
+        
+        // The generated text has no stray punctuation, so both count the same words
+        assertEquals(legacyWords, totals.getWords());
+        assertTrue(singlePassMillis < legacyMillis, "One pass should be faster than splitting twice");
+    }
+    
+    private static List<String> generatePages(int count) {
+        String[] words = {"report", "market", "growth", "quarter", "revenue", "customer", "product", "2024"};
+        Random random = new Random(7);
+        List<String> pages = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            StringBuilder page = new StringBuilder();
+            for (int l = 0; l < 45; l++) {
+                int length = 6 + random.nextInt(10);
+                for (int w = 0; w < length; w++) {
+                    page.append(words[random.nextInt(words.length)]).append(random.nextInt(8) == 0 ? "\t" : " ");
+                }
+                page.append('\n');
+                if (random.nextInt(6) == 0) {
+                    page.append('\n');
+                }
+            }
+            pages.add(page.toString());
+        }
+        return pages;
+    }
+    
+    /**
+     * @return the word count of the cleaned text, as used for the document totals
+     */
+    private static int legacyCount(String text) {
+        // Counted when the page text was set
+        pageCounts += text.split("\\s+").length + text.length();
+        // Counted again for the totals
+        String cleanText = text.replaceAll("\\s+", " ").trim();
+        return cleanText.isEmpty() ? 0 : cleanText.split("\\s+").length;
+    }
+}
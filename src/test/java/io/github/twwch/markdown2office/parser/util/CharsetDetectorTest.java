@@ -0,0 +1,115 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import io.github.twwch.markdown2office.parser.ParsedDocument;
+import io.github.twwch.markdown2office.parser.impl.MarkdownFileParser;
+import io.github.twwch.markdown2office.parser.impl.TextFileParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the single-pass charset detector
+ */
+public class CharsetDetectorTest {
+    
+    private static final String SIMPLIFIED = "姓名,年龄,城市\n张三,25,北京\n李四,30,上海\n王五,28,广州\n";
+    private static final String TRADITIONAL = "姓名,年齡,城市\n張三,25,臺北\n李四,30,高雄\n王五,28,臺中\n";
+    
+    @Test
+    void testUtf8AndAscii() {
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect(SIMPLIFIED.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect("name,age\nAlice,30\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect(new byte[0]));
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect((byte[]) null));
+    }
+    
+    @Test
+    void testChineseEncodings() {
+        assertEquals(CharsetDetector.GBK, CharsetDetector.detect(SIMPLIFIED.getBytes(CharsetDetector.GBK)));
+        assertEquals(CharsetDetector.BIG5, CharsetDetector.detect(TRADITIONAL.getBytes(CharsetDetector.BIG5)));
+        
+        // Characters outside GBK are encoded as four-byte GB18030 sequences
+        String extended = SIMPLIFIED + "𠀀,€\n";
+        Charset detected = CharsetDetector.detect(extended.getBytes(CharsetDetector.GB18030));
+        assertEquals(CharsetDetector.GB18030, detected);
+        assertEquals(extended, new String(extended.getBytes(CharsetDetector.GB18030), detected));
+    }
+    
+    @Test
+    void testWesternEncoding() {
+        byte[] bytes = "name,city\nJosé,Málaga\nRenée,Zürich\n".getBytes(CharsetDetector.WINDOWS_1252);
+        assertEquals(CharsetDetector.WINDOWS_1252, CharsetDetector.detect(bytes));
+    }
+    
+    @Test
+    void testLatin1IsNotTakenForChinese() {
+        // The accented letters also form valid GBK and Big5 pairs
+        String[] samples = {
+            "São Paulo ação", "Ação, coração e São João\n", "Größe,Übergröße\nStraße,Köln\n",
+            "résumé naïve façade déjà vu\n", "cañón,año\n"
+        };
+        for (String sample : samples) {
+            assertEquals(CharsetDetector.WINDOWS_1252, CharsetDetector.detect(sample.getBytes(StandardCharsets.ISO_8859_1)),
+                "Text: " + sample);
+        }
+        
+        // A single pair, or a stray byte in a long ASCII text, is not enough for Chinese
+        assertEquals(CharsetDetector.WINDOWS_1252, CharsetDetector.detect(new byte[] {'1', ',', (byte) 0xD5, (byte) 0xC5}));
+        StringBuilder ascii = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            ascii.append("row ").append(i).append(",value\n");
+        }
+        byte[] stray = (ascii + "\u00E9\u00E9\n" + ascii + "\u00E0\u00E0\n").getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(CharsetDetector.WINDOWS_1252, CharsetDetector.detect(stray));
+        
+        // Chinese mixed with English words is still Chinese
+        String mixed = "使用Java和POI开发,版本2.0\n";
+        assertEquals(CharsetDetector.GBK, CharsetDetector.detect(mixed.getBytes(CharsetDetector.GBK)));
+    }
+    
+    @Test
+    void testByteOrderMarks() {
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a'}));
+        assertEquals(StandardCharsets.UTF_16BE, CharsetDetector.detect(new byte[] {(byte) 0xFE, (byte) 0xFF, 0, 'a'}));
+        assertEquals(StandardCharsets.UTF_16LE, CharsetDetector.detect(new byte[] {(byte) 0xFF, (byte) 0xFE, 'a', 0}));
+    }
+    
+    @Test
+    void testTruncatedPrefixStaysUtf8() {
+        byte[] bytes = SIMPLIFIED.getBytes(StandardCharsets.UTF_8);
+        // Cut inside the last multi-byte character
+        byte[] prefix = Arrays.copyOf(bytes, bytes.length - 2);
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect(prefix));
+        assertEquals(StandardCharsets.UTF_8, CharsetDetector.detect(bytes, 0, bytes.length - 2));
+    }
+    
+    @Test
+    void testStreamIsNotConsumed() throws IOException {
+        byte[] bytes = SIMPLIFIED.getBytes(CharsetDetector.GBK);
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes));
+        assertEquals(CharsetDetector.GBK, CharsetDetector.detect(in));
+        assertArrayEquals(bytes, in.readAllBytes());
+    }
+    
+    @Test
+    void testTextAndMarkdownParsersDecodeGbk() throws IOException {
+        ParsedDocument text = new TextFileParser().parse(
+            new ByteArrayInputStream(SIMPLIFIED.getBytes(CharsetDetector.GBK)), "people.txt");
+        System.out.println("Text content: " + text.getContent());
+        assertTrue(text.getContent().contains("张三"));
+        
+        String markdown = "# 员工名单\n\n- 张三\n- 李四\n";
+        ParsedDocument md = new MarkdownFileParser().parse(
+            new ByteArrayInputStream(markdown.getBytes(CharsetDetector.GBK)), "people.md");
+        System.out.println("Markdown content: " + md.getMarkdownContent());
+        assertTrue(md.getMarkdownContent().contains("员工名单"));
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the line classifier, checked against the regular expressions it replaces
+ */
+public class LineClassifierTest {
+    
+    private static final String[] LINES = {
+        "", "   ", "INTRODUCTION", "ABC", "ABCD", "REPORT 2024", "PRICE $100", "PRICE $ 100", "US$",
+        "• First item", "•First item", "* starred", "- dashed", "+ plus", "-5 degrees", "→ arrow",
+        "► pointer", "◦\titem", "1. One", "12) Twelve", "1.5 million", "a. Letter", "B) Letter", "ab. No",
+        "3. split", "- item\u0085more", "Plain text line that is long enough", "Title\r", "ÉTUDE",
+        "straße", "第一章 总论", "一、引言", "1、内容", "(一) 项目", "（1）项目", "①标题", "研究背景",
+        "这是一个很长的句子用来测试结尾是否为背景的长度限制条件是否生效背景"
+    };
+    
+    @Test
+    void testClassificationMatchesRegularExpressions() {
+        StringBuilder text = new StringBuilder();
+        for (String line : LINES) {
+            text.append(line).append('\n');
+            text.append(line).append("\n\n");
+        }
+        String page = text.toString();
+        
+        List<LineClassifier.Line> lines = LineClassifier.classify(page);
+        String[] expected = page.split("\n");
+        assertEquals(expected.length, lines.size());
+        for (int i = 0; i < expected.length; i++) {
+            String line = expected[i].trim();
+            LineClassifier.Line actual = lines.get(i);
+            assertEquals(line, actual.getText());
+            assertEquals(legacyType(line, i, expected), actual.getType(), "Line: " + line);
+            if (actual.getType() == LineClassifier.Type.HEADING) {
+                int level = line.length() < 30 && line.equals(line.toUpperCase()) ? 2 : 3;
+                assertEquals(level, actual.getHeadingLevel(), "Line: " + line);
+            }
+            if (actual.getType() == LineClassifier.Type.BULLET) {
+                assertEquals(legacyCleanBullet(line), actual.getItemText(), "Line: " + line);
+            }
+        }
+    }
+    
+    @Test
+    void testSplittingMatchesStringSplit() {
+        for (String text : new String[] {"", "\n", "\n\n", "a", "a\n", "a\n\n", "\na", "a\n \n", " \n\nb\n", "a\r\nb\r\n"}) {
+            String[] expected = text.split("\n");
+            List<LineClassifier.Line> lines = LineClassifier.classify(text);
+            assertEquals(expected.length, lines.size(), "Text: " + text.replace("\n", "\\n"));
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].trim(), lines.get(i).getText());
+            }
+        }
+        assertTrue(LineClassifier.classify(null).isEmpty());
+    }
+    
+    @Test
+    void testPredicatesMatchRegularExpressions() {
+        for (String line : LINES) {
+            assertEquals(line.equals(line.toUpperCase()), LineClassifier.isUpperCase(line), "Line: " + line);
+            assertEquals(line.matches(".*[A-Z].*"), LineClassifier.hasCapitalLetter(line), "Line: " + line);
+        }
+        
+        assertTrue(LineClassifier.isChineseHeading("第一章 总论"));
+        assertTrue(LineClassifier.isChineseHeading("（1）项目"));
+        assertTrue(LineClassifier.isChineseHeading("研究背景"));
+        assertFalse(LineClassifier.isChineseHeading("这是一个很长的句子用来测试结尾是否为背景的长度限制条件是否生效背景"));
+        assertFalse(LineClassifier.isChineseHeading(""));
+        assertFalse(LineClassifier.isChineseHeading(null));
+        
+        assertEquals(1, LineClassifier.chineseHeadingLevel("第三节"));
+        assertEquals(2, LineClassifier.chineseHeadingLevel("二、"));
+        assertEquals(3, LineClassifier.chineseHeadingLevel("12."));
+        assertEquals(0, LineClassifier.chineseHeadingLevel("第三节 内容"));
+    }
+    
+    private static LineClassifier.Type legacyType(String line, int index, String[] lines) {
+        if (line.isEmpty()) {
+            return LineClassifier.Type.BLANK;
+        }
+        boolean heading = (line.length() < 80 && line.equals(line.toUpperCase()) &&
+            !line.matches(".*\\d{4}.*") && !line.matches(".*\\$\\d+.*") && line.length() > 3) ||
+            (line.length() < 60 && index + 1 < lines.length && lines[index + 1].trim().isEmpty());
+        if (heading) {
+            return LineClassifier.Type.HEADING;
+        }
+        if (line.matches("^[•\\*\\-\\+]\\s+.*") || line.matches("^\\s*[•\\*\\-\\+]\\s+.*") ||
+            line.matches("^\\s*[→►▪▫◦‣⁃]\\s+.*")) {
+            return LineClassifier.Type.BULLET;
+        }
+        if (line.matches("^\\d+[.)]\\s+.*") || line.matches("^\\s*\\d+[.)]\\s+.*") ||
+            line.matches("^[a-zA-Z][.)]\\s+.*")) {
+            return LineClassifier.Type.NUMBERED;
+        }
+        return LineClassifier.Type.TEXT;
+    }
+    
+    private static String legacyCleanBullet(String line) {
+        return line.replaceFirst("^[•\\*\\-\\+→►▪▫◦‣⁃]\\s*", "")
+                   .replaceFirst("^\\s*[•\\*\\-\\+→►▪▫◦‣⁃]\\s*", "");
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import io.github.twwch.markdown2office.parser.ParseOptions.SamplingStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the row limit sampler
+ */
+public class RowSamplerTest {
+    
+    @Test
+    void testHeadStopsAfterLimit() {
+        RowSampler<Integer> sampler = new RowSampler<>(3, SamplingStrategy.HEAD);
+        List<Integer> kept = new ArrayList<>();
+        int offered = 0;
+        for (int i = 0; i < 100 && !sampler.isComplete(); i++) {
+            offered++;
+            if (sampler.offer(i)) {
+                kept.add(i);
+            }
+        }
+        kept.addAll(sampler.remaining());
+        
+        assertEquals(Arrays.asList(0, 1, 2), kept);
+        assertEquals(4, offered, "Reading stops after the first row beyond the limit");
+        assertTrue(sampler.isTruncated());
+        assertEquals(-1, sampler.getTotalRows());
+    }
+    
+    @Test
+    void testHeadTailKeepsBothEnds() {
+        assertEquals(Arrays.asList(0, 1, 2, 97, 98, 99), sample(6, SamplingStrategy.HEAD_TAIL, 100));
+        assertEquals(Arrays.asList(0, 1, 2, 98, 99), sample(5, SamplingStrategy.HEAD_TAIL, 100));
+        
+        // Under the limit every row is kept in order
+        RowSampler<Integer> sampler = new RowSampler<>(6, SamplingStrategy.HEAD_TAIL);
+        assertEquals(Arrays.asList(0, 1, 2, 3), drain(sampler, 4));
+        assertFalse(sampler.isTruncated());
+        assertEquals(4, sampler.getTotalRows());
+    }
+    
+    @Test
+    void testReservoirIsOrderedAndRepeatable() {
+        List<Integer> sample = sample(50, SamplingStrategy.RESERVOIR, 10_000);
+        System.out.println("Reservoir sample: " + sample);
+        
+        assertEquals(50, sample.size());
+        for (int i = 1; i < sample.size(); i++) {
+            assertTrue(sample.get(i - 1) < sample.get(i), "Rows keep their source order");
+        }
+        assertEquals(sample, sample(50, SamplingStrategy.RESERVOIR, 10_000));
+        // A uniform sample reaches well into the second half of the rows
+        assertTrue(sample.get(sample.size() - 1) > 5_000);
+        assertTrue(sample.get(0) < 5_000);
+        
+        RowSampler<Integer> sampler = new RowSampler<>(50, SamplingStrategy.RESERVOIR);
+        drain(sampler, 10_000);
+        assertTrue(sampler.isTruncated());
+        assertEquals(10_000, sampler.getTotalRows());
+    }
+    
+    @Test
+    void testZeroLimitKeepsNothing() {
+        for (SamplingStrategy strategy : SamplingStrategy.values()) {
+            assertTrue(sample(0, strategy, 10).isEmpty(), strategy.name());
+        }
+    }
+    
+    private static List<Integer> sample(int limit, SamplingStrategy strategy, int rows) {
+        return drain(new RowSampler<>(limit, strategy), rows);
+    }
+    
+    private static List<Integer> drain(RowSampler<Integer> sampler, int rows) {
+        List<Integer> kept = new ArrayList<>();
+        for (int i = 0; i < rows && !sampler.isComplete(); i++) {
+            if (sampler.offer(i)) {
+                kept.add(i);
+            }
+        }
+        kept.addAll(sampler.remaining());
+        return kept;
+    }
+}
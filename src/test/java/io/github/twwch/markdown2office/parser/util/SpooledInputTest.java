@@ -0,0 +1,61 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for spooling streams to memory or temp files
+ */
+public class SpooledInputTest {
+    
+    private static final byte[] CONTENT = "name,score\nAlice,90\n".getBytes(StandardCharsets.UTF_8);
+    
+    @Test
+    void testSmallInputStaysInMemory() throws IOException {
+        try (SpooledInput spooled = SpooledInput.spool(new ByteArrayInputStream(CONTENT), "scores.csv", CONTENT.length)) {
+            assertTrue(spooled.isInMemory());
+            assertNull(spooled.getFile());
+            assertEquals(CONTENT.length, spooled.length());
+            assertArrayEquals(CONTENT, readAll(spooled));
+        }
+    }
+    
+    @Test
+    void testLargeInputIsSpooledAndDeleted() throws IOException {
+        File file;
+        try (SpooledInput spooled = SpooledInput.spool(new ByteArrayInputStream(CONTENT), "scores.csv", CONTENT.length - 1)) {
+            assertFalse(spooled.isInMemory());
+            file = spooled.getFile();
+            System.out.println("Spooled to " + file);
+            assertEquals("scores.csv", file.getName());
+            assertEquals(CONTENT.length, spooled.length());
+            assertArrayEquals(CONTENT, readAll(spooled));
+        }
+        assertFalse(file.exists());
+        assertFalse(file.getParentFile().exists());
+    }
+    
+    @Test
+    void testFileNameCannotLeaveTempDirectory() throws IOException {
+        for (String name : new String[] {"../../etc/scores.csv", "C:\\uploads\\scores.csv", "..", ""}) {
+            try (SpooledInput spooled = SpooledInput.spool(new ByteArrayInputStream(CONTENT), name, 0)) {
+                File file = spooled.getFile();
+                assertTrue(file.getName().equals("scores.csv") || file.getName().equals("input"), name);
+                assertTrue(file.getParentFile().getName().startsWith("markdown2office-"), name);
+            }
+        }
+    }
+    
+    private static byte[] readAll(SpooledInput spooled) throws IOException {
+        try (InputStream in = spooled.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.twwch.markdown2office.parser.util;
+
+import io.github.twwch.markdown2office.parser.DocumentMetadata;
+import io.github.twwch.markdown2office.parser.PageContent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the single-pass text statistics
+ */
+public class TextStatisticsTest {
+    
+    @Test
+    void testLatinText() {
+        TextStatistics stats = TextStatistics.of("  The quick brown fox,\tjumps over 2 dogs.  \n");
+        assertEquals(8, stats.getWords());
+        assertEquals(44, stats.getCharacters());
+        assertEquals(32, stats.getCharactersWithoutSpaces());
+        assertEquals(1, stats.getLines());
+        assertEquals(1, stats.getParagraphs());
+        
+        // Punctuation on its own is not a word, punctuation inside a word does not split it
+        assertEquals(3, TextStatistics.of("• item - e.g. 3.14 —").getWords());
+        assertEquals(2, TextStatistics.of("don't stop").getWords());
+    }
+    
+    @Test
+    void testCjkText() {
+        // Every ideograph is a word; CJK punctuation separates
+        assertEquals(4, TextStatistics.of("你好世界").getWords());
+        assertEquals(6, TextStatistics.of("你好，世界。“再见”").getWords());
+        assertEquals(5, TextStatistics.of("使用Java和POI").getWords());
+        assertEquals(2, TextStatistics.of("abc、def").getWords());
+        assertEquals(5, TextStatistics.of("ひらがな・カ").getWords());
+        assertEquals(3, TextStatistics.of("한국어 텍스트 예").getWords());
+        
+        TextStatistics stats = TextStatistics.of("你好　世界");
+        assertEquals(5, stats.getCharacters());
+        assertEquals(4, stats.getCharactersWithoutSpaces());
+        
+        // Characters outside the BMP count once
+        TextStatistics supplementary = TextStatistics.of("𠀀𠀁");
+        assertEquals(2, supplementary.getWords());
+        assertEquals(2, supplementary.getCharacters());
+    }
+    
+    @Test
+    void testLinesAndParagraphs() {
+        TextStatistics stats = TextStatistics.of("Title\n\nFirst line\nsecond line\n \n\nLast\n");
+        assertEquals(7, stats.getLines());
+        assertEquals(3, stats.getParagraphs());
+        
+        TextStatistics windows = TextStatistics.of("one\r\ntwo\r\n\r\nthree");
+        assertEquals(4, windows.getLines());
+        assertEquals(2, windows.getParagraphs());
+        assertEquals(3, windows.getWords());
+        
+        assertEquals(2, TextStatistics.of("a\rb").getLines());
+        assertEquals(1, TextStatistics.of("\n").getLines());
+        assertEquals(0, TextStatistics.of("\n").getParagraphs());
+    }
+    
+    @Test
+    void testEmptyAndCombined() {
+        assertSame(TextStatistics.EMPTY, TextStatistics.of(null));
+        assertSame(TextStatistics.EMPTY, TextStatistics.of(""));
+        assertEquals(0, TextStatistics.countWords(null));
+        assertEquals(0, TextStatistics.of("   \t ").getWords());
+        assertEquals(1, TextStatistics.of("   \t ").getLines());
+        
+        TextStatistics first = TextStatistics.of("alpha beta\n");
+        TextStatistics second = TextStatistics.of("gamma\n\ndelta\n");
+        TextStatistics sum = first.plus(second);
+        assertEquals(4, sum.getWords());
+        assertEquals(4, sum.getLines());
+        assertEquals(3, sum.getParagraphs());
+        assertEquals(first.getCharacters() + second.getCharacters(), sum.getCharacters());
+        assertSame(first, first.plus(TextStatistics.EMPTY));
+        assertSame(second, TextStatistics.EMPTY.plus(second));
+    }
+    
+    @Test
+    void testCountWordsMatchesFullStatistics() {
+        String[] samples = {
+            "", " ", "a", "a b", " a  b ", "a-b c_d", "--- ***", "你好，world！", "ｆｕｌｌ ｗｉｄｔｈ", "〇一二",
+            "tab\tseparated\tcells\n", "line\r\nbreaks\r\n", "数字123和456", "ーカタカナー"
+        };
+        for (String sample : samples) {
+            assertEquals(TextStatistics.of(sample).getWords(), TextStatistics.countWords(sample), "Text: " + sample);
+        }
+    }
+    
+    @Test
+    void testPageAndMetadataUseStatistics() {
+        PageContent page = new PageContent(1);
+        page.setRawText("First paragraph here.\n\n第二段落\n");
+        TextStatistics stats = page.getStatistics();
+        assertEquals(stats.getWords(), page.getWordCount());
+        assertEquals(stats.getCharacters(), page.getCharacterCount());
+        assertEquals(7, stats.getWords());
+        
+        DocumentMetadata metadata = new DocumentMetadata();
+        metadata.applyTextStatistics(stats);
+        assertEquals(7, metadata.getTotalWords());
+        assertEquals(stats.getCharactersWithoutSpaces(), metadata.getTotalCharacters());
+        assertEquals(stats.getCharacters(), metadata.getTotalCharactersWithSpaces());
+        assertEquals(3, metadata.getTotalLines());
+        assertEquals(2, metadata.getTotalParagraphs());
+    }
+}